@@ -0,0 +1,67 @@
+package com.hover.iot.engine.benchmark;
+
+import com.hover.iot.engine.implementation.RuleEngine;
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures firing a rule and dispatching its attribute write action: the cascade guard, the action coalescer, creating
+ * the action event and publishing it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ActionDispatchBenchmark {
+
+    /**
+     * The window within which identical commands are coalesced, in milliseconds, or zero to not coalesce them.
+     */
+    @Param({"0", "250"})
+    public long coalesceWindowMs;
+
+    /**
+     * The engine under test.
+     */
+    private RuleEngine ruleEngine;
+
+    /**
+     * The device whose updates fire the rule.
+     */
+    private Device device;
+
+    /**
+     * Registers a rule that writes an attribute of another device whenever the device changes.
+     *
+     * @param blackhole The blackhole the published events are consumed by.
+     */
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        ruleEngine = BenchmarkSupport.createEngine(blackhole::consume, coalesceWindowMs);
+
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        rule.setActions(List.of(RuleTestUtils.createTestAttributeWriteAction(2L,
+                new Attribute("power", true, AttributeType.BOOLEAN))));
+
+        ruleEngine.registerRule(rule);
+        device = DeviceTestUtils.createTestDevice(1L);
+    }
+
+    /**
+     * Evaluates an update that fires the rule and dispatches its action.
+     */
+    @Benchmark
+    public void fireAndDispatch() {
+        ruleEngine.evaluatePossibleTrigger(device);
+    }
+}
@@ -0,0 +1,72 @@
+package com.hover.iot.engine.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.hover.iot.engine.implementation.ActionCoalescer;
+import com.hover.iot.engine.implementation.CascadeGuard;
+import com.hover.iot.engine.implementation.RuleCompiler;
+import com.hover.iot.engine.implementation.RuleEngine;
+import com.hover.iot.engine.metrics.RuleEngineMetrics;
+import com.hover.iot.engine.scheduler.TriggerScheduler;
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared setup of the rule engine benchmarks.
+ */
+final class BenchmarkSupport {
+
+    /**
+     * Initializes a new instance of {@link BenchmarkSupport} class.
+     */
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates a rule engine outside the Spring context, with the cascade rate limit and action coalescing disabled
+     * unless a coalescing window is given. Logging is raised to WARN first, since logback defaults to DEBUG without a
+     * configuration and the engine's debug logging would dominate the measurements.
+     *
+     * @param eventPublisher   The publisher the engine's actions are dispatched to.
+     * @param coalesceWindowMs The window within which identical commands are coalesced, or zero to not coalesce them.
+     * @return The rule engine.
+     */
+    static @NotNull RuleEngine createEngine(@NotNull ApplicationEventPublisher eventPublisher, long coalesceWindowMs) {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        var clock = Clock.systemUTC();
+
+        return new RuleEngine(eventPublisher, new RuleCompiler(), new TriggerScheduler(clock, Runnable::run),
+                new CascadeGuard(CascadeGuard.DEFAULT_MAX_DEPTH, 0, clock), new ActionCoalescer(coalesceWindowMs, clock),
+                new RuleEngineMetrics(new SimpleMeterRegistry(), false));
+    }
+
+    /**
+     * Creates a device with a single attribute.
+     *
+     * @param id        The id of the device.
+     * @param attribute The name of the attribute.
+     * @param value     The value of the attribute.
+     * @param type      The type of the attribute.
+     * @return The device.
+     */
+    static @NotNull Device createDevice(Long id, String attribute, Object value, AttributeType type) {
+        var device = new Device();
+        List<Attribute> attributes = new ArrayList<>();
+
+        attributes.add(new Attribute(attribute, value, type));
+        device.setId(id);
+        device.setAttributes(attributes);
+
+        return device;
+    }
+}
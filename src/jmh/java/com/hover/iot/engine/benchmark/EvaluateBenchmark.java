@@ -0,0 +1,82 @@
+package com.hover.iot.engine.benchmark;
+
+import com.hover.iot.engine.implementation.RuleEngine;
+import com.hover.iot.entity.Device;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of evaluating a device update as the number of registered rules grows. With the device index the
+ * cost should stay flat regardless of the rule count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EvaluateBenchmark {
+
+    /**
+     * The number of rules registered per device.
+     */
+    private static final int RULES_PER_DEVICE = 2;
+
+    /**
+     * The number of registered rules.
+     */
+    @Param({"100", "10000", "100000"})
+    public int ruleCount;
+
+    /**
+     * The engine under test.
+     */
+    private RuleEngine ruleEngine;
+
+    /**
+     * A device referenced by registered rules.
+     */
+    private Device matchedDevice;
+
+    /**
+     * A device referenced by no registered rule.
+     */
+    private Device unmatchedDevice;
+
+    /**
+     * Registers the rules.
+     */
+    @Setup
+    public void setUp() {
+        ruleEngine = BenchmarkSupport.createEngine(event -> { }, 0);
+
+        var devices = ruleCount / RULES_PER_DEVICE;
+
+        for (long id = 0; id < ruleCount; id++) {
+            ruleEngine.registerRule(RuleTestUtils.createTestRule(id,
+                    RuleTestUtils.createTestAttributeChangeTrigger(id % devices)));
+        }
+
+        matchedDevice = DeviceTestUtils.createTestDevice(devices / 2L);
+        unmatchedDevice = DeviceTestUtils.createTestDevice(-1L);
+    }
+
+    /**
+     * Evaluates an update of a device whose rules all fire.
+     */
+    @Benchmark
+    public void evaluateMatchedDevice() {
+        ruleEngine.evaluatePossibleTrigger(matchedDevice);
+    }
+
+    /**
+     * Evaluates an update of a device that no rule references.
+     */
+    @Benchmark
+    public void evaluateUnmatchedDevice() {
+        ruleEngine.evaluatePossibleTrigger(unmatchedDevice);
+    }
+}
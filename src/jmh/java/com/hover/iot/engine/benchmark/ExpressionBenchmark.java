@@ -0,0 +1,81 @@
+package com.hover.iot.engine.benchmark;
+
+import com.hover.iot.engine.implementation.ExpressionCompiler;
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Measures the evaluation of a compiled condition expression against a hand-written condition of the same meaning.
+ * Run with {@code -prof gc} to check that evaluating a compiled expression does not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExpressionBenchmark {
+
+    /**
+     * The compiled expression.
+     */
+    private Predicate<Device> compiled;
+
+    /**
+     * The device the expression is evaluated against.
+     */
+    private Device device;
+
+    /**
+     * Compiles the expression and creates the device.
+     */
+    @Setup
+    public void setUp() {
+        compiled = ExpressionCompiler.compile("temperature - 2 > 24 && (humidity >= 60 || occupied)");
+        device = new Device();
+        device.setId(1L);
+        device.setAttributes(List.of(
+                new Attribute("temperature", 27f, AttributeType.FLOAT),
+                new Attribute("humidity", 55, AttributeType.INTEGER),
+                new Attribute("occupied", true, AttributeType.BOOLEAN)));
+    }
+
+    /**
+     * Evaluates the compiled expression.
+     *
+     * @return The result of the expression.
+     */
+    @Benchmark
+    public boolean evaluateCompiled() {
+        return compiled.test(device);
+    }
+
+    /**
+     * Evaluates the same condition written by hand, as a baseline.
+     *
+     * @return The result of the condition.
+     */
+    @Benchmark
+    public boolean evaluateHandWritten() {
+        float temperature = 0;
+        int humidity = 0;
+        boolean occupied = false;
+
+        for (var attribute : device.getAttributes()) {
+            switch (attribute.getName()) {
+                case "temperature" -> temperature = (Float) attribute.getValue();
+                case "humidity" -> humidity = (Integer) attribute.getValue();
+                case "occupied" -> occupied = (Boolean) attribute.getValue();
+                default -> { }
+            }
+        }
+
+        return temperature - 2 > 24 && (humidity >= 60 || occupied);
+    }
+}
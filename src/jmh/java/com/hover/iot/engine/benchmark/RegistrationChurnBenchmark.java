@@ -0,0 +1,98 @@
+package com.hover.iot.engine.benchmark;
+
+import com.hover.iot.engine.implementation.RuleEngine;
+import com.hover.iot.entity.Device;
+import com.hover.iot.entity.Rule;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rule registration and unregistration while other threads evaluate device updates, and the evaluation
+ * throughput while rules churn. Evaluators read the rule index without locking, so their throughput
+ * should hold up under churn.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RegistrationChurnBenchmark {
+
+    /**
+     * The number of rules registered for the whole run.
+     */
+    private static final int STABLE_RULES = 10_000;
+
+    /**
+     * The number of rules the churning thread registers and unregisters in turn.
+     */
+    private static final int CHURNING_RULES = 1_000;
+
+    /**
+     * The engine under test.
+     */
+    private RuleEngine ruleEngine;
+
+    /**
+     * The rules the churning thread registers and unregisters in turn.
+     */
+    private Rule[] churningRules;
+
+    /**
+     * The device the evaluating threads update.
+     */
+    private Device device;
+
+    /**
+     * The index of the next churning rule.
+     */
+    private int next;
+
+    /**
+     * Registers the stable rules.
+     */
+    @Setup
+    public void setUp() {
+        ruleEngine = BenchmarkSupport.createEngine(event -> { }, 0);
+
+        for (long id = 0; id < STABLE_RULES; id++) {
+            ruleEngine.registerRule(RuleTestUtils.createTestRule(id,
+                    RuleTestUtils.createTestAttributeChangeTrigger(id % (STABLE_RULES / 2))));
+        }
+
+        churningRules = new Rule[CHURNING_RULES];
+
+        for (int i = 0; i < CHURNING_RULES; i++) {
+            churningRules[i] = RuleTestUtils.createTestRule((long) STABLE_RULES + i,
+                    RuleTestUtils.createTestAttributeChangeTrigger((long) i));
+        }
+
+        device = DeviceTestUtils.createTestDevice(42L);
+    }
+
+    /**
+     * Registers a churning rule and unregisters the one registered half a cycle earlier.
+     */
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public void registerAndUnregister() {
+        ruleEngine.registerRule(churningRules[next]);
+        ruleEngine.unregisterRule(churningRules[(next + CHURNING_RULES / 2) % CHURNING_RULES]);
+        next = (next + 1) % CHURNING_RULES;
+    }
+
+    /**
+     * Evaluates a device update while rules churn.
+     */
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public void evaluate() {
+        ruleEngine.evaluatePossibleTrigger(device);
+    }
+}
@@ -0,0 +1,126 @@
+package com.hover.iot.engine.benchmark;
+
+import com.hover.iot.engine.simulation.RecordedChange;
+import com.hover.iot.engine.simulation.RecordedChangeReader;
+import com.hover.iot.engine.simulation.RuleSimulator;
+import com.hover.iot.engine.simulation.SimulationResult;
+import com.hover.iot.entity.Rule;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.enumeration.TriggerType;
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.hover.iot.constants.RuleParameterConstants.*;
+
+/**
+ * Measures the replay of a day of telemetry through the rule engine on a virtual clock, as a regression benchmark of
+ * the whole evaluation path. The telemetry is read from the CSV file given by the {@code telemetry} parameter, in the
+ * format of {@link RecordedChangeReader}, or synthesized when no file is given; pass a file with
+ * {@code -Djmh.args="RuleReplayBenchmark -p telemetry=telemetry.csv"}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RuleReplayBenchmark {
+
+    /**
+     * The number of synthesized devices.
+     */
+    private static final int DEVICES = 500;
+
+    /**
+     * The interval between the synthesized reports of a device.
+     */
+    private static final Duration REPORT_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * The path of the telemetry CSV file, or empty to synthesize the telemetry.
+     */
+    @Param("")
+    public String telemetry;
+
+    /**
+     * The changes to replay.
+     */
+    private List<RecordedChange> changes;
+
+    /**
+     * The simulator, which replays every run with its own engine, clock and devices.
+     */
+    private RuleSimulator simulator;
+
+    /**
+     * Reads or synthesizes the telemetry, and creates a threshold rule per device.
+     *
+     * @throws IOException If the telemetry file cannot be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        if (telemetry.isEmpty()) {
+            changes = synthesizeDay();
+        } else {
+            try (var reader = new FileReader(telemetry)) {
+                changes = RecordedChangeReader.readAll(reader);
+            }
+        }
+
+        var rules = new ArrayList<Rule>();
+
+        for (long id = 0; id < DEVICES; id++) {
+            rules.add(RuleTestUtils.createTestRule(id, RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD,
+                    Map.of(RULE_PARAMETER_ENTITY_ID_KEY, id, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                            RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 24.0,
+                            RULE_PARAMETER_THRESHOLD_HYSTERESIS_KEY, 0.5))));
+        }
+
+        simulator = new RuleSimulator(rules, ZoneOffset.UTC);
+    }
+
+    /**
+     * Replays the day of telemetry.
+     *
+     * @return The outcome of the replay.
+     */
+    @Benchmark
+    public SimulationResult replayDay() {
+        return simulator.run(changes);
+    }
+
+    /**
+     * Synthesizes a day of temperature reports that drift around the rules' threshold.
+     *
+     * @return The synthesized changes, in time order.
+     */
+    private static List<RecordedChange> synthesizeDay() {
+        var random = new Random(42);
+        var temperatures = new float[DEVICES];
+        var changes = new ArrayList<RecordedChange>();
+        var start = Instant.parse("2026-01-01T00:00:00Z");
+        var end = start.plus(Duration.ofDays(1));
+
+        for (var at = start; at.isBefore(end); at = at.plus(REPORT_INTERVAL)) {
+            for (int device = 0; device < DEVICES; device++) {
+                temperatures[device] = (float) Math.max(18, Math.min(30,
+                        (temperatures[device] == 0 ? 22 : temperatures[device]) + random.nextGaussian() * 0.3));
+                changes.add(new RecordedChange(at, (long) device, "temperature", AttributeType.FLOAT,
+                        temperatures[device]));
+            }
+        }
+
+        return changes;
+    }
+}
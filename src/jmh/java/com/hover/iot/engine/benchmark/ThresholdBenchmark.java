@@ -0,0 +1,87 @@
+package com.hover.iot.engine.benchmark;
+
+import com.hover.iot.engine.implementation.RuleEngine;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.enumeration.TriggerType;
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hover.iot.constants.RuleParameterConstants.*;
+
+/**
+ * Measures the evaluation of threshold triggers, both for updates that keep the value on one side of the threshold and
+ * for updates that cross it and fire the rules.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ThresholdBenchmark {
+
+    /**
+     * The number of threshold rules on the benchmarked device.
+     */
+    @Param({"1", "50"})
+    public int rulesPerDevice;
+
+    /**
+     * The engine under test.
+     */
+    private RuleEngine ruleEngine;
+
+    /**
+     * The device below the threshold.
+     */
+    private Device cold;
+
+    /**
+     * The device above the threshold.
+     */
+    private Device hot;
+
+    /**
+     * Whether the last update was above the threshold.
+     */
+    private boolean wasHot;
+
+    /**
+     * Registers the threshold rules.
+     */
+    @Setup
+    public void setUp() {
+        ruleEngine = BenchmarkSupport.createEngine(event -> { }, 0);
+
+        for (long id = 0; id < rulesPerDevice; id++) {
+            ruleEngine.registerRule(RuleTestUtils.createTestRule(id, RuleTestUtils.createTestTrigger(
+                    TriggerType.ATTRIBUTE_THRESHOLD, Map.of(RULE_PARAMETER_ENTITY_ID_KEY, 1L,
+                            RULE_PARAMETER_ATTRIBUTE_KEY, "temperature", RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 25.0,
+                            RULE_PARAMETER_THRESHOLD_DIRECTION_KEY, "BOTH"))));
+        }
+
+        cold = BenchmarkSupport.createDevice(1L, "temperature", 20f, AttributeType.FLOAT);
+        hot = BenchmarkSupport.createDevice(1L, "temperature", 30f, AttributeType.FLOAT);
+    }
+
+    /**
+     * Evaluates an update that stays below the threshold.
+     */
+    @Benchmark
+    public void evaluateSteady() {
+        ruleEngine.evaluatePossibleTrigger(cold);
+    }
+
+    /**
+     * Evaluates an update that crosses the threshold, alternating between the two sides.
+     */
+    @Benchmark
+    public void evaluateCrossing() {
+        wasHot = !wasHot;
+        ruleEngine.evaluatePossibleTrigger(wasHot ? hot : cold);
+    }
+}
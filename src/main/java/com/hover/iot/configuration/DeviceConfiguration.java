@@ -1,14 +1,27 @@
 package com.hover.iot.configuration;
 
+import com.hover.iot.engine.dispatch.PartitionedExecutor;
+import com.hover.iot.monitor.DeviceHealthMonitor;
+import com.hover.iot.monitor.TelemetryPoller;
+import com.hover.iot.platform.IPlatformHandler;
+import com.hover.iot.repository.DeviceRepository;
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.jmdns.JmDNS;
 import java.io.IOException;
+import java.time.Clock;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -23,18 +36,43 @@ public class DeviceConfiguration {
     private static final Logger LOGGER = LoggerFactory.getLogger(DeviceConfiguration.class);
 
     /**
-     * Creates and configures an instance of OkHttpClient.
+     * Creates and configures an instance of OkHttpClient. Device calls are enqueued on its dispatcher, which bounds
+     * how many are in flight at once, in total and per device.
      *
+     * @param maxRequests        The maximum number of concurrent device calls.
+     * @param maxRequestsPerHost The maximum number of concurrent calls to a single device.
      * @return The configured OkHttpClient instance.
      */
     @Bean
-    public OkHttpClient okHttpClient() {
+    public OkHttpClient okHttpClient(@Value("${device.http.max.requests:256}") int maxRequests,
+                                     @Value("${device.http.max.requests.per.host:4}") int maxRequestsPerHost) {
         int CONNECTION_POOL_SIZE = 15;
+        var dispatcher = new Dispatcher();
+
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
         return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
                 .connectionPool(new ConnectionPool(CONNECTION_POOL_SIZE, 5, TimeUnit.MINUTES))
                 .build();
     }
 
+    /**
+     * Creates the executor the attribute writes of rule actions are handed off to, so that the lookups and writes of
+     * the devices do not stall the rule evaluation lanes and action workers that publish them. Writes are partitioned
+     * by device id across single-threaded lanes, so the writes to a device are sent in order.
+     *
+     * @param lanes    The number of lanes.
+     * @param capacity The maximum number of queued writes per lane.
+     * @return The device write executor.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public PartitionedExecutor deviceWriteExecutor(@Value("${device.write.lanes:4}") int lanes,
+                                                   @Value("${device.write.lane.capacity:1024}") int capacity) {
+        return new PartitionedExecutor("device-write", lanes, capacity);
+    }
+
     /**
      * Creates and configures an instance of JmDNS for device discovery.
      *
@@ -50,4 +88,71 @@ public class DeviceConfiguration {
         }
         return jmdns;
     }
+
+    /**
+     * Creates the monitor that probes the reachability of every device and keeps its status up to date.
+     *
+     * @param deviceRepository   The repository the devices are loaded from and their statuses saved to.
+     * @param eventPublisher     The publisher of the entity change events of status transitions.
+     * @param transactionManager The manager of the transactions status transitions are saved in.
+     * @param platformApiList    The list of platform apis.
+     * @param clock              The clock the probes are scheduled with.
+     * @param minIntervalMs      The minimum probing interval, in milliseconds.
+     * @param maxIntervalMs      The maximum probing interval, in milliseconds.
+     * @param jitter             The fraction by which intervals are randomly lengthened or shortened.
+     * @param failureThreshold   The number of consecutive failed probes after which a device is marked offline.
+     * @param maxConcurrency     The maximum number of probes in flight.
+     * @param tickMs             The interval at which due probes are started, in milliseconds.
+     * @param refreshMs          The interval at which the monitored devices are reloaded, in milliseconds.
+     * @return The device health monitor.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "device.health.enabled", matchIfMissing = true)
+    public DeviceHealthMonitor deviceHealthMonitor(DeviceRepository deviceRepository,
+                                                   ApplicationEventPublisher eventPublisher,
+                                                   PlatformTransactionManager transactionManager,
+                                                   List<IPlatformHandler> platformApiList, Clock clock,
+                                                   @Value("${device.health.interval.min.ms:10000}") long minIntervalMs,
+                                                   @Value("${device.health.interval.max.ms:300000}") long maxIntervalMs,
+                                                   @Value("${device.health.jitter:0.2}") double jitter,
+                                                   @Value("${device.health.failure.threshold:2}") int failureThreshold,
+                                                   @Value("${device.health.max.concurrency:32}") int maxConcurrency,
+                                                   @Value("${device.health.tick.ms:1000}") long tickMs,
+                                                   @Value("${device.health.refresh.ms:60000}") long refreshMs) {
+        return new DeviceHealthMonitor(deviceRepository, eventPublisher, new TransactionTemplate(transactionManager),
+                platformApiList, clock, minIntervalMs, maxIntervalMs, jitter, failureThreshold, maxConcurrency, tickMs,
+                refreshMs);
+    }
+
+    /**
+     * Creates the poller that reads the attributes of every device and publishes their changes.
+     *
+     * @param deviceRepository   The repository the devices are loaded from and their attributes saved to.
+     * @param eventPublisher     The publisher of the attribute events of changes.
+     * @param transactionManager The manager of the transactions changes are saved in.
+     * @param platformApiList    The list of platform apis.
+     * @param clock              The clock the polls are scheduled with.
+     * @param defaultIntervalMs  The polling interval of device types without one of their own, in milliseconds.
+     * @param typeIntervalsMs    The polling intervals of device types, such as {@code SENSOR=5000,LIGHT=30000}.
+     * @param jitter             The fraction by which intervals are randomly lengthened or shortened.
+     * @param maxConcurrency     The maximum number of polls in flight.
+     * @param tickMs             The interval at which due polls are started, in milliseconds.
+     * @param refreshMs          The interval at which the polled devices are reloaded, in milliseconds.
+     * @return The telemetry poller.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "device.telemetry.enabled", matchIfMissing = true)
+    public TelemetryPoller telemetryPoller(DeviceRepository deviceRepository, ApplicationEventPublisher eventPublisher,
+                                           PlatformTransactionManager transactionManager,
+                                           List<IPlatformHandler> platformApiList, Clock clock,
+                                           @Value("${device.telemetry.interval.ms:30000}") long defaultIntervalMs,
+                                           @Value("${device.telemetry.type.intervals.ms:}") String typeIntervalsMs,
+                                           @Value("${device.telemetry.jitter:0.1}") double jitter,
+                                           @Value("${device.telemetry.max.concurrency:32}") int maxConcurrency,
+                                           @Value("${device.telemetry.tick.ms:250}") long tickMs,
+                                           @Value("${device.telemetry.refresh.ms:60000}") long refreshMs) {
+        return new TelemetryPoller(deviceRepository, eventPublisher, new TransactionTemplate(transactionManager),
+                platformApiList, clock, defaultIntervalMs, TelemetryPoller.parseTypeIntervals(typeIntervalsMs), jitter,
+                maxConcurrency, tickMs, refreshMs);
+    }
 }
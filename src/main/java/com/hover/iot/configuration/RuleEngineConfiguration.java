@@ -0,0 +1,175 @@
+package com.hover.iot.configuration;
+
+import com.hover.iot.engine.IRuleEngine;
+import com.hover.iot.engine.dispatch.PartitionedExecutor;
+import com.hover.iot.engine.dispatch.UpdateBatcher;
+import com.hover.iot.engine.journal.RuleExecutionJournal;
+import com.hover.iot.engine.scheduler.TriggerScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Defines and configures beans related to the rule engine.
+ */
+@Configuration
+public class RuleEngineConfiguration implements DisposableBean {
+
+    /**
+     * The worker pool that executes the actions of fired scheduled triggers. It is deliberately not exposed as a bean,
+     * so that it is not picked up as the application's default task executor.
+     */
+    private final ThreadPoolExecutor ruleActionExecutor;
+
+    /**
+     * Initializes a new instance of {@link RuleEngineConfiguration} class.
+     *
+     * @param threads The number of rule action worker threads, defaults to the number of available processors.
+     */
+    public RuleEngineConfiguration(@Value("${rule.engine.action.threads:0}") int threads) {
+        var counter = new AtomicInteger();
+        var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.ruleActionExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    var thread = new Thread(runnable, "rule-action-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Creates the clock the application reads time from.
+     *
+     * @return The system clock in the default time zone.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    /**
+     * Creates the scheduler that drives time-based rule triggers.
+     *
+     * @param clock     The clock the scheduler reads time from.
+     * @param tickMs    The duration of one tick of the timing wheel in milliseconds.
+     * @param wheelSize The number of buckets per timing wheel.
+     * @return The trigger scheduler.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public TriggerScheduler triggerScheduler(Clock clock,
+                                             @Value("${rule.engine.scheduler.tick.ms:100}") long tickMs,
+                                             @Value("${rule.engine.scheduler.wheel.size:512}") int wheelSize) {
+        return new TriggerScheduler(clock, ruleActionExecutor, tickMs, wheelSize);
+    }
+
+    /**
+     * Creates the executor that evaluates rules against device updates. Updates are partitioned by device id across
+     * single-threaded lanes, so the updates of a device are evaluated in order while different devices are evaluated in
+     * parallel.
+     *
+     * @param lanes    The number of lanes, defaults to the number of available processors.
+     * @param capacity The maximum number of queued updates per lane.
+     * @return The rule evaluation executor.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public PartitionedExecutor ruleEvaluationExecutor(@Value("${rule.engine.evaluation.lanes:0}") int lanes,
+                                                      @Value("${rule.engine.evaluation.lane.capacity:4096}")
+                                                      int capacity) {
+        return new PartitionedExecutor("rule-evaluation",
+                lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors(), capacity);
+    }
+
+    /**
+     * Creates the batcher that collects bursts of device updates into batches evaluated on the rule evaluation lanes.
+     *
+     * @param ruleEvaluationExecutor The executor whose lanes evaluate the batches.
+     * @param ruleEngine             The rule engine the batches are evaluated by.
+     * @param windowMs               The time a batch waits for more updates after its first update, in milliseconds.
+     * @param maxBatchSize           The number of updates at which a batch is evaluated without waiting.
+     * @param capacity               The maximum number of pending updates per lane.
+     * @return The update batcher.
+     */
+    @Bean
+    public UpdateBatcher updateBatcher(PartitionedExecutor ruleEvaluationExecutor, IRuleEngine ruleEngine,
+                                       @Value("${rule.engine.evaluation.batch.window.ms:2}") long windowMs,
+                                       @Value("${rule.engine.evaluation.batch.size:256}") int maxBatchSize,
+                                       @Value("${rule.engine.evaluation.lane.capacity:4096}") int capacity) {
+        return new UpdateBatcher(ruleEvaluationExecutor, ruleEngine, windowMs, maxBatchSize, capacity);
+    }
+
+    /**
+     * Creates the journal that records every execution of a rule, and registers it with the rule engine.
+     *
+     * @param jdbcTemplate The template the journal entries are inserted with.
+     * @param ruleEngine   The rule engine whose executions are journaled.
+     * @param capacity     The maximum number of executions waiting to be written.
+     * @param batchSize    The maximum number of executions inserted in one batch.
+     * @return The rule execution journal.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "rule.engine.journal.enabled", matchIfMissing = true)
+    public RuleExecutionJournal ruleExecutionJournal(JdbcTemplate jdbcTemplate, IRuleEngine ruleEngine,
+                                                     @Value("${rule.engine.journal.capacity:8192}") int capacity,
+                                                     @Value("${rule.engine.journal.batch.size:256}") int batchSize) {
+        var journal = new RuleExecutionJournal(jdbcTemplate, capacity, batchSize);
+
+        ruleEngine.addFiringListener(journal);
+        return journal;
+    }
+
+    /**
+     * Creates the binder of the metrics of the rule engine's queues: the number of device updates waiting to be
+     * evaluated, the number of fired actions waiting for a worker, the number of pending scheduler timers, and the
+     * number of updates dropped or collapsed on the way to the rule engine.
+     *
+     * @param ruleEvaluationExecutor The executor that evaluates rules against device updates.
+     * @param updateBatcher          The batcher that collects device updates into batches.
+     * @param triggerScheduler       The scheduler that drives time-based rule triggers.
+     * @return The meter binder.
+     */
+    @Bean
+    public MeterBinder ruleEngineQueueMetrics(PartitionedExecutor ruleEvaluationExecutor, UpdateBatcher updateBatcher,
+                                              TriggerScheduler triggerScheduler) {
+        return registry -> {
+            Gauge.builder("rule.engine.evaluation.queue.depth",
+                            () -> ruleEvaluationExecutor.getQueuedCount() + updateBatcher.getPendingCount())
+                    .description("The number of device updates waiting to be evaluated")
+                    .register(registry);
+            Gauge.builder("rule.engine.action.queue.depth", () -> ruleActionExecutor.getQueue().size())
+                    .description("The number of fired scheduled actions waiting for a worker")
+                    .register(registry);
+            Gauge.builder("rule.engine.scheduler.timers", triggerScheduler::size)
+                    .description("The number of pending timers of the trigger scheduler")
+                    .register(registry);
+            FunctionCounter.builder("rule.engine.evaluation.dropped", ruleEvaluationExecutor,
+                            executor -> executor.getDroppedCount() + updateBatcher.getDroppedCount())
+                    .description("The number of device updates dropped because their lane was full")
+                    .register(registry);
+            FunctionCounter.builder("rule.engine.evaluation.collapsed", updateBatcher,
+                            UpdateBatcher::getCollapsedCount)
+                    .description("The number of device updates collapsed into a newer update of the same attribute")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Shuts down the rule action worker pool.
+     */
+    @Override
+    public void destroy() {
+        ruleActionExecutor.shutdown();
+    }
+}
@@ -34,4 +34,89 @@ public class RuleParameterConstants {
      * The key used to retrieve the device attribute threshold from a rule parameter map.
      */
     public static final String RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY = "P_THRESHOLD";
+
+    /**
+     * The key used to retrieve the threshold crossing direction from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_THRESHOLD_DIRECTION_KEY = "P_DIRECTION";
+
+    /**
+     * The key used to retrieve the threshold hysteresis from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_THRESHOLD_HYSTERESIS_KEY = "P_HYSTERESIS";
+
+    /**
+     * The key used to retrieve the trigger cooldown from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_COOLDOWN_KEY = "P_COOLDOWN";
+
+    /**
+     * The key used to retrieve the aggregate function from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_AGGREGATE_KEY = "P_AGGREGATE";
+
+    /**
+     * The key used to retrieve the aggregate window from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_WINDOW_KEY = "P_WINDOW";
+
+    /**
+     * The key used to retrieve the attribute value from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_VALUE_KEY = "P_VALUE";
+
+    /**
+     * The key used to retrieve the hold duration from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_DURATION_KEY = "P_DURATION";
+
+    /**
+     * The key used to retrieve whether a trigger is negated from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_NEGATE_KEY = "P_NEGATE";
+
+    /**
+     * The key used to retrieve the start of a time window from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_TIME_FROM_KEY = "P_FROM";
+
+    /**
+     * The key used to retrieve the end of a time window from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_TIME_TO_KEY = "P_TO";
+
+    /**
+     * The key used to retrieve the solar event from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_SOLAR_EVENT_KEY = "P_SOLAR_EVENT";
+
+    /**
+     * The key used to retrieve the offset from a solar event from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_OFFSET_KEY = "P_OFFSET";
+
+    /**
+     * The key used to retrieve the latitude of a location from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_LATITUDE_KEY = "P_LATITUDE";
+
+    /**
+     * The key used to retrieve the longitude of a location from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_LONGITUDE_KEY = "P_LONGITUDE";
+
+    /**
+     * The key used to retrieve the cron expression of a calendar from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_CRON_KEY = "P_CRON";
+
+    /**
+     * The key used to retrieve the dates a calendar does not fire on from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_EXCEPT_DATES_KEY = "P_EXCEPT_DATES";
+
+    /**
+     * The key used to retrieve the condition expression from a rule parameter map.
+     */
+    public static final String RULE_PARAMETER_EXPRESSION_KEY = "P_EXPRESSION";
 }
@@ -0,0 +1,59 @@
+package com.hover.iot.controller;
+
+import com.hover.iot.dto.GroupCommandResultDTO;
+import com.hover.iot.request.DeviceAttributeRequest;
+import com.hover.iot.response.ApiResponse;
+import com.hover.iot.service.IDeviceCommandService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * A Controller class for handling HTTP requests that send commands to the devices of a room or group.
+ */
+@RestController
+@RequestMapping("/api/v1/command")
+public class DeviceCommandController {
+
+    /**
+     * The service that is used to send commands to several devices.
+     */
+    private final IDeviceCommandService deviceCommandService;
+
+    /**
+     * Initializes a new instance of {@link DeviceCommandController} class.
+     *
+     * @param deviceCommandService The service that is used to send commands to several devices.
+     */
+    public DeviceCommandController(IDeviceCommandService deviceCommandService) {
+        this.deviceCommandService = deviceCommandService;
+    }
+
+    /**
+     * Handles a request to update the attributes of every device in a room.
+     *
+     * @param id      The id of the room.
+     * @param request A {@link DeviceAttributeRequest} object containing the attribute details.
+     * @return A {@link ApiResponse} object containing the results of the devices.
+     */
+    @PutMapping("/room/{id}")
+    public ResponseEntity<ApiResponse<GroupCommandResultDTO>> setRoomAttributes(
+            @PathVariable Long id, @RequestBody DeviceAttributeRequest request) {
+        var response = new ApiResponse<>(HttpStatus.OK, deviceCommandService.setRoomAttributes(id, request));
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+
+    /**
+     * Handles a request to update the attributes of every device in a device group.
+     *
+     * @param id      The id of the device group.
+     * @param request A {@link DeviceAttributeRequest} object containing the attribute details.
+     * @return A {@link ApiResponse} object containing the results of the devices.
+     */
+    @PutMapping("/group/{id}")
+    public ResponseEntity<ApiResponse<GroupCommandResultDTO>> setGroupAttributes(
+            @PathVariable Long id, @RequestBody DeviceAttributeRequest request) {
+        var response = new ApiResponse<>(HttpStatus.OK, deviceCommandService.setGroupAttributes(id, request));
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+}
@@ -0,0 +1,19 @@
+package com.hover.iot.dto;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.hover.iot.entity.Device;
+
+/**
+ * A Data transfer object representing the result of a command sent to a {@link Device}.
+ *
+ * @param deviceId          The id of the device.
+ * @param deviceName        The name of the device.
+ * @param succeeded         Whether the device accepted the command.
+ * @param attributesWritten The number of attributes written, which is zero if the device already had the values.
+ * @param latencyMs         The time from sending the command to the device's response, in milliseconds.
+ * @param error             The reason the command failed, or null if it succeeded.
+ */
+@JsonTypeName("deviceCommandResult")
+public record DeviceCommandResultDTO(Long deviceId, String deviceName, boolean succeeded, int attributesWritten,
+                                     long latencyMs, String error) {
+}
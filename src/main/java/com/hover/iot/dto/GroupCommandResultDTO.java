@@ -0,0 +1,19 @@
+package com.hover.iot.dto;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import java.util.List;
+
+/**
+ * A Data transfer object representing the aggregated result of a command fanned out to the devices of a room or group.
+ *
+ * @param deviceCount    The number of devices the command was sent to.
+ * @param succeededCount The number of devices that accepted the command.
+ * @param failedCount    The number of devices that failed the command.
+ * @param elapsedMs      The time from sending the first command to the last response, in milliseconds.
+ * @param devices        The results of the devices.
+ */
+@JsonTypeName("groupCommandResult")
+public record GroupCommandResultDTO(int deviceCount, int succeededCount, int failedCount, long elapsedMs,
+                                    List<DeviceCommandResultDTO> devices) {
+}
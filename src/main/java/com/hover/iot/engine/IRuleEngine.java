@@ -1,21 +1,39 @@
 package com.hover.iot.engine;
 
+import com.hover.iot.engine.model.CausalityChain;
+import com.hover.iot.engine.model.DeviceUpdate;
 import com.hover.iot.entity.Device;
 import com.hover.iot.entity.Rule;
+import com.hover.iot.exception.RuleCompilationException;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * A rule engine interface that defines methods for evaluating and executing automation rules.
  */
 public interface IRuleEngine {
 
     /**
-     * Registers a new rule in the rule engine.
+     * Registers a new rule in the rule engine. The rule is compiled into an execution plan when it is registered, and
+     * replaces any registered rule with the same id.
      *
      * @param rule The Rule to register.
+     * @throws RuleCompilationException If the rule is malformed.
      */
     void registerRule(@NotNull Rule rule);
 
+    /**
+     * Registers many rules in the rule engine at once. All rules are compiled first and then installed in a single
+     * update, replacing any registered rules with the same ids. Malformed rules are logged and skipped, so that one bad
+     * rule does not prevent the others from being registered.
+     *
+     * @param rules The Rules to register.
+     * @return The number of rules registered.
+     */
+    int registerRules(@NotNull Collection<Rule> rules);
+
     /**
      * Unregisters a rule from the RuleEngine.
      *
@@ -28,5 +46,45 @@ public interface IRuleEngine {
      *
      * @param device the Device for which to evaluate the triggers
      */
-    void evaluatePossibleTrigger(@NotNull Device device);
+    default void evaluatePossibleTrigger(@NotNull Device device) {
+        evaluatePossibleTrigger(device, CausalityChain.ROOT);
+    }
+
+    /**
+     * Evaluates the possible triggers for a given device update that was caused by the actions of other rules, and
+     * executes the associated actions. Rules that already fired in the chain, or that would make the chain deeper than
+     * allowed, do not fire.
+     *
+     * @param device         the Device for which to evaluate the triggers
+     * @param causalityChain the chain of rules whose actions caused the update
+     */
+    default void evaluatePossibleTrigger(@NotNull Device device, @NotNull CausalityChain causalityChain) {
+        evaluatePossibleTrigger(device, null, causalityChain);
+    }
+
+    /**
+     * Evaluates the possible triggers for an update of an attribute of a given device, and executes the associated
+     * actions. Only the updated attribute is sampled by the triggers that aggregate attributes over time.
+     *
+     * @param device         the Device for which to evaluate the triggers
+     * @param attribute      the name of the updated attribute, or null if it is not known which attributes changed,
+     *                       in which case every aggregated attribute of the device is sampled
+     * @param causalityChain the chain of rules whose actions caused the update
+     */
+    void evaluatePossibleTrigger(@NotNull Device device, String attribute, @NotNull CausalityChain causalityChain);
+
+    /**
+     * Evaluates the possible triggers for a batch of device updates in a single pass and executes the associated
+     * actions. The updates are evaluated in order against the same set of registered rules.
+     *
+     * @param updates the device updates for which to evaluate the triggers
+     */
+    void evaluatePossibleTriggers(@NotNull List<DeviceUpdate> updates);
+
+    /**
+     * Adds a listener that is notified whenever a rule executes.
+     *
+     * @param listener The listener to add.
+     */
+    void addFiringListener(@NotNull IRuleFiringListener listener);
 }
@@ -0,0 +1,29 @@
+package com.hover.iot.engine;
+
+import com.hover.iot.engine.model.RuleExecution;
+import com.hover.iot.engine.model.RuleFiring;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A listener that is notified whenever the rule engine executes a rule.
+ */
+@FunctionalInterface
+public interface IRuleFiringListener {
+
+    /**
+     * Called when a rule executes, before its actions are performed. Listeners run on the thread that executes the
+     * rule, so they must be quick and must not throw.
+     *
+     * @param firing The execution of the rule.
+     */
+    void onRuleFired(@NotNull RuleFiring firing);
+
+    /**
+     * Called when a rule has executed, after its actions were performed. Listeners run on the thread that executes the
+     * rule, so they must be quick and must not throw.
+     *
+     * @param execution The completed execution of the rule.
+     */
+    default void onRuleExecuted(@NotNull RuleExecution execution) {
+    }
+}
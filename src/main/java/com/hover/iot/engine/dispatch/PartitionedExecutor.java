@@ -0,0 +1,213 @@
+package com.hover.iot.engine.dispatch;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An executor that partitions tasks by a key across a fixed number of single-threaded lanes. Tasks with the same key
+ * always run on the same lane, in the order they were submitted, while tasks with different keys spread across the
+ * lanes and run in parallel.
+ * <p>
+ * Each lane has a bounded queue. When a lane's queue is full, the overflow policy is to drop the submitted task, count
+ * it, and log a warning, rather than block the submitter or run the task on the submitter's thread: blocking could
+ * stall the thread publishing the event, and running the task elsewhere would break the ordering of its key.
+ */
+public class PartitionedExecutor implements AutoCloseable {
+
+    /**
+     * The logger for the {@link PartitionedExecutor} class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedExecutor.class);
+
+    /**
+     * The name prefix of the lane threads.
+     */
+    private final String name;
+
+    /**
+     * The task queues of the lanes.
+     */
+    private final BlockingQueue<Runnable>[] queues;
+
+    /**
+     * The threads of the lanes, or null if the executor is not started.
+     */
+    private Thread[] lanes;
+
+    /**
+     * The number of tasks dropped because their lane's queue was full.
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Whether the executor has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Initializes a new instance of {@link PartitionedExecutor} class.
+     *
+     * @param name     The name prefix of the lane threads.
+     * @param lanes    The number of lanes.
+     * @param capacity The maximum number of queued tasks per lane.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PartitionedExecutor(@NotNull String name, int lanes, int capacity) {
+        if (lanes <= 0)
+            throw new IllegalArgumentException("lanes must be positive");
+
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+
+        this.name = name;
+        this.queues = new BlockingQueue[lanes];
+
+        for (int i = 0; i < lanes; i++) {
+            queues[i] = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    /**
+     * Submits a task to the lane of a key.
+     *
+     * @param key  The partition key of the task.
+     * @param task The task to run.
+     * @return true if the task was queued, or false if it was dropped because the lane's queue is full or the executor
+     * is closed.
+     */
+    public boolean execute(long key, @NotNull Runnable task) {
+        if (closed)
+            return false;
+
+        var lane = lane(key);
+
+        if (queues[lane].offer(task))
+            return true;
+
+        var count = dropped.incrementAndGet();
+
+        // Log the first drop and then every thousandth, so a sustained overload does not flood the log.
+        if (count == 1 || count % 1000 == 0)
+            LOGGER.warn("Lane {}-{} is full, dropped task for key -> {}, {} tasks dropped in total", name, lane, key,
+                    count);
+
+        return false;
+    }
+
+    /**
+     * Gets the lane of a key.
+     *
+     * @param key The partition key.
+     * @return The index of the lane.
+     */
+    public int lane(long key) {
+        // Mix the key so that sequential ids spread evenly across the lanes.
+        var hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) queues.length);
+    }
+
+    /**
+     * Gets the number of lanes.
+     *
+     * @return The number of lanes.
+     */
+    public int getLaneCount() {
+        return queues.length;
+    }
+
+    /**
+     * Gets the number of tasks queued across all lanes.
+     *
+     * @return The number of queued tasks.
+     */
+    public int getQueuedCount() {
+        var count = 0;
+
+        for (var queue : queues) {
+            count += queue.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the number of tasks dropped because their lane's queue was full.
+     *
+     * @return The number of dropped tasks.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Starts the lane threads.
+     */
+    public synchronized void start() {
+        if (lanes != null || closed)
+            return;
+
+        lanes = new Thread[queues.length];
+
+        for (int i = 0; i < queues.length; i++) {
+            var queue = queues[i];
+            var lane = new Thread(() -> drive(queue), name + "-" + i);
+
+            lane.setDaemon(true);
+            lanes[i] = lane;
+            lane.start();
+        }
+    }
+
+    /**
+     * Stops the lane threads. Queued tasks that have not started are discarded.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+
+        if (lanes == null)
+            return;
+
+        for (var lane : lanes) {
+            lane.interrupt();
+        }
+
+        for (var lane : lanes) {
+            try {
+                lane.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the tasks of a lane until the executor is closed.
+     *
+     * @param queue The task queue of the lane.
+     */
+    private void drive(BlockingQueue<Runnable> queue) {
+        while (!closed) {
+            Runnable task;
+
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable e) {
+                LOGGER.error("A task failed on lane -> {}", Thread.currentThread().getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.hover.iot.engine.dispatch;
+
+import com.hover.iot.engine.IRuleEngine;
+import com.hover.iot.engine.model.CausalityChain;
+import com.hover.iot.engine.model.DeviceUpdate;
+import com.hover.iot.entity.Device;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects the attribute updates of devices into micro-batches that are evaluated against the rules in a single pass.
+ * <p>
+ * Each lane of the underlying {@link PartitionedExecutor} has a buffer of pending updates. The first update that lands
+ * in an empty buffer queues a flush on the lane, which waits until the batching window has elapsed or the batch is full
+ * and then evaluates the whole buffer. Repeated updates of the same attribute of a device within a batch collapse to the
+ * latest one, and the updates of a device are evaluated once per batch against its latest state. Because the updates of
+ * a device always land on the same lane, they are still evaluated in order.
+ */
+public class UpdateBatcher {
+
+    /**
+     * The logger for the {@link UpdateBatcher} class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(UpdateBatcher.class);
+
+    /**
+     * The executor whose lanes evaluate the batches.
+     */
+    private final PartitionedExecutor executor;
+
+    /**
+     * The rule engine the batches are evaluated by.
+     */
+    private final IRuleEngine ruleEngine;
+
+    /**
+     * The time a flush waits for more updates after the first update of a batch, in nanoseconds.
+     */
+    private final long windowNanos;
+
+    /**
+     * The number of updates at which a batch is flushed without waiting for the window to elapse.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The maximum number of pending updates per lane.
+     */
+    private final int capacity;
+
+    /**
+     * The buffers of the lanes.
+     */
+    private final Buffer[] buffers;
+
+    /**
+     * The number of updates that replaced a pending update of the same attribute.
+     */
+    private final AtomicLong collapsed = new AtomicLong();
+
+    /**
+     * The number of updates dropped because their lane's buffer was full.
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Initializes a new instance of {@link UpdateBatcher} class.
+     *
+     * @param executor     The executor whose lanes evaluate the batches.
+     * @param ruleEngine   The rule engine the batches are evaluated by.
+     * @param windowMs     The time a flush waits for more updates after the first update of a batch, in milliseconds.
+     *                     With a window of zero, a batch holds the updates that arrived while its lane was busy.
+     * @param maxBatchSize The number of updates at which a batch is flushed without waiting for the window to elapse.
+     * @param capacity     The maximum number of pending updates per lane.
+     */
+    public UpdateBatcher(@NotNull PartitionedExecutor executor, @NotNull IRuleEngine ruleEngine, long windowMs,
+                         int maxBatchSize, int capacity) {
+        if (windowMs < 0)
+            throw new IllegalArgumentException("windowMs must not be negative");
+
+        if (maxBatchSize <= 0)
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+
+        if (capacity < maxBatchSize)
+            throw new IllegalArgumentException("capacity must not be less than maxBatchSize");
+
+        this.executor = executor;
+        this.ruleEngine = ruleEngine;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatchSize = maxBatchSize;
+        this.capacity = capacity;
+        this.buffers = new Buffer[executor.getLaneCount()];
+
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new Buffer();
+        }
+    }
+
+    /**
+     * Submits an attribute update of a device for evaluation.
+     *
+     * @param device         The updated device.
+     * @param attribute      The name of the updated attribute.
+     * @param causalityChain The chain of rules whose actions caused the update.
+     * @return true if the update was buffered, or false if it was dropped because its lane's buffer is full.
+     */
+    public boolean submit(@NotNull Device device, String attribute, @NotNull CausalityChain causalityChain) {
+        var buffer = buffers[executor.lane(device.getId())];
+        var key = new UpdateKey(device.getId(), attribute, causalityChain);
+        boolean schedule;
+
+        buffer.lock.lock();
+        try {
+            // Removing before putting moves a collapsed update to the end, after the updates it was newer than.
+            if (buffer.pending.remove(key) != null) {
+                collapsed.incrementAndGet();
+            } else if (buffer.pending.size() >= capacity) {
+                var count = dropped.incrementAndGet();
+
+                // Log the first drop and then every thousandth, so a sustained overload does not flood the log.
+                if (count == 1 || count % 1000 == 0)
+                    LOGGER.warn("Update buffer is full, dropped update of device -> {}, {} updates dropped in total",
+                            device.getId(), count);
+
+                return false;
+            }
+
+            if (buffer.pending.isEmpty())
+                buffer.firstPendingAt = System.nanoTime();
+
+            buffer.pending.put(key, new DeviceUpdate(device, attribute, causalityChain));
+
+            if (buffer.pending.size() >= maxBatchSize)
+                buffer.full.signal();
+
+            schedule = !buffer.flushScheduled;
+            buffer.flushScheduled = true;
+        } finally {
+            buffer.lock.unlock();
+        }
+
+        if (schedule && !executor.execute(device.getId(), () -> flush(buffer))) {
+            // The lane rejected the flush, so the next update of the lane schedules it again.
+            buffer.lock.lock();
+            try {
+                buffer.flushScheduled = false;
+            } finally {
+                buffer.lock.unlock();
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the number of updates that replaced a pending update of the same attribute.
+     *
+     * @return The number of collapsed updates.
+     */
+    public long getCollapsedCount() {
+        return collapsed.get();
+    }
+
+    /**
+     * Gets the number of updates dropped because their lane's buffer was full.
+     *
+     * @return The number of dropped updates.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of updates buffered and not yet evaluated, across every lane.
+     *
+     * @return The number of pending updates.
+     */
+    public int getPendingCount() {
+        var count = 0;
+
+        for (var buffer : buffers) {
+            buffer.lock.lock();
+            try {
+                count += buffer.pending.size();
+            } finally {
+                buffer.lock.unlock();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Waits for the batch of a lane to fill up or its window to elapse, and evaluates it. Runs on the lane.
+     *
+     * @param buffer The buffer of the lane.
+     */
+    private void flush(@NotNull Buffer buffer) {
+        Map<UpdateKey, DeviceUpdate> batch;
+
+        buffer.lock.lock();
+        try {
+            var deadline = buffer.firstPendingAt + windowNanos;
+
+            while (buffer.pending.size() < maxBatchSize) {
+                var remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0)
+                    break;
+
+                try {
+                    buffer.full.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            batch = buffer.pending;
+            buffer.pending = new LinkedHashMap<>();
+            buffer.flushScheduled = false;
+        } finally {
+            buffer.lock.unlock();
+        }
+
+        evaluate(batch);
+    }
+
+    /**
+     * Evaluates a batch, once per device and causality chain against the latest state of the device.
+     *
+     * @param batch The pending updates of the batch, in arrival order.
+     */
+    private void evaluate(@NotNull Map<UpdateKey, DeviceUpdate> batch) {
+        if (batch.isEmpty())
+            return;
+
+        var latest = new LinkedHashMap<DeviceKey, DeviceUpdate>();
+
+        for (var entry : batch.entrySet()) {
+            var key = entry.getKey();
+            latest.put(new DeviceKey(key.deviceId(), key.causalityChain()), entry.getValue());
+        }
+
+        LOGGER.debug("Evaluating batch of {} updates of {} devices", batch.size(), latest.size());
+
+        ruleEngine.evaluatePossibleTriggers(new ArrayList<>(latest.values()));
+    }
+
+    /**
+     * The key that updates of the same attribute of a device collapse on. Updates caused by different rule chains do
+     * not collapse, so that the cascade guard sees every chain.
+     *
+     * @param deviceId       The id of the device.
+     * @param attribute      The name of the attribute.
+     * @param causalityChain The chain of rules whose actions caused the update.
+     */
+    private record UpdateKey(Long deviceId, String attribute, CausalityChain causalityChain) {
+    }
+
+    /**
+     * The key that the updates of a device are evaluated once per.
+     *
+     * @param deviceId       The id of the device.
+     * @param causalityChain The chain of rules whose actions caused the updates.
+     */
+    private record DeviceKey(Long deviceId, CausalityChain causalityChain) {
+    }
+
+    /**
+     * The buffer of pending updates of a lane.
+     */
+    private static final class Buffer {
+
+        /**
+         * The lock that guards the buffer.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Signalled when the buffer holds a full batch.
+         */
+        private final Condition full = lock.newCondition();
+
+        /**
+         * The pending updates, in arrival order.
+         */
+        private LinkedHashMap<UpdateKey, DeviceUpdate> pending = new LinkedHashMap<>();
+
+        /**
+         * The time the first pending update arrived, from {@link System#nanoTime()}.
+         */
+        private long firstPendingAt;
+
+        /**
+         * Whether a flush of the buffer is queued on the lane.
+         */
+        private boolean flushScheduled;
+    }
+}
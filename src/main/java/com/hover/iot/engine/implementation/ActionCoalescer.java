@@ -0,0 +1,102 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.engine.model.ActionTarget;
+import com.hover.iot.engine.model.CompiledAction;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces identical commands sent to the same target within a short window, so that rules reacting to chatty
+ * devices, or several rules reacting to the same update, do not send a device the same command over and over. A
+ * command is only coalesced with the last command sent to its target, so a target that was sent a different command in
+ * between is always sent the command again.
+ */
+@Component
+public class ActionCoalescer {
+
+    /**
+     * The logger instance used for logging events and messages related to the ActionCoalescer class.
+     */
+    private final static Logger LOGGER = LoggerFactory.getLogger(ActionCoalescer.class);
+
+    /**
+     * The default window within which identical commands are coalesced, in milliseconds.
+     */
+    public static final long DEFAULT_WINDOW_MS = 250;
+
+    /**
+     * The window within which identical commands are coalesced, in milliseconds, or zero if they are not coalesced.
+     */
+    private final long windowMs;
+
+    /**
+     * The clock the window is measured with.
+     */
+    private final Clock clock;
+
+    /**
+     * The last command sent to each target.
+     */
+    private final Map<ActionTarget, SentCommand> sent = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes a new instance of {@link ActionCoalescer} class.
+     *
+     * @param windowMs The window within which identical commands are coalesced, in milliseconds, or zero to not
+     *                 coalesce them.
+     * @param clock    The clock the window is measured with.
+     */
+    public ActionCoalescer(@Value("${rule.engine.action.coalesce.window.ms:250}") long windowMs, Clock clock) {
+        if (windowMs < 0)
+            throw new IllegalArgumentException("The coalescing window must not be negative");
+
+        this.windowMs = windowMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether an action should be performed, recording its command as sent if it should.
+     *
+     * @param action The action to perform.
+     * @return true if the action should be performed, or false if the same command was sent to its target within the
+     * window.
+     */
+    public boolean tryPerform(@NotNull CompiledAction action) {
+        if (windowMs == 0)
+            return true;
+
+        var now = clock.millis();
+        var payload = action.getPayload();
+        var performed = new boolean[1];
+
+        sent.compute(action.getTarget(), (target, last) -> {
+            if (last != null && now - last.sentAt() < windowMs && Objects.equals(last.payload(), payload))
+                return last;
+
+            performed[0] = true;
+            return new SentCommand(payload, now);
+        });
+
+        if (!performed[0])
+            LOGGER.debug("Coalescing command -> {} to -> {}", payload, action.getTarget());
+
+        return performed[0];
+    }
+
+    /**
+     * A command sent to a target.
+     *
+     * @param payload The payload of the command.
+     * @param sentAt  The time the command was sent, in milliseconds since the epoch.
+     */
+    private record SentCommand(Object payload, long sentAt) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.engine.model.CausalityChain;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guards the rule engine against runaway cascades, where the actions of a rule change a device which triggers further
+ * rules. A rule may not fire when it already fired in the cascade that caused the update, when the cascade is deeper
+ * than the configured maximum depth, or when it exceeds its firing rate limit.
+ */
+@Component
+public class CascadeGuard {
+
+    /**
+     * The logger instance used for logging events and messages related to the CascadeGuard class.
+     */
+    private final static Logger LOGGER = LoggerFactory.getLogger(CascadeGuard.class);
+
+    /**
+     * The default maximum number of rules in a cascade.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 8;
+
+    /**
+     * The default maximum number of times a rule may fire per minute.
+     */
+    public static final int DEFAULT_MAX_FIRINGS_PER_MINUTE = 600;
+
+    /**
+     * The number of milliseconds in a minute.
+     */
+    private static final double MINUTE_MS = 60_000d;
+
+    /**
+     * The maximum number of rules in a cascade.
+     */
+    private final int maxDepth;
+
+    /**
+     * The maximum number of times a rule may fire per minute, or zero if the rate is not limited.
+     */
+    private final int maxFiringsPerMinute;
+
+    /**
+     * The clock the firing rates are measured with.
+     */
+    private final Clock clock;
+
+    /**
+     * The firing rate limits of the rules, keyed by the rule's id.
+     */
+    private final Map<Long, RateLimit> rateLimits = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes a new instance of {@link CascadeGuard} class.
+     *
+     * @param maxDepth            The maximum number of rules in a cascade.
+     * @param maxFiringsPerMinute The maximum number of times a rule may fire per minute, or zero for no limit.
+     * @param clock               The clock the firing rates are measured with.
+     */
+    public CascadeGuard(@Value("${rule.engine.cascade.max.depth:8}") int maxDepth,
+                        @Value("${rule.engine.rule.max.firings.per.minute:600}") int maxFiringsPerMinute,
+                        Clock clock) {
+        if (maxDepth < 1)
+            throw new IllegalArgumentException("The maximum cascade depth must be positive");
+
+        if (maxFiringsPerMinute < 0)
+            throw new IllegalArgumentException("The maximum firing rate must not be negative");
+
+        this.maxDepth = maxDepth;
+        this.maxFiringsPerMinute = maxFiringsPerMinute;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a rule may fire in response to an update, consuming a firing from its rate limit if it may.
+     *
+     * @param ruleId The id of the rule.
+     * @param chain  The causality chain of the update.
+     * @return true if the rule may fire, otherwise false.
+     */
+    public boolean tryFire(long ruleId, @NotNull CausalityChain chain) {
+        if (chain.contains(ruleId)) {
+            LOGGER.warn("Dropping firing of rule with id -> {}, loop detected in cascade -> {}", ruleId, chain);
+            return false;
+        }
+
+        if (chain.getDepth() >= maxDepth) {
+            LOGGER.warn("Dropping firing of rule with id -> {}, cascade -> {} exceeds the maximum depth of {}",
+                    ruleId, chain, maxDepth);
+            return false;
+        }
+
+        if (maxFiringsPerMinute == 0)
+            return true;
+
+        return rateLimits.computeIfAbsent(ruleId, ignored -> new RateLimit()).tryAcquire(ruleId);
+    }
+
+    /**
+     * Forgets the firing rate of a rule, such as when it is unregistered.
+     *
+     * @param ruleId The id of the rule.
+     */
+    public void forget(long ruleId) {
+        rateLimits.remove(ruleId);
+    }
+
+    /**
+     * The firing rate limit of a rule, a token bucket that holds a minute's worth of firings and refills continuously.
+     */
+    private final class RateLimit {
+
+        /**
+         * The number of firings available.
+         */
+        private double tokens = maxFiringsPerMinute;
+
+        /**
+         * The time the bucket was last refilled, in milliseconds since the epoch.
+         */
+        private long refilledAt = clock.millis();
+
+        /**
+         * Whether firings are being dropped, so that a throttled rule is logged once per episode.
+         */
+        private boolean throttled;
+
+        /**
+         * Consumes a firing if one is available.
+         *
+         * @param ruleId The id of the rule, for logging.
+         * @return true if a firing was available, otherwise false.
+         */
+        private synchronized boolean tryAcquire(long ruleId) {
+            var now = clock.millis();
+
+            if (now > refilledAt) {
+                tokens = Math.min(maxFiringsPerMinute, tokens + (now - refilledAt) * maxFiringsPerMinute / MINUTE_MS);
+                refilledAt = now;
+            }
+
+            if (tokens >= 1) {
+                tokens--;
+                throttled = false;
+                return true;
+            }
+
+            if (!throttled) {
+                throttled = true;
+                LOGGER.warn("Throttling rule with id -> {}, it fires more than {} times per minute", ruleId,
+                        maxFiringsPerMinute);
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,703 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.entity.Device;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compiles condition expressions over the attributes of a device into a tree of lambdas. An expression is parsed once,
+ * when its rule is registered, and evaluating the compiled condition against a device update then does no parsing,
+ * boxing or allocation.
+ * <p>
+ * The language supports number, boolean and string literals, attribute names, arithmetic ({@code + - * / %}),
+ * comparisons ({@code < <= > >= == !=}), boolean logic ({@code ! && ||}) and parentheses, with the usual precedence,
+ * for example {@code temperature - 2 > 24 && (humidity >= 60 || mode == "eco")}. Attributes are read as numbers, with
+ * booleans read as 1 or 0; an attribute that is missing or not numeric reads as NaN, so every comparison with it other
+ * than {@code !=} is false. Used as a condition, an attribute is true if it is true or a non-zero number.
+ * <p>
+ * Constant subexpressions are folded at compile time, and comparisons with a constant are compiled to a lambda that
+ * captures the constant, so that the common {@code attribute > constant} case is a single call per evaluation.
+ */
+public final class ExpressionCompiler {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Compiles a condition expression.
+     *
+     * @param source The expression to compile.
+     * @return The compiled condition, which tests whether a device satisfies the expression.
+     * @throws IllegalArgumentException If the expression is malformed.
+     */
+    public static @NotNull Predicate<Device> compile(@NotNull String source) {
+        var parser = new Parser(source);
+        var condition = parser.parseOr().asCondition(source);
+
+        parser.skipWhitespace();
+
+        if (parser.position < source.length())
+            throw parser.error("unexpected '" + source.charAt(parser.position) + "'");
+
+        return condition;
+    }
+
+    /**
+     * Reads an attribute of a device as a number.
+     *
+     * @param device The device.
+     * @param name   The name of the attribute.
+     * @return The value of the attribute, 1 or 0 for a boolean attribute, or NaN if the attribute is missing or not
+     * numeric.
+     */
+    static double numberOf(@NotNull Device device, @NotNull String name) {
+        var value = valueOf(device, name);
+
+        if (value instanceof Number number)
+            return number.doubleValue();
+
+        if (value instanceof Boolean bool)
+            return bool ? 1 : 0;
+
+        return Double.NaN;
+    }
+
+    /**
+     * Reads an attribute of a device.
+     *
+     * @param device The device.
+     * @param name   The name of the attribute.
+     * @return The value of the attribute, or null if the device has no such attribute.
+     */
+    static Object valueOf(@NotNull Device device, @NotNull String name) {
+        var attributes = device.getAttributes();
+
+        if (attributes == null)
+            return null;
+
+        // Indexed rather than iterated, so that reading an attribute never allocates an iterator.
+        for (int i = 0; i < attributes.size(); i++) {
+            var attribute = attributes.get(i);
+
+            if (name.equals(attribute.getName()))
+                return attribute.getValue();
+        }
+
+        return null;
+    }
+
+    /**
+     * A compiled operand of an expression, which is a number, a condition or a string.
+     */
+    private sealed interface Operand {
+
+        /**
+         * Converts the operand to a number.
+         *
+         * @param source The expression, for error messages.
+         * @return The operand as a number.
+         */
+        NumberOperand asNumber(String source);
+
+        /**
+         * Converts the operand to a condition.
+         *
+         * @param source The expression, for error messages.
+         * @return The operand as a condition.
+         */
+        Predicate<Device> asCondition(String source);
+    }
+
+    /**
+     * A numeric operand.
+     *
+     * @param function  The function that evaluates the operand.
+     * @param constant  Whether the operand is a constant.
+     * @param value     The value of the operand, if it is a constant.
+     * @param attribute The name of the attribute, if the operand is an attribute reference, otherwise null.
+     */
+    private record NumberOperand(ToDoubleFunction<Device> function, boolean constant, double value, String attribute)
+            implements Operand {
+
+        /**
+         * Creates a constant numeric operand.
+         *
+         * @param value The value of the operand.
+         * @return The operand.
+         */
+        static NumberOperand of(double value) {
+            return new NumberOperand(device -> value, true, value, null);
+        }
+
+        /**
+         * Creates an operand that reads an attribute.
+         *
+         * @param attribute The name of the attribute.
+         * @return The operand.
+         */
+        static NumberOperand attribute(String attribute) {
+            return new NumberOperand(device -> numberOf(device, attribute), false, 0, attribute);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public NumberOperand asNumber(String source) {
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Predicate<Device> asCondition(String source) {
+            if (constant)
+                return ConditionOperand.of(value != 0).condition();
+
+            if (attribute != null) {
+                var name = attribute;
+
+                return device -> {
+                    var value = valueOf(device, name);
+
+                    return Boolean.TRUE.equals(value) || (value instanceof Number number && number.doubleValue() != 0);
+                };
+            }
+
+            var _function = function;
+
+            return device -> {
+                var value = _function.applyAsDouble(device);
+
+                return value != 0 && !Double.isNaN(value);
+            };
+        }
+    }
+
+    /**
+     * A boolean operand.
+     *
+     * @param condition The condition that evaluates the operand.
+     * @param constant  Whether the operand is a constant.
+     * @param value     The value of the operand, if it is a constant.
+     */
+    private record ConditionOperand(Predicate<Device> condition, boolean constant, boolean value) implements Operand {
+
+        /**
+         * The constant true condition.
+         */
+        private static final ConditionOperand TRUE = new ConditionOperand(device -> true, true, true);
+
+        /**
+         * The constant false condition.
+         */
+        private static final ConditionOperand FALSE = new ConditionOperand(device -> false, true, false);
+
+        /**
+         * Gets a constant boolean operand.
+         *
+         * @param value The value of the operand.
+         * @return The operand.
+         */
+        static ConditionOperand of(boolean value) {
+            return value ? TRUE : FALSE;
+        }
+
+        /**
+         * Creates a boolean operand.
+         *
+         * @param condition The condition that evaluates the operand.
+         * @return The operand.
+         */
+        static ConditionOperand of(Predicate<Device> condition) {
+            return new ConditionOperand(condition, false, false);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public NumberOperand asNumber(String source) {
+            if (constant)
+                return NumberOperand.of(value ? 1 : 0);
+
+            var _condition = condition;
+
+            return new NumberOperand(device -> _condition.test(device) ? 1 : 0, false, 0, null);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Predicate<Device> asCondition(String source) {
+            return condition;
+        }
+    }
+
+    /**
+     * A string literal operand, which can only be compared for equality with an attribute.
+     *
+     * @param value The value of the literal.
+     */
+    private record StringOperand(String value) implements Operand {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public NumberOperand asNumber(String source) {
+            throw new IllegalArgumentException("string \"" + value + "\" used as a number in expression " + source);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Predicate<Device> asCondition(String source) {
+            throw new IllegalArgumentException("string \"" + value + "\" used as a condition in expression " + source);
+        }
+    }
+
+    /**
+     * A recursive descent parser that compiles the operands of an expression as it parses them.
+     */
+    private static final class Parser {
+
+        /**
+         * The expression being parsed.
+         */
+        private final String source;
+
+        /**
+         * The position of the next character to parse.
+         */
+        private int position;
+
+        /**
+         * Initializes a new instance of {@link Parser} class.
+         *
+         * @param source The expression to parse.
+         */
+        private Parser(String source) {
+            this.source = source;
+        }
+
+        /**
+         * Parses a disjunction: {@code and ('||' and)*}.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parseOr() {
+            var left = parseAnd();
+
+            while (accept("||")) {
+                var first = left.asCondition(source);
+                var second = parseAnd().asCondition(source);
+
+                left = ConditionOperand.of(first.or(second));
+            }
+
+            return left;
+        }
+
+        /**
+         * Parses a conjunction: {@code not ('&&' not)*}.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parseAnd() {
+            var left = parseNot();
+
+            while (accept("&&")) {
+                var first = left.asCondition(source);
+                var second = parseNot().asCondition(source);
+
+                left = ConditionOperand.of(first.and(second));
+            }
+
+            return left;
+        }
+
+        /**
+         * Parses a negation: {@code '!' not | comparison}.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parseNot() {
+            if (!peek("!=") && accept("!"))
+                return ConditionOperand.of(parseNot().asCondition(source).negate());
+
+            return parseComparison();
+        }
+
+        /**
+         * Parses a comparison: {@code sum (('<' | '<=' | '>' | '>=' | '==' | '!=') sum)?}.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parseComparison() {
+            var left = parseSum();
+
+            for (var operator : new String[]{"<=", ">=", "==", "!=", "<", ">"}) {
+                if (accept(operator))
+                    return compare(left, operator, parseSum());
+            }
+
+            return left;
+        }
+
+        /**
+         * Parses a sum: {@code product (('+' | '-') product)*}.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parseSum() {
+            var left = parseProduct();
+
+            while (true) {
+                if (accept("+"))
+                    left = arithmetic(left, parseProduct(), Double::sum);
+                else if (accept("-"))
+                    left = arithmetic(left, parseProduct(), (a, b) -> a - b);
+                else
+                    return left;
+            }
+        }
+
+        /**
+         * Parses a product: {@code unary (('*' | '/' | '%') unary)*}.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parseProduct() {
+            var left = parseUnary();
+
+            while (true) {
+                if (accept("*"))
+                    left = arithmetic(left, parseUnary(), (a, b) -> a * b);
+                else if (accept("/"))
+                    left = arithmetic(left, parseUnary(), (a, b) -> a / b);
+                else if (accept("%"))
+                    left = arithmetic(left, parseUnary(), (a, b) -> a % b);
+                else
+                    return left;
+            }
+        }
+
+        /**
+         * Parses a negated number: {@code '-' unary | primary}.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parseUnary() {
+            if (accept("-"))
+                return arithmetic(NumberOperand.of(0), parseUnary(), (a, b) -> a - b);
+
+            return parsePrimary();
+        }
+
+        /**
+         * Parses a primary: a parenthesized expression, a literal or an attribute name.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parsePrimary() {
+            skipWhitespace();
+
+            if (position >= source.length())
+                throw error("unexpected end of expression");
+
+            var c = source.charAt(position);
+
+            if (accept("(")) {
+                var operand = parseOr();
+
+                if (!accept(")"))
+                    throw error("missing ')'");
+
+                return operand;
+            }
+
+            if (c == '"' || c == '\'')
+                return parseString(c);
+
+            if (Character.isDigit(c) || c == '.')
+                return parseNumber();
+
+            if (Character.isLetter(c) || c == '_') {
+                var name = parseName();
+
+                return switch (name) {
+                    case "true" -> ConditionOperand.of(true);
+                    case "false" -> ConditionOperand.of(false);
+                    default -> NumberOperand.attribute(name);
+                };
+            }
+
+            throw error("unexpected '" + c + "'");
+        }
+
+        /**
+         * Parses a string literal.
+         *
+         * @param quote The quote the literal starts and ends with.
+         * @return The compiled operand.
+         */
+        private Operand parseString(char quote) {
+            var end = source.indexOf(quote, position + 1);
+
+            if (end < 0)
+                throw error("unterminated string");
+
+            var value = source.substring(position + 1, end);
+
+            position = end + 1;
+            return new StringOperand(value);
+        }
+
+        /**
+         * Parses a number literal.
+         *
+         * @return The compiled operand.
+         */
+        private Operand parseNumber() {
+            var start = position;
+
+            while (position < source.length()
+                    && (Character.isDigit(source.charAt(position)) || source.charAt(position) == '.')) {
+                position++;
+            }
+
+            try {
+                return NumberOperand.of(Double.parseDouble(source.substring(start, position)));
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("malformed number");
+            }
+        }
+
+        /**
+         * Parses an attribute name or keyword. Names may contain letters, digits, underscores and dots.
+         *
+         * @return The name.
+         */
+        private String parseName() {
+            var start = position;
+
+            while (position < source.length() && (Character.isLetterOrDigit(source.charAt(position))
+                    || source.charAt(position) == '_' || source.charAt(position) == '.')) {
+                position++;
+            }
+
+            return source.substring(start, position);
+        }
+
+        /**
+         * Compiles a comparison.
+         *
+         * @param left     The left operand.
+         * @param operator The comparison operator.
+         * @param right    The right operand.
+         * @return The compiled operand.
+         */
+        private Operand compare(Operand left, String operator, Operand right) {
+            var equality = operator.equals("==") || operator.equals("!=");
+
+            if (left instanceof StringOperand || right instanceof StringOperand) {
+                if (!equality)
+                    throw error("strings can only be compared with == and !=");
+
+                return compareString(left, operator, right);
+            }
+
+            if (equality && (left instanceof ConditionOperand || right instanceof ConditionOperand)) {
+                var first = left.asCondition(source);
+                var second = right.asCondition(source);
+                Predicate<Device> equal = device -> first.test(device) == second.test(device);
+
+                return fold(ConditionOperand.of(operator.equals("==") ? equal : equal.negate()), left, right);
+            }
+
+            var first = left.asNumber(source);
+            var second = right.asNumber(source);
+
+            if (first.constant() && second.constant())
+                return ConditionOperand.of(test(operator, first.value(), second.value()));
+
+            var a = first.function();
+            var b = second.function();
+
+            // Specialize comparisons with a constant, the common case, to a single call per evaluation.
+            if (second.constant()) {
+                var c = second.value();
+
+                return ConditionOperand.of(switch (operator) {
+                    case "<" -> device -> a.applyAsDouble(device) < c;
+                    case "<=" -> device -> a.applyAsDouble(device) <= c;
+                    case ">" -> device -> a.applyAsDouble(device) > c;
+                    case ">=" -> device -> a.applyAsDouble(device) >= c;
+                    case "==" -> device -> a.applyAsDouble(device) == c;
+                    default -> device -> a.applyAsDouble(device) != c;
+                });
+            }
+
+            return ConditionOperand.of(switch (operator) {
+                case "<" -> device -> a.applyAsDouble(device) < b.applyAsDouble(device);
+                case "<=" -> device -> a.applyAsDouble(device) <= b.applyAsDouble(device);
+                case ">" -> device -> a.applyAsDouble(device) > b.applyAsDouble(device);
+                case ">=" -> device -> a.applyAsDouble(device) >= b.applyAsDouble(device);
+                case "==" -> device -> a.applyAsDouble(device) == b.applyAsDouble(device);
+                default -> device -> a.applyAsDouble(device) != b.applyAsDouble(device);
+            });
+        }
+
+        /**
+         * Compiles an equality comparison of an attribute with a string literal.
+         *
+         * @param left     The left operand.
+         * @param operator The comparison operator, {@code ==} or {@code !=}.
+         * @param right    The right operand.
+         * @return The compiled operand.
+         */
+        private Operand compareString(Operand left, String operator, Operand right) {
+            if (left instanceof StringOperand first && right instanceof StringOperand second)
+                return ConditionOperand.of(first.value().equals(second.value()) == operator.equals("=="));
+
+            var literal = left instanceof StringOperand string ? string : (StringOperand) right;
+            var other = left instanceof StringOperand ? right : left;
+
+            if (!(other instanceof NumberOperand number) || number.attribute() == null)
+                throw error("strings can only be compared with attributes");
+
+            var name = number.attribute();
+            var value = literal.value();
+            Predicate<Device> equal = device -> {
+                var actual = valueOf(device, name);
+
+                return actual != null && value.equals(actual.toString());
+            };
+
+            return ConditionOperand.of(operator.equals("==") ? equal : equal.negate());
+        }
+
+        /**
+         * Folds a compiled condition to a constant if both of its operands are constants.
+         *
+         * @param compiled The compiled condition.
+         * @param left     The left operand.
+         * @param right    The right operand.
+         * @return The constant condition if both operands are constants, otherwise the compiled condition.
+         */
+        private Operand fold(ConditionOperand compiled, Operand left, Operand right) {
+            if (isConstant(left) && isConstant(right))
+                return ConditionOperand.of(compiled.condition().test(null));
+
+            return compiled;
+        }
+
+        /**
+         * Compiles an arithmetic operation, folding it to a constant if both operands are constants.
+         *
+         * @param left      The left operand.
+         * @param right     The right operand.
+         * @param operation The arithmetic operation.
+         * @return The compiled operand.
+         */
+        private Operand arithmetic(Operand left, Operand right, DoubleBinaryOperator operation) {
+            var first = left.asNumber(source);
+            var second = right.asNumber(source);
+
+            if (first.constant() && second.constant())
+                return NumberOperand.of(operation.applyAsDouble(first.value(), second.value()));
+
+            var a = first.function();
+            var b = second.function();
+
+            return new NumberOperand(device -> operation.applyAsDouble(a.applyAsDouble(device),
+                    b.applyAsDouble(device)), false, 0, null);
+        }
+
+        /**
+         * Checks whether an operand is a constant.
+         *
+         * @param operand The operand.
+         * @return true if the operand is a constant, otherwise false.
+         */
+        private static boolean isConstant(Operand operand) {
+            return (operand instanceof NumberOperand number && number.constant())
+                    || (operand instanceof ConditionOperand condition && condition.constant());
+        }
+
+        /**
+         * Evaluates a comparison of two numbers.
+         *
+         * @param operator The comparison operator.
+         * @param a        The left number.
+         * @param b        The right number.
+         * @return The result of the comparison.
+         */
+        private static boolean test(String operator, double a, double b) {
+            return switch (operator) {
+                case "<" -> a < b;
+                case "<=" -> a <= b;
+                case ">" -> a > b;
+                case ">=" -> a >= b;
+                case "==" -> a == b;
+                default -> a != b;
+            };
+        }
+
+        /**
+         * Skips whitespace and consumes a token if it is next.
+         *
+         * @param token The token to consume.
+         * @return true if the token was consumed, otherwise false.
+         */
+        private boolean accept(String token) {
+            if (!peek(token))
+                return false;
+
+            position += token.length();
+            return true;
+        }
+
+        /**
+         * Skips whitespace and checks whether a token is next.
+         *
+         * @param token The token to check.
+         * @return true if the token is next, otherwise false.
+         */
+        private boolean peek(String token) {
+            skipWhitespace();
+
+            return source.startsWith(token, position);
+        }
+
+        /**
+         * Skips whitespace.
+         */
+        private void skipWhitespace() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+
+        /**
+         * Creates an error for the current position.
+         *
+         * @param message The description of the error.
+         * @return The error.
+         */
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " of expression " + source);
+        }
+    }
+}
@@ -0,0 +1,676 @@
+package com.hover.iot.engine.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hover.iot.engine.model.*;
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Rule;
+import com.hover.iot.entity.RuleAction;
+import com.hover.iot.entity.RuleTrigger;
+import com.hover.iot.enumeration.AggregateFunction;
+import com.hover.iot.enumeration.ConditionOperator;
+import com.hover.iot.enumeration.DebounceEdge;
+import com.hover.iot.enumeration.SolarEvent;
+import com.hover.iot.enumeration.ThresholdDirection;
+import com.hover.iot.exception.RuleCompilationException;
+import com.hover.iot.util.TimeConverter;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hover.iot.constants.RuleParameterConstants.*;
+
+/**
+ * Compiles {@link Rule} entities into immutable {@link CompiledRule} execution plans. All parameters are validated and
+ * converted to their typed representation here, so malformed rules are rejected when they are registered rather than
+ * failing when they fire.
+ */
+@Component
+public class RuleCompiler {
+
+    /**
+     * The number of buckets the window of an attribute aggregate trigger is divided into, so an aggregate covers the
+     * window extended by less than a sixtieth of it.
+     */
+    private static final int WINDOW_BUCKETS = 60;
+
+    /**
+     * The object mapper used for deserialization of json action parameters.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The latitude of the installation in degrees, used by solar triggers that do not give their own, or null if it is
+     * not configured.
+     */
+    private final Double latitude;
+
+    /**
+     * The longitude of the installation in degrees, used by solar triggers that do not give their own, or null if it
+     * is not configured.
+     */
+    private final Double longitude;
+
+    /**
+     * The windows of the attribute aggregate triggers, shared by the triggers that aggregate the same attribute.
+     */
+    private final WindowRegistry windowRegistry = new WindowRegistry(WINDOW_BUCKETS);
+
+    /**
+     * Initializes a new instance of {@link RuleCompiler} class, without a configured location.
+     */
+    public RuleCompiler() {
+        this(null, null);
+    }
+
+    /**
+     * Initializes a new instance of {@link RuleCompiler} class.
+     *
+     * @param latitude  The latitude of the installation in degrees, or null if it is not configured.
+     * @param longitude The longitude of the installation in degrees, or null if it is not configured.
+     */
+    @Autowired
+    public RuleCompiler(@Value("${rule.engine.location.latitude:#{null}}") Double latitude,
+                        @Value("${rule.engine.location.longitude:#{null}}") Double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /**
+     * Compiles a rule into an execution plan.
+     *
+     * @param rule The rule to compile.
+     * @return The compiled rule.
+     * @throws RuleCompilationException If the rule is malformed.
+     */
+    public CompiledRule compile(@NotNull Rule rule) {
+        var id = rule.getId();
+
+        if (id == null)
+            throw new RuleCompilationException(null, "the rule has not been assigned an id");
+
+        if (rule.getTriggers() == null || rule.getTriggers().isEmpty())
+            throw new RuleCompilationException(id, "the rule has no triggers");
+
+        if (rule.getActions() == null || rule.getActions().isEmpty())
+            throw new RuleCompilationException(id, "the rule has no actions");
+
+        var conditionOperator = rule.getConditionOperator() == null
+                ? ConditionOperator.OR
+                : rule.getConditionOperator();
+        var triggers = new ArrayList<CompiledTrigger>(rule.getTriggers().size());
+        var negated = new boolean[rule.getTriggers().size()];
+
+        for (var trigger : rule.getTriggers()) {
+            negated[triggers.size()] = getBoolean(id, trigger.getParameters(), RULE_PARAMETER_NEGATE_KEY);
+            triggers.add(compileTrigger(id, trigger));
+        }
+
+        for (var _negated : negated) {
+            if (_negated && conditionOperator != ConditionOperator.AND)
+                throw new RuleCompilationException(id, "only rules with the AND operator can negate triggers");
+        }
+
+        var actions = new ArrayList<CompiledAction>(rule.getActions().size());
+
+        for (var action : rule.getActions()) {
+            actions.add(compileAction(id, action));
+        }
+
+        return new CompiledRule(id, rule.getName(), conditionOperator, triggers, negated, actions,
+                compileDebouncer(rule));
+    }
+
+    /**
+     * Compiles the debounce policy of a rule.
+     *
+     * @param rule The rule to compile the debounce policy of.
+     * @return The rule's debounce state, or null if the rule is not debounced.
+     */
+    private Debouncer compileDebouncer(@NotNull Rule rule) {
+        var debounceMs = rule.getDebounceMs();
+
+        if (debounceMs == null || debounceMs == 0)
+            return null;
+
+        if (debounceMs < 0)
+            throw new RuleCompilationException(rule.getId(), "the debounce window must not be negative");
+
+        return new Debouncer(debounceMs, rule.getDebounceEdge() == null
+                ? DebounceEdge.LEADING
+                : rule.getDebounceEdge());
+    }
+
+    /**
+     * Compiles a rule trigger.
+     *
+     * @param ruleId  The id of the rule the trigger belongs to.
+     * @param trigger The trigger to compile.
+     * @return The compiled trigger.
+     */
+    private CompiledTrigger compileTrigger(Long ruleId, @NotNull RuleTrigger trigger) {
+        if (trigger.getType() == null)
+            throw new RuleCompilationException(ruleId, "a trigger has no type");
+
+        var parameters = trigger.getParameters();
+
+        return switch (trigger.getType()) {
+            case ATTRIBUTE_CHANGE -> new AttributeChangeTrigger(
+                    getLong(ruleId, parameters, RULE_PARAMETER_ENTITY_ID_KEY));
+            case ATTRIBUTE_THRESHOLD -> new AttributeThresholdTrigger(
+                    getLong(ruleId, parameters, RULE_PARAMETER_ENTITY_ID_KEY),
+                    getString(ruleId, parameters, RULE_PARAMETER_ATTRIBUTE_KEY),
+                    getDouble(ruleId, parameters, RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY),
+                    getDirection(ruleId, parameters, RULE_PARAMETER_THRESHOLD_DIRECTION_KEY),
+                    getHysteresis(ruleId, parameters, RULE_PARAMETER_THRESHOLD_HYSTERESIS_KEY),
+                    getDuration(ruleId, parameters, RULE_PARAMETER_COOLDOWN_KEY));
+            case ATTRIBUTE_AGGREGATE -> compileAggregateTrigger(ruleId, parameters);
+            case ATTRIBUTE_HELD -> new AttributeHeldTrigger(
+                    getLong(ruleId, parameters, RULE_PARAMETER_ENTITY_ID_KEY),
+                    getString(ruleId, parameters, RULE_PARAMETER_ATTRIBUTE_KEY),
+                    getRequired(ruleId, parameters, RULE_PARAMETER_VALUE_KEY),
+                    getPositiveDuration(ruleId, parameters, RULE_PARAMETER_DURATION_KEY));
+            case ATTRIBUTE_STATE -> new AttributeStateTrigger(
+                    getLong(ruleId, parameters, RULE_PARAMETER_ENTITY_ID_KEY),
+                    getString(ruleId, parameters, RULE_PARAMETER_ATTRIBUTE_KEY),
+                    getRequired(ruleId, parameters, RULE_PARAMETER_VALUE_KEY));
+            case TIME_OF_DAY -> new TimeOfDayTrigger(getTime(ruleId, parameters, RULE_PARAMETER_TIME_OF_DAY_KEY));
+            case TIME_WINDOW -> compileTimeWindowTrigger(ruleId, parameters);
+            case SOLAR -> compileSolarTrigger(ruleId, parameters);
+            case CALENDAR -> compileCalendarTrigger(ruleId, parameters);
+            case EXPRESSION -> compileExpressionTrigger(ruleId, parameters);
+        };
+    }
+
+    /**
+     * Compiles the parameters of an attribute aggregate trigger.
+     *
+     * @param ruleId     The id of the rule the trigger belongs to.
+     * @param parameters The parameters of the trigger.
+     * @return The compiled trigger.
+     */
+    private @NotNull AttributeAggregateTrigger compileAggregateTrigger(Long ruleId, Map<String, Object> parameters) {
+        var windowMs = getPositiveDuration(ruleId, parameters, RULE_PARAMETER_WINDOW_KEY);
+        var crossing = new ThresholdCrossing(
+                getDouble(ruleId, parameters, RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY),
+                getDirection(ruleId, parameters, RULE_PARAMETER_THRESHOLD_DIRECTION_KEY),
+                getHysteresis(ruleId, parameters, RULE_PARAMETER_THRESHOLD_HYSTERESIS_KEY),
+                getDuration(ruleId, parameters, RULE_PARAMETER_COOLDOWN_KEY));
+
+        var deviceId = getLong(ruleId, parameters, RULE_PARAMETER_ENTITY_ID_KEY);
+        var attribute = getString(ruleId, parameters, RULE_PARAMETER_ATTRIBUTE_KEY);
+
+        return new AttributeAggregateTrigger(
+                deviceId,
+                attribute,
+                getAggregateFunction(ruleId, parameters, RULE_PARAMETER_AGGREGATE_KEY),
+                windowRegistry.acquire(deviceId, attribute, windowMs),
+                crossing);
+    }
+
+    /**
+     * Compiles the parameters of a time window trigger.
+     *
+     * @param ruleId     The id of the rule the trigger belongs to.
+     * @param parameters The parameters of the trigger.
+     * @return The compiled trigger.
+     */
+    private @NotNull TimeWindowTrigger compileTimeWindowTrigger(Long ruleId, Map<String, Object> parameters) {
+        var from = getTime(ruleId, parameters, RULE_PARAMETER_TIME_FROM_KEY);
+        var to = getTime(ruleId, parameters, RULE_PARAMETER_TIME_TO_KEY);
+
+        if (from.equals(to))
+            throw new RuleCompilationException(ruleId, "the time window must not be empty");
+
+        return new TimeWindowTrigger(from, to);
+    }
+
+    /**
+     * Compiles the parameters of a solar trigger. The location defaults to the configured location of the
+     * installation.
+     *
+     * @param ruleId     The id of the rule the trigger belongs to.
+     * @param parameters The parameters of the trigger.
+     * @return The compiled trigger.
+     */
+    private @NotNull SolarTrigger compileSolarTrigger(Long ruleId, Map<String, Object> parameters) {
+        var event = getSolarEvent(ruleId, parameters, RULE_PARAMETER_SOLAR_EVENT_KEY);
+        var _latitude = getCoordinate(ruleId, parameters, RULE_PARAMETER_LATITUDE_KEY, latitude, 90);
+        var _longitude = getCoordinate(ruleId, parameters, RULE_PARAMETER_LONGITUDE_KEY, longitude, 180);
+
+        return new SolarTrigger(event, _latitude, _longitude, getOffset(ruleId, parameters, RULE_PARAMETER_OFFSET_KEY));
+    }
+
+    /**
+     * Compiles the parameters of a calendar trigger.
+     *
+     * @param ruleId     The id of the rule the trigger belongs to.
+     * @param parameters The parameters of the trigger.
+     * @return The compiled trigger.
+     */
+    private @NotNull CalendarTrigger compileCalendarTrigger(Long ruleId, Map<String, Object> parameters) {
+        CronExpression expression;
+
+        try {
+            expression = CronExpression.parse(getString(ruleId, parameters, RULE_PARAMETER_CRON_KEY));
+        } catch (IllegalArgumentException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + RULE_PARAMETER_CRON_KEY
+                    + " must be a cron expression, " + e.getMessage(), e);
+        }
+
+        // Cron expressions have no year field, so one that fires at all fires within a few years of any time.
+        if (expression.next(LocalDateTime.of(2000, 1, 1, 0, 0)) == null)
+            throw new RuleCompilationException(ruleId, "the calendar " + expression + " never fires");
+
+        return new CalendarTrigger(expression, getDates(ruleId, parameters, RULE_PARAMETER_EXCEPT_DATES_KEY));
+    }
+
+    /**
+     * Compiles the parameters of an expression trigger. The expression is parsed and compiled once, here, so that
+     * evaluating the trigger does not parse it again.
+     *
+     * @param ruleId     The id of the rule the trigger belongs to.
+     * @param parameters The parameters of the trigger.
+     * @return The compiled trigger.
+     */
+    private @NotNull ExpressionTrigger compileExpressionTrigger(Long ruleId, Map<String, Object> parameters) {
+        var deviceId = getLong(ruleId, parameters, RULE_PARAMETER_ENTITY_ID_KEY);
+        var source = getString(ruleId, parameters, RULE_PARAMETER_EXPRESSION_KEY);
+
+        try {
+            return new ExpressionTrigger(deviceId, source, ExpressionCompiler.compile(source));
+        } catch (IllegalArgumentException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + RULE_PARAMETER_EXPRESSION_KEY
+                    + " must be a condition expression, " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compiles a rule action.
+     *
+     * @param ruleId The id of the rule the action belongs to.
+     * @param action The action to compile.
+     * @return The compiled action.
+     */
+    private CompiledAction compileAction(Long ruleId, @NotNull RuleAction action) {
+        if (action.getType() == null)
+            throw new RuleCompilationException(ruleId, "an action has no type");
+
+        var parameters = action.getParameters();
+        var entityId = getLong(ruleId, parameters, RULE_PARAMETER_ENTITY_ID_KEY);
+
+        return switch (action.getType()) {
+            case ATTRIBUTE -> new AttributeWriteAction(action, entityId,
+                    getAttribute(ruleId, parameters, RULE_PARAMETER_ATTRIBUTES_KEY));
+            case SCENE -> new SceneExecuteAction(action, entityId);
+            case NOTIFICATION -> new NotificationAction(action, entityId,
+                    getString(ruleId, parameters, RULE_PARAMETER_NOTIFICATION_MESSAGE_KEY));
+        };
+    }
+
+    /**
+     * Gets a required parameter value.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private Object getRequired(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = parameters == null ? null : parameters.get(key);
+
+        if (value == null)
+            throw new RuleCompilationException(ruleId, "missing required parameter " + key);
+
+        return value;
+    }
+
+    /**
+     * Gets a required parameter value as a long. Numeric parameters may be deserialized as any {@link Number} type.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private long getLong(Long ruleId, Map<String, Object> parameters, String key) {
+        if (getRequired(ruleId, parameters, key) instanceof Number number)
+            return number.longValue();
+
+        throw new RuleCompilationException(ruleId, "parameter " + key + " must be a number");
+    }
+
+    /**
+     * Gets a required parameter value as a double. Numeric parameters may be deserialized as any {@link Number} type.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private double getDouble(Long ruleId, Map<String, Object> parameters, String key) {
+        if (getRequired(ruleId, parameters, key) instanceof Number number)
+            return number.doubleValue();
+
+        throw new RuleCompilationException(ruleId, "parameter " + key + " must be a number");
+    }
+
+    /**
+     * Gets an optional parameter value as a threshold crossing direction. Defaults to {@link ThresholdDirection#BOTH}.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private ThresholdDirection getDirection(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = parameters == null ? null : parameters.get(key);
+
+        if (value == null)
+            return ThresholdDirection.BOTH;
+
+        try {
+            return ThresholdDirection.valueOf(value.toString().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be one of "
+                    + Arrays.toString(ThresholdDirection.values()), e);
+        }
+    }
+
+    /**
+     * Gets a required parameter value as an aggregate function.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private AggregateFunction getAggregateFunction(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = getRequired(ruleId, parameters, key);
+
+        try {
+            return AggregateFunction.valueOf(value.toString().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be one of "
+                    + Arrays.toString(AggregateFunction.values()), e);
+        }
+    }
+
+    /**
+     * Gets a required parameter value as a solar event.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private SolarEvent getSolarEvent(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = getRequired(ruleId, parameters, key);
+
+        try {
+            return SolarEvent.valueOf(value.toString().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be one of "
+                    + Arrays.toString(SolarEvent.values()), e);
+        }
+    }
+
+    /**
+     * Gets a parameter value as a geographic coordinate in degrees, which is required unless a default is configured.
+     *
+     * @param ruleId       The id of the rule the parameter belongs to.
+     * @param parameters   The parameters to get the value from.
+     * @param key          The key of the parameter.
+     * @param defaultValue The configured default, or null if there is none.
+     * @param bound        The largest absolute value of the coordinate.
+     * @return The parameter value.
+     */
+    private double getCoordinate(Long ruleId, Map<String, Object> parameters, String key, Double defaultValue,
+                                 double bound) {
+        var coordinate = defaultValue != null && (parameters == null || parameters.get(key) == null)
+                ? defaultValue
+                : getDouble(ruleId, parameters, key);
+
+        if (!(Math.abs(coordinate) <= bound))
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be between -" + (int) bound
+                    + " and " + (int) bound);
+
+        return coordinate;
+    }
+
+    /**
+     * Gets an optional parameter value as a threshold hysteresis. Defaults to no hysteresis.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private double getHysteresis(Long ruleId, Map<String, Object> parameters, String key) {
+        if (parameters == null || parameters.get(key) == null)
+            return 0;
+
+        var hysteresis = getDouble(ruleId, parameters, key);
+
+        if (hysteresis < 0 || !Double.isFinite(hysteresis))
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must not be negative");
+
+        return hysteresis;
+    }
+
+    /**
+     * Gets an optional parameter value as a duration in milliseconds. The value may be a number of milliseconds or a
+     * duration string with a time unit suffix, such as "30s" or "5m". Defaults to zero.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value, in milliseconds.
+     */
+    private long getDuration(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = parameters == null ? null : parameters.get(key);
+
+        if (value == null)
+            return 0;
+
+        long duration;
+
+        try {
+            duration = value instanceof Number number
+                    ? number.longValue()
+                    : TimeConverter.convertToMilliseconds(value.toString());
+        } catch (IllegalArgumentException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be a duration", e);
+        }
+
+        if (duration < 0)
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must not be negative");
+
+        return duration;
+    }
+
+    /**
+     * Gets an optional parameter value as a signed offset in milliseconds. The value may be a number of milliseconds or
+     * a duration string with a time unit suffix and an optional leading minus sign, such as "-30m". Defaults to zero.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value, in milliseconds.
+     */
+    private long getOffset(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = parameters == null ? null : parameters.get(key);
+
+        if (value == null)
+            return 0;
+
+        if (value instanceof Number number)
+            return number.longValue();
+
+        var string = value.toString().trim();
+
+        try {
+            return string.startsWith("-")
+                    ? -TimeConverter.convertToMilliseconds(string.substring(1))
+                    : TimeConverter.convertToMilliseconds(string);
+        } catch (IllegalArgumentException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be a duration", e);
+        }
+    }
+
+    /**
+     * Gets a required parameter value as a positive duration in milliseconds. The value may be a number of milliseconds
+     * or a duration string with a time unit suffix.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value, in milliseconds.
+     */
+    private long getPositiveDuration(Long ruleId, Map<String, Object> parameters, String key) {
+        getRequired(ruleId, parameters, key);
+
+        var duration = getDuration(ruleId, parameters, key);
+
+        if (duration == 0)
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be positive");
+
+        return duration;
+    }
+
+    /**
+     * Gets an optional parameter value as a boolean. The value may be a {@link Boolean} or its string representation.
+     * Defaults to false.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private boolean getBoolean(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = parameters == null ? null : parameters.get(key);
+
+        if (value == null || value instanceof Boolean)
+            return Boolean.TRUE.equals(value);
+
+        return switch (value.toString().toLowerCase()) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new RuleCompilationException(ruleId, "parameter " + key + " must be a boolean");
+        };
+    }
+
+    /**
+     * Gets a required parameter value as a string.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private String getString(Long ruleId, Map<String, Object> parameters, String key) {
+        if (getRequired(ruleId, parameters, key) instanceof String string)
+            return string;
+
+        throw new RuleCompilationException(ruleId, "parameter " + key + " must be a string");
+    }
+
+    /**
+     * Gets a required parameter value as a time of day. The value may be a {@link LocalTime} or an ISO-8601 time string.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private LocalTime getTime(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = getRequired(ruleId, parameters, key);
+
+        if (value instanceof LocalTime time)
+            return time;
+
+        try {
+            return LocalTime.parse(value.toString());
+        } catch (DateTimeParseException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be a time of day", e);
+        }
+    }
+
+    /**
+     * Gets an optional parameter value as a set of dates. The value may be a collection of {@link LocalDate} or
+     * ISO-8601 date strings, or a single string of comma separated dates. Defaults to no dates.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private Set<LocalDate> getDates(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = parameters == null ? null : parameters.get(key);
+        var dates = new HashSet<LocalDate>();
+
+        if (value == null)
+            return dates;
+
+        Collection<?> values = value instanceof Collection<?> collection
+                ? collection
+                : Arrays.asList(value.toString().split(","));
+
+        for (var date : values) {
+            if (date instanceof LocalDate localDate) {
+                dates.add(localDate);
+                continue;
+            }
+
+            try {
+                dates.add(LocalDate.parse(date.toString().trim()));
+            } catch (DateTimeParseException e) {
+                throw new RuleCompilationException(ruleId, "parameter " + key + " must be a list of dates", e);
+            }
+        }
+
+        return dates;
+    }
+
+    /**
+     * Gets a required parameter value as an attribute. The value may be an {@link Attribute} or its json
+     * representation.
+     *
+     * @param ruleId     The id of the rule the parameter belongs to.
+     * @param parameters The parameters to get the value from.
+     * @param key        The key of the parameter.
+     * @return The parameter value.
+     */
+    private Attribute getAttribute(Long ruleId, Map<String, Object> parameters, String key) {
+        var value = getRequired(ruleId, parameters, key);
+
+        if (value instanceof Attribute attribute)
+            return attribute;
+
+        try {
+            var attribute = value instanceof String json
+                    ? objectMapper.readValue(json, Attribute.class)
+                    : objectMapper.convertValue(value, Attribute.class);
+
+            if (attribute.getName() == null)
+                throw new RuleCompilationException(ruleId, "parameter " + key + " must name an attribute");
+
+            return attribute;
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new RuleCompilationException(ruleId, "parameter " + key + " must be an attribute", e);
+        }
+    }
+}
@@ -1,28 +1,40 @@
 package com.hover.iot.engine.implementation;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.hover.iot.constants.RuleParameterConstants;
 import com.hover.iot.engine.IRuleEngine;
-import com.hover.iot.entity.*;
-import com.hover.iot.enumeration.TriggerType;
-import com.hover.iot.event.*;
+import com.hover.iot.engine.IRuleFiringListener;
+import com.hover.iot.engine.metrics.RuleEngineMetrics;
+import com.hover.iot.engine.model.AttributeAggregateTrigger;
+import com.hover.iot.engine.model.AttributeHeldTrigger;
+import com.hover.iot.engine.model.CausalityChain;
+import com.hover.iot.engine.model.CompiledAction;
+import com.hover.iot.engine.model.CompiledRule;
+import com.hover.iot.engine.model.DeviceUpdate;
+import com.hover.iot.engine.model.FiringCause;
+import com.hover.iot.engine.model.RuleExecution;
+import com.hover.iot.engine.model.RuleFiring;
+import com.hover.iot.engine.model.ScheduledTrigger;
+import com.hover.iot.engine.model.SlidingWindow;
+import com.hover.iot.engine.scheduler.TriggerScheduler;
+import com.hover.iot.entity.Device;
+import com.hover.iot.entity.Rule;
+import com.hover.iot.event.RuleActionEvent;
+import com.hover.iot.exception.RuleCompilationException;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
+import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.StampedLock;
-
-import static com.hover.iot.constants.RuleParameterConstants.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
 
 /**
  * A Rule Engine for evaluating and executing automation rules. Implements the {@link IRuleEngine} interface.
@@ -36,76 +48,154 @@ public class RuleEngine implements IRuleEngine {
     private final static Logger LOGGER = LoggerFactory.getLogger(RuleEngine.class);
 
     /**
-     * Atomic counter for the number of scheduled tasks.
+     * The registered rules and their device index. Readers evaluate the index entries of a device without locking, and
+     * writers swap in new entries for only the devices the changed rules reference.
      */
-    private static final int MAX_SCHEDULED_TASKS = 15;
+    private final RuleIndex index = new RuleIndex();
 
     /**
-     * A lock that allows multiple readers and exclusive writers with optimistic read locking.
+     * A lock that serializes writers, so that concurrent registrations do not lose each other's index updates.
+     * Readers never take this lock.
      */
-    private final StampedLock lock = new StampedLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
 
     /**
-     * A list of registered rules in the rule engine.
+     * The application event publisher used for publishing events to the application's event system.
      */
-    private final List<Rule> rules = new ArrayList<>();
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * The application event publisher used for publishing events to the application's event system.
+     * The compiler used to compile rules into execution plans.
      */
-    private final ApplicationEventPublisher eventPublisher;
+    private final RuleCompiler ruleCompiler;
+
+    /**
+     * The scheduler that drives the scheduled triggers of rules.
+     */
+    private final TriggerScheduler triggerScheduler;
+
+    /**
+     * The guard that bounds the cascades of rules triggering each other.
+     */
+    private final CascadeGuard cascadeGuard;
 
     /**
-     * The object mapper used for serialization and deserialization of json data.
+     * The coalescer that suppresses identical commands sent to the same target within a short window.
      */
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ActionCoalescer actionCoalescer;
 
     /**
-     * The scheduled executor service used for scheduling rule executions.
+     * The metrics the engine records its evaluations, firings and action failures with.
      */
-    private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(15);
+    private final RuleEngineMetrics metrics;
 
     /**
-     * An atomic counter for the number of scheduled tasks.
+     * The recurring schedules of the registered rules, keyed by the rule's id.
      */
-    private final AtomicInteger scheduledTaskCount = new AtomicInteger(0);
+    private final Map<Long, List<RecurringSchedule>> recurringSchedules = new ConcurrentHashMap<>();
 
     /**
-     * A map that stores the scheduled futures for each rule.
+     * The armed timers of the held triggers whose condition currently holds.
      */
-    private final Map<Rule, ScheduledFuture<?>> scheduledFutures = new ConcurrentHashMap<>();
+    private final Map<AttributeHeldTrigger, TriggerScheduler.Timeout> heldTimers = new ConcurrentHashMap<>();
+
+    /**
+     * The listeners notified whenever a rule executes.
+     */
+    private final List<IRuleFiringListener> firingListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Initializes a new instance of {@link RuleEngine} class.
      *
-     * @param eventPublisher the ApplicationEventPublisher used for publishing events
+     * @param eventPublisher   the ApplicationEventPublisher used for publishing events
+     * @param ruleCompiler     the compiler used to compile rules into execution plans
+     * @param triggerScheduler the scheduler that drives the scheduled triggers of rules
+     * @param cascadeGuard     the guard that bounds the cascades of rules triggering each other
+     * @param actionCoalescer  the coalescer that suppresses identical commands sent to the same target
+     * @param metrics          the metrics the engine records its evaluations, firings and action failures with
      */
-    public RuleEngine(ApplicationEventPublisher eventPublisher) {
+    public RuleEngine(ApplicationEventPublisher eventPublisher, RuleCompiler ruleCompiler,
+                      TriggerScheduler triggerScheduler, CascadeGuard cascadeGuard, ActionCoalescer actionCoalescer,
+                      RuleEngineMetrics metrics) {
         this.eventPublisher = eventPublisher;
+        this.ruleCompiler = ruleCompiler;
+        this.triggerScheduler = triggerScheduler;
+        this.cascadeGuard = cascadeGuard;
+        this.actionCoalescer = actionCoalescer;
+        this.metrics = metrics;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The rule is compiled before the engine is touched, so a malformed update leaves the registered version running.
+     * A registered version is replaced incrementally: only its index entries, schedules and timers are swapped. It is
+     * retired before the new version is indexed, so that it stops executing at once; while the index entries of the
+     * new version are swapped in device by device, an update may fire neither version, but never both.
      */
     @Override
     public void registerRule(@NotNull Rule rule) {
-        var stamp = lock.writeLock();
+        var compiledRule = ruleCompiler.compile(rule);
+
+        writeLock.lock();
         try {
-            rules.add(rule);
+            var previous = index.getRule(compiledRule.getId());
 
-            for (var trigger : rule.getTriggers()) {
-                if (trigger.getType() != TriggerType.TIME_OF_DAY)
-                    continue;
+            if (previous != null)
+                previous.retire();
+
+            cancelScheduledExecution(compiledRule.getId());
+            index.put(compiledRule);
+            scheduleRuleExecution(compiledRule);
+        } finally {
+            writeLock.unlock();
+        }
+
+        metrics.ruleRegistered(compiledRule);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As with {@link #registerRule(Rule)}, the registered versions are retired before the new versions are indexed.
+     */
+    @Override
+    public int registerRules(@NotNull Collection<Rule> rules) {
+        var compiledRules = new ArrayList<CompiledRule>(rules.size());
+
+        for (var rule : rules) {
+            try {
+                compiledRules.add(ruleCompiler.compile(rule));
+            } catch (RuleCompilationException e) {
+                LOGGER.error("Skipping malformed rule with id -> {}, {}", rule.getId(), e.getMessage());
+            }
+        }
+
+        writeLock.lock();
+        try {
+            for (var compiledRule : compiledRules) {
+                var registered = index.getRule(compiledRule.getId());
+
+                if (registered != null)
+                    registered.retire();
+
+                cancelScheduledExecution(compiledRule.getId());
+            }
 
-                if (scheduledTaskCount.get() >= MAX_SCHEDULED_TASKS)
-                    throw new IllegalStateException("Maximum scheduled rule execution limit reached. " +
-                            "Cannot register rule with time-based trigger.");
+            index.putAll(compiledRules);
 
-                scheduleRuleExecution(rule);
+            for (var compiledRule : compiledRules) {
+                scheduleRuleExecution(compiledRule);
             }
         } finally {
-            lock.unlockWrite(stamp);
+            writeLock.unlock();
+        }
+
+        for (var compiledRule : compiledRules) {
+            metrics.ruleRegistered(compiledRule);
         }
+
+        return compiledRules.size();
     }
 
     /**
@@ -115,211 +205,550 @@ public class RuleEngine implements IRuleEngine {
     public void unregisterRule(@NotNull Rule rule) {
         LOGGER.debug("Cancelling rule with id -> {}", rule.getId());
 
-        var stamp = lock.writeLock();
+        writeLock.lock();
         try {
-            rules.remove(rule);
+            var registered = index.getRule(rule.getId());
 
-            var schedule = scheduledFutures.get(rule);
+            if (registered != null)
+                registered.retire();
 
-            if (schedule != null) {
-                if (!schedule.isCancelled()) {
-                    LOGGER.debug("Cancelling running schedule");
-                    schedule.cancel(true);
-                }
-                scheduledFutures.remove(rule);
-            }
+            cancelScheduledExecution(rule.getId());
+            index.remove(rule.getId());
         } finally {
-            lock.unlockWrite(stamp);
+            writeLock.unlock();
         }
+
+        cascadeGuard.forget(rule.getId());
+        metrics.ruleUnregistered(rule.getId());
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void evaluatePossibleTrigger(@NotNull Device device) {
+    public void evaluatePossibleTrigger(@NotNull Device device, String attribute,
+                                        @NotNull CausalityChain causalityChain) {
+        evaluateDevice(device, attribute, causalityChain, triggerScheduler.getClock().millis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evaluatePossibleTriggers(@NotNull List<DeviceUpdate> updates) {
+        LOGGER.debug("Evaluating batch of {} device updates", updates.size());
+
+        var now = triggerScheduler.getClock().millis();
+
+        for (var update : updates) {
+            evaluateDevice(update.device(), update.attribute(), update.causalityChain(), now);
+        }
+    }
+
+    /**
+     * Evaluates the rules that reference an updated device and executes the rules that fire. The time spent evaluating
+     * each rule is recorded in its statistics, and the time of the whole evaluation in the engine's metrics; the time
+     * spent executing the rules that fire is not included.
+     *
+     * @param device         The updated device.
+     * @param attribute      The name of the updated attribute, or null if it is not known which attributes changed.
+     * @param causalityChain The chain of rules whose actions caused the update.
+     * @param now            The time of the update, in milliseconds since the epoch.
+     */
+    private void evaluateDevice(@NotNull Device device, String attribute, CausalityChain causalityChain, long now) {
         LOGGER.debug("Evaluating possible rule from device -> {}", device.getId());
-        var stamp = lock.readLock();
-        try {
-            for (var rule : rules) {
 
-                var trigger = checkDeviceMatchesTrigger(rule, device.getId());
+        var entries = index.getEntries(device.getId());
+        var total = 0L;
+
+        addWindowSamples(entries, device, attribute, now);
+
+        for (var entry : entries) {
+            var start = System.nanoTime();
+            var trigger = evaluateEntry(entry, device, now);
+            var elapsed = System.nanoTime() - start;
+
+            entry.rule().getStatistics().recordEvaluation(elapsed);
+            total += elapsed;
+
+            if (trigger >= 0)
+                fireRule(entry.rule(), new FiringCause(causalityChain, device.getId(), trigger), now);
+        }
 
-                if (trigger == null)
+        metrics.recordEvaluation(total);
+    }
+
+    /**
+     * Adds the updated attribute to the sliding windows of the aggregate triggers that reference the device, before
+     * any of them is tested. A window shared by several triggers is added to once, so that each update counts once
+     * however many rules aggregate the attribute, and the windows of other attributes are left as they are.
+     *
+     * @param entries   The index entries of the rules that reference the device.
+     * @param device    The updated device.
+     * @param attribute The name of the updated attribute, or null to sample every aggregated attribute.
+     * @param now       The time of the update, in milliseconds since the epoch.
+     */
+    private static void addWindowSamples(RuleIndex.Entry[] entries, @NotNull Device device, String attribute,
+                                         long now) {
+        List<SlidingWindow> sampled = null;
+
+        for (var entry : entries) {
+            var triggers = entry.rule().getTriggers();
+
+            for (var leaf : entry.leaves()) {
+                if (!(triggers.get(leaf) instanceof AttributeAggregateTrigger trigger)
+                        || (attribute != null && !attribute.equals(trigger.getAttribute())))
                     continue;
 
-                if (trigger.getType() == TriggerType.ATTRIBUTE_THRESHOLD) {
-                    evaluateAttributeThreshold(rule, device, trigger);
+                if (sampled == null)
+                    sampled = new ArrayList<>();
+                else if (containsWindow(sampled, trigger.getWindow()))
                     continue;
-                }
 
-                for (var action : rule.getActions()) {
-                    performAction(action);
-                }
+                sampled.add(trigger.getWindow());
+                trigger.addSample(device, now);
             }
-
-        } finally {
-            lock.unlockRead(stamp);
         }
     }
 
     /**
-     * Checks if a device matches the trigger conditions of a rule.
+     * Checks whether a list holds a window, by identity.
      *
-     * @param rule the Rule to be checked
-     * @param id   the ID of the device to be checked
-     * @return the matching RuleTrigger, or null if no match is found
-     */
-    private RuleTrigger checkDeviceMatchesTrigger(@NotNull Rule rule, Long id) {
-        return rule.getTriggers().stream()
-                .filter(trigger -> trigger.getType() == TriggerType.ATTRIBUTE_CHANGE)
-                .filter(trigger -> {
-                    var parameters = trigger.getParameters();
-                    var entityId = (Long) parameters.get(RULE_PARAMETER_ENTITY_ID_KEY);
-                    return entityId != null && entityId.equals(id);
-                })
-                .findFirst()
-                .orElse(null);
+     * @param windows The windows.
+     * @param window  The window to look for.
+     * @return true if the list holds the window, otherwise false.
+     */
+    private static boolean containsWindow(@NotNull List<SlidingWindow> windows, SlidingWindow window) {
+        for (var _window : windows) {
+            if (_window == window)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addFiringListener(@NotNull IRuleFiringListener listener) {
+        firingListeners.add(listener);
     }
 
     /**
-     * Evaluates an attribute threshold for a specific device and performs associated actions if the attribute value
-     * is within the threshold range with the specified tolerance.
+     * Evaluates the triggers of a rule that reference an updated device. Only these triggers are re-evaluated; rules
+     * that combine their triggers with AND combine them with the cached conditions of their other triggers.
      *
-     * @param rule    The rule containing the desired trigger.
-     * @param device  The device to evaluate the trigger against.
-     * @param trigger The rule trigger to evaluate.
-     */
-    private void evaluateAttributeThreshold(Rule rule, @NotNull Device device, @NotNull RuleTrigger trigger) {
-        var attributeKey = (String) trigger.getParameters().get(RuleParameterConstants.RULE_PARAMETER_ATTRIBUTE_KEY);
-        var attributeValue = device.getAttributeValue(attributeKey, Integer.class);
-        var threshold = (Double) trigger.getParameters().get(RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY);
-        var tolerance = 2.0;
-
-        if (attributeValue != null && Math.abs(attributeValue - threshold) <= tolerance) {
-            for (var action : rule.getActions()) {
-                performAction(action);
-            }
+     * @param entry  The index entry of the rule and its triggers that reference the device.
+     * @param device The updated device.
+     * @param now    The time of the update, in milliseconds since the epoch.
+     * @return The index of the trigger that fired the rule, which is the first trigger that fired on the update, or
+     * the first re-evaluated one if the rule's conditions became satisfied without any of them firing; or -1 if the
+     * rule does not fire.
+     */
+    private int evaluateEntry(@NotNull RuleIndex.Entry entry, Device device, long now) {
+        var rule = entry.rule();
+        var leaves = entry.leaves();
+        var first = new int[]{-1};
+        IntPredicate fired = leaf -> {
+            if (!testTrigger(rule, leaf, device, now))
+                return false;
+
+            if (first[0] < 0)
+                first[0] = leaf;
+
+            return true;
+        };
+
+        if (rule.getConditionState() != null) {
+            if (!rule.getConditionState().evaluate(leaves, fired, now))
+                return -1;
+
+            return first[0] < 0 ? leaves[0] : first[0];
+        }
+
+        // Every trigger is tested, even after one fires, so that stateful triggers see every update.
+        for (var leaf : leaves) {
+            fired.test(leaf);
         }
+
+        return first[0];
     }
 
     /**
-     * Performs the action o of the rule.
+     * Tests a trigger of a rule against a device update.
      *
-     * @param action The action to be performed.
+     * @param rule   The rule the trigger belongs to.
+     * @param leaf   The index of the trigger in the rule.
+     * @param device The updated device.
+     * @param now    The time of the update, in milliseconds since the epoch.
+     * @return true if the trigger fired, otherwise false.
      */
-    private void performAction(@NotNull RuleAction action) {
-        switch (action.getType()) {
-            case ATTRIBUTE -> executeAttributeAction(action);
-            case SCENE -> executeSceneAction(action);
-            case NOTIFICATION -> executeNotificationAction(action);
+    private boolean testTrigger(@NotNull CompiledRule rule, int leaf, Device device, long now) {
+        var trigger = rule.getTriggers().get(leaf);
+
+        if (trigger instanceof AttributeHeldTrigger heldTrigger) {
+            evaluateHeldTrigger(rule, leaf, heldTrigger, device, now);
+            return false;
         }
+
+        return trigger.test(device, now);
     }
 
     /**
-     * Schedules the execution of a time-based rule.
+     * Arms or disarms the timer of a held trigger according to a device update.
      *
-     * @param rule The Rule to be scheduled.
-     */
-    private void scheduleRuleExecution(@NotNull Rule rule) {
-        for (var trigger : rule.getTriggers()) {
-            if (trigger.getType() == TriggerType.TIME_OF_DAY) {
-                var parameters = trigger.getParameters();
-                var timeOfDay = (LocalTime) parameters.get(RuleParameterConstants.RULE_PARAMETER_TIME_OF_DAY_KEY);
-
-                long initialDelay = calculateInitialDelay(timeOfDay);
-
-                ScheduledFuture<?> future = executorService.schedule(() -> {
-                    for (var action : rule.getActions()) {
-                        try {
-                            performAction(action);
-                        } catch (Exception e) {
-                            handleActionExecutionError(action, e);
-                        }
-                    }
-                }, initialDelay, TimeUnit.MILLISECONDS);
-
-                storeScheduledFuture(rule, future);
+     * @param rule    The rule the trigger belongs to.
+     * @param leaf    The index of the trigger in the rule.
+     * @param trigger The held trigger.
+     * @param device  The updated device.
+     * @param now     The time of the update, in milliseconds since the epoch.
+     */
+    private void evaluateHeldTrigger(CompiledRule rule, int leaf, @NotNull AttributeHeldTrigger trigger,
+                                     Device device, long now) {
+        var generation = trigger.sample(device);
+
+        if (generation < 0)
+            return;
+
+        var previous = heldTimers.remove(trigger);
+
+        if (previous != null)
+            previous.cancel();
+
+        if (generation == 0)
+            return;
+
+        LOGGER.debug("Arming held trigger of rule with id -> {}", rule.getId());
+
+        var timeout = triggerScheduler.schedule(Instant.ofEpochMilli(now + trigger.getDurationMs()),
+                () -> fireHeldTrigger(rule, leaf, trigger, generation));
+
+        heldTimers.put(trigger, timeout);
+    }
+
+    /**
+     * Fires a held trigger whose timer expired, executing the rule if the arming is still current and the rule is
+     * still registered.
+     *
+     * @param rule       The rule the trigger belongs to.
+     * @param leaf       The index of the trigger in the rule.
+     * @param trigger    The held trigger.
+     * @param generation The generation of the arming the timer belongs to.
+     */
+    private void fireHeldTrigger(@NotNull CompiledRule rule, int leaf, @NotNull AttributeHeldTrigger trigger,
+                                 long generation) {
+        if (!trigger.fire(generation) || rule.isRetired())
+            return;
+
+        heldTimers.remove(trigger);
+
+        if (fireLeaf(rule, leaf, true))
+            fireRule(rule, new FiringCause(CausalityChain.ROOT, null, leaf), triggerScheduler.getClock().millis());
+    }
+
+    /**
+     * Fires a trigger of a rule outside a device update, such as when a timer expires.
+     *
+     * @param rule  The rule the trigger belongs to.
+     * @param leaf  The index of the trigger in the rule.
+     * @param fired Whether the trigger fired.
+     * @return true if the rule fires, otherwise false.
+     */
+    private boolean fireLeaf(@NotNull CompiledRule rule, int leaf, boolean fired) {
+        var conditionState = rule.getConditionState();
+
+        if (conditionState == null)
+            return fired;
+
+        return conditionState.evaluate(new int[]{leaf}, ignored -> fired, triggerScheduler.getClock().millis());
+    }
+
+    /**
+     * Cancels the recurring schedules and held trigger timers of a rule, if any.
+     *
+     * @param id The id of the rule.
+     */
+    private void cancelScheduledExecution(Long id) {
+        var registered = index.getRule(id);
+
+        if (registered != null) {
+            for (var trigger : registered.getTriggers()) {
+                if (!(trigger instanceof AttributeHeldTrigger heldTrigger))
+                    continue;
+
+                var timeout = heldTimers.remove(heldTrigger);
+
+                if (timeout != null)
+                    timeout.cancel();
             }
         }
+
+        var schedules = recurringSchedules.remove(id);
+
+        if (schedules == null)
+            return;
+
+        LOGGER.debug("Cancelling running schedule");
+
+        for (var schedule : schedules) {
+            schedule.cancel();
+        }
     }
 
     /**
-     * Executes an attribute-based rule action.
+     * Performs a compiled action of a rule by publishing its event.
      *
-     * @param action the RuleAction to be executed
+     * @param action         The action to be performed.
+     * @param causalityChain The chain of rules whose actions caused the event, ending with the rule of the action.
+     * @return true if the action was performed, or false if it was coalesced with the same command sent just before.
      */
-    private void executeAttributeAction(@NotNull RuleAction action) {
-        var parameters = action.getParameters();
+    private boolean performAction(@NotNull CompiledAction action, CausalityChain causalityChain) {
+        if (!actionCoalescer.tryPerform(action))
+            return false;
 
-        var entityId = (Long) parameters.get(RULE_PARAMETER_ENTITY_ID_KEY);
+        eventPublisher.publishEvent(action.createEvent(this, causalityChain));
+        return true;
+    }
 
-        var obj = (String) parameters.get(RuleParameterConstants.RULE_PARAMETER_ATTRIBUTES_KEY);
+    /**
+     * Schedules the recurring execution of the scheduled triggers of a rule.
+     *
+     * @param rule The rule to be scheduled.
+     */
+    private void scheduleRuleExecution(@NotNull CompiledRule rule) {
+        var schedules = new ArrayList<RecurringSchedule>();
+        var triggers = rule.getTriggers();
+        var now = ZonedDateTime.now(triggerScheduler.getClock());
+
+        for (int i = 0; i < triggers.size(); i++) {
+            if (triggers.get(i) instanceof ScheduledTrigger scheduledTrigger) {
+                scheduledTrigger.advanceTo(now);
+                schedules.add(new RecurringSchedule(rule, i, scheduledTrigger));
+            }
+        }
 
-        try {
-            var attribute = objectMapper.readValue(obj, Attribute.class);
-            eventPublisher.publishEvent(new AttributeActionEvent(this, entityId, attribute));
+        if (rule.getConditionState() != null)
+            rule.getConditionState().initialize(now.toInstant().toEpochMilli());
 
-        } catch (JsonProcessingException e) {
-            handleActionExecutionError(action, e);
+        if (schedules.isEmpty())
+            return;
+
+        recurringSchedules.put(rule.getId(), schedules);
+
+        for (var schedule : schedules) {
+            schedule.scheduleAfter(now);
         }
     }
 
     /**
-     * Executes a scene-based rule action.
+     * Fires a rule, executing it unless its debounce policy collapses the firing into another execution.
      *
-     * @param action the RuleAction to be executed
+     * @param rule  The rule that fired.
+     * @param cause The cause of the firing.
+     * @param now   The time the rule fired, in milliseconds since the epoch.
      */
-    private void executeSceneAction(@NotNull RuleAction action) {
-        var parameters = action.getParameters();
-        var entityId = (Long) parameters.get(RULE_PARAMETER_ENTITY_ID_KEY);
+    private void fireRule(@NotNull CompiledRule rule, @NotNull FiringCause cause, long now) {
+        var debouncer = rule.getDebouncer();
 
-        eventPublisher.publishEvent(new SceneActionEvent(this, entityId));
+        if (debouncer == null) {
+            executeRule(rule, cause);
+            return;
+        }
+
+        if (!debouncer.fire(cause))
+            return;
+
+        scheduleDebounceExpiry(rule, now);
+
+        if (debouncer.getEdge().isLeading())
+            executeRule(rule, cause);
     }
 
     /**
-     * Executes a notification-based rule action.
+     * Schedules the end of the debounce window of a rule.
      *
-     * @param action the RuleAction to be executed
+     * @param rule     The debounced rule.
+     * @param openedAt The time the window opened, in milliseconds since the epoch.
      */
-    private void executeNotificationAction(@NotNull RuleAction action) {
-        var parameters = action.getParameters();
-        var id = (Long) parameters.get(RULE_PARAMETER_ENTITY_ID_KEY);
-        var message = (String) parameters.get(RULE_PARAMETER_NOTIFICATION_MESSAGE_KEY);
-
-        eventPublisher.publishEvent(new NotifyActionEvent(this, id, message));
+    private void scheduleDebounceExpiry(@NotNull CompiledRule rule, long openedAt) {
+        triggerScheduler.schedule(Instant.ofEpochMilli(openedAt + rule.getDebouncer().getWindowMs()),
+                () -> expireDebounce(rule));
     }
 
     /**
-     * Handles the error that occurs during the execution of a rule action.
+     * Ends the debounce window of a rule, executing the rule for the last firing within the window if the rule is
+     * debounced on its trailing edge and is still registered.
      *
-     * @param action The rule action that encountered an error during execution.
-     * @param e      The exception that occurred during the execution of the rule action.
+     * @param rule The debounced rule.
      */
-    private void handleActionExecutionError(RuleAction action, Exception e) {
-        eventPublisher.publishEvent(new RuleActionEvent(this, action, false));
-        LOGGER.error("An error occurred while attempting to execute the rule action -> {}", action, e);
+    private void expireDebounce(@NotNull CompiledRule rule) {
+        var trailing = rule.getDebouncer().expire();
+
+        if (trailing == null || rule.isRetired())
+            return;
+
+        scheduleDebounceExpiry(rule, triggerScheduler.getClock().millis());
+        executeRule(rule, trailing);
     }
 
     /**
-     * Calculates the initial delay in milliseconds from the current time to the specified time of day.
+     * Executes the actions of a rule, handling the errors of each action separately. The rule is not executed if it
+     * was retired by a newer version or unregistered since it was evaluated, or if the cascade guard drops the firing.
+     * The firing listeners are notified before the actions are performed and again with the outcome once they have
+     * been.
      *
-     * @param time The time to calculate the initial delay to.
-     * @return The initial delay in milliseconds.
+     * @param rule  The rule to execute.
+     * @param cause The cause of the firing.
      */
-    private long calculateInitialDelay(LocalTime time) {
-        LocalTime currentTime = LocalTime.now();
-        return currentTime.until(time, ChronoUnit.MILLIS);
+    private void executeRule(@NotNull CompiledRule rule, @NotNull FiringCause cause) {
+        var causalityChain = cause.causalityChain();
+
+        if (rule.isRetired() || !cascadeGuard.tryFire(rule.getId(), causalityChain))
+            return;
+
+        metrics.recordFiring(rule);
+
+        var start = System.nanoTime();
+        var executedAt = firingListeners.isEmpty() ? null : triggerScheduler.getClock().instant();
+
+        if (executedAt != null) {
+            var firing = new RuleFiring(rule.getId(), rule.getName(), causalityChain, executedAt);
+
+            for (var listener : firingListeners) {
+                listener.onRuleFired(firing);
+            }
+        }
+
+        var caused = causalityChain.then(rule.getId());
+        var coalesced = 0;
+        var failed = 0;
+        String error = null;
+
+        for (var action : rule.getActions()) {
+            try {
+                if (!performAction(action, caused))
+                    coalesced++;
+            } catch (Exception e) {
+                handleActionExecutionError(rule, action, e);
+
+                if (failed++ == 0)
+                    error = e.getMessage();
+            }
+        }
+
+        if (executedAt == null)
+            return;
+
+        var execution = new RuleExecution(rule.getId(), rule.getName(), cause.deviceId(), causalityChain,
+                cause.trigger(), rule.getTriggers().get(cause.trigger()).getType(), executedAt,
+                rule.getActions().size(), coalesced, failed, error, System.nanoTime() - start);
+
+        for (var listener : firingListeners) {
+            listener.onRuleExecuted(execution);
+        }
     }
 
     /**
-     * Stores the scheduled future associated with a rule for later reference.
+     * Handles the error that occurs during the execution of a rule action.
      *
-     * @param rule   the rule for which to store the scheduled future
-     * @param future the scheduled future to be stored
+     * @param rule   The rule the action belongs to.
+     * @param action The rule action that encountered an error during execution.
+     * @param e      The exception that occurred during the execution of the rule action.
      */
-    private void storeScheduledFuture(Rule rule, ScheduledFuture<?> future) {
-        scheduledFutures.put(rule, future);
+    private void handleActionExecutionError(CompiledRule rule, CompiledAction action, Exception e) {
+        metrics.recordActionFailure(rule, action);
+        eventPublisher.publishEvent(new RuleActionEvent(this, action.getAction(), false));
+        LOGGER.error("An error occurred while attempting to execute the rule action -> {}", action, e);
     }
-}
 
+    /**
+     * The recurring schedule of a scheduled trigger. Each firing reschedules the trigger at its next fire time before
+     * the rule's actions are executed on the scheduler's workers.
+     */
+    private final class RecurringSchedule {
+
+        /**
+         * The rule to execute.
+         */
+        private final CompiledRule rule;
+
+        /**
+         * The index of the trigger in the rule.
+         */
+        private final int leaf;
+
+        /**
+         * The scheduled trigger of the rule.
+         */
+        private final ScheduledTrigger trigger;
+
+        /**
+         * The handle of the pending firing.
+         */
+        private TriggerScheduler.Timeout timeout;
+
+        /**
+         * Whether the schedule has been cancelled.
+         */
+        private boolean cancelled;
+
+        /**
+         * Initializes a new instance of {@link RecurringSchedule} class.
+         *
+         * @param rule    The rule to execute.
+         * @param leaf    The index of the trigger in the rule.
+         * @param trigger The scheduled trigger of the rule.
+         */
+        private RecurringSchedule(CompiledRule rule, int leaf, ScheduledTrigger trigger) {
+            this.rule = rule;
+            this.leaf = leaf;
+            this.trigger = trigger;
+        }
+
+        /**
+         * Schedules the next firing of the trigger after a time.
+         *
+         * @param after The time after which the trigger should next fire.
+         */
+        private synchronized void scheduleAfter(ZonedDateTime after) {
+            if (cancelled)
+                return;
+
+            var next = trigger.nextFireTime(after);
+
+            LOGGER.debug("Scheduling rule with id -> {} at -> {}", rule.getId(), next);
+
+            timeout = triggerScheduler.schedule(next.toInstant(), () -> fire(next));
+        }
+
+        /**
+         * Fires the trigger, rescheduling it before executing the rule's actions if the rule fires.
+         *
+         * @param firedAt The time the trigger was scheduled to fire at.
+         */
+        private void fire(ZonedDateTime firedAt) {
+            var fired = trigger.advanceTo(firedAt);
+
+            scheduleAfter(firedAt);
+
+            synchronized (this) {
+                if (cancelled)
+                    return;
+            }
+
+            if (fireLeaf(rule, leaf, fired))
+                fireRule(rule, new FiringCause(CausalityChain.ROOT, null, leaf), triggerScheduler.getClock().millis());
+        }
+
+        /**
+         * Cancels the schedule.
+         */
+        private synchronized void cancel() {
+            cancelled = true;
+
+            if (timeout != null)
+                timeout.cancel();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.engine.model.CompiledRule;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The compiled rules registered in the {@link RuleEngine} and the device index over them.
+ * <p>
+ * The index maps each device to an immutable array of entries, which is never modified in place: registering or
+ * unregistering rules builds new arrays for only the devices the changed rules reference, and swaps each of them in
+ * atomically. A change therefore costs time proportional to the entries of those devices rather than to the number of
+ * registered rules and devices, and readers look up the entries of a device without any locking. A reader sees the
+ * entries of each device atomically, while a change of a rule that references several devices becomes visible device
+ * by device; the engine therefore retires a replaced rule before indexing its new version, so that the two versions
+ * never both fire.
+ */
+public final class RuleIndex {
+
+    /**
+     * The index entries returned for devices that no rule references.
+     */
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    /**
+     * The compiled rules, keyed by the rule's id.
+     */
+    private final Map<Long, CompiledRule> rules = new ConcurrentHashMap<>();
+
+    /**
+     * An index of device ids to the rules whose triggers reference the device.
+     */
+    private final Map<Long, Entry[]> deviceIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a compiled rule by its id.
+     *
+     * @param id The id of the rule.
+     * @return The compiled rule, or null if no rule with the id is registered.
+     */
+    public CompiledRule getRule(Long id) {
+        return rules.get(id);
+    }
+
+    /**
+     * Gets all registered compiled rules.
+     *
+     * @return An unmodifiable view of the compiled rules.
+     */
+    public Collection<CompiledRule> getRules() {
+        return Collections.unmodifiableCollection(rules.values());
+    }
+
+    /**
+     * Gets the index entries of the rules whose triggers reference a device. The returned array must not be modified.
+     *
+     * @param deviceId The id of the device.
+     * @return The index entries, or an empty array if no rule references the device.
+     */
+    public Entry[] getEntries(Long deviceId) {
+        return deviceIndex.getOrDefault(deviceId, NO_ENTRIES);
+    }
+
+    /**
+     * Gets the number of registered rules.
+     *
+     * @return The number of rules.
+     */
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * Adds a rule, replacing any rule with the same id.
+     *
+     * @param rule The rule to add.
+     */
+    public void put(@NotNull CompiledRule rule) {
+        putAll(List.of(rule));
+    }
+
+    /**
+     * Adds many rules at once, replacing any rules with the same ids. The entry array of each device the rules
+     * reference is rebuilt once for the whole batch rather than once per rule.
+     *
+     * @param added The rules to add. If the same id occurs more than once, the last rule wins.
+     */
+    public void putAll(@NotNull Collection<CompiledRule> added) {
+        if (added.isEmpty())
+            return;
+
+        var byId = new LinkedHashMap<Long, CompiledRule>();
+
+        for (var rule : added) {
+            byId.put(rule.getId(), rule);
+        }
+
+        var removals = new HashMap<Long, List<CompiledRule>>();
+        var additions = new HashMap<Long, List<Entry>>();
+
+        for (var rule : byId.values()) {
+            var previous = rules.put(rule.getId(), rule);
+
+            if (previous != null)
+                addRemovals(removals, previous);
+
+            indexedTriggers(rule).forEach((deviceId, leaves) ->
+                    additions.computeIfAbsent(deviceId, key -> new ArrayList<>()).add(new Entry(rule, leaves)));
+        }
+
+        swap(removals, additions);
+    }
+
+    /**
+     * Removes a rule.
+     *
+     * @param id The id of the rule to remove.
+     */
+    public void remove(Long id) {
+        var previous = rules.remove(id);
+
+        if (previous == null)
+            return;
+
+        var removals = new HashMap<Long, List<CompiledRule>>();
+
+        addRemovals(removals, previous);
+        swap(removals, Map.of());
+    }
+
+    /**
+     * Swaps in the rebuilt entry arrays of the devices whose entries change, one device at a time.
+     *
+     * @param removals  The rules to remove from the entries, keyed by device id.
+     * @param additions The entries to add, keyed by device id.
+     */
+    private void swap(@NotNull Map<Long, List<CompiledRule>> removals, @NotNull Map<Long, List<Entry>> additions) {
+        var devices = new HashSet<Long>(removals.keySet());
+
+        devices.addAll(additions.keySet());
+
+        for (var deviceId : devices) {
+            var removed = removals.getOrDefault(deviceId, List.of());
+            var entries = additions.getOrDefault(deviceId, List.of());
+
+            deviceIndex.compute(deviceId, (key, current) -> rebuild(current, removed, entries));
+        }
+    }
+
+    /**
+     * Rebuilds the entry array of a device. Entry arrays are copied, never modified in place, since readers may still
+     * be iterating them.
+     *
+     * @param current The current entries of the device, or null if no rule references it.
+     * @param removed The rules whose entries to remove.
+     * @param added   The entries to add.
+     * @return The new entries, or null if no rule references the device anymore.
+     */
+    private static Entry[] rebuild(Entry[] current, @NotNull List<CompiledRule> removed, @NotNull List<Entry> added) {
+        var next = new ArrayList<Entry>((current == null ? 0 : current.length) + added.size());
+
+        if (current != null) {
+            for (var entry : current) {
+                if (!containsRule(removed, entry.rule()))
+                    next.add(entry);
+            }
+        }
+
+        next.addAll(added);
+
+        return next.isEmpty() ? null : next.toArray(Entry[]::new);
+    }
+
+    /**
+     * Checks whether a list holds a rule, by identity, so that only the replaced version of a rule is removed.
+     *
+     * @param rules The rules.
+     * @param rule  The rule to look for.
+     * @return true if the list holds the rule, otherwise false.
+     */
+    private static boolean containsRule(@NotNull List<CompiledRule> rules, CompiledRule rule) {
+        for (var _rule : rules) {
+            if (_rule == rule)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Records a rule for removal from the entries of every device its triggers reference.
+     *
+     * @param removals The rules to remove, keyed by device id.
+     * @param rule     The rule to remove.
+     */
+    private static void addRemovals(@NotNull Map<Long, List<CompiledRule>> removals, @NotNull CompiledRule rule) {
+        for (var deviceId : indexedTriggers(rule).keySet()) {
+            removals.computeIfAbsent(deviceId, key -> new ArrayList<>()).add(rule);
+        }
+    }
+
+    /**
+     * Gets the indexes of the triggers of a rule, grouped by the id of the device they reference. A rule has a single
+     * entry per device it references, holding all of its triggers that reference the device, so a rule fires at most
+     * once per device update.
+     *
+     * @param rule The rule whose triggers to get.
+     * @return The trigger indexes, keyed by device id.
+     */
+    private static @NotNull Map<Long, int[]> indexedTriggers(@NotNull CompiledRule rule) {
+        var indexed = new HashMap<Long, int[]>();
+        var triggers = rule.getTriggers();
+
+        for (int i = 0; i < triggers.size(); i++) {
+            var deviceId = triggers.get(i).getDeviceId();
+
+            if (deviceId == null)
+                continue;
+
+            var leaves = indexed.getOrDefault(deviceId, new int[0]);
+            var next = Arrays.copyOf(leaves, leaves.length + 1);
+
+            next[leaves.length] = i;
+            indexed.put(deviceId, next);
+        }
+
+        return indexed;
+    }
+
+    /**
+     * A device index entry that pairs a compiled rule with its triggers that reference the indexed device.
+     *
+     * @param rule   The compiled rule.
+     * @param leaves The indexes of the rule's triggers that reference the device. Must not be modified.
+     */
+    public record Entry(CompiledRule rule, int[] leaves) {
+    }
+}
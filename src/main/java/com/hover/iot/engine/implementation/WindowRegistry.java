@@ -0,0 +1,121 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.engine.model.SlidingWindow;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The sliding windows of the attribute aggregate triggers, shared by every trigger that aggregates the same attribute
+ * of the same device over the same length, so that the samples of an attribute are held once however many rules
+ * aggregate it.
+ * <p>
+ * The registry holds its windows weakly, so a window is released once no compiled trigger references it anymore, and
+ * a new version of a rule that keeps its window picks up the samples of the version it replaces.
+ */
+public final class WindowRegistry {
+
+    /**
+     * The windows, keyed by the device, attribute and length they aggregate.
+     */
+    private final Map<Key, WindowReference> windows = new HashMap<>();
+
+    /**
+     * The queue the references of released windows are enqueued in.
+     */
+    private final ReferenceQueue<SlidingWindow> released = new ReferenceQueue<>();
+
+    /**
+     * The number of buckets each window is divided into.
+     */
+    private final int buckets;
+
+    /**
+     * Initializes a new instance of {@link WindowRegistry} class.
+     *
+     * @param buckets The number of buckets each window is divided into.
+     */
+    public WindowRegistry(int buckets) {
+        this.buckets = buckets;
+    }
+
+    /**
+     * Gets the window of an attribute of a device over a length, creating it if no trigger references it yet.
+     *
+     * @param deviceId  The id of the device.
+     * @param attribute The name of the attribute.
+     * @param windowMs  The length of the window, in milliseconds.
+     * @return The shared window.
+     */
+    public synchronized @NotNull SlidingWindow acquire(Long deviceId, String attribute, long windowMs) {
+        purge();
+
+        var key = new Key(deviceId, attribute, windowMs);
+        var reference = windows.get(key);
+        var window = reference == null ? null : reference.get();
+
+        if (window == null) {
+            window = new SlidingWindow(windowMs, buckets);
+            windows.put(key, new WindowReference(key, window, released));
+        }
+
+        return window;
+    }
+
+    /**
+     * Gets the number of windows that are still referenced.
+     *
+     * @return The number of windows.
+     */
+    public synchronized int size() {
+        purge();
+        return windows.size();
+    }
+
+    /**
+     * Removes the windows that have been released.
+     */
+    private void purge() {
+        WindowReference reference;
+
+        while ((reference = (WindowReference) released.poll()) != null) {
+            windows.remove(reference.key, reference);
+        }
+    }
+
+    /**
+     * The key of a window.
+     *
+     * @param deviceId  The id of the device.
+     * @param attribute The name of the attribute.
+     * @param windowMs  The length of the window, in milliseconds.
+     */
+    private record Key(Long deviceId, String attribute, long windowMs) {
+    }
+
+    /**
+     * A weak reference to a window that remembers the key it is registered under.
+     */
+    private static final class WindowReference extends WeakReference<SlidingWindow> {
+
+        /**
+         * The key the window is registered under.
+         */
+        private final Key key;
+
+        /**
+         * Initializes a new instance of {@link WindowReference} class.
+         *
+         * @param key      The key the window is registered under.
+         * @param window   The window.
+         * @param released The queue the reference is enqueued in once the window is released.
+         */
+        private WindowReference(Key key, SlidingWindow window, ReferenceQueue<SlidingWindow> released) {
+            super(window, released);
+            this.key = key;
+        }
+    }
+}
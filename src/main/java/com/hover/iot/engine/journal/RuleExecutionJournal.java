@@ -0,0 +1,244 @@
+package com.hover.iot.engine.journal;
+
+import com.hover.iot.engine.IRuleFiringListener;
+import com.hover.iot.engine.model.RuleExecution;
+import com.hover.iot.engine.model.RuleFiring;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An append-only journal of the executions of rules, for auditing the history of the automations.
+ * <p>
+ * Executions are journaled off the thread that executes the rule: the listener only offers the execution to a bounded
+ * queue, and a writer thread drains the queue in batches that are inserted with a single JDBC batch statement. When the
+ * queue is full, the overflow policy is to drop the execution, count it, and log a warning, so that a slow database
+ * never slows down the evaluation of rules.
+ */
+public class RuleExecutionJournal implements IRuleFiringListener, AutoCloseable {
+
+    /**
+     * The logger for the {@link RuleExecutionJournal} class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleExecutionJournal.class);
+
+    /**
+     * The statement that inserts a journal entry.
+     */
+    static final String INSERT_SQL = "INSERT INTO TBL_RULE_EXECUTION (rule_id, rule_name, device_id, causality_chain, "
+            + "trigger_index, trigger_type, executed_at, outcome, actions, coalesced_actions, failed_actions, error, "
+            + "latency_us) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * The template the batches are inserted with.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The executions waiting to be written.
+     */
+    private final BlockingQueue<RuleExecution> queue;
+
+    /**
+     * The maximum number of executions inserted in one batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The number of executions written to the journal.
+     */
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * The number of executions dropped because the queue was full or the batch could not be written.
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * The writer thread, or null if the journal is not started.
+     */
+    private Thread writer;
+
+    /**
+     * Whether the journal has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Initializes a new instance of {@link RuleExecutionJournal} class.
+     *
+     * @param jdbcTemplate The template the batches are inserted with.
+     * @param capacity     The maximum number of executions waiting to be written.
+     * @param batchSize    The maximum number of executions inserted in one batch.
+     */
+    public RuleExecutionJournal(@NotNull JdbcTemplate jdbcTemplate, int capacity, int batchSize) {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("batchSize must be positive");
+
+        if (capacity < batchSize)
+            throw new IllegalArgumentException("capacity must not be less than batchSize");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRuleFired(@NotNull RuleFiring firing) {
+        // Executions are journaled once their outcome is known.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRuleExecuted(@NotNull RuleExecution execution) {
+        if (closed || queue.offer(execution))
+            return;
+
+        var count = dropped.incrementAndGet();
+
+        // Log the first drop and then every thousandth, so a sustained overload does not flood the log.
+        if (count == 1 || count % 1000 == 0)
+            LOGGER.warn("Journal is full, dropped execution of rule -> {}, {} executions dropped in total",
+                    execution.ruleId(), count);
+    }
+
+    /**
+     * Gets the number of executions waiting to be written.
+     *
+     * @return The number of pending executions.
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of executions written to the journal.
+     *
+     * @return The number of written executions.
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Gets the number of executions dropped because the queue was full or the batch could not be written.
+     *
+     * @return The number of dropped executions.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    public synchronized void start() {
+        if (writer != null || closed)
+            return;
+
+        writer = new Thread(this::drive, "rule-execution-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer thread and writes the executions that are still queued.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+
+        if (writer != null) {
+            writer.interrupt();
+
+            try {
+                writer.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        var batch = new ArrayList<RuleExecution>(batchSize);
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes batches of queued executions until the journal is closed.
+     */
+    private void drive() {
+        var batch = new ArrayList<RuleExecution>(batchSize);
+
+        while (!closed) {
+            try {
+                var first = queue.poll(1, TimeUnit.SECONDS);
+
+                if (first == null)
+                    continue;
+
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts a batch of executions. A batch that fails to insert is dropped rather than retried, so that a database
+     * outage does not back the queue up.
+     *
+     * @param batch The executions to insert.
+     */
+    private void write(@NotNull List<RuleExecution> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, execution) -> {
+                statement.setLong(1, execution.ruleId());
+                statement.setString(2, execution.ruleName());
+
+                if (execution.deviceId() != null)
+                    statement.setLong(3, execution.deviceId());
+                else
+                    statement.setNull(3, Types.BIGINT);
+
+                statement.setString(4, execution.causalityChain().toString());
+                statement.setInt(5, execution.trigger());
+                statement.setString(6, execution.triggerType().name());
+                statement.setTimestamp(7, Timestamp.from(execution.executedAt()));
+                statement.setString(8, execution.getOutcome().name());
+                statement.setInt(9, execution.actions());
+                statement.setInt(10, execution.coalescedActions());
+                statement.setInt(11, execution.failedActions());
+                statement.setString(12, execution.error());
+                statement.setLong(13, TimeUnit.NANOSECONDS.toMicros(execution.latencyNanos()));
+            });
+
+            written.addAndGet(batch.size());
+        } catch (DataAccessException e) {
+            dropped.addAndGet(batch.size());
+            LOGGER.error("Failed to write {} rule executions to the journal", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.hover.iot.engine.metrics;
+
+import com.hover.iot.engine.model.CompiledAction;
+import com.hover.iot.engine.model.CompiledRule;
+import com.hover.iot.engine.model.RuleStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the metrics of the rule engine through Micrometer. The hot path only records into a timer and striped
+ * counters; the per-rule meters are function meters that read each rule's {@link RuleStatistics} when the registry is
+ * scraped, so evaluating a rule never looks up a meter.
+ * <p>
+ * Meters:
+ * <ul>
+ *     <li>{@code rule.engine.evaluation}: a timer with a percentile histogram of the latency of evaluating a device
+ *     update against every rule that references the device.</li>
+ *     <li>{@code rule.engine.firings}: the number of rule executions.</li>
+ *     <li>{@code rule.engine.action.failures}: the number of failed actions, tagged by the action type.</li>
+ *     <li>{@code rule.evaluation}: the number of evaluations and the total evaluation time of each rule, tagged by the
+ *     rule id.</li>
+ *     <li>{@code rule.firings} and {@code rule.action.failures}: the executions and failed actions of each rule,
+ *     tagged by the rule id.</li>
+ * </ul>
+ * The per-rule meters can be turned off for installations with very many rules.
+ */
+@Component
+public class RuleEngineMetrics {
+
+    /**
+     * The registry the meters are registered with.
+     */
+    private final MeterRegistry registry;
+
+    /**
+     * Whether meters are registered for each rule.
+     */
+    private final boolean perRule;
+
+    /**
+     * The latency of evaluating device updates.
+     */
+    private final Timer evaluationTimer;
+
+    /**
+     * The number of rule executions.
+     */
+    private final LongAdder firings = new LongAdder();
+
+    /**
+     * The counters of failed actions, keyed by the action type.
+     */
+    private final Map<String, Counter> actionFailures = new ConcurrentHashMap<>();
+
+    /**
+     * The meters of each registered rule, keyed by the rule's id.
+     */
+    private final Map<Long, List<Meter>> ruleMeters = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes a new instance of {@link RuleEngineMetrics} class.
+     *
+     * @param registry The registry the meters are registered with.
+     * @param perRule  Whether meters are registered for each rule.
+     */
+    public RuleEngineMetrics(@NotNull MeterRegistry registry,
+                             @Value("${rule.engine.metrics.per.rule:true}") boolean perRule) {
+        this.registry = registry;
+        this.perRule = perRule;
+        this.evaluationTimer = Timer.builder("rule.engine.evaluation")
+                .description("The latency of evaluating a device update against the rules")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        FunctionCounter.builder("rule.engine.firings", firings, LongAdder::sum)
+                .description("The number of rule executions")
+                .register(registry);
+    }
+
+    /**
+     * Records the evaluation of a device update.
+     *
+     * @param nanos The time the evaluation took, in nanoseconds.
+     */
+    public void recordEvaluation(long nanos) {
+        evaluationTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records an execution of a rule.
+     *
+     * @param rule The rule that executed.
+     */
+    public void recordFiring(@NotNull CompiledRule rule) {
+        firings.increment();
+        rule.getStatistics().recordFiring();
+    }
+
+    /**
+     * Records a failed action of a rule.
+     *
+     * @param rule   The rule the action belongs to.
+     * @param action The action that failed.
+     */
+    public void recordActionFailure(@NotNull CompiledRule rule, @NotNull CompiledAction action) {
+        rule.getStatistics().recordActionFailure();
+
+        var type = action.getTarget().type().name();
+
+        actionFailures.computeIfAbsent(type, ignored -> Counter.builder("rule.engine.action.failures")
+                .description("The number of failed rule actions")
+                .tag("type", type)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Registers the meters of a rule, replacing the meters of a previously registered rule with the same id.
+     *
+     * @param rule The registered rule.
+     */
+    public void ruleRegistered(@NotNull CompiledRule rule) {
+        if (!perRule)
+            return;
+
+        var id = String.valueOf(rule.getId());
+        var statistics = rule.getStatistics();
+
+        removeMeters(rule.getId());
+        ruleMeters.put(rule.getId(), List.of(
+                FunctionTimer.builder("rule.evaluation", statistics, RuleStatistics::getEvaluations,
+                                RuleStatistics::getEvaluationNanos, TimeUnit.NANOSECONDS)
+                        .description("The evaluations of a rule against device updates")
+                        .tag("rule", id)
+                        .register(registry),
+                FunctionCounter.builder("rule.firings", statistics, RuleStatistics::getFirings)
+                        .description("The number of executions of a rule")
+                        .tag("rule", id)
+                        .register(registry),
+                FunctionCounter.builder("rule.action.failures", statistics, RuleStatistics::getActionFailures)
+                        .description("The number of failed actions of a rule")
+                        .tag("rule", id)
+                        .register(registry)));
+    }
+
+    /**
+     * Removes the meters of an unregistered rule.
+     *
+     * @param id The id of the rule.
+     */
+    public void ruleUnregistered(@NotNull Long id) {
+        removeMeters(id);
+    }
+
+    /**
+     * Removes the meters of a rule from the registry.
+     *
+     * @param id The id of the rule.
+     */
+    private void removeMeters(Long id) {
+        var meters = ruleMeters.remove(id);
+
+        if (meters == null)
+            return;
+
+        for (var meter : meters) {
+            registry.remove(meter);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.ActionType;
+
+/**
+ * The target an action sends its command to, such as an attribute of a device. Actions of different rules with the same
+ * target and payload send the same command.
+ *
+ * @param type     The type of the action.
+ * @param entityId The id of the entity the action targets.
+ * @param name     The name of the part of the entity the action targets, such as an attribute, or null if the action
+ *                 targets the whole entity.
+ */
+public record ActionTarget(ActionType type, Long entityId, String name) {
+}
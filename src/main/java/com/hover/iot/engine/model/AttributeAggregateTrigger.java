@@ -0,0 +1,149 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AggregateFunction;
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compiled trigger that is satisfied when an aggregate of a numeric attribute of a device over a sliding time window
+ * crosses a threshold, such as the average temperature over 10 minutes rising above 26. The samples are held in the
+ * {@link SlidingWindow} of the attribute, which is shared by every trigger aggregating the same attribute of the same
+ * device over the same length; the engine adds each update of the attribute to the window once, through
+ * {@link #addSample(Device, long)}, before testing the triggers that share it. Each test feeds the aggregate to the
+ * trigger's {@link ThresholdCrossing}, so the trigger holds bounded state and each update costs a bounded amount of
+ * work.
+ */
+public final class AttributeAggregateTrigger implements CompiledTrigger {
+
+    /**
+     * The id of the device the trigger references.
+     */
+    private final Long deviceId;
+
+    /**
+     * The name of the attribute to aggregate.
+     */
+    private final String attribute;
+
+    /**
+     * The aggregate to compare to the threshold.
+     */
+    private final AggregateFunction function;
+
+    /**
+     * The window of the attribute's samples, shared with the other triggers aggregating it over the same length.
+     */
+    private final SlidingWindow window;
+
+    /**
+     * The crossing state of the trigger.
+     */
+    private final ThresholdCrossing crossing;
+
+    /**
+     * Initializes a new instance of {@link AttributeAggregateTrigger} class.
+     *
+     * @param deviceId  The id of the device the trigger references.
+     * @param attribute The name of the attribute to aggregate.
+     * @param function  The aggregate to compare to the threshold.
+     * @param window    The window of the attribute's samples.
+     * @param crossing  The crossing state of the trigger.
+     */
+    public AttributeAggregateTrigger(Long deviceId, String attribute, AggregateFunction function,
+                                     SlidingWindow window, ThresholdCrossing crossing) {
+        this.deviceId = deviceId;
+        this.attribute = attribute;
+        this.function = function;
+        this.window = window;
+        this.crossing = crossing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.ATTRIBUTE_AGGREGATE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Gets the name of the attribute to aggregate.
+     *
+     * @return The attribute's name.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Gets the aggregate to compare to the threshold.
+     *
+     * @return The aggregate function.
+     */
+    public AggregateFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * Gets the window of the attribute's samples.
+     *
+     * @return The window.
+     */
+    public SlidingWindow getWindow() {
+        return window;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Satisfied while the last sample is on the firing side of the threshold.
+     */
+    @Override
+    public boolean isSatisfied(long now) {
+        return crossing.isActive();
+    }
+
+    /**
+     * Adds the value of the attribute in a device update to the window. Called once per update of the attribute for
+     * all the triggers that share the window.
+     *
+     * @param device The updated device.
+     * @param now    The time of the update, in milliseconds since the epoch.
+     */
+    public void addSample(@NotNull Device device, long now) {
+        var attributes = device.getAttributes();
+
+        if (attributes == null)
+            return;
+
+        for (var _attribute : attributes) {
+            if (attribute.equals(_attribute.getName())) {
+                if (_attribute.getValue() instanceof Number value)
+                    window.add(now, value.doubleValue());
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tests the aggregate of the window, to which the engine has already added the update's sample.
+     */
+    @Override
+    public synchronized boolean test(@NotNull Device device, long now) {
+        var aggregate = window.aggregate(function, now);
+
+        return !Double.isNaN(aggregate) && crossing.sample(aggregate, now);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compiled trigger that is satisfied by any attribute change of a device.
+ *
+ * @param deviceId The id of the device the trigger references.
+ */
+public record AttributeChangeTrigger(Long deviceId) implements CompiledTrigger {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.ATTRIBUTE_CHANGE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean test(@NotNull Device device, long now) {
+        return true;
+    }
+}
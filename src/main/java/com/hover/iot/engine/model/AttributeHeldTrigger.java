@@ -0,0 +1,158 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compiled trigger that is satisfied when an attribute of a device has held a value for a duration, such as a door
+ * being open for more than 5 minutes. The trigger never fires from a device update directly: an update that makes the
+ * condition true arms a timer in the engine, an update that makes it false disarms it, and the rule fires when an
+ * armed timer expires. The trigger fires at most once per period in which the condition holds.
+ * <p>
+ * Each arming is identified by a generation, so a timer that expires after its condition has flipped back, even if it
+ * could not be cancelled in time, is recognized as stale and does not fire.
+ */
+public final class AttributeHeldTrigger implements CompiledTrigger {
+
+    /**
+     * The id of the device the trigger references.
+     */
+    private final Long deviceId;
+
+    /**
+     * The name of the attribute to evaluate.
+     */
+    private final String attribute;
+
+    /**
+     * The value the attribute has to hold.
+     */
+    private final Object value;
+
+    /**
+     * The duration the attribute has to hold the value, in milliseconds.
+     */
+    private final long durationMs;
+
+    /**
+     * Whether the attribute currently holds the value.
+     */
+    private boolean holding;
+
+    /**
+     * The generation of the current arming.
+     */
+    private long generation;
+
+    /**
+     * Whether the trigger has fired for the current arming.
+     */
+    private boolean fired;
+
+    /**
+     * Initializes a new instance of {@link AttributeHeldTrigger} class.
+     *
+     * @param deviceId   The id of the device the trigger references.
+     * @param attribute  The name of the attribute to evaluate.
+     * @param value      The value the attribute has to hold.
+     * @param durationMs The duration the attribute has to hold the value, in milliseconds.
+     */
+    public AttributeHeldTrigger(Long deviceId, String attribute, Object value, long durationMs) {
+        this.deviceId = deviceId;
+        this.attribute = attribute;
+        this.value = value;
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.ATTRIBUTE_HELD;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Gets the duration the attribute has to hold the value.
+     *
+     * @return The duration, in milliseconds.
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Always false, since the trigger fires when its timer expires rather than on a device update.
+     */
+    @Override
+    public boolean test(@NotNull Device device, long now) {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Satisfied once the attribute has held the value for the duration, until it changes.
+     */
+    @Override
+    public synchronized boolean isSatisfied(long now) {
+        return holding && fired;
+    }
+
+    /**
+     * Updates the condition of the trigger with a device update.
+     *
+     * @param device The updated device.
+     * @return The generation of a new arming if the condition became true, 0 if the condition became false, or -1 if
+     * the condition did not change or the update does not carry the attribute.
+     */
+    public synchronized long sample(@NotNull Device device) {
+        var attributes = device.getAttributes();
+
+        if (attributes == null)
+            return -1;
+
+        for (var _attribute : attributes) {
+            if (!attribute.equals(_attribute.getName()))
+                continue;
+
+            var holds = AttributeStateTrigger.matches(_attribute.getValue(), value);
+
+            if (holds == holding)
+                return -1;
+
+            holding = holds;
+            fired = false;
+
+            return holds ? ++generation : 0;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Fires the trigger for an arming whose timer expired.
+     *
+     * @param generation The generation of the arming.
+     * @return true if the arming is still current and has not fired, otherwise false.
+     */
+    public synchronized boolean fire(long generation) {
+        if (!holding || fired || this.generation != generation)
+            return false;
+
+        fired = true;
+
+        return true;
+    }
+}
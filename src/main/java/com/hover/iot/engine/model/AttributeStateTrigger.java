@@ -0,0 +1,118 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A compiled trigger whose condition is an attribute of a device having a value, such as a door being locked. The
+ * trigger fires when the attribute changes to the value, and is satisfied for as long as the attribute keeps it. The
+ * first sample only establishes whether the attribute has the value and never fires.
+ */
+public final class AttributeStateTrigger implements CompiledTrigger {
+
+    /**
+     * The id of the device the trigger references.
+     */
+    private final Long deviceId;
+
+    /**
+     * The name of the attribute to evaluate.
+     */
+    private final String attribute;
+
+    /**
+     * The value the attribute has to have.
+     */
+    private final Object value;
+
+    /**
+     * Whether the attribute has been sampled.
+     */
+    private boolean sampled;
+
+    /**
+     * Whether the attribute has the value.
+     */
+    private boolean matching;
+
+    /**
+     * Initializes a new instance of {@link AttributeStateTrigger} class.
+     *
+     * @param deviceId  The id of the device the trigger references.
+     * @param attribute The name of the attribute to evaluate.
+     * @param value     The value the attribute has to have.
+     */
+    public AttributeStateTrigger(Long deviceId, String attribute, Object value) {
+        this.deviceId = deviceId;
+        this.attribute = attribute;
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.ATTRIBUTE_STATE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean test(@NotNull Device device, long now) {
+        var attributes = device.getAttributes();
+
+        if (attributes == null)
+            return false;
+
+        for (var _attribute : attributes) {
+            if (!attribute.equals(_attribute.getName()))
+                continue;
+
+            var matches = matches(_attribute.getValue(), value);
+            var changed = sampled && matches && !matching;
+
+            sampled = true;
+            matching = matches;
+
+            return changed;
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isSatisfied(long now) {
+        return matching;
+    }
+
+    /**
+     * Checks whether an attribute value matches an expected value. Numbers are compared by value, and other values by
+     * their string representation, since parameters may be deserialized as a different type than the attribute.
+     *
+     * @param actual   The attribute value.
+     * @param expected The expected value.
+     * @return true if the values match, otherwise false.
+     */
+    static boolean matches(Object actual, @NotNull Object expected) {
+        if (actual instanceof Number number && expected instanceof Number _expected)
+            return number.doubleValue() == _expected.doubleValue();
+
+        return Objects.equals(actual, expected) || (actual != null && actual.toString().equals(expected.toString()));
+    }
+}
@@ -0,0 +1,158 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.ThresholdDirection;
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compiled trigger that is satisfied when a numeric attribute of a device crosses a threshold. The trigger is edge
+ * triggered, with the crossing direction, hysteresis and cooldown semantics of {@link ThresholdCrossing}.
+ */
+public final class AttributeThresholdTrigger implements CompiledTrigger {
+
+    /**
+     * The id of the device the trigger references.
+     */
+    private final Long deviceId;
+
+    /**
+     * The name of the attribute to evaluate.
+     */
+    private final String attribute;
+
+    /**
+     * The threshold the attribute value is compared to.
+     */
+    private final double threshold;
+
+    /**
+     * The direction of the crossings that fire the trigger.
+     */
+    private final ThresholdDirection direction;
+
+    /**
+     * The width of the hysteresis band.
+     */
+    private final double hysteresis;
+
+    /**
+     * The minimum time between firings, in milliseconds.
+     */
+    private final long cooldownMs;
+
+    /**
+     * The crossing state of the trigger.
+     */
+    private final ThresholdCrossing crossing;
+
+    /**
+     * Initializes a new instance of {@link AttributeThresholdTrigger} class.
+     *
+     * @param deviceId   The id of the device the trigger references.
+     * @param attribute  The name of the attribute to evaluate.
+     * @param threshold  The threshold the attribute value is compared to.
+     * @param direction  The direction of the crossings that fire the trigger.
+     * @param hysteresis The width of the hysteresis band.
+     * @param cooldownMs The minimum time between firings, in milliseconds.
+     */
+    public AttributeThresholdTrigger(Long deviceId, String attribute, double threshold,
+                                     @NotNull ThresholdDirection direction, double hysteresis, long cooldownMs) {
+        this.deviceId = deviceId;
+        this.attribute = attribute;
+        this.threshold = threshold;
+        this.direction = direction;
+        this.hysteresis = hysteresis;
+        this.cooldownMs = cooldownMs;
+        this.crossing = new ThresholdCrossing(threshold, direction, hysteresis, cooldownMs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.ATTRIBUTE_THRESHOLD;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Gets the name of the attribute to evaluate.
+     *
+     * @return The attribute's name.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Gets the threshold the attribute value is compared to.
+     *
+     * @return The threshold.
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Gets the direction of the crossings that fire the trigger.
+     *
+     * @return The direction.
+     */
+    public ThresholdDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * Gets the width of the hysteresis band.
+     *
+     * @return The hysteresis.
+     */
+    public double getHysteresis() {
+        return hysteresis;
+    }
+
+    /**
+     * Gets the minimum time between firings.
+     *
+     * @return The cooldown, in milliseconds.
+     */
+    public long getCooldownMs() {
+        return cooldownMs;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Satisfied while the last sample is on the firing side of the threshold.
+     */
+    @Override
+    public boolean isSatisfied(long now) {
+        return crossing.isActive();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean test(@NotNull Device device, long now) {
+        var attributes = device.getAttributes();
+
+        if (attributes == null)
+            return false;
+
+        for (var _attribute : attributes) {
+            if (attribute.equals(_attribute.getName()))
+                return _attribute.getValue() instanceof Number value && crossing.sample(value.doubleValue(), now);
+        }
+
+        return false;
+    }
+}
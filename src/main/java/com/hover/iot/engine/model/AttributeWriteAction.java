@@ -0,0 +1,49 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.RuleAction;
+import com.hover.iot.enumeration.ActionType;
+import com.hover.iot.event.AttributeActionEvent;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A compiled action that writes an attribute of a device.
+ *
+ * @param action    The rule action the compiled action was built from.
+ * @param deviceId  The id of the device to write the attribute of.
+ * @param attribute The attribute to write.
+ */
+public record AttributeWriteAction(RuleAction action, Long deviceId, Attribute attribute) implements CompiledAction {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RuleAction getAction() {
+        return action;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ActionTarget getTarget() {
+        return new ActionTarget(ActionType.ATTRIBUTE, deviceId, attribute.getName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getPayload() {
+        return attribute.getValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ApplicationEvent createEvent(Object source, CausalityChain causalityChain) {
+        return new AttributeActionEvent(source, deviceId, attribute, causalityChain);
+    }
+}
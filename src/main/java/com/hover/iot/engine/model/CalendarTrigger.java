@@ -0,0 +1,60 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+/**
+ * A compiled trigger that fires on a calendar described by a cron expression, such as every weekday at 07:30, except on
+ * a set of dates such as public holidays.
+ *
+ * @param expression  The cron expression of the calendar, with fields for the second, minute, hour, day of month, month
+ *                    and day of week.
+ * @param exceptDates The dates the trigger does not fire on.
+ */
+public record CalendarTrigger(CronExpression expression, Set<LocalDate> exceptDates) implements ScheduledTrigger {
+
+    /**
+     * Initializes a new instance of {@link CalendarTrigger} class.
+     *
+     * @param expression  The cron expression of the calendar.
+     * @param exceptDates The dates the trigger does not fire on.
+     */
+    public CalendarTrigger(@NotNull CronExpression expression, @NotNull Set<LocalDate> exceptDates) {
+        this.expression = expression;
+        this.exceptDates = Set.copyOf(exceptDates);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.CALENDAR;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Excepted dates are skipped a day at a time, so a long run of them costs one cron evaluation per day.
+     *
+     * @throws IllegalStateException If the calendar never fires again.
+     */
+    @Override
+    public ZonedDateTime nextFireTime(@NotNull ZonedDateTime after) {
+        var next = expression.next(after);
+
+        while (next != null && exceptDates.contains(next.toLocalDate())) {
+            next = expression.next(next.toLocalDate().plusDays(1).atStartOfDay(next.getZone()).minusNanos(1));
+        }
+
+        if (next == null)
+            throw new IllegalStateException("the calendar " + expression + " never fires again");
+
+        return next;
+    }
+}
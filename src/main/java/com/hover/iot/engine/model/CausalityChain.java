@@ -0,0 +1,95 @@
+package com.hover.iot.engine.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The chain of rules whose actions caused an event. An event raised outside the rule engine, such as a device report,
+ * starts with the {@link #ROOT} chain, and every rule that fires in response to it appends itself to the chain carried
+ * by the events its actions publish. The chain is immutable.
+ */
+public final class CausalityChain {
+
+    /**
+     * The chain of an event that was not caused by a rule.
+     */
+    public static final CausalityChain ROOT = new CausalityChain(new long[0]);
+
+    /**
+     * The ids of the rules in the chain, in firing order.
+     */
+    private final long[] ruleIds;
+
+    /**
+     * Initializes a new instance of {@link CausalityChain} class.
+     *
+     * @param ruleIds The ids of the rules in the chain, in firing order.
+     */
+    private CausalityChain(long[] ruleIds) {
+        this.ruleIds = ruleIds;
+    }
+
+    /**
+     * Gets the depth of the chain, which is the number of rules in it.
+     *
+     * @return The depth of the chain.
+     */
+    public int getDepth() {
+        return ruleIds.length;
+    }
+
+    /**
+     * Checks whether a rule is in the chain.
+     *
+     * @param ruleId The id of the rule.
+     * @return true if the rule already fired in the chain, otherwise false.
+     */
+    public boolean contains(long ruleId) {
+        for (var id : ruleIds) {
+            if (id == ruleId)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates the chain of the events published by a rule that fired in response to this chain.
+     *
+     * @param ruleId The id of the rule that fired.
+     * @return The extended chain.
+     */
+    public @NotNull CausalityChain then(long ruleId) {
+        var extended = Arrays.copyOf(ruleIds, ruleIds.length + 1);
+        extended[ruleIds.length] = ruleId;
+        return new CausalityChain(extended);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        return o instanceof CausalityChain other && Arrays.equals(ruleIds, other.ruleIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ruleIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(ruleIds);
+    }
+}
@@ -0,0 +1,41 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.RuleAction;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A compiled rule action whose parameters are parsed when the rule is registered, so that firing the action only
+ * creates the event to publish.
+ */
+public interface CompiledAction {
+
+    /**
+     * Gets the rule action the compiled action was built from.
+     *
+     * @return The rule action.
+     */
+    RuleAction getAction();
+
+    /**
+     * Gets the target the action sends its command to.
+     *
+     * @return The action's target.
+     */
+    ActionTarget getTarget();
+
+    /**
+     * Gets the payload of the command the action sends to its target.
+     *
+     * @return The action's payload, or null if the command has none.
+     */
+    Object getPayload();
+
+    /**
+     * Creates the event that performs the action.
+     *
+     * @param source         The object on which the event initially occurred.
+     * @param causalityChain The chain of rules whose actions caused the event, ending with the rule of the action.
+     * @return The event to publish.
+     */
+    ApplicationEvent createEvent(Object source, CausalityChain causalityChain);
+}
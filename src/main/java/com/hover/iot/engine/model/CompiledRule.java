@@ -0,0 +1,182 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Rule;
+import com.hover.iot.enumeration.ConditionOperator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A typed execution plan of a {@link Rule}. Triggers and actions are parsed when the rule is registered, so evaluating
+ * and firing the rule does no parameter lookups, casting or JSON parsing. The plan itself is immutable; the only
+ * mutable state is that of its triggers, the rule's {@link RuleStatistics}, whether the plan is retired, the rule's
+ * {@link Debouncer} if it is debounced and, for rules that combine their triggers with {@link ConditionOperator#AND},
+ * the rule's {@link ConditionState}.
+ */
+public final class CompiledRule {
+
+    /**
+     * The id of the rule the plan was compiled from.
+     */
+    private final Long id;
+
+    /**
+     * The name of the rule the plan was compiled from.
+     */
+    private final String name;
+
+    /**
+     * How the rule's triggers are combined.
+     */
+    private final ConditionOperator conditionOperator;
+
+    /**
+     * The rule's compiled triggers.
+     */
+    private final List<CompiledTrigger> triggers;
+
+    /**
+     * The cached partial match of the rule's triggers, or null if the rule fires when any of its triggers fires.
+     */
+    private final ConditionState conditionState;
+
+    /**
+     * The rule's compiled actions.
+     */
+    private final List<CompiledAction> actions;
+
+    /**
+     * The rule's debounce state, or null if the rule executes on every firing.
+     */
+    private final Debouncer debouncer;
+
+    /**
+     * The rule's running statistics.
+     */
+    private final RuleStatistics statistics = new RuleStatistics();
+
+    /**
+     * Whether the plan has been replaced by a newer version of the rule or unregistered.
+     */
+    private volatile boolean retired;
+
+    /**
+     * Initializes a new instance of {@link CompiledRule} class.
+     *
+     * @param id                The id of the rule the plan was compiled from.
+     * @param name              The name of the rule the plan was compiled from.
+     * @param conditionOperator How the rule's triggers are combined.
+     * @param triggers          The rule's compiled triggers.
+     * @param negated           Whether each trigger is negated. Only rules that combine their triggers with
+     *                          {@link ConditionOperator#AND} support negation.
+     * @param actions           The rule's compiled actions.
+     * @param debouncer         The rule's debounce state, or null if the rule executes on every firing.
+     */
+    public CompiledRule(@NotNull Long id, String name, @NotNull ConditionOperator conditionOperator,
+                        @NotNull List<CompiledTrigger> triggers, boolean @NotNull [] negated,
+                        @NotNull List<CompiledAction> actions, Debouncer debouncer) {
+        this.id = id;
+        this.name = name;
+        this.conditionOperator = conditionOperator;
+        this.triggers = List.copyOf(triggers);
+        this.conditionState = conditionOperator == ConditionOperator.AND
+                ? new ConditionState(this.triggers, negated)
+                : null;
+        this.actions = List.copyOf(actions);
+        this.debouncer = debouncer;
+    }
+
+    /**
+     * Gets the id of the rule the plan was compiled from.
+     *
+     * @return The rule's id.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of the rule the plan was compiled from.
+     *
+     * @return The rule's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets how the rule's triggers are combined.
+     *
+     * @return The rule's condition operator.
+     */
+    public ConditionOperator getConditionOperator() {
+        return conditionOperator;
+    }
+
+    /**
+     * Gets the cached partial match of the rule's triggers.
+     *
+     * @return The condition state, or null if the rule fires when any of its triggers fires.
+     */
+    public ConditionState getConditionState() {
+        return conditionState;
+    }
+
+    /**
+     * Gets the rule's compiled triggers.
+     *
+     * @return The rule's compiled triggers.
+     */
+    public List<CompiledTrigger> getTriggers() {
+        return triggers;
+    }
+
+    /**
+     * Gets the rule's compiled actions.
+     *
+     * @return The rule's compiled actions.
+     */
+    public List<CompiledAction> getActions() {
+        return actions;
+    }
+
+    /**
+     * Gets the rule's debounce state.
+     *
+     * @return The debounce state, or null if the rule executes on every firing.
+     */
+    public Debouncer getDebouncer() {
+        return debouncer;
+    }
+
+    /**
+     * Gets the rule's running statistics.
+     *
+     * @return The rule's statistics.
+     */
+    public RuleStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Checks whether the plan has been replaced by a newer version of the rule or unregistered. A retired plan must not
+     * execute, even when it is evaluated against index entries read before it was retired.
+     *
+     * @return true if the plan is retired, otherwise false.
+     */
+    public boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * Retires the plan, once it has been replaced by a newer version of the rule or unregistered.
+     */
+    public void retire() {
+        retired = true;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledRule{id=" + id + ", name='" + name + "'}";
+    }
+}
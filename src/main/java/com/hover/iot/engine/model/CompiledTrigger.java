@@ -0,0 +1,48 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compiled rule trigger that evaluates as a predicate over a device update.
+ */
+public interface CompiledTrigger {
+
+    /**
+     * Gets the type of the trigger.
+     *
+     * @return The trigger's type.
+     */
+    TriggerType getType();
+
+    /**
+     * Gets the id of the device the trigger references.
+     *
+     * @return The device id, or null if the trigger is not driven by device updates.
+     */
+    Long getDeviceId();
+
+    /**
+     * Tests whether an update of the referenced device satisfies the trigger. Stateful triggers update their state
+     * with each update they are tested against.
+     *
+     * @param device The updated device.
+     * @param now    The time of the update, in milliseconds since the epoch.
+     * @return true if the trigger is satisfied, otherwise false.
+     */
+    boolean test(@NotNull Device device, long now);
+
+    /**
+     * Gets whether the condition of the trigger currently holds, for triggers whose condition persists between the
+     * updates it is tested against. Used to evaluate rules that combine their triggers with
+     * {@link com.hover.iot.enumeration.ConditionOperator#AND}. Momentary triggers, such as attribute changes, are only
+     * satisfied at the instant they fire and return false.
+     *
+     * @param now The current time, in milliseconds since the epoch.
+     * @return true if the condition holds, otherwise false.
+     */
+    default boolean isSatisfied(long now) {
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package com.hover.iot.engine.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * The cached partial match of a rule that combines its triggers with
+ * {@link com.hover.iot.enumeration.ConditionOperator#AND}. The state caches whether each trigger is satisfied and the
+ * number of unsatisfied triggers, so an update only re-evaluates the triggers it affects and combines them in constant
+ * time. The rule fires on the transition of the conjunction from unsatisfied to satisfied, so it fires once when its
+ * conditions come to hold rather than on every update while they hold.
+ * <p>
+ * A trigger that fires counts as satisfied for the evaluation it fires in, and afterward as whatever
+ * {@link CompiledTrigger#isSatisfied(long)} reports, so momentary triggers such as attribute changes fire the rule
+ * each time they fire while the other triggers hold. Negated triggers count as satisfied when their condition does not
+ * hold.
+ */
+public final class ConditionState {
+
+    /**
+     * The triggers of the rule.
+     */
+    private final List<CompiledTrigger> triggers;
+
+    /**
+     * Whether each trigger is negated.
+     */
+    private final boolean[] negated;
+
+    /**
+     * Whether the condition of each trigger holds, before negation.
+     */
+    private final boolean[] values;
+
+    /**
+     * The number of unsatisfied triggers, after negation.
+     */
+    private int unsatisfied;
+
+    /**
+     * Whether the conjunction was satisfied after the last evaluation.
+     */
+    private boolean active;
+
+    /**
+     * Initializes a new instance of {@link ConditionState} class. All conditions start out not holding.
+     *
+     * @param triggers The triggers of the rule.
+     * @param negated  Whether each trigger is negated.
+     */
+    public ConditionState(@NotNull List<CompiledTrigger> triggers, boolean @NotNull [] negated) {
+        if (triggers.size() != negated.length)
+            throw new IllegalArgumentException("a negation is required for each trigger");
+
+        this.triggers = triggers;
+        this.negated = negated.clone();
+        this.values = new boolean[negated.length];
+
+        for (var _negated : negated) {
+            if (!_negated)
+                unsatisfied++;
+        }
+    }
+
+    /**
+     * Initializes the cached conditions from the triggers without firing.
+     *
+     * @param now The current time, in milliseconds since the epoch.
+     */
+    public synchronized void initialize(long now) {
+        for (int i = 0; i < values.length; i++) {
+            set(i, triggers.get(i).isSatisfied(now));
+        }
+
+        active = unsatisfied == 0;
+    }
+
+    /**
+     * Re-evaluates some of the triggers and combines them with the cached conditions of the others.
+     *
+     * @param leaves The indexes of the triggers to re-evaluate.
+     * @param fired  Tests, and updates the state of, the trigger with an index; true if it fired.
+     * @param now    The current time, in milliseconds since the epoch.
+     * @return true if the conjunction became satisfied, otherwise false.
+     */
+    public synchronized boolean evaluate(int @NotNull [] leaves, @NotNull IntPredicate fired, long now) {
+        for (var leaf : leaves) {
+            set(leaf, fired.test(leaf) || triggers.get(leaf).isSatisfied(now));
+        }
+
+        var satisfied = unsatisfied == 0;
+
+        for (var leaf : leaves) {
+            set(leaf, triggers.get(leaf).isSatisfied(now));
+        }
+
+        var edge = satisfied && !active;
+        active = unsatisfied == 0;
+
+        return edge;
+    }
+
+    /**
+     * Sets whether the condition of a trigger holds.
+     *
+     * @param leaf  The index of the trigger.
+     * @param value Whether the condition holds, before negation.
+     */
+    private void set(int leaf, boolean value) {
+        if (values[leaf] == value)
+            return;
+
+        values[leaf] = value;
+
+        if (value != negated[leaf])
+            unsatisfied--;
+        else
+            unsatisfied++;
+    }
+}
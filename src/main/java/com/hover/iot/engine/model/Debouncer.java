@@ -0,0 +1,99 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.DebounceEdge;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The debounce state of a rule. The first firing of a rule opens a window of a fixed length, and the firings within the
+ * window are collapsed: a rule debounced on its leading edge executes on the firing that opens the window, and a rule
+ * debounced on its trailing edge executes once when the window ends, for the last firing within it. A trailing
+ * execution opens a new window, so a rule that keeps firing executes at most once per window.
+ * <p>
+ * The state is shared by every thread that fires the rule, so its methods are synchronized.
+ */
+public final class Debouncer {
+
+    /**
+     * The length of the window in milliseconds.
+     */
+    private final long windowMs;
+
+    /**
+     * The edges of the window on which the rule executes.
+     */
+    private final DebounceEdge edge;
+
+    /**
+     * Whether a window is open.
+     */
+    private boolean open;
+
+    /**
+     * The cause of the last firing collapsed into the trailing execution, or null if none is pending.
+     */
+    private FiringCause trailing;
+
+    /**
+     * Initializes a new instance of {@link Debouncer} class.
+     *
+     * @param windowMs The length of the window in milliseconds.
+     * @param edge     The edges of the window on which the rule executes.
+     */
+    public Debouncer(long windowMs, @NotNull DebounceEdge edge) {
+        this.windowMs = windowMs;
+        this.edge = edge;
+    }
+
+    /**
+     * Gets the length of the window.
+     *
+     * @return The length of the window in milliseconds.
+     */
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    /**
+     * Gets the edges of the window on which the rule executes.
+     *
+     * @return The debounce edge.
+     */
+    public DebounceEdge getEdge() {
+        return edge;
+    }
+
+    /**
+     * Records a firing of the rule.
+     *
+     * @param cause The cause of the firing.
+     * @return true if the firing opened a new window, which must be ended after {@link #getWindowMs()}, and which the
+     * rule executes on if it is debounced on its leading edge; otherwise false.
+     */
+    public synchronized boolean fire(@NotNull FiringCause cause) {
+        if (open) {
+            if (edge.isTrailing())
+                trailing = cause;
+
+            return false;
+        }
+
+        open = true;
+        trailing = edge.isLeading() ? null : cause;
+        return true;
+    }
+
+    /**
+     * Ends the open window. If a trailing execution is pending, a new window is opened for it, which must be ended
+     * after {@link #getWindowMs()}.
+     *
+     * @return The cause of the pending trailing execution, or null if none is pending.
+     */
+    public synchronized FiringCause expire() {
+        var pending = trailing;
+
+        trailing = null;
+        open = pending != null;
+
+        return pending;
+    }
+}
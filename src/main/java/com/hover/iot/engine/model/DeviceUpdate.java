@@ -0,0 +1,13 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+
+/**
+ * An update of a device to evaluate the rules against.
+ *
+ * @param device         The updated device.
+ * @param attribute      The name of the updated attribute, or null if it is not known which attributes changed.
+ * @param causalityChain The chain of rules whose actions caused the update.
+ */
+public record DeviceUpdate(Device device, String attribute, CausalityChain causalityChain) {
+}
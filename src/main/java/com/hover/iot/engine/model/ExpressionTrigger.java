@@ -0,0 +1,100 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Predicate;
+
+/**
+ * A compiled trigger whose condition is an expression over the attributes of a device, such as
+ * {@code temperature > 24 && humidity >= 60}. The trigger fires when the expression becomes true, and is satisfied for
+ * as long as it stays true. The first sample only establishes whether the expression is true and never fires.
+ */
+public final class ExpressionTrigger implements CompiledTrigger {
+
+    /**
+     * The id of the device the trigger references.
+     */
+    private final Long deviceId;
+
+    /**
+     * The source of the expression.
+     */
+    private final String expression;
+
+    /**
+     * The compiled expression.
+     */
+    private final Predicate<Device> condition;
+
+    /**
+     * Whether the expression has been sampled.
+     */
+    private boolean sampled;
+
+    /**
+     * Whether the expression is true.
+     */
+    private boolean matching;
+
+    /**
+     * Initializes a new instance of {@link ExpressionTrigger} class.
+     *
+     * @param deviceId   The id of the device the trigger references.
+     * @param expression The source of the expression.
+     * @param condition  The compiled expression.
+     */
+    public ExpressionTrigger(Long deviceId, String expression, Predicate<Device> condition) {
+        this.deviceId = deviceId;
+        this.expression = expression;
+        this.condition = condition;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.EXPRESSION;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Gets the source of the expression.
+     *
+     * @return The source of the expression.
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean test(@NotNull Device device, long now) {
+        var matches = condition.test(device);
+        var changed = sampled && matches && !matching;
+
+        sampled = true;
+        matching = matches;
+
+        return changed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isSatisfied(long now) {
+        return matching;
+    }
+}
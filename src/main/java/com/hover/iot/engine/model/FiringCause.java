@@ -0,0 +1,11 @@
+package com.hover.iot.engine.model;
+
+/**
+ * The cause of a firing of a rule.
+ *
+ * @param causalityChain The chain of rules whose actions caused the rule to fire.
+ * @param deviceId       The id of the device whose update fired the rule, or null if a timer fired it.
+ * @param trigger        The index of the trigger that fired the rule.
+ */
+public record FiringCause(CausalityChain causalityChain, Long deviceId, int trigger) {
+}
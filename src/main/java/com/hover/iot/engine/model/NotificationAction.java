@@ -0,0 +1,48 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.RuleAction;
+import com.hover.iot.enumeration.ActionType;
+import com.hover.iot.event.NotifyActionEvent;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A compiled action that sends a notification.
+ *
+ * @param action         The rule action the compiled action was built from.
+ * @param notificationId The id of the notification to send.
+ * @param message        The notification message.
+ */
+public record NotificationAction(RuleAction action, Long notificationId, String message) implements CompiledAction {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RuleAction getAction() {
+        return action;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ActionTarget getTarget() {
+        return new ActionTarget(ActionType.NOTIFICATION, notificationId, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getPayload() {
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ApplicationEvent createEvent(Object source, CausalityChain causalityChain) {
+        return new NotifyActionEvent(source, notificationId, message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.ExecutionOutcome;
+import com.hover.iot.enumeration.TriggerType;
+
+import java.time.Instant;
+
+/**
+ * A completed execution of a rule.
+ *
+ * @param ruleId           The id of the rule.
+ * @param ruleName         The name of the rule.
+ * @param deviceId         The id of the device whose update fired the rule, or null if a timer fired it.
+ * @param causalityChain   The chain of rules whose actions caused the rule to fire.
+ * @param trigger          The index of the trigger that fired the rule.
+ * @param triggerType      The type of the trigger that fired the rule.
+ * @param executedAt       The time the rule executed.
+ * @param actions          The number of actions of the rule.
+ * @param coalescedActions The number of actions not performed because the same command was just sent.
+ * @param failedActions    The number of actions that failed.
+ * @param error            The message of the first failed action, or null if no action failed.
+ * @param latencyNanos     The time it took to perform the actions, in nanoseconds.
+ */
+public record RuleExecution(Long ruleId, String ruleName, Long deviceId, CausalityChain causalityChain,
+                            int trigger, TriggerType triggerType, Instant executedAt, int actions,
+                            int coalescedActions, int failedActions, String error, long latencyNanos) {
+
+    /**
+     * Gets the outcome of the execution.
+     *
+     * @return The outcome of the execution.
+     */
+    public ExecutionOutcome getOutcome() {
+        if (failedActions == 0)
+            return ExecutionOutcome.SUCCEEDED;
+
+        return failedActions < actions ? ExecutionOutcome.PARTIALLY_FAILED : ExecutionOutcome.FAILED;
+    }
+}
@@ -0,0 +1,14 @@
+package com.hover.iot.engine.model;
+
+import java.time.Instant;
+
+/**
+ * An execution of a rule.
+ *
+ * @param ruleId         The id of the rule.
+ * @param ruleName       The name of the rule.
+ * @param causalityChain The chain of rules whose actions caused the rule to fire.
+ * @param firedAt        The time the rule executed.
+ */
+public record RuleFiring(Long ruleId, String ruleName, CausalityChain causalityChain, Instant firedAt) {
+}
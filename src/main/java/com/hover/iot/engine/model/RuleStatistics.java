@@ -0,0 +1,90 @@
+package com.hover.iot.engine.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The running statistics of a compiled rule. The counters are striped, so the evaluation lanes and timer threads that
+ * update them concurrently do not contend on a single cache line; they are only summed when metrics are read.
+ */
+public final class RuleStatistics {
+
+    /**
+     * The number of times the rule was evaluated against a device update.
+     */
+    private final LongAdder evaluations = new LongAdder();
+
+    /**
+     * The total time spent evaluating the rule, in nanoseconds.
+     */
+    private final LongAdder evaluationNanos = new LongAdder();
+
+    /**
+     * The number of times the rule executed.
+     */
+    private final LongAdder firings = new LongAdder();
+
+    /**
+     * The number of actions of the rule that failed.
+     */
+    private final LongAdder actionFailures = new LongAdder();
+
+    /**
+     * Records an evaluation of the rule.
+     *
+     * @param nanos The time the evaluation took, in nanoseconds.
+     */
+    public void recordEvaluation(long nanos) {
+        evaluations.increment();
+        evaluationNanos.add(nanos);
+    }
+
+    /**
+     * Records an execution of the rule.
+     */
+    public void recordFiring() {
+        firings.increment();
+    }
+
+    /**
+     * Records a failed action of the rule.
+     */
+    public void recordActionFailure() {
+        actionFailures.increment();
+    }
+
+    /**
+     * Gets the number of times the rule was evaluated against a device update.
+     *
+     * @return The number of evaluations.
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Gets the total time spent evaluating the rule.
+     *
+     * @return The total evaluation time, in nanoseconds.
+     */
+    public long getEvaluationNanos() {
+        return evaluationNanos.sum();
+    }
+
+    /**
+     * Gets the number of times the rule executed.
+     *
+     * @return The number of firings.
+     */
+    public long getFirings() {
+        return firings.sum();
+    }
+
+    /**
+     * Gets the number of actions of the rule that failed.
+     *
+     * @return The number of action failures.
+     */
+    public long getActionFailures() {
+        return actionFailures.sum();
+    }
+}
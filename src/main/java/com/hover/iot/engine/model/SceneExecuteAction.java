@@ -0,0 +1,47 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.RuleAction;
+import com.hover.iot.enumeration.ActionType;
+import com.hover.iot.event.SceneActionEvent;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A compiled action that executes a scene.
+ *
+ * @param action  The rule action the compiled action was built from.
+ * @param sceneId The id of the scene to execute.
+ */
+public record SceneExecuteAction(RuleAction action, Long sceneId) implements CompiledAction {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RuleAction getAction() {
+        return action;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ActionTarget getTarget() {
+        return new ActionTarget(ActionType.SCENE, sceneId, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getPayload() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ApplicationEvent createEvent(Object source, CausalityChain causalityChain) {
+        return new SceneActionEvent(source, sceneId);
+    }
+}
@@ -0,0 +1,48 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Device;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A compiled trigger that is driven by the scheduler rather than by device updates. After each firing the trigger is
+ * rescheduled at its next fire time.
+ */
+public interface ScheduledTrigger extends CompiledTrigger {
+
+    /**
+     * Computes the next time the trigger fires.
+     *
+     * @param after The time after which the trigger should next fire.
+     * @return The next fire time, strictly after the given time.
+     */
+    ZonedDateTime nextFireTime(@NotNull ZonedDateTime after);
+
+    /**
+     * Advances the state of the trigger to a time. Called with the current time when the trigger is scheduled, and with
+     * each fire time when it fires.
+     *
+     * @param time The time to advance to.
+     * @return true if firing at the time fires the rule, otherwise false.
+     */
+    default boolean advanceTo(@NotNull ZonedDateTime time) {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default Long getDeviceId() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default boolean test(@NotNull Device device, long now) {
+        return false;
+    }
+}
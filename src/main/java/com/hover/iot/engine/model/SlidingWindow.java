@@ -0,0 +1,217 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.AggregateFunction;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A sliding time window over a stream of numeric samples, aggregated into a fixed number of time buckets. Each bucket
+ * covers an equal slice of the window and keeps the count, sum, minimum and maximum of its samples, and its oldest and
+ * newest sample, so memory is bounded by the number of buckets whatever the length of the window and the rate of the
+ * samples, and no sample in the window is ever evicted early.
+ * <p>
+ * A bucket leaves the window as a whole once its end falls before the start of the window, so an aggregate covers the
+ * window extended by less than the length of one bucket. Adding a sample is O(1), and reading an aggregate is bounded
+ * by the number of buckets.
+ * <p>
+ * A window may be shared by the triggers of several rules that aggregate the same attribute over the same length; the
+ * engine adds each update of the attribute to it once, whichever triggers share it. This class is thread safe.
+ */
+public final class SlidingWindow {
+
+    /**
+     * The length of the window, in milliseconds.
+     */
+    private final long windowMs;
+
+    /**
+     * The length of a bucket, in milliseconds.
+     */
+    private final long bucketMs;
+
+    /**
+     * The number of bucket slots, one more than the number of buckets, so that the bucket of the newest samples and
+     * every bucket still overlapping the window fit.
+     */
+    private final int slots;
+
+    /**
+     * The index of the bucket held in each slot, its start time divided by the bucket length.
+     */
+    private final long[] indices;
+
+    /**
+     * The number of samples of the bucket held in each slot, zero if the slot is empty.
+     */
+    private final int[] counts;
+
+    /**
+     * The sum of the sample values of the bucket held in each slot.
+     */
+    private final double[] sums;
+
+    /**
+     * The minimum sample value of the bucket held in each slot.
+     */
+    private final double[] mins;
+
+    /**
+     * The maximum sample value of the bucket held in each slot.
+     */
+    private final double[] maxes;
+
+    /**
+     * The time of the oldest sample of the bucket held in each slot, in milliseconds since the epoch.
+     */
+    private final long[] firstTimes;
+
+    /**
+     * The value of the oldest sample of the bucket held in each slot.
+     */
+    private final double[] firstValues;
+
+    /**
+     * The time of the newest sample of the bucket held in each slot, in milliseconds since the epoch.
+     */
+    private final long[] lastTimes;
+
+    /**
+     * The value of the newest sample of the bucket held in each slot.
+     */
+    private final double[] lastValues;
+
+    /**
+     * Initializes a new instance of {@link SlidingWindow} class.
+     *
+     * @param windowMs The length of the window, in milliseconds.
+     * @param buckets  The number of buckets the window is divided into.
+     */
+    public SlidingWindow(long windowMs, int buckets) {
+        if (windowMs <= 0)
+            throw new IllegalArgumentException("windowMs must be positive");
+
+        if (buckets < 1)
+            throw new IllegalArgumentException("buckets must be positive");
+
+        this.windowMs = windowMs;
+        this.bucketMs = (windowMs + buckets - 1) / buckets;
+        this.slots = buckets + 1;
+        this.indices = new long[slots];
+        this.counts = new int[slots];
+        this.sums = new double[slots];
+        this.mins = new double[slots];
+        this.maxes = new double[slots];
+        this.firstTimes = new long[slots];
+        this.firstValues = new double[slots];
+        this.lastTimes = new long[slots];
+        this.lastValues = new double[slots];
+    }
+
+    /**
+     * Gets the length of the window.
+     *
+     * @return The length, in milliseconds.
+     */
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    /**
+     * Adds a sample to the bucket of its time. A sample whose bucket has already been replaced by a newer one is too
+     * old for the window, and is ignored.
+     *
+     * @param time  The time of the sample, in milliseconds since the epoch.
+     * @param value The sampled value.
+     */
+    public synchronized void add(long time, double value) {
+        var index = Math.floorDiv(time, bucketMs);
+        var slot = (int) Math.floorMod(index, slots);
+
+        if (counts[slot] == 0 || indices[slot] < index) {
+            indices[slot] = index;
+            counts[slot] = 0;
+            sums[slot] = 0;
+            mins[slot] = value;
+            maxes[slot] = value;
+            firstTimes[slot] = time;
+            firstValues[slot] = value;
+            lastTimes[slot] = time;
+            lastValues[slot] = value;
+        } else if (indices[slot] > index) {
+            return;
+        }
+
+        counts[slot]++;
+        sums[slot] += value;
+        mins[slot] = Math.min(mins[slot], value);
+        maxes[slot] = Math.max(maxes[slot], value);
+
+        if (time < firstTimes[slot]) {
+            firstTimes[slot] = time;
+            firstValues[slot] = value;
+        }
+
+        if (time >= lastTimes[slot]) {
+            lastTimes[slot] = time;
+            lastValues[slot] = value;
+        }
+    }
+
+    /**
+     * Computes an aggregate of the samples of the buckets that overlap the window ending at a time.
+     *
+     * @param function The aggregate to compute.
+     * @param now      The current time, in milliseconds since the epoch.
+     * @return The aggregate, or {@link Double#NaN} if the window does not hold enough samples to compute it.
+     */
+    public synchronized double aggregate(@NotNull AggregateFunction function, long now) {
+        var oldest = Math.floorDiv(now - windowMs, bucketMs);
+        var count = 0L;
+        var sum = 0d;
+        var min = Double.POSITIVE_INFINITY;
+        var max = Double.NEGATIVE_INFINITY;
+        var first = -1;
+        var last = -1;
+
+        for (int slot = 0; slot < slots; slot++) {
+            if (counts[slot] == 0 || indices[slot] < oldest)
+                continue;
+
+            count += counts[slot];
+            sum += sums[slot];
+            min = Math.min(min, mins[slot]);
+            max = Math.max(max, maxes[slot]);
+
+            if (first < 0 || firstTimes[slot] < firstTimes[first])
+                first = slot;
+
+            if (last < 0 || lastTimes[slot] >= lastTimes[last])
+                last = slot;
+        }
+
+        if (count == 0)
+            return Double.NaN;
+
+        return switch (function) {
+            case AVERAGE -> sum / count;
+            case MIN -> min;
+            case MAX -> max;
+            case RATE -> rate(first, last);
+        };
+    }
+
+    /**
+     * Computes the rate of change per minute between the oldest and newest samples.
+     *
+     * @param first The slot of the bucket holding the oldest sample.
+     * @param last  The slot of the bucket holding the newest sample.
+     * @return The rate, or {@link Double#NaN} if the samples do not span any time.
+     */
+    private double rate(int first, int last) {
+        var elapsed = lastTimes[last] - firstTimes[first];
+
+        if (elapsed <= 0)
+            return Double.NaN;
+
+        return (lastValues[last] - firstValues[first]) * 60_000d / elapsed;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.SolarEvent;
+import com.hover.iot.enumeration.TriggerType;
+import com.hover.iot.util.SolarCalculator;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A compiled trigger that fires daily at sunrise or sunset at a location, shifted by an offset. The times are computed
+ * locally with {@link SolarCalculator}, so the trigger needs no network access.
+ * <p>
+ * Near the polar circles the sun may not rise or set for weeks. The trigger then skips to the next day the event
+ * happens on, and if there is none within a year it wakes up daily without firing until there is.
+ *
+ * @param event     The solar event the trigger fires at.
+ * @param latitude  The latitude of the location in degrees, positive north of the equator.
+ * @param longitude The longitude of the location in degrees, positive east of Greenwich.
+ * @param offsetMs  The offset from the event the trigger fires at, in milliseconds. Negative offsets fire before it.
+ */
+public record SolarTrigger(SolarEvent event, double latitude, double longitude, long offsetMs)
+        implements ScheduledTrigger {
+
+    /**
+     * The number of days searched for the next event.
+     */
+    private static final int SEARCH_DAYS = 366;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.SOLAR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ZonedDateTime nextFireTime(@NotNull ZonedDateTime after) {
+        // Start a day early, since a large offset can move the event of the previous day past the given time.
+        var date = after.toLocalDate().minusDays(1);
+
+        for (int i = 0; i <= SEARCH_DAYS; i++, date = date.plusDays(1)) {
+            var next = fireTimeOn(date, after.getZone());
+
+            if (next != null && next.isAfter(after))
+                return next;
+        }
+
+        return after.plusDays(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The trigger only fires at the fire time of a day, not when it wakes up on a day without the event.
+     */
+    @Override
+    public boolean advanceTo(@NotNull ZonedDateTime time) {
+        var date = time.toLocalDate();
+
+        for (var day = date.minusDays(1); !day.isAfter(date.plusDays(1)); day = day.plusDays(1)) {
+            var fireTime = fireTimeOn(day, time.getZone());
+
+            if (fireTime != null && fireTime.toInstant().equals(time.toInstant()))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Computes the fire time of the trigger on a date.
+     *
+     * @param date The date of the event.
+     * @param zone The time zone of the fire time.
+     * @return The fire time truncated to the second, or null if the event does not happen on the date.
+     */
+    private ZonedDateTime fireTimeOn(@NotNull LocalDate date, @NotNull ZoneId zone) {
+        var time = SolarCalculator.compute(event, date, latitude, longitude);
+
+        if (time == null)
+            return null;
+
+        return time.plusMillis(offsetMs).truncatedTo(ChronoUnit.SECONDS).atZone(zone);
+    }
+}
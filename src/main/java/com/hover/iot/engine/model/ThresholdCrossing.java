@@ -0,0 +1,140 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.ThresholdDirection;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Detects the crossings of a threshold by a stream of samples. It keeps the side of the threshold the value was last
+ * seen on and the time it last fired as its state, so it fires once per crossing rather than once per sample.
+ * <p>
+ * A hysteresis band keeps a value hovering around the threshold from firing repeatedly. The band lies on the re-arm
+ * side of the threshold: a rising crossing fires when the value reaches the threshold and re-arms once it falls to the
+ * threshold minus the hysteresis, a falling crossing does the opposite, and crossings in both directions center the
+ * band on the threshold. The first sample only establishes the side of the threshold and never fires. Crossings within
+ * the cooldown of the last firing update the state but do not fire.
+ */
+public final class ThresholdCrossing {
+
+    /**
+     * The side of a value that has not been sampled, or has only been sampled inside the hysteresis band.
+     */
+    private static final byte UNKNOWN = 0;
+
+    /**
+     * The side of a value at or below the lower bound of the band.
+     */
+    private static final byte BELOW = 1;
+
+    /**
+     * The side of a value at or above the upper bound of the band.
+     */
+    private static final byte ABOVE = 2;
+
+    /**
+     * The direction of the crossings that fire.
+     */
+    private final ThresholdDirection direction;
+
+    /**
+     * The minimum time between firings, in milliseconds.
+     */
+    private final long cooldownMs;
+
+    /**
+     * The value at or above which the samples are above the threshold.
+     */
+    private final double upper;
+
+    /**
+     * The value at or below which the samples are below the threshold.
+     */
+    private final double lower;
+
+    /**
+     * The side of the threshold the value was last seen on.
+     */
+    private byte side = UNKNOWN;
+
+    /**
+     * Whether a crossing has fired.
+     */
+    private boolean fired;
+
+    /**
+     * The time a crossing last fired, in milliseconds since the epoch.
+     */
+    private long lastFiredAt;
+
+    /**
+     * Initializes a new instance of {@link ThresholdCrossing} class.
+     *
+     * @param threshold  The threshold the samples are compared to.
+     * @param direction  The direction of the crossings that fire.
+     * @param hysteresis The width of the hysteresis band.
+     * @param cooldownMs The minimum time between firings, in milliseconds.
+     */
+    public ThresholdCrossing(double threshold, @NotNull ThresholdDirection direction, double hysteresis,
+                             long cooldownMs) {
+        this.direction = direction;
+        this.cooldownMs = cooldownMs;
+
+        switch (direction) {
+            case RISING -> {
+                upper = threshold;
+                lower = threshold - hysteresis;
+            }
+            case FALLING -> {
+                upper = threshold + hysteresis;
+                lower = threshold;
+            }
+            default -> {
+                upper = threshold + hysteresis / 2;
+                lower = threshold - hysteresis / 2;
+            }
+        }
+    }
+
+    /**
+     * Gets whether the last sample is on the firing side of the threshold: above it for rising and both directions, and
+     * below it for the falling direction.
+     *
+     * @return true if the last sample is on the firing side, otherwise false.
+     */
+    public synchronized boolean isActive() {
+        return side == (direction == ThresholdDirection.FALLING ? BELOW : ABOVE);
+    }
+
+    /**
+     * Updates the state with a sample.
+     *
+     * @param value The sampled value.
+     * @param now   The time of the sample, in milliseconds since the epoch.
+     * @return true if the sample crossed the threshold in the configured direction outside the cooldown, otherwise
+     * false.
+     */
+    public synchronized boolean sample(double value, long now) {
+        var previous = side;
+        ThresholdDirection crossing;
+
+        if (previous != ABOVE && value >= upper) {
+            side = ABOVE;
+            crossing = ThresholdDirection.RISING;
+        } else if (previous != BELOW && value <= lower) {
+            side = BELOW;
+            crossing = ThresholdDirection.FALLING;
+        } else {
+            return false;
+        }
+
+        if (previous == UNKNOWN || !direction.includes(crossing))
+            return false;
+
+        if (fired && now - lastFiredAt < cooldownMs)
+            return false;
+
+        fired = true;
+        lastFiredAt = now;
+
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+
+/**
+ * A compiled trigger that fires daily at a time of day.
+ *
+ * @param time The time of day the trigger fires at.
+ */
+public record TimeOfDayTrigger(LocalTime time) implements ScheduledTrigger {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.TIME_OF_DAY;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ZonedDateTime nextFireTime(@NotNull ZonedDateTime after) {
+        var next = after.toLocalDate().atTime(time).atZone(after.getZone());
+
+        if (!next.isAfter(after))
+            next = after.toLocalDate().plusDays(1).atTime(time).atZone(after.getZone());
+
+        return next;
+    }
+}
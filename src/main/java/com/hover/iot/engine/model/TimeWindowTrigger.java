@@ -0,0 +1,116 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+
+/**
+ * A compiled trigger whose condition is the time of day being within a daily window, such as after 22:00 and before
+ * 06:00. A window whose end is before its start wraps past midnight. The trigger is scheduled at both boundaries of the
+ * window: it fires when the window starts, and is satisfied until it ends.
+ */
+public final class TimeWindowTrigger implements ScheduledTrigger {
+
+    /**
+     * The time of day the window starts at, inclusive.
+     */
+    private final LocalTime from;
+
+    /**
+     * The time of day the window ends at, exclusive.
+     */
+    private final LocalTime to;
+
+    /**
+     * Whether the time of day is within the window.
+     */
+    private volatile boolean inside;
+
+    /**
+     * Initializes a new instance of {@link TimeWindowTrigger} class.
+     *
+     * @param from The time of day the window starts at, inclusive.
+     * @param to   The time of day the window ends at, exclusive.
+     */
+    public TimeWindowTrigger(@NotNull LocalTime from, @NotNull LocalTime to) {
+        if (from.equals(to))
+            throw new IllegalArgumentException("the window must not be empty");
+
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TriggerType getType() {
+        return TriggerType.TIME_WINDOW;
+    }
+
+    /**
+     * Gets the time of day the window starts at.
+     *
+     * @return The start of the window.
+     */
+    public LocalTime getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the time of day the window ends at.
+     *
+     * @return The end of the window.
+     */
+    public LocalTime getTo() {
+        return to;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ZonedDateTime nextFireTime(@NotNull ZonedDateTime after) {
+        var start = new TimeOfDayTrigger(from).nextFireTime(after);
+        var end = new TimeOfDayTrigger(to).nextFireTime(after);
+
+        return start.isBefore(end) ? start : end;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The trigger only fires when the window starts.
+     */
+    @Override
+    public boolean advanceTo(@NotNull ZonedDateTime time) {
+        inside = contains(time.toLocalTime());
+
+        return inside;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Satisfied while the time of day is within the window.
+     */
+    @Override
+    public boolean isSatisfied(long now) {
+        return inside;
+    }
+
+    /**
+     * Checks whether a time of day is within the window.
+     *
+     * @param time The time of day.
+     * @return true if the time is within the window, otherwise false.
+     */
+    public boolean contains(@NotNull LocalTime time) {
+        if (from.isBefore(to))
+            return !time.isBefore(from) && time.isBefore(to);
+
+        return !time.isBefore(from) || time.isBefore(to);
+    }
+}
@@ -0,0 +1,151 @@
+package com.hover.iot.engine.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * A bucket of a {@link TimingWheel}. Holds the timer entries that expire within one tick of the wheel as a circular
+ * doubly linked list, so entries can be added and removed in constant time. Not thread-safe; access is guarded by the
+ * {@link TriggerScheduler}.
+ */
+final class TimerTaskList implements Comparable<TimerTaskList> {
+
+    /**
+     * The sentinel entry of the list.
+     */
+    private final TimerTaskEntry root = new TimerTaskEntry(null, -1);
+
+    /**
+     * The expiration time of the bucket in epoch milliseconds, or -1 if the bucket is not queued.
+     */
+    private long expiration = -1;
+
+    /**
+     * Initializes a new instance of {@link TimerTaskList} class.
+     */
+    TimerTaskList() {
+        root.next = root;
+        root.prev = root;
+    }
+
+    /**
+     * Sets the expiration time of the bucket.
+     *
+     * @param expiration The expiration time in epoch milliseconds.
+     * @return true if the expiration time changed, meaning the bucket must be queued.
+     */
+    boolean setExpiration(long expiration) {
+        var changed = this.expiration != expiration;
+        this.expiration = expiration;
+        return changed;
+    }
+
+    /**
+     * Gets the expiration time of the bucket.
+     *
+     * @return The expiration time in epoch milliseconds.
+     */
+    long getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * Adds an entry to the bucket, removing it from any bucket it is currently in.
+     *
+     * @param entry The entry to add.
+     */
+    void add(@NotNull TimerTaskEntry entry) {
+        entry.remove();
+
+        entry.list = this;
+        entry.next = root;
+        entry.prev = root.prev;
+        root.prev.next = entry;
+        root.prev = entry;
+    }
+
+    /**
+     * Removes all entries from the bucket and passes each of them to a consumer. The bucket's expiration is reset.
+     *
+     * @param consumer The consumer of the removed entries.
+     */
+    void flush(Consumer<TimerTaskEntry> consumer) {
+        var entry = root.next;
+
+        while (entry != root) {
+            var next = entry.next;
+            entry.remove();
+            consumer.accept(entry);
+            entry = next;
+        }
+
+        expiration = -1;
+    }
+
+    @Override
+    public int compareTo(@NotNull TimerTaskList other) {
+        return Long.compare(expiration, other.expiration);
+    }
+
+    /**
+     * An entry of a timer task in a bucket.
+     */
+    static final class TimerTaskEntry {
+
+        /**
+         * The task to run when the entry expires.
+         */
+        final Runnable task;
+
+        /**
+         * The expiration time of the entry in epoch milliseconds.
+         */
+        final long expiration;
+
+        /**
+         * The bucket the entry is in, or null if it is not in a bucket.
+         */
+        TimerTaskList list;
+
+        /**
+         * The next entry in the bucket.
+         */
+        TimerTaskEntry next;
+
+        /**
+         * The previous entry in the bucket.
+         */
+        TimerTaskEntry prev;
+
+        /**
+         * Whether the entry has run or been cancelled.
+         */
+        boolean done;
+
+        /**
+         * Initializes a new instance of {@link TimerTaskEntry} class.
+         *
+         * @param task       The task to run when the entry expires.
+         * @param expiration The expiration time of the entry in epoch milliseconds.
+         */
+        TimerTaskEntry(Runnable task, long expiration) {
+            this.task = task;
+            this.expiration = expiration;
+        }
+
+        /**
+         * Removes the entry from the bucket it is in, if any.
+         */
+        void remove() {
+            if (list == null)
+                return;
+
+            next.prev = prev;
+            prev.next = next;
+            next = null;
+            prev = null;
+            list = null;
+        }
+    }
+}
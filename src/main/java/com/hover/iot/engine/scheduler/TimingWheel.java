@@ -0,0 +1,116 @@
+package com.hover.iot.engine.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+
+/**
+ * A hierarchical timing wheel. Each wheel has a fixed number of buckets spanning one tick each; timers that expire
+ * beyond the wheel's interval are held by a lazily created overflow wheel whose tick is this wheel's interval. As time
+ * advances, buckets of coarser wheels are flushed and their entries re-inserted into finer wheels. Inserting and
+ * cancelling a timer is O(1) regardless of how many timers are pending. Not thread-safe; access is guarded by the
+ * {@link TriggerScheduler}.
+ */
+final class TimingWheel {
+
+    /**
+     * The duration of one tick in milliseconds.
+     */
+    private final long tickMs;
+
+    /**
+     * The number of buckets in the wheel.
+     */
+    private final int wheelSize;
+
+    /**
+     * The time span covered by the wheel in milliseconds.
+     */
+    private final long interval;
+
+    /**
+     * The buckets of the wheel.
+     */
+    private final TimerTaskList[] buckets;
+
+    /**
+     * The queue of non-empty buckets ordered by expiration, shared by all wheels of the hierarchy.
+     */
+    private final Queue<TimerTaskList> queue;
+
+    /**
+     * The current time of the wheel in epoch milliseconds, rounded down to a multiple of the tick.
+     */
+    private long currentTime;
+
+    /**
+     * The wheel holding the timers that expire beyond this wheel's interval.
+     */
+    private TimingWheel overflowWheel;
+
+    /**
+     * Initializes a new instance of {@link TimingWheel} class.
+     *
+     * @param tickMs    The duration of one tick in milliseconds.
+     * @param wheelSize The number of buckets in the wheel.
+     * @param startMs   The start time of the wheel in epoch milliseconds.
+     * @param queue     The queue of non-empty buckets, shared by all wheels of the hierarchy.
+     */
+    TimingWheel(long tickMs, int wheelSize, long startMs, Queue<TimerTaskList> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new TimerTaskList[wheelSize];
+
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerTaskList();
+        }
+    }
+
+    /**
+     * Adds an entry to the wheel.
+     *
+     * @param entry The entry to add.
+     * @return true if the entry was added, false if it is cancelled or already expired and must be run now.
+     */
+    boolean add(@NotNull TimerTaskList.TimerTaskEntry entry) {
+        var expiration = entry.expiration;
+
+        if (entry.done || expiration < currentTime + tickMs)
+            return false;
+
+        if (expiration < currentTime + interval) {
+            var virtualId = expiration / tickMs;
+            var bucket = buckets[(int) (virtualId % wheelSize)];
+
+            bucket.add(entry);
+
+            if (bucket.setExpiration(virtualId * tickMs))
+                queue.offer(bucket);
+
+            return true;
+        }
+
+        if (overflowWheel == null)
+            overflowWheel = new TimingWheel(interval, wheelSize, currentTime, queue);
+
+        return overflowWheel.add(entry);
+    }
+
+    /**
+     * Advances the wheel's clock. Coarser wheels are advanced as well.
+     *
+     * @param timeMs The time to advance to in epoch milliseconds.
+     */
+    void advanceClock(long timeMs) {
+        if (timeMs < currentTime + tickMs)
+            return;
+
+        currentTime = timeMs - (timeMs % tickMs);
+
+        if (overflowWheel != null)
+            overflowWheel.advanceClock(currentTime);
+    }
+}
@@ -0,0 +1,315 @@
+package com.hover.iot.engine.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A scheduler for time-based rule triggers backed by a hierarchical {@link TimingWheel}. A single driver thread
+ * advances the wheel and hands expired tasks off to a worker executor, so tens of thousands of pending timers cost
+ * no threads and O(1) to schedule or cancel.
+ * <p>
+ * The scheduler reads time from an injectable {@link Clock}. Tests and simulations can leave the driver thread
+ * stopped and call {@link #advance()} after moving the clock.
+ */
+public class TriggerScheduler implements AutoCloseable {
+
+    /**
+     * The logger for the {@link TriggerScheduler} class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriggerScheduler.class);
+
+    /**
+     * The default duration of one tick of the finest wheel in milliseconds.
+     */
+    public static final long DEFAULT_TICK_MS = 100;
+
+    /**
+     * The default number of buckets per wheel.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * The clock the scheduler reads time from.
+     */
+    private final Clock clock;
+
+    /**
+     * The executor expired tasks are handed off to.
+     */
+    private final Executor workers;
+
+    /**
+     * The duration of one tick of the finest wheel in milliseconds.
+     */
+    private final long tickMs;
+
+    /**
+     * The queue of non-empty buckets ordered by expiration.
+     */
+    private final PriorityQueue<TimerTaskList> queue = new PriorityQueue<>();
+
+    /**
+     * The finest wheel of the hierarchy.
+     */
+    private final TimingWheel timingWheel;
+
+    /**
+     * A lock that guards the wheels, buckets and queue.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The number of pending timers.
+     */
+    private int size;
+
+    /**
+     * The thread that drives the wheel, or null if the scheduler is not started.
+     */
+    private volatile Thread driver;
+
+    /**
+     * Initializes a new instance of {@link TriggerScheduler} class with the default tick and wheel size.
+     *
+     * @param clock   The clock the scheduler reads time from.
+     * @param workers The executor expired tasks are handed off to.
+     */
+    public TriggerScheduler(Clock clock, Executor workers) {
+        this(clock, workers, DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Initializes a new instance of {@link TriggerScheduler} class.
+     *
+     * @param clock     The clock the scheduler reads time from.
+     * @param workers   The executor expired tasks are handed off to.
+     * @param tickMs    The duration of one tick of the finest wheel in milliseconds.
+     * @param wheelSize The number of buckets per wheel.
+     */
+    public TriggerScheduler(@NotNull Clock clock, @NotNull Executor workers, long tickMs, int wheelSize) {
+        if (tickMs <= 0 || wheelSize <= 0)
+            throw new IllegalArgumentException("The tick and wheel size must be positive");
+
+        this.clock = clock;
+        this.workers = workers;
+        this.tickMs = tickMs;
+        this.timingWheel = new TimingWheel(tickMs, wheelSize, clock.millis(), queue);
+    }
+
+    /**
+     * Gets the clock the scheduler reads time from.
+     *
+     * @return The clock.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Schedules a task to run at an instant. A task whose instant has already passed runs on the next advance.
+     *
+     * @param instant The instant to run the task at.
+     * @param task    The task to run.
+     * @return A handle that can be used to cancel the task.
+     */
+    public Timeout schedule(@NotNull Instant instant, @NotNull Runnable task) {
+        var entry = new TimerTaskList.TimerTaskEntry(task, instant.toEpochMilli());
+
+        lock.lock();
+        try {
+            size++;
+
+            if (!timingWheel.add(entry))
+                runExpired(entry);
+        } finally {
+            lock.unlock();
+        }
+
+        return new Timeout(entry);
+    }
+
+    /**
+     * Runs every task that has expired by the clock's current time.
+     */
+    public void advance() {
+        var now = clock.millis();
+
+        lock.lock();
+        try {
+            var bucket = queue.peek();
+
+            while (bucket != null && bucket.getExpiration() <= now) {
+                queue.poll();
+                timingWheel.advanceClock(bucket.getExpiration());
+                bucket.flush(this::reinsert);
+                bucket = queue.peek();
+            }
+
+            timingWheel.advanceClock(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the time the next bucket of timers expires at, so that a caller driving the scheduler on a virtual clock can
+     * step the clock from one expiration to the next instead of jumping past them. Buckets hold one tick of timers, so
+     * the next expiration is at most one tick before the earliest pending timer. Buckets whose timers were all cancelled
+     * are still reported.
+     *
+     * @return The expiration time, or null if no bucket is pending.
+     */
+    public Instant getNextExpiration() {
+        lock.lock();
+        try {
+            var bucket = queue.peek();
+
+            return bucket != null ? Instant.ofEpochMilli(bucket.getExpiration()) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of pending timers.
+     *
+     * @return The number of pending timers.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts the driver thread that advances the wheel once per tick.
+     */
+    public synchronized void start() {
+        if (driver != null)
+            return;
+
+        driver = new Thread(this::drive, "rule-trigger-scheduler");
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    /**
+     * Stops the driver thread. Pending timers are kept.
+     */
+    @Override
+    public synchronized void close() {
+        var thread = driver;
+        driver = null;
+
+        if (thread != null)
+            thread.interrupt();
+    }
+
+    /**
+     * The driver loop that advances the wheel once per tick until the scheduler is closed.
+     */
+    private void drive() {
+        var thread = Thread.currentThread();
+
+        while (driver == thread && !thread.isInterrupted()) {
+            try {
+                advance();
+            } catch (Exception e) {
+                LOGGER.error("An error occurred while advancing the trigger scheduler", e);
+            }
+
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(tickMs));
+        }
+    }
+
+    /**
+     * Re-inserts an entry flushed from a bucket into the wheel, running it if it has expired. Must be called while
+     * holding the lock.
+     *
+     * @param entry The flushed entry.
+     */
+    private void reinsert(TimerTaskList.TimerTaskEntry entry) {
+        if (!timingWheel.add(entry))
+            runExpired(entry);
+    }
+
+    /**
+     * Hands an expired entry off to the workers, unless it has been cancelled. Must be called while holding the lock.
+     *
+     * @param entry The expired entry.
+     */
+    private void runExpired(TimerTaskList.TimerTaskEntry entry) {
+        if (entry.done)
+            return;
+
+        entry.done = true;
+        size--;
+
+        try {
+            workers.execute(entry.task);
+        } catch (Exception e) {
+            LOGGER.error("An error occurred while handing off an expired trigger", e);
+        }
+    }
+
+    /**
+     * A handle of a scheduled task.
+     */
+    public final class Timeout {
+
+        /**
+         * The entry of the scheduled task.
+         */
+        private final TimerTaskList.TimerTaskEntry entry;
+
+        /**
+         * Initializes a new instance of {@link Timeout} class.
+         *
+         * @param entry The entry of the scheduled task.
+         */
+        private Timeout(TimerTaskList.TimerTaskEntry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Gets the instant the task is scheduled to run at.
+         *
+         * @return The scheduled instant.
+         */
+        public Instant getInstant() {
+            return Instant.ofEpochMilli(entry.expiration);
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled, false if it already ran or was cancelled before.
+         */
+        public boolean cancel() {
+            lock.lock();
+            try {
+                if (entry.done)
+                    return false;
+
+                entry.done = true;
+                entry.remove();
+                size--;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
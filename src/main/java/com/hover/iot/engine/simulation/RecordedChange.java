@@ -0,0 +1,17 @@
+package com.hover.iot.engine.simulation;
+
+import com.hover.iot.enumeration.AttributeType;
+
+import java.time.Instant;
+
+/**
+ * A recorded change of an attribute of a device.
+ *
+ * @param at        The time the change happened.
+ * @param deviceId  The id of the device.
+ * @param attribute The name of the attribute.
+ * @param type      The type of the attribute.
+ * @param value     The new value of the attribute.
+ */
+public record RecordedChange(Instant at, Long deviceId, String attribute, AttributeType type, Object value) {
+}
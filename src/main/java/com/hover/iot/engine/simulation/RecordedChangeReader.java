@@ -0,0 +1,93 @@
+package com.hover.iot.engine.simulation;
+
+import com.hover.iot.enumeration.AttributeType;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads recorded attribute changes from CSV. Each line holds one change as
+ * {@code timestamp,deviceId,attribute,type,value}, where the timestamp is an ISO-8601 instant and the type is an
+ * {@link AttributeType}. Blank lines and lines starting with {@code #} are skipped. String values may contain commas.
+ */
+public final class RecordedChangeReader {
+
+    /**
+     * Initializes a new instance of {@link RecordedChangeReader} class.
+     */
+    private RecordedChangeReader() {
+    }
+
+    /**
+     * Reads every recorded change from a reader.
+     *
+     * @param reader The reader to read the changes from.
+     * @return The recorded changes, in the order they were read.
+     * @throws IOException              If the reader fails.
+     * @throws IllegalArgumentException If a line is malformed.
+     */
+    public static @NotNull List<RecordedChange> readAll(@NotNull Reader reader) throws IOException {
+        var changes = new ArrayList<RecordedChange>();
+        var lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        var number = 0;
+        String line;
+
+        while ((line = lines.readLine()) != null) {
+            number++;
+
+            if (line.isBlank() || line.startsWith("#"))
+                continue;
+
+            changes.add(parse(line, number));
+        }
+
+        return changes;
+    }
+
+    /**
+     * Parses a line of CSV into a recorded change.
+     *
+     * @param line   The line to parse.
+     * @param number The number of the line, for error messages.
+     * @return The recorded change.
+     * @throws IllegalArgumentException If the line is malformed.
+     */
+    private static @NotNull RecordedChange parse(@NotNull String line, int number) {
+        var fields = line.split(",", 5);
+
+        if (fields.length != 5)
+            throw new IllegalArgumentException("Line " + number + " must have 5 fields");
+
+        try {
+            var type = AttributeType.valueOf(fields[3].trim());
+
+            return new RecordedChange(Instant.parse(fields[0].trim()), Long.parseLong(fields[1].trim()),
+                    fields[2].trim(), type, parseValue(type, fields[4]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Line " + number + " is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses the value of an attribute.
+     *
+     * @param type  The type of the attribute.
+     * @param value The value to parse.
+     * @return The parsed value.
+     */
+    private static Object parseValue(@NotNull AttributeType type, @NotNull String value) {
+        return switch (type) {
+            case STRING -> value;
+            case FLOAT -> Float.parseFloat(value.trim());
+            case LONG -> Long.parseLong(value.trim());
+            case INTEGER -> Integer.parseInt(value.trim());
+            case BOOLEAN -> Boolean.parseBoolean(value.trim());
+        };
+    }
+}
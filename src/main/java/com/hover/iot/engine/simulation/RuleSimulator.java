@@ -0,0 +1,274 @@
+package com.hover.iot.engine.simulation;
+
+import com.hover.iot.engine.implementation.ActionCoalescer;
+import com.hover.iot.engine.implementation.CascadeGuard;
+import com.hover.iot.engine.implementation.RuleCompiler;
+import com.hover.iot.engine.implementation.RuleEngine;
+import com.hover.iot.engine.metrics.RuleEngineMetrics;
+import com.hover.iot.engine.model.CausalityChain;
+import com.hover.iot.engine.model.RuleFiring;
+import com.hover.iot.engine.scheduler.TriggerScheduler;
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.entity.Rule;
+import com.hover.iot.event.AttributeActionEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+
+/**
+ * Replays recorded attribute changes through a private rule engine at full speed on a {@link VirtualClock}, without
+ * touching any device, and reports which rules would have fired and when. The simulated time only advances with the
+ * recorded changes, stepping through every timer on the way, so scheduled, held and debounced triggers fire at their
+ * simulated times. Attribute writes of fired rules are applied to the simulated devices and evaluated again, so
+ * cascades of rules behave as they would live, bounded by the same cascade guard.
+ * <p>
+ * A simulator is not thread safe, but each replay uses a fresh engine, so a simulator can replay many recordings one
+ * after the other.
+ */
+public class RuleSimulator {
+
+    /**
+     * The rules to simulate.
+     */
+    private final List<Rule> rules;
+
+    /**
+     * The time zone of the simulated clock.
+     */
+    private final ZoneId zone;
+
+    /**
+     * The maximum number of rules in a cascade.
+     */
+    private final int maxCascadeDepth;
+
+    /**
+     * The maximum number of times a rule may fire per minute, or zero for no limit.
+     */
+    private final int maxFiringsPerMinute;
+
+    /**
+     * The window within which identical commands are coalesced, in milliseconds, or zero to not coalesce them.
+     */
+    private final long coalesceWindowMs;
+
+    /**
+     * Initializes a new instance of {@link RuleSimulator} class, with the engine's default limits.
+     *
+     * @param rules The rules to simulate.
+     * @param zone  The time zone of the simulated clock.
+     */
+    public RuleSimulator(@NotNull Collection<Rule> rules, @NotNull ZoneId zone) {
+        this(rules, zone, CascadeGuard.DEFAULT_MAX_DEPTH, CascadeGuard.DEFAULT_MAX_FIRINGS_PER_MINUTE,
+                ActionCoalescer.DEFAULT_WINDOW_MS);
+    }
+
+    /**
+     * Initializes a new instance of {@link RuleSimulator} class.
+     *
+     * @param rules               The rules to simulate.
+     * @param zone                The time zone of the simulated clock.
+     * @param maxCascadeDepth     The maximum number of rules in a cascade.
+     * @param maxFiringsPerMinute The maximum number of times a rule may fire per minute, or zero for no limit.
+     * @param coalesceWindowMs    The window within which identical commands are coalesced, in milliseconds, or zero
+     *                            to not coalesce them.
+     */
+    public RuleSimulator(@NotNull Collection<Rule> rules, @NotNull ZoneId zone, int maxCascadeDepth,
+                         int maxFiringsPerMinute, long coalesceWindowMs) {
+        this.rules = List.copyOf(rules);
+        this.zone = zone;
+        this.maxCascadeDepth = maxCascadeDepth;
+        this.maxFiringsPerMinute = maxFiringsPerMinute;
+        this.coalesceWindowMs = coalesceWindowMs;
+    }
+
+    /**
+     * Replays recorded changes, starting the simulated clock at the first change.
+     *
+     * @param changes The recorded changes, in time order.
+     * @return The outcome of the replay.
+     */
+    public @NotNull SimulationResult run(@NotNull List<RecordedChange> changes) {
+        if (changes.isEmpty())
+            return new SimulationResult(List.of(), 0, 0, 0, 0);
+
+        return new Replay(changes.get(0).at()).run(changes);
+    }
+
+    /**
+     * A single replay of recorded changes, with its own engine, clock and simulated devices.
+     */
+    private final class Replay {
+
+        /**
+         * The simulated clock.
+         */
+        private final VirtualClock clock;
+
+        /**
+         * The scheduler that drives the timers of the simulated engine.
+         */
+        private final TriggerScheduler scheduler;
+
+        /**
+         * The simulated engine.
+         */
+        private final RuleEngine engine;
+
+        /**
+         * The simulated devices, keyed by their id.
+         */
+        private final Map<Long, Device> devices = new HashMap<>();
+
+        /**
+         * The attribute writes of fired rules that have not been applied yet.
+         */
+        private final Queue<AttributeActionEvent> pendingWrites = new ArrayDeque<>();
+
+        /**
+         * The rules that fired.
+         */
+        private final List<RuleFiring> firings = new ArrayList<>();
+
+        /**
+         * The number of actions the fired rules performed.
+         */
+        private long actions;
+
+        /**
+         * Initializes a new instance of {@link Replay} class.
+         *
+         * @param start The simulated time the replay starts at.
+         */
+        private Replay(Instant start) {
+            clock = new VirtualClock(start, zone);
+            scheduler = new TriggerScheduler(clock, Runnable::run);
+            engine = new RuleEngine(this::onEvent, new RuleCompiler(), scheduler,
+                    new CascadeGuard(maxCascadeDepth, maxFiringsPerMinute, clock),
+                    new ActionCoalescer(coalesceWindowMs, clock),
+                    new RuleEngineMetrics(new SimpleMeterRegistry(), false));
+            engine.addFiringListener(firings::add);
+        }
+
+        /**
+         * Replays recorded changes.
+         *
+         * @param changes The recorded changes, in time order.
+         * @return The outcome of the replay.
+         */
+        private SimulationResult run(List<RecordedChange> changes) {
+            var registered = engine.registerRules(rules);
+            var start = System.nanoTime();
+
+            for (var change : changes) {
+                advanceTo(change.at());
+
+                // Every report is evaluated, even one that repeats the current value, as it would be live.
+                var device = getDevice(change.deviceId());
+
+                setAttribute(device, new Attribute(change.attribute(), change.value(), change.type()));
+                engine.evaluatePossibleTrigger(device, change.attribute(), CausalityChain.ROOT);
+                applyPendingWrites();
+            }
+
+            return new SimulationResult(List.copyOf(firings), registered, changes.size(), actions,
+                    System.nanoTime() - start);
+        }
+
+        /**
+         * Moves the simulated clock to an instant, stepping through every pending timer on the way.
+         *
+         * @param instant The instant to move the clock to.
+         */
+        private void advanceTo(Instant instant) {
+            var next = scheduler.getNextExpiration();
+
+            while (next != null && !next.isAfter(instant)) {
+                clock.advanceTo(next);
+                scheduler.advance();
+                applyPendingWrites();
+                next = scheduler.getNextExpiration();
+            }
+
+            clock.advanceTo(instant);
+            scheduler.advance();
+            applyPendingWrites();
+        }
+
+        /**
+         * Applies the pending attribute writes of fired rules to the simulated devices, evaluating the rules against
+         * each write that changes a device.
+         */
+        private void applyPendingWrites() {
+            AttributeActionEvent write;
+
+            while ((write = pendingWrites.poll()) != null) {
+                var device = getDevice(write.getDevice());
+
+                if (setAttribute(device, write.getAttribute()))
+                    engine.evaluatePossibleTrigger(device, write.getAttribute().getName(), write.getCausalityChain());
+            }
+        }
+
+        /**
+         * Records an event published by the simulated engine.
+         *
+         * @param event The published event.
+         */
+        private void onEvent(Object event) {
+            actions++;
+
+            if (event instanceof AttributeActionEvent write)
+                pendingWrites.add(write);
+        }
+
+        /**
+         * Gets a simulated device, creating it without attributes if it has not been seen yet.
+         *
+         * @param id The id of the device.
+         * @return The simulated device.
+         */
+        private Device getDevice(Long id) {
+            return devices.computeIfAbsent(id, ignored -> {
+                var device = new Device();
+                device.setId(id);
+                device.setAttributes(new ArrayList<>());
+                return device;
+            });
+        }
+
+        /**
+         * Sets an attribute of a simulated device.
+         *
+         * @param device    The simulated device.
+         * @param attribute The attribute to set.
+         * @return true if the attribute changed, otherwise false.
+         */
+        private boolean setAttribute(Device device, Attribute attribute) {
+            for (var existing : device.getAttributes()) {
+                if (!Objects.equals(existing.getName(), attribute.getName()))
+                    continue;
+
+                if (Objects.equals(existing.getValue(), attribute.getValue()))
+                    return false;
+
+                existing.setValue(attribute.getValue());
+                return true;
+            }
+
+            device.getAttributes().add(new Attribute(attribute.getName(), attribute.getValue(), attribute.getType()));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hover.iot.engine.simulation;
+
+import com.hover.iot.engine.model.RuleFiring;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of replaying recorded attribute changes through the rule engine.
+ *
+ * @param firings          The rules that fired, in the order they fired, with the simulated time they fired at.
+ * @param rulesRegistered  The number of rules that compiled and were registered.
+ * @param changesReplayed  The number of recorded changes replayed.
+ * @param actionsPerformed The number of actions the fired rules performed.
+ * @param elapsedNanos     The wall-clock time the replay took, in nanoseconds.
+ */
+public record SimulationResult(List<RuleFiring> firings, int rulesRegistered, int changesReplayed,
+                               long actionsPerformed, long elapsedNanos) {
+
+    /**
+     * Counts the firings of each rule.
+     *
+     * @return The number of firings keyed by the rule's id, in id order.
+     */
+    public @NotNull Map<Long, Long> getFiringCounts() {
+        var counts = new TreeMap<Long, Long>();
+
+        for (var firing : firings) {
+            counts.merge(firing.ruleId(), 1L, Long::sum);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Gets the throughput of the replay.
+     *
+     * @return The number of recorded changes replayed per wall-clock second.
+     */
+    public double getChangesPerSecond() {
+        return elapsedNanos == 0 ? 0 : changesReplayed * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("Replayed %d changes against %d rules in %d ms (%.0f changes/s): %d firings, %d actions",
+                changesReplayed, rulesRegistered, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getChangesPerSecond(),
+                firings.size(), actionsPerformed);
+    }
+}
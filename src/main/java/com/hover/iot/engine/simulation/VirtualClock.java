@@ -0,0 +1,70 @@
+package com.hover.iot.engine.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A clock whose current instant is moved explicitly by a simulation, so that time passes only as fast as the simulated
+ * events are replayed.
+ */
+public class VirtualClock extends Clock {
+
+    /**
+     * The current instant of the clock.
+     */
+    private volatile Instant instant;
+
+    /**
+     * The time zone of the clock.
+     */
+    private final ZoneId zone;
+
+    /**
+     * Initializes a new instance of {@link VirtualClock} class.
+     *
+     * @param instant The initial instant of the clock.
+     * @param zone    The time zone of the clock.
+     */
+    public VirtualClock(@NotNull Instant instant, @NotNull ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock forward to an instant. The clock never moves backwards, so an instant before the current one is
+     * ignored.
+     *
+     * @param instant The instant to move the clock to.
+     */
+    public void advanceTo(@NotNull Instant instant) {
+        if (instant.isAfter(this.instant))
+            this.instant = instant;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new VirtualClock(instant, zone);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
@@ -4,7 +4,11 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.hover.iot.enumeration.ConditionOperator;
+import com.hover.iot.enumeration.DebounceEdge;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -47,6 +51,7 @@ public class Rule {
      */
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     @JoinColumn(name = "rule_id")
+    @Fetch(FetchMode.SUBSELECT)
     private List<RuleAction> actions;
 
     /**
@@ -54,12 +59,33 @@ public class Rule {
      */
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     @JoinColumn(name = "rule_id")
+    @Fetch(FetchMode.SUBSELECT)
     private List<RuleTrigger> triggers;
 
     /**
-     * Whether rule is enabled or not.
+     * How the rule's triggers are combined. Rules fire when any of their triggers fires by default.
      */
-    private boolean enabled;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "condition_operator")
+    private ConditionOperator conditionOperator = ConditionOperator.OR;
+
+    /**
+     * The length of the rule's debounce window in milliseconds, or null if the rule executes on every firing.
+     */
+    @Column(name = "debounce_ms")
+    private Long debounceMs;
+
+    /**
+     * The edges of the debounce window on which the rule executes. Rules execute on the leading edge by default.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "debounce_edge")
+    private DebounceEdge debounceEdge = DebounceEdge.LEADING;
+
+    /**
+     * Whether rule is enabled or not. Rules are enabled by default.
+     */
+    private boolean enabled = true;
 
     /**
      * The rule's updated at date.
@@ -165,6 +191,60 @@ public class Rule {
         this.triggers = triggers;
     }
 
+    /**
+     * Gets how the rule's triggers are combined.
+     *
+     * @return The rule's condition operator.
+     */
+    public ConditionOperator getConditionOperator() {
+        return conditionOperator;
+    }
+
+    /**
+     * Sets how the rule's triggers are combined.
+     *
+     * @param conditionOperator The rule's condition operator to set.
+     */
+    public void setConditionOperator(ConditionOperator conditionOperator) {
+        this.conditionOperator = conditionOperator;
+    }
+
+    /**
+     * Gets the length of the rule's debounce window.
+     *
+     * @return The length of the debounce window in milliseconds, or null if the rule is not debounced.
+     */
+    public Long getDebounceMs() {
+        return debounceMs;
+    }
+
+    /**
+     * Sets the length of the rule's debounce window.
+     *
+     * @param debounceMs The length of the debounce window in milliseconds to set, or null to not debounce the rule.
+     */
+    public void setDebounceMs(Long debounceMs) {
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * Gets the edges of the debounce window on which the rule executes.
+     *
+     * @return The rule's debounce edge.
+     */
+    public DebounceEdge getDebounceEdge() {
+        return debounceEdge;
+    }
+
+    /**
+     * Sets the edges of the debounce window on which the rule executes.
+     *
+     * @param debounceEdge The rule's debounce edge to set.
+     */
+    public void setDebounceEdge(DebounceEdge debounceEdge) {
+        this.debounceEdge = debounceEdge;
+    }
+
     /**
      * Gets the rule's updated at date.
      *
@@ -3,6 +3,8 @@ package com.hover.iot.entity;
 import com.hover.iot.converter.ObjectConverter;
 import com.hover.iot.enumeration.ActionType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.util.Map;
 
@@ -47,6 +49,7 @@ public class RuleAction {
      * The action's parameters.
      */
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "TBL_RULE_ACTION_PARAM", joinColumns = @JoinColumn(name = "action_id"))
     @MapKeyColumn(name = "param_key")
     @Column(name = "param_value")
@@ -3,6 +3,8 @@ package com.hover.iot.entity;
 import com.hover.iot.converter.ObjectConverter;
 import com.hover.iot.enumeration.TriggerType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.util.Map;
 
@@ -48,6 +50,7 @@ public class RuleTrigger {
      * The trigger's parameters
      */
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "TBL_RULE_TRIGGER_PARAM", joinColumns = @JoinColumn(name = "trigger_id"))
     @MapKeyColumn(name = "param_key")
     @Column(name = "param_value")
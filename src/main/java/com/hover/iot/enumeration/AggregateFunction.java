@@ -0,0 +1,27 @@
+package com.hover.iot.enumeration;
+
+/**
+ * An enumeration representing the aggregates of an attribute over a sliding time window.
+ * <li>AVERAGE</li>
+ * <li>MIN</li>
+ * <li>MAX</li>
+ * <li>RATE</li>
+ */
+public enum AggregateFunction {
+    /**
+     * Represents the average of the values in the window.
+     */
+    AVERAGE,
+    /**
+     * Represents the smallest value in the window.
+     */
+    MIN,
+    /**
+     * Represents the largest value in the window.
+     */
+    MAX,
+    /**
+     * Represents the rate of change per minute between the oldest and newest values in the window.
+     */
+    RATE,
+}
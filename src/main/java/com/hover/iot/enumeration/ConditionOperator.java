@@ -0,0 +1,17 @@
+package com.hover.iot.enumeration;
+
+/**
+ * An enumeration representing how the triggers of a rule are combined.
+ * <li>AND</li>
+ * <li>OR</li>
+ */
+public enum ConditionOperator {
+    /**
+     * Represents a rule that fires when all of its triggers are satisfied at once.
+     */
+    AND,
+    /**
+     * Represents a rule that fires when any of its triggers fires.
+     */
+    OR,
+}
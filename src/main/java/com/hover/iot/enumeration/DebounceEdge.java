@@ -0,0 +1,41 @@
+package com.hover.iot.enumeration;
+
+/**
+ * An enumeration representing the edges of a debounce window on which a rule executes.
+ * <li>LEADING</li>
+ * <li>TRAILING</li>
+ * <li>BOTH</li>
+ */
+public enum DebounceEdge {
+    /**
+     * Represents a rule that executes on the firing that opens the window and ignores the firings within it.
+     */
+    LEADING,
+    /**
+     * Represents a rule that executes once at the end of the window, for the last firing within it.
+     */
+    TRAILING,
+    /**
+     * Represents a rule that executes on the firing that opens the window, and once more at the end of the window if it
+     * fired again within it.
+     */
+    BOTH;
+
+    /**
+     * Checks whether a rule executes on the firing that opens the window.
+     *
+     * @return true if the leading edge is included, otherwise false.
+     */
+    public boolean isLeading() {
+        return this != TRAILING;
+    }
+
+    /**
+     * Checks whether a rule executes at the end of the window.
+     *
+     * @return true if the trailing edge is included, otherwise false.
+     */
+    public boolean isTrailing() {
+        return this != LEADING;
+    }
+}
@@ -0,0 +1,22 @@
+package com.hover.iot.enumeration;
+
+/**
+ * An enumeration representing the outcomes of an execution of a rule.
+ * <li>SUCCEEDED</li>
+ * <li>PARTIALLY_FAILED</li>
+ * <li>FAILED</li>
+ */
+public enum ExecutionOutcome {
+    /**
+     * Represents an execution in which every action was performed or coalesced.
+     */
+    SUCCEEDED,
+    /**
+     * Represents an execution in which some, but not all, actions failed.
+     */
+    PARTIALLY_FAILED,
+    /**
+     * Represents an execution in which every action failed.
+     */
+    FAILED
+}
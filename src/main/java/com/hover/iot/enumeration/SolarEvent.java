@@ -0,0 +1,17 @@
+package com.hover.iot.enumeration;
+
+/**
+ * An enumeration representing the daily solar events a trigger can fire at.
+ * <li>SUNRISE</li>
+ * <li>SUNSET</li>
+ */
+public enum SolarEvent {
+    /**
+     * Represents the moment the upper edge of the sun rises above the horizon.
+     */
+    SUNRISE,
+    /**
+     * Represents the moment the upper edge of the sun sets below the horizon.
+     */
+    SUNSET
+}
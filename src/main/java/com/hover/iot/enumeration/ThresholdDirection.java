@@ -0,0 +1,32 @@
+package com.hover.iot.enumeration;
+
+/**
+ * An enumeration representing the directions in which a value can cross a threshold.
+ * <li>RISING</li>
+ * <li>FALLING</li>
+ * <li>BOTH</li>
+ */
+public enum ThresholdDirection {
+    /**
+     * Represents a value rising to or above the threshold.
+     */
+    RISING,
+    /**
+     * Represents a value falling to or below the threshold.
+     */
+    FALLING,
+    /**
+     * Represents a value crossing the threshold in either direction.
+     */
+    BOTH;
+
+    /**
+     * Checks whether a crossing in a direction is included in this direction.
+     *
+     * @param crossing The direction of the crossing.
+     * @return true if the crossing is included, otherwise false.
+     */
+    public boolean includes(ThresholdDirection crossing) {
+        return this == BOTH || this == crossing;
+    }
+}
@@ -5,6 +5,13 @@ package com.hover.iot.enumeration;
  * <li>ATTRIBUTE_CHANGE_TRIGGER</li>
  * <li>TIME_OF_DAY_TRIGGER</li>
  * <li>ATTRIBUTE_THRESHOLD</li>
+ * <li>ATTRIBUTE_AGGREGATE</li>
+ * <li>ATTRIBUTE_HELD</li>
+ * <li>ATTRIBUTE_STATE</li>
+ * <li>TIME_WINDOW</li>
+ * <li>SOLAR</li>
+ * <li>CALENDAR</li>
+ * <li>EXPRESSION</li>
  */
 public enum TriggerType {
     /**
@@ -19,4 +26,32 @@ public enum TriggerType {
      * Represents a trigger based on crossing a predefined threshold OF nn attribute.
      */
     ATTRIBUTE_THRESHOLD,
+    /**
+     * Represents a trigger based on an aggregate of an attribute over a sliding time window crossing a threshold.
+     */
+    ATTRIBUTE_AGGREGATE,
+    /**
+     * Represents a trigger based on an attribute holding a value for a duration.
+     */
+    ATTRIBUTE_HELD,
+    /**
+     * Represents a trigger based on an attribute having a value.
+     */
+    ATTRIBUTE_STATE,
+    /**
+     * Represents a trigger based on the time of day being within a window.
+     */
+    TIME_WINDOW,
+    /**
+     * Represents a trigger based on sunrise or sunset at a location.
+     */
+    SOLAR,
+    /**
+     * Represents a trigger based on a cron-style calendar with exception dates.
+     */
+    CALENDAR,
+    /**
+     * Represents a trigger based on a condition expression over the attributes of a device.
+     */
+    EXPRESSION,
 }
@@ -1,5 +1,6 @@
 package com.hover.iot.event;
 
+import com.hover.iot.engine.model.CausalityChain;
 import com.hover.iot.entity.Attribute;
 import com.hover.iot.entity.Device;
 import org.springframework.context.ApplicationEvent;
@@ -19,6 +20,11 @@ public class AttributeActionEvent extends ApplicationEvent {
      */
     private final Attribute attribute;
 
+    /**
+     * The chain of rules whose actions caused the write.
+     */
+    private final CausalityChain causalityChain;
+
     /**
      * Initializes a new instance of {@link AttributeActionEvent} class.
      *
@@ -27,9 +33,22 @@ public class AttributeActionEvent extends ApplicationEvent {
      * @param attribute The attribute being written.
      */
     public AttributeActionEvent(Object source, Long deviceId, Attribute attribute) {
+        this(source, deviceId, attribute, CausalityChain.ROOT);
+    }
+
+    /**
+     * Initializes a new instance of {@link AttributeActionEvent} class.
+     *
+     * @param source         The source object that triggered the event.
+     * @param deviceId       The id of device the attribute belongs to,
+     * @param attribute      The attribute being written.
+     * @param causalityChain The chain of rules whose actions caused the write.
+     */
+    public AttributeActionEvent(Object source, Long deviceId, Attribute attribute, CausalityChain causalityChain) {
         super(source);
         this.deviceId = deviceId;
         this.attribute = attribute;
+        this.causalityChain = causalityChain;
     }
 
     /**
@@ -49,5 +68,13 @@ public class AttributeActionEvent extends ApplicationEvent {
     public Attribute getAttribute() {
         return attribute;
     }
-}
 
+    /**
+     * Gets the chain of rules whose actions caused the write.
+     *
+     * @return The causality chain.
+     */
+    public CausalityChain getCausalityChain() {
+        return causalityChain;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hover.iot.event;
 
+import com.hover.iot.engine.model.CausalityChain;
 import com.hover.iot.entity.Attribute;
 import com.hover.iot.entity.Device;
 import org.springframework.context.ApplicationEvent;
@@ -19,6 +20,11 @@ public class AttributeEvent extends ApplicationEvent {
      */
     private final Attribute attribute;
 
+    /**
+     * The chain of rules whose actions caused the write, or the root chain if it was not caused by a rule.
+     */
+    private final CausalityChain causalityChain;
+
     /**
      * Initializes a new instance of {@link AttributeEvent} class.
      *
@@ -27,9 +33,22 @@ public class AttributeEvent extends ApplicationEvent {
      * @param attribute  The attribute being written.
      */
     public AttributeEvent(Object source, Device device, Attribute attribute) {
+        this(source, device, attribute, CausalityChain.ROOT);
+    }
+
+    /**
+     * Initializes a new instance of {@link AttributeEvent} class.
+     *
+     * @param source         The source object that triggered the event.
+     * @param device         The device the attribute belongs to,
+     * @param attribute      The attribute being written.
+     * @param causalityChain The chain of rules whose actions caused the write.
+     */
+    public AttributeEvent(Object source, Device device, Attribute attribute, CausalityChain causalityChain) {
         super(source);
         this.device = device;
         this.attribute = attribute;
+        this.causalityChain = causalityChain;
     }
 
     /**
@@ -49,4 +68,13 @@ public class AttributeEvent extends ApplicationEvent {
     public Attribute getAttribute() {
         return attribute;
     }
+
+    /**
+     * Gets the chain of rules whose actions caused the write.
+     *
+     * @return The causality chain.
+     */
+    public CausalityChain getCausalityChain() {
+        return causalityChain;
+    }
 }
@@ -56,6 +56,23 @@ public class DefaultExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles a {@link RuleCompilationException} exception and return a custom response with a bad request status.
+     *
+     * @param e        The exception that occurred.
+     * @return         A response entity with the custom response object and status.
+     */
+    @ExceptionHandler(RuleCompilationException.class)
+    public ResponseEntity<ApiResponse<Object>> handleException(@NotNull RuleCompilationException e) {
+        if(LOGGER.isDebugEnabled())
+            LOGGER.debug("An attempt to register a malformed rule has occurred", e);
+
+        ApiResponse<Object> response = new ApiResponse<>(HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST, e.getMessage());
+
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+
     /**
      * Handles a {@link BadCredentialsException} exception and return a custom response with an unauthorized status.
      *
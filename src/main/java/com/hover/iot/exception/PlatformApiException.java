@@ -1,4 +1,26 @@
 package com.hover.iot.exception;
 
+/**
+ * An exception thrown when a platform fails to perform an operation on a device.
+ */
 public class PlatformApiException extends RuntimeException {
+
+    /**
+     * Initializes a new instance of {@link PlatformApiException}.
+     *
+     * @param message The detail message.
+     */
+    public PlatformApiException(String message) {
+        super(message);
+    }
+
+    /**
+     * Initializes a new instance of {@link PlatformApiException}.
+     *
+     * @param message The detail message.
+     * @param cause   The cause of the exception.
+     */
+    public PlatformApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,30 @@
+package com.hover.iot.exception;
+
+import com.hover.iot.entity.Rule;
+
+/**
+ * An exception thrown when a {@link Rule} is malformed and cannot be compiled into an execution plan.
+ */
+public class RuleCompilationException extends RuntimeException {
+
+    /**
+     * Initializes a new instance of {@link RuleCompilationException}.
+     *
+     * @param ruleId  The id of the malformed rule.
+     * @param message The detail message.
+     */
+    public RuleCompilationException(Long ruleId, String message) {
+        super("Rule with the id " + ruleId + " is invalid: " + message);
+    }
+
+    /**
+     * Initializes a new instance of {@link RuleCompilationException}.
+     *
+     * @param ruleId  The id of the malformed rule.
+     * @param message The detail message.
+     * @param cause   The cause of the exception.
+     */
+    public RuleCompilationException(Long ruleId, String message, Throwable cause) {
+        super("Rule with the id " + ruleId + " is invalid: " + message, cause);
+    }
+}
@@ -0,0 +1,236 @@
+package com.hover.iot.monitor;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.ChangeType;
+import com.hover.iot.enumeration.DeviceStatus;
+import com.hover.iot.event.EntityChangeEvent;
+import com.hover.iot.platform.IPlatformHandler;
+import com.hover.iot.repository.DeviceRepository;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Monitors the reachability of every device and keeps its {@link DeviceStatus} up to date.
+ * <p>
+ * The devices are probed on the schedule of a {@link FleetScheduler}. Each device has its own probing interval: it is
+ * reset to the minimum when the device's status changes or a probe fails before the device is confirmed offline, and
+ * doubles with every probe that confirms the status, up to the maximum, so flapping devices are probed often and
+ * stable ones, online or offline, rarely.
+ * <p>
+ * A device is marked offline after a number of consecutive failed probes and online after a successful one. The status
+ * is saved and an entity change event is published only when it changes.
+ */
+public class DeviceHealthMonitor extends FleetScheduler<DeviceHealthMonitor.ProbeState, Boolean> {
+
+    /**
+     * The logger for the {@link DeviceHealthMonitor} class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceHealthMonitor.class);
+
+    /**
+     * The publisher of the entity change events of status transitions.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The minimum probing interval, in milliseconds.
+     */
+    private final long minIntervalMs;
+
+    /**
+     * The maximum probing interval, in milliseconds.
+     */
+    private final long maxIntervalMs;
+
+    /**
+     * The number of consecutive failed probes after which a device is marked offline.
+     */
+    private final int failureThreshold;
+
+    /**
+     * Initializes a new instance of {@link DeviceHealthMonitor} class.
+     *
+     * @param deviceRepository      The repository the devices are loaded from and their statuses saved to.
+     * @param eventPublisher        The publisher of the entity change events of status transitions.
+     * @param transactionOperations The transactions devices are loaded, and status transitions saved and published, in.
+     * @param platformApiList       The list of platform apis.
+     * @param clock                 The clock the probes are scheduled with.
+     * @param minIntervalMs         The minimum probing interval, in milliseconds.
+     * @param maxIntervalMs         The maximum probing interval, in milliseconds.
+     * @param jitter                The fraction by which intervals are randomly lengthened or shortened, below 1.
+     * @param failureThreshold      The number of consecutive failed probes after which a device is marked offline.
+     * @param maxConcurrency        The maximum number of probes in flight.
+     * @param tickMs                The interval at which due probes are started, in milliseconds.
+     * @param refreshMs             The interval at which the monitored devices are reloaded, in milliseconds.
+     */
+    public DeviceHealthMonitor(@NotNull DeviceRepository deviceRepository,
+                               @NotNull ApplicationEventPublisher eventPublisher,
+                               @NotNull TransactionOperations transactionOperations,
+                               @NotNull List<IPlatformHandler> platformApiList, @NotNull Clock clock,
+                               long minIntervalMs, long maxIntervalMs, double jitter, int failureThreshold,
+                               int maxConcurrency, long tickMs, long refreshMs) {
+        super(deviceRepository, transactionOperations, platformApiList, clock, jitter, maxConcurrency, tickMs,
+                refreshMs, "device-health-monitor");
+
+        if (minIntervalMs <= 0 || maxIntervalMs < minIntervalMs)
+            throw new IllegalArgumentException("The probing intervals must be positive, and the maximum not less than "
+                    + "the minimum");
+
+        if (failureThreshold < 1)
+            throw new IllegalArgumentException("The failure threshold must be positive");
+
+        this.eventPublisher = eventPublisher;
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = maxIntervalMs;
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * Gets the current probing interval of a device.
+     *
+     * @param deviceId The id of the device.
+     * @return The probing interval before jitter, in milliseconds, or -1 if the device is not monitored.
+     */
+    public long getIntervalMs(Long deviceId) {
+        var state = getState(deviceId);
+
+        if (state == null)
+            return -1;
+
+        synchronized (state) {
+            return state.intervalMs;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected @NotNull ProbeState createState(@NotNull Device device, long nextRunAt) {
+        return new ProbeState(device, nextRunAt, minIntervalMs);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * New devices are first probed within the minimum interval.
+     */
+    @Override
+    protected long intervalOf(@NotNull Device device) {
+        return minIntervalMs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected @NotNull CompletableFuture<Boolean> call(@NotNull IPlatformHandler platformApi, @NotNull Device device) {
+        return platformApi.isDeviceReachableAsync(device);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A probe that failed counts as the device being unreachable.
+     */
+    @Override
+    protected void onCompleted(@NotNull ProbeState state, Boolean result, Throwable error) {
+        onProbed(state, error == null && Boolean.TRUE.equals(result));
+    }
+
+    /**
+     * Records the outcome of a probe, schedules the next one and handles a status transition.
+     *
+     * @param state     The probing state of the device.
+     * @param reachable Whether the device was reachable.
+     */
+    void onProbed(@NotNull ProbeState state, boolean reachable) {
+        var now = clock.millis();
+        Device device;
+        DeviceStatus status;
+
+        synchronized (state) {
+            state.running = false;
+            device = state.device;
+
+            if (reachable) {
+                state.failures = 0;
+                status = DeviceStatus.ONLINE;
+            } else {
+                state.failures++;
+                status = state.failures >= failureThreshold ? DeviceStatus.OFFLINE : state.status;
+            }
+
+            var transition = status != state.status;
+
+            // A device that changed status or is failing probes that have not yet confirmed it offline is probed
+            // often, and one that is stable, whether online or confirmed offline, ever less so.
+            if (transition || (!reachable && state.failures < failureThreshold))
+                state.intervalMs = minIntervalMs;
+            else
+                state.intervalMs = Math.min(maxIntervalMs, state.intervalMs * 2);
+
+            state.nextRunAt = now + jittered(state.intervalMs);
+
+            if (!transition)
+                return;
+
+            state.status = status;
+        }
+
+        LOGGER.info("Device -> {} is now {}", device.getId(), status);
+
+        try {
+            // The device is reloaded after the update, so that the event carries its current state and its lazy
+            // attributes can be serialized by the listeners.
+            transactionOperations.executeWithoutResult(transaction -> {
+                deviceRepository.updateStatus(device.getId(), status);
+                deviceRepository.findById(device.getId()).ifPresent(current ->
+                        eventPublisher.publishEvent(new EntityChangeEvent(this, current, ChangeType.MODIFIED)));
+            });
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to save status of device -> {}", device.getId(), e);
+        }
+    }
+
+    /**
+     * The probing state of a device, guarded by itself.
+     */
+    static final class ProbeState extends FleetScheduler.DeviceState {
+
+        /**
+         * The last known status of the device.
+         */
+        private DeviceStatus status;
+
+        /**
+         * The current probing interval, before jitter, in milliseconds.
+         */
+        private long intervalMs;
+
+        /**
+         * The number of consecutive failed probes.
+         */
+        private int failures;
+
+        /**
+         * Initializes a new instance of {@link ProbeState} class.
+         *
+         * @param device     The device.
+         * @param nextRunAt  The time the device is first probed, in milliseconds since the epoch.
+         * @param intervalMs The initial probing interval, in milliseconds.
+         */
+        private ProbeState(@NotNull Device device, long nextRunAt, long intervalMs) {
+            super(device, nextRunAt);
+            this.status = device.getStatus();
+            this.intervalMs = intervalMs;
+        }
+    }
+}
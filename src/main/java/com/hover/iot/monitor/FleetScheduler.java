@@ -0,0 +1,372 @@
+package com.hover.iot.monitor;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.platform.ConcurrencyLimiter;
+import com.hover.iot.platform.IPlatformHandler;
+import com.hover.iot.repository.DeviceRepository;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs an asynchronous platform call against every device on a per-device schedule, such as a reachability probe or a
+ * telemetry poll.
+ * <p>
+ * A single thread ticks over the devices and starts the calls that are due through the asynchronous platform API, so
+ * that every device is called concurrently without a thread per device, bounded by a concurrency limit. The devices
+ * are periodically reloaded, with their attributes, in a single query; new devices are first called at a random time
+ * within their interval, and subclasses jitter the intervals they schedule, so that the calls of devices added
+ * together do not stay synchronized.
+ *
+ * @param <S> The type of the per-device state.
+ * @param <R> The type of the result of the platform call.
+ */
+public abstract class FleetScheduler<S extends FleetScheduler.DeviceState, R> implements AutoCloseable {
+
+    /**
+     * The logger for the {@link FleetScheduler} class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(FleetScheduler.class);
+
+    /**
+     * The repository the devices are loaded from.
+     */
+    protected final DeviceRepository deviceRepository;
+
+    /**
+     * The transactions the devices are loaded, and the results of calls saved, in.
+     */
+    protected final TransactionOperations transactionOperations;
+
+    /**
+     * The clock the calls are scheduled with.
+     */
+    protected final Clock clock;
+
+    /**
+     * A map that stores platform names as keys and corresponding PlatformApi instances as values.
+     */
+    private final Map<String, IPlatformHandler> platformApiMap;
+
+    /**
+     * The limiter of the number of calls in flight.
+     */
+    private final ConcurrencyLimiter limiter;
+
+    /**
+     * The fraction by which intervals are randomly lengthened or shortened.
+     */
+    private final double jitter;
+
+    /**
+     * The interval at which due calls are started, in milliseconds.
+     */
+    private final long tickMs;
+
+    /**
+     * The interval at which the devices are reloaded from the repository, in milliseconds.
+     */
+    private final long refreshMs;
+
+    /**
+     * The name of the thread that ticks the scheduler.
+     */
+    private final String threadName;
+
+    /**
+     * The states of the devices, keyed by the device's id.
+     */
+    private final Map<Long, S> states = new ConcurrentHashMap<>();
+
+    /**
+     * The time the devices are next reloaded, in milliseconds since the epoch.
+     */
+    private long nextRefreshAt;
+
+    /**
+     * The executor that ticks the scheduler, or null if the scheduler is not started.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Initializes a new instance of {@link FleetScheduler} class.
+     *
+     * @param deviceRepository      The repository the devices are loaded from.
+     * @param transactionOperations The transactions the devices are loaded, and the results of calls saved, in.
+     * @param platformApiList       The list of platform apis.
+     * @param clock                 The clock the calls are scheduled with.
+     * @param jitter                The fraction by which intervals are randomly lengthened or shortened, below 1.
+     * @param maxConcurrency        The maximum number of calls in flight.
+     * @param tickMs                The interval at which due calls are started, in milliseconds.
+     * @param refreshMs             The interval at which the devices are reloaded, in milliseconds.
+     * @param threadName            The name of the thread that ticks the scheduler.
+     */
+    protected FleetScheduler(@NotNull DeviceRepository deviceRepository,
+                             @NotNull TransactionOperations transactionOperations,
+                             @NotNull List<IPlatformHandler> platformApiList, @NotNull Clock clock, double jitter,
+                             int maxConcurrency, long tickMs, long refreshMs, @NotNull String threadName) {
+        if (jitter < 0 || jitter >= 1)
+            throw new IllegalArgumentException("The jitter must be at least 0 and less than 1");
+
+        if (tickMs <= 0 || refreshMs <= 0)
+            throw new IllegalArgumentException("The tick and refresh intervals must be positive");
+
+        this.deviceRepository = deviceRepository;
+        this.transactionOperations = transactionOperations;
+        this.clock = clock;
+        this.platformApiMap = platformApiList.stream()
+                .collect(Collectors.toMap(IPlatformHandler::getName, Function.identity()));
+        this.limiter = new ConcurrencyLimiter(maxConcurrency);
+        this.jitter = jitter;
+        this.tickMs = tickMs;
+        this.refreshMs = refreshMs;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Starts the thread that ticks the scheduler.
+     */
+    public synchronized void start() {
+        if (executor != null)
+            return;
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::tick, 0, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the thread that ticks the scheduler. Calls in flight complete, but no new calls are started.
+     */
+    @Override
+    public synchronized void close() {
+        if (executor == null)
+            return;
+
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    /**
+     * Gets the number of scheduled devices.
+     *
+     * @return The number of scheduled devices.
+     */
+    public int getDeviceCount() {
+        return states.size();
+    }
+
+    /**
+     * Gets the state of a device.
+     *
+     * @param deviceId The id of the device.
+     * @return The state, or null if the device is not scheduled.
+     */
+    protected S getState(Long deviceId) {
+        return states.get(deviceId);
+    }
+
+    /**
+     * Reloads the devices if they are due, and starts the calls that are due. Runs on the scheduler thread.
+     */
+    void tick() {
+        try {
+            var now = clock.millis();
+
+            if (now >= nextRefreshAt) {
+                refresh(now);
+                nextRefreshAt = now + refreshMs;
+            }
+
+            for (var state : states.values()) {
+                synchronized (state) {
+                    if (state.running || now < state.nextRunAt || !isRunnable(state))
+                        continue;
+
+                    state.running = true;
+                }
+
+                run(state);
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled ticks, so log it and carry on with the next tick.
+            LOGGER.error("Failed to tick the {}", threadName, e);
+        }
+    }
+
+    /**
+     * Reloads the devices, with their attributes, from the repository.
+     *
+     * @param now The current time, in milliseconds since the epoch.
+     */
+    private void refresh(long now) {
+        var devices = transactionOperations.execute(transaction -> deviceRepository.findAllWithAttributes());
+
+        if (devices == null)
+            return;
+
+        var ids = new HashSet<Long>();
+
+        for (var device : devices) {
+            ids.add(device.getId());
+
+            var state = states.computeIfAbsent(device.getId(),
+                    id -> createState(device, now + ThreadLocalRandom.current().nextLong(intervalOf(device))));
+
+            synchronized (state) {
+                state.device = device;
+                onRefreshed(state);
+            }
+        }
+
+        states.keySet().retainAll(ids);
+    }
+
+    /**
+     * Starts the call of a device through its platform's limiter. Devices of unknown platforms are skipped for an
+     * interval.
+     *
+     * @param state The state of the device.
+     */
+    private void run(@NotNull S state) {
+        Device device;
+
+        synchronized (state) {
+            device = state.device;
+        }
+
+        var platformApi = platformApiMap.get(device.getPlatform());
+
+        if (platformApi == null) {
+            synchronized (state) {
+                state.running = false;
+                state.nextRunAt = clock.millis() + intervalOf(device);
+            }
+            return;
+        }
+
+        limiter.submit(() -> call(platformApi, device))
+                .whenComplete((result, e) -> onCompleted(state, result, e));
+    }
+
+    /**
+     * Randomly lengthens or shortens an interval by up to the jitter fraction.
+     *
+     * @param intervalMs The interval, in milliseconds.
+     * @return The jittered interval, in milliseconds.
+     */
+    protected long jittered(long intervalMs) {
+        if (jitter == 0)
+            return intervalMs;
+
+        var factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+
+        return Math.max(1, Math.round(intervalMs * factor));
+    }
+
+    /**
+     * Creates the state of a newly loaded device.
+     *
+     * @param device    The device.
+     * @param nextRunAt The time the device is first called, in milliseconds since the epoch.
+     * @return The state.
+     */
+    protected abstract @NotNull S createState(@NotNull Device device, long nextRunAt);
+
+    /**
+     * Gets the base interval of a device, within which a new device is first called, and after which a device of an
+     * unknown platform is reconsidered.
+     *
+     * @param device The device.
+     * @return The interval, in milliseconds.
+     */
+    protected abstract long intervalOf(@NotNull Device device);
+
+    /**
+     * Starts the platform call of a device.
+     *
+     * @param platformApi The platform of the device.
+     * @param device      The device.
+     * @return A future that completes with the result of the call.
+     */
+    protected abstract @NotNull CompletableFuture<R> call(@NotNull IPlatformHandler platformApi,
+                                                          @NotNull Device device);
+
+    /**
+     * Handles the completion of the platform call of a device. Implementations must clear
+     * {@link DeviceState#running} and schedule the next call.
+     *
+     * @param state  The state of the device.
+     * @param result The result of the call, or null if it failed.
+     * @param error  The error of the call, or null if it succeeded.
+     */
+    protected abstract void onCompleted(@NotNull S state, R result, Throwable error);
+
+    /**
+     * Checks whether a due device is called. Called with the state's lock held.
+     *
+     * @param state The state of the device.
+     * @return true if the device is called, otherwise false.
+     */
+    protected boolean isRunnable(@NotNull S state) {
+        return true;
+    }
+
+    /**
+     * Updates the state of a device that was reloaded. Called with the state's lock held, after the state's device has
+     * been replaced by the reloaded one.
+     *
+     * @param state The state of the device.
+     */
+    protected void onRefreshed(@NotNull S state) {
+    }
+
+    /**
+     * The scheduling state of a device, guarded by itself.
+     */
+    protected abstract static class DeviceState {
+
+        /**
+         * The latest snapshot of the device, with its attributes loaded.
+         */
+        protected Device device;
+
+        /**
+         * The time the device is next called, in milliseconds since the epoch.
+         */
+        protected long nextRunAt;
+
+        /**
+         * Whether a call of the device is in flight.
+         */
+        protected boolean running;
+
+        /**
+         * Initializes a new instance of {@link DeviceState} class.
+         *
+         * @param device    The device.
+         * @param nextRunAt The time the device is first called, in milliseconds since the epoch.
+         */
+        protected DeviceState(@NotNull Device device, long nextRunAt) {
+            this.device = device;
+            this.nextRunAt = nextRunAt;
+        }
+    }
+}
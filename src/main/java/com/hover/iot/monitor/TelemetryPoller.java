@@ -0,0 +1,312 @@
+package com.hover.iot.monitor;
+
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.DeviceStatus;
+import com.hover.iot.enumeration.DeviceType;
+import com.hover.iot.event.AttributeEvent;
+import com.hover.iot.platform.IPlatformHandler;
+import com.hover.iot.repository.DeviceRepository;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the attributes of every device through its platform and publishes an {@link AttributeEvent} for every attribute
+ * whose value changed, so that the rules see the state of devices that do not push it.
+ * <p>
+ * The devices are polled on the schedule of a {@link FleetScheduler}. Each device type has its own polling interval,
+ * jittered so that the polls of devices added together do not stay synchronized. Devices that are offline are not
+ * polled.
+ * <p>
+ * A polled value is compared with the last known value in memory first, and then with the saved value, so that only
+ * real changes are saved and published. Database writes and rule evaluations therefore scale with the rate at which
+ * devices change rather than with the rate at which they are polled.
+ */
+public class TelemetryPoller extends FleetScheduler<TelemetryPoller.PollState, Attribute> {
+
+    /**
+     * The logger for the {@link TelemetryPoller} class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryPoller.class);
+
+    /**
+     * The publisher of the attribute events of changes.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The polling interval of device types without one of their own, in milliseconds.
+     */
+    private final long defaultIntervalMs;
+
+    /**
+     * The polling intervals of device types, in milliseconds.
+     */
+    private final Map<DeviceType, Long> typeIntervalsMs;
+
+    /**
+     * The number of completed polls.
+     */
+    private final AtomicLong polls = new AtomicLong();
+
+    /**
+     * The number of attribute changes published.
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * Initializes a new instance of {@link TelemetryPoller} class.
+     *
+     * @param deviceRepository      The repository the devices are loaded from and their attributes saved to.
+     * @param eventPublisher        The publisher of the attribute events of changes.
+     * @param transactionOperations The transactions devices are loaded, and changes saved and published, in.
+     * @param platformApiList       The list of platform apis.
+     * @param clock                 The clock the polls are scheduled with.
+     * @param defaultIntervalMs     The polling interval of device types without one of their own, in milliseconds.
+     * @param typeIntervalsMs       The polling intervals of device types, in milliseconds.
+     * @param jitter                The fraction by which intervals are randomly lengthened or shortened, below 1.
+     * @param maxConcurrency        The maximum number of polls in flight.
+     * @param tickMs                The interval at which due polls are started, in milliseconds.
+     * @param refreshMs             The interval at which the polled devices are reloaded, in milliseconds.
+     */
+    public TelemetryPoller(@NotNull DeviceRepository deviceRepository,
+                           @NotNull ApplicationEventPublisher eventPublisher,
+                           @NotNull TransactionOperations transactionOperations,
+                           @NotNull List<IPlatformHandler> platformApiList, @NotNull Clock clock,
+                           long defaultIntervalMs, @NotNull Map<DeviceType, Long> typeIntervalsMs, double jitter,
+                           int maxConcurrency, long tickMs, long refreshMs) {
+        super(deviceRepository, transactionOperations, platformApiList, clock, jitter, maxConcurrency, tickMs,
+                refreshMs, "telemetry-poller");
+
+        if (defaultIntervalMs <= 0 || typeIntervalsMs.values().stream().anyMatch(intervalMs -> intervalMs <= 0))
+            throw new IllegalArgumentException("The polling intervals must be positive");
+
+        this.eventPublisher = eventPublisher;
+        this.defaultIntervalMs = defaultIntervalMs;
+        this.typeIntervalsMs = typeIntervalsMs.isEmpty() ? Map.of() : new EnumMap<>(typeIntervalsMs);
+    }
+
+    /**
+     * Parses the polling intervals of device types, such as {@code SENSOR=5000,LIGHT=30000}.
+     *
+     * @param intervals The intervals, in milliseconds, as comma separated pairs of a device type and an interval.
+     * @return The intervals keyed by device type.
+     * @throws IllegalArgumentException If the intervals are malformed.
+     */
+    public static @NotNull Map<DeviceType, Long> parseTypeIntervals(String intervals) {
+        var parsed = new EnumMap<DeviceType, Long>(DeviceType.class);
+
+        if (intervals == null || intervals.isBlank())
+            return parsed;
+
+        for (var pair : intervals.split(",")) {
+            var parts = pair.split("=");
+
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Malformed device type interval -> " + pair);
+
+            parsed.put(DeviceType.valueOf(parts[0].trim()), Long.parseLong(parts[1].trim()));
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Gets the number of completed polls.
+     *
+     * @return The number of completed polls.
+     */
+    public long getPollCount() {
+        return polls.get();
+    }
+
+    /**
+     * Gets the number of attribute changes published.
+     *
+     * @return The number of changes.
+     */
+    public long getChangeCount() {
+        return changes.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected @NotNull PollState createState(@NotNull Device device, long nextRunAt) {
+        return new PollState(device, nextRunAt);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The interval is the polling interval of the device's type.
+     */
+    @Override
+    protected long intervalOf(@NotNull Device device) {
+        var intervalMs = device.getType() != null ? typeIntervalsMs.get(device.getType()) : null;
+
+        return intervalMs != null ? intervalMs : defaultIntervalMs;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Devices that are offline are not polled.
+     */
+    @Override
+    protected boolean isRunnable(@NotNull PollState state) {
+        return state.device.getStatus() != DeviceStatus.OFFLINE;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The saved attribute values of the reloaded device become the last known ones.
+     */
+    @Override
+    protected void onRefreshed(@NotNull PollState state) {
+        var values = new HashMap<String, Object>();
+
+        if (state.device.getAttributes() != null) {
+            for (var attribute : state.device.getAttributes()) {
+                values.put(attribute.getName(), attribute.getValue());
+            }
+        }
+
+        state.values = values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected @NotNull CompletableFuture<Attribute> call(@NotNull IPlatformHandler platformApi,
+                                                         @NotNull Device device) {
+        return platformApi.readAttributeAsync(device);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onCompleted(@NotNull PollState state, Attribute result, Throwable error) {
+        if (error != null)
+            LOGGER.debug("Failed to poll device -> {}", state.device.getId(), error);
+
+        onPolled(state, error == null ? result : null);
+    }
+
+    /**
+     * Records the outcome of a poll, schedules the next one and handles a change of the polled attribute.
+     *
+     * @param state     The polling state of the device.
+     * @param attribute The polled attribute, or null if the poll failed.
+     */
+    void onPolled(@NotNull PollState state, Attribute attribute) {
+        Device device;
+        boolean changed;
+
+        synchronized (state) {
+            state.running = false;
+            device = state.device;
+            state.nextRunAt = clock.millis() + jittered(intervalOf(device));
+
+            if (attribute == null || attribute.getName() == null)
+                return;
+
+            changed = !state.values.containsKey(attribute.getName())
+                    || !sameValue(state.values.get(attribute.getName()), attribute.getValue());
+            state.values.put(attribute.getName(), attribute.getValue());
+        }
+
+        polls.incrementAndGet();
+
+        if (changed)
+            save(device.getId(), attribute);
+    }
+
+    /**
+     * Saves a polled attribute whose value differs from the last known one and publishes its attribute event, unless
+     * the saved value already is the polled one, such as when the change was written through the platform.
+     *
+     * @param deviceId The id of the device.
+     * @param polled   The polled attribute.
+     */
+    private void save(Long deviceId, @NotNull Attribute polled) {
+        try {
+            transactionOperations.executeWithoutResult(transaction -> {
+                var device = deviceRepository.findById(deviceId).orElse(null);
+
+                if (device == null || device.getAttributes() == null)
+                    return;
+
+                for (var attribute : device.getAttributes()) {
+                    if (!Objects.equals(attribute.getName(), polled.getName()))
+                        continue;
+
+                    if (sameValue(attribute.getValue(), polled.getValue()))
+                        return;
+
+                    attribute.setValue(polled.getValue());
+                    deviceRepository.save(device);
+                    changes.incrementAndGet();
+                    eventPublisher.publishEvent(new AttributeEvent(this, device, attribute));
+                    return;
+                }
+
+                LOGGER.debug("Ignoring polled unknown attribute -> {} of device -> {}", polled.getName(), deviceId);
+            });
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to save polled attribute -> {} of device -> {}", polled.getName(), deviceId, e);
+        }
+    }
+
+    /**
+     * Checks whether two attribute values are the same. Numbers are compared by value, since a polled value may be
+     * deserialized as a different type than the saved one.
+     *
+     * @param a The first value.
+     * @param b The second value.
+     * @return true if the values are the same, otherwise false.
+     */
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof Number first && b instanceof Number second)
+            return first.doubleValue() == second.doubleValue();
+
+        return Objects.equals(a, b);
+    }
+
+    /**
+     * The polling state of a device, guarded by itself.
+     */
+    static final class PollState extends FleetScheduler.DeviceState {
+
+        /**
+         * The last known values of the device's attributes, keyed by the attribute's name.
+         */
+        private Map<String, Object> values = new HashMap<>();
+
+        /**
+         * Initializes a new instance of {@link PollState} class.
+         *
+         * @param device    The device.
+         * @param nextRunAt The time the device is first polled, in milliseconds since the epoch.
+         */
+        private PollState(@NotNull Device device, long nextRunAt) {
+            super(device, nextRunAt);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.hover.iot.platform;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of asynchronous platform calls in flight at once. Calls beyond the limit are queued, without
+ * blocking the submitting thread, and started in submission order as earlier calls complete.
+ */
+public class ConcurrencyLimiter {
+
+    /**
+     * The maximum number of calls in flight at once.
+     */
+    private final int maxConcurrency;
+
+    /**
+     * The calls waiting for a call in flight to complete, guarded by this limiter.
+     */
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+
+    /**
+     * The number of calls in flight, guarded by this limiter.
+     */
+    private int active;
+
+    /**
+     * The number of completed calls whose slots have not been released yet, guarded by this limiter.
+     */
+    private int releases;
+
+    /**
+     * Whether a thread is releasing slots, guarded by this limiter.
+     */
+    private boolean releasing;
+
+    /**
+     * Initializes a new instance of {@link ConcurrencyLimiter} class.
+     *
+     * @param maxConcurrency The maximum number of calls in flight at once.
+     */
+    public ConcurrencyLimiter(int maxConcurrency) {
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("The maximum concurrency must be positive");
+
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Submits a call, starting it now if the limit allows or queueing it otherwise.
+     *
+     * @param call The call to start, which returns the future of its result.
+     * @param <T>  The type of the result.
+     * @return A future that completes with the result of the call once it has started and completed.
+     */
+    public <T> @NotNull CompletableFuture<T> submit(@NotNull Supplier<CompletableFuture<T>> call) {
+        var future = new CompletableFuture<T>();
+        Runnable start = () -> start(call, future);
+
+        synchronized (this) {
+            if (active >= maxConcurrency) {
+                waiting.add(start);
+                return future;
+            }
+
+            active++;
+        }
+
+        start.run();
+        return future;
+    }
+
+    /**
+     * Gets the number of calls in flight.
+     *
+     * @return The number of active calls.
+     */
+    public synchronized int getActiveCount() {
+        return active;
+    }
+
+    /**
+     * Gets the number of calls waiting to start.
+     *
+     * @return The number of waiting calls.
+     */
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Starts a call, releasing its slot to the next waiting call when it completes.
+     *
+     * @param call   The call to start.
+     * @param future The future to complete with the result of the call.
+     * @param <T>    The type of the result.
+     */
+    private <T> void start(@NotNull Supplier<CompletableFuture<T>> call, @NotNull CompletableFuture<T> future) {
+        CompletableFuture<T> started;
+
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+
+        started.whenComplete((result, e) -> {
+            release();
+
+            if (e != null)
+                future.completeExceptionally(e);
+            else
+                future.complete(result);
+        });
+    }
+
+    /**
+     * Hands the slot of a completed call to the next waiting call, or frees it if none is waiting.
+     * <p>
+     * Calls may complete synchronously, on the thread that starts them, so starting a waiting call may release another
+     * slot. Rather than recursing, such releases are counted and handed out by the loop of the thread that is already
+     * releasing, so that the stack stays flat however many calls are waiting.
+     */
+    private void release() {
+        synchronized (this) {
+            releases++;
+
+            if (releasing)
+                return;
+
+            releasing = true;
+        }
+
+        while (true) {
+            Runnable next;
+
+            synchronized (this) {
+                if (releases == 0) {
+                    releasing = false;
+                    return;
+                }
+
+                releases--;
+                next = waiting.poll();
+
+                if (next == null) {
+                    active--;
+                    continue;
+                }
+            }
+
+            next.run();
+        }
+    }
+}
@@ -5,10 +5,15 @@ import com.hover.iot.entity.Attribute;
 import com.hover.iot.entity.Device;
 import com.hover.iot.exception.PlatformApiException;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * An interface that defines the contract for interacting with a specific platform.
  *
- * @implNote Provide the necessary methods to control devices and perform platform-specific operations.
+ * @implNote Provide the necessary methods to control devices and perform platform-specific operations. Platforms
+ * that can perform device I/O without blocking should override the asynchronous methods, whose default
+ * implementations run the blocking methods on the common pool.
  */
 public interface IPlatformHandler {
 
@@ -45,4 +50,69 @@ public interface IPlatformHandler {
      * @return true if the device is reachable, false otherwise.
      */
     boolean isDeviceReachable(Device device);
+
+    /**
+     * Sets attribute of a device without blocking the calling thread.
+     *
+     * @param device    The device to set the attribute value of.
+     * @param attribute The attribute to set.
+     * @return A future that completes when the device has accepted the attribute, or completes exceptionally with a
+     * {@link PlatformApiException} if an error occurs while setting the attribute.
+     */
+    default CompletableFuture<Void> writeAttributeAsync(Device device, Attribute attribute) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeAttribute(device, attribute);
+            } catch (PlatformApiException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new PlatformApiException("Failed to write attribute " + attribute.getName(), e);
+            }
+        });
+    }
+
+    /**
+     * Sets several attributes of a device without blocking the calling thread. Platforms that can set several
+     * attributes in one request should override this, whose default implementation sets the attributes one by one,
+     * concurrently.
+     *
+     * @param device     The device to set the attribute values of.
+     * @param attributes The attributes to set.
+     * @return A future that completes when the device has accepted every attribute, or completes exceptionally with a
+     * {@link PlatformApiException} if an error occurs while setting an attribute.
+     */
+    default CompletableFuture<Void> writeAttributesAsync(Device device, List<Attribute> attributes) {
+        return CompletableFuture.allOf(attributes.stream()
+                .map(attribute -> writeAttributeAsync(device, attribute))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Gets the attribute of a device without blocking the calling thread.
+     *
+     * @param device The device to get the attribute value of.
+     * @return A future that completes with the attribute, or completes exceptionally with a
+     * {@link PlatformApiException} if an error occurs while getting the attribute.
+     */
+    default CompletableFuture<Attribute> readAttributeAsync(Device device) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return readAttribute(device);
+            } catch (PlatformApiException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new PlatformApiException("Failed to read attribute of device " + device.getId(), e);
+            }
+        });
+    }
+
+    /**
+     * Checks if the device is reachable without blocking the calling thread.
+     *
+     * @param device The device to check.
+     * @return A future that completes with true if the device is reachable, false otherwise.
+     */
+    default CompletableFuture<Boolean> isDeviceReachableAsync(Device device) {
+        return CompletableFuture.supplyAsync(() -> isDeviceReachable(device));
+    }
 }
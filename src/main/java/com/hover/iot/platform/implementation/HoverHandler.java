@@ -3,19 +3,35 @@ package com.hover.iot.platform.implementation;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hover.iot.entity.Attribute;
 import com.hover.iot.entity.Device;
+import com.hover.iot.exception.PlatformApiException;
 import com.hover.iot.mapper.AttributeDTOMapper;
 import com.hover.iot.platform.IPlatformHandler;
 import okhttp3.*;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Implementation of the {@link IPlatformHandler} interface for the Hover platform.
  * Provides platform-specific methods for interacting with Hover devices.
+ * <p>
+ * Requests are enqueued on the http client's dispatcher rather than executed on the calling thread, so that a few
+ * threads can have many device commands in flight. Each call is bounded by a timeout covering the whole round trip.
  */
 @Component
 public class HoverHandler implements IPlatformHandler {
 
+    /**
+     * The media type of request bodies.
+     */
+    private static final MediaType JSON = MediaType.parse("application/json");
+
     /**
      * The http client that is used to make requests.
      */
@@ -31,17 +47,28 @@ public class HoverHandler implements IPlatformHandler {
      */
     private final AttributeDTOMapper attributeDTOMapper;
 
+    /**
+     * The maximum duration of a call to a device, from connecting to reading the response, in milliseconds.
+     */
+    private final long callTimeoutMs;
+
     /**
      * Initializes a new instance of {@link HoverHandler} class.
      *
      * @param httpClient         The http client that is used to make requests.
      * @param objectMapper       The object mapper for JSON serialization and deserialization.
      * @param attributeDTOMapper The DTO mapper for attributes.
+     * @param callTimeoutMs      The maximum duration of a call to a device, in milliseconds.
      */
-    public HoverHandler(OkHttpClient httpClient, ObjectMapper objectMapper, AttributeDTOMapper attributeDTOMapper) {
+    public HoverHandler(OkHttpClient httpClient, ObjectMapper objectMapper, AttributeDTOMapper attributeDTOMapper,
+                        @Value("${platform.hover.call.timeout.ms:5000}") long callTimeoutMs) {
+        if (callTimeoutMs <= 0)
+            throw new IllegalArgumentException("The call timeout must be positive");
+
         this.httpClient = httpClient;
         this.objectMapper = objectMapper;
         this.attributeDTOMapper = attributeDTOMapper;
+        this.callTimeoutMs = callTimeoutMs;
     }
 
     /**
@@ -56,91 +83,134 @@ public class HoverHandler implements IPlatformHandler {
      * {@inheritDoc}
      */
     @Override
-    public void writeAttribute(@NotNull Device device, @NotNull Attribute attribute) throws Exception {
-        var body = objectMapper.writeValueAsString(attributeDTOMapper.apply(attribute));
+    public void writeAttribute(@NotNull Device device, @NotNull Attribute attribute) {
+        join(writeAttributeAsync(device, attribute));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Attribute readAttribute(@NotNull Device device) {
+        return join(readAttributeAsync(device));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDeviceReachable(@NotNull Device device) {
+        return join(isDeviceReachableAsync(device));
+    }
 
-        RequestBody requestBody = RequestBody.create(body, MediaType.parse("application/json"));
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> writeAttributeAsync(@NotNull Device device, @NotNull Attribute attribute) {
+        String body;
+
+        try {
+            body = objectMapper.writeValueAsString(attributeDTOMapper.apply(attribute));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PlatformApiException("Failed to serialize attribute "
+                    + attribute.getName(), e));
+        }
 
         Request request = new Request.Builder()
                 .url(constructUrl(device))
-                .post(requestBody)
+                .post(RequestBody.create(body, JSON))
                 .build();
 
-        try {
-            Response response = httpClient.newCall(request).execute();
+        return enqueue(request, response -> {
+            if (!response.isSuccessful())
+                throw new PlatformApiException("Device " + device.getId() + " rejected attribute "
+                        + attribute.getName() + " with status code " + response.code());
 
-            if (!response.isSuccessful()) {
-                //TODO handle not successful case
-            }
-            int statusCode = response.code();
+            return null;
+        });
+    }
 
-            if (statusCode == 200) {
-                System.out.println("Ping successful. Server is reachable.");
-            } else {
-                System.out.println("Ping failed. Server is not reachable. Status code: " + statusCode);
-            }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The attributes are sent to the device as a JSON array in a single request. A single attribute is sent as a
+     * plain object, as {@link #writeAttributeAsync(Device, Attribute)} does.
+     */
+    @Override
+    public CompletableFuture<Void> writeAttributesAsync(@NotNull Device device, @NotNull List<Attribute> attributes) {
+        if (attributes.isEmpty())
+            return CompletableFuture.completedFuture(null);
+
+        if (attributes.size() == 1)
+            return writeAttributeAsync(device, attributes.get(0));
+
+        String body;
 
-            response.close();
-        } catch (Exception e) {
-            System.out.println("Ping failed. Error: " + e.getMessage());
+        try {
+            body = objectMapper.writeValueAsString(attributes.stream().map(attributeDTOMapper).toList());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PlatformApiException("Failed to serialize attributes of device "
+                    + device.getId(), e));
         }
+
+        Request request = new Request.Builder()
+                .url(constructUrl(device))
+                .post(RequestBody.create(body, JSON))
+                .build();
+
+        return enqueue(request, response -> {
+            if (!response.isSuccessful())
+                throw new PlatformApiException("Device " + device.getId() + " rejected " + attributes.size()
+                        + " attributes with status code " + response.code());
+
+            return null;
+        });
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Attribute readAttribute(@NotNull Device device) {
+    public CompletableFuture<Attribute> readAttributeAsync(@NotNull Device device) {
         Request request = new Request.Builder()
                 .url(constructUrl(device))
                 .build();
-        try {
 
-            Response response = httpClient.newCall(request).execute();
+        return enqueue(request, response -> {
+            if (!response.isSuccessful())
+                throw new PlatformApiException("Device " + device.getId()
+                        + " failed to read attribute with status code " + response.code());
 
-            if (response.isSuccessful()) {
-                if (response.body() != null) {
-                    return objectMapper.readValue(response.body().string(), Attribute.class);
-                }
-            }
+            var body = response.body();
 
-            int statusCode = response.code();
-
-            if (statusCode == 200) {
-                System.out.println("Ping successful. Server is reachable.");
-            } else {
-                System.out.println("Ping failed. Server is not reachable. Status code: " + statusCode);
-            }
+            if (body == null)
+                throw new PlatformApiException("Device " + device.getId() + " returned no attribute");
 
-            response.close();
-        } catch (Exception e) {
-            System.out.println("Ping failed. Error: " + e.getMessage());
-        }
-        return null;
+            return objectMapper.readValue(body.string(), Attribute.class);
+        });
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * A failed call completes the future with false. Cancelling the returned future cancels the call.
      */
     @Override
-    public boolean isDeviceReachable(@NotNull Device device) {
-        var url = "Http://" + device.getHost();
-
+    public CompletableFuture<Boolean> isDeviceReachableAsync(@NotNull Device device) {
         Request request = new Request.Builder()
-                .url(url)
+                .url("http://" + device.getHost())
                 .build();
-        try {
-            Response response = httpClient.newCall(request).execute();
-            int statusCode = response.code();
 
-            response.close();
+        var call = enqueue(request, response -> response.code() == 200);
+        var reachable = call.exceptionally(e -> false);
 
-            return statusCode == 200;
+        reachable.whenComplete((result, e) -> {
+            if (reachable.isCancelled())
+                call.cancel(true);
+        });
 
-        } catch (Exception e) {
-            System.out.println("Ping failed. Error: " + e.getMessage());
-            return false;
-        }
+        return reachable;
     }
 
     /**
@@ -155,4 +225,83 @@ public class HoverHandler implements IPlatformHandler {
                 ":80/" +
                 device.getType().toString().toLowerCase();
     }
+
+    /**
+     * Enqueues a request on the http client's dispatcher, bounded by the call timeout. Cancelling the returned future
+     * cancels the call.
+     *
+     * @param request The request to send.
+     * @param handler The handler that converts the response into the result of the call.
+     * @param <T>     The type of the result.
+     * @return A future that completes with the result of the call, or completes exceptionally with a
+     * {@link PlatformApiException} if the call fails or times out.
+     */
+    private <T> @NotNull CompletableFuture<T> enqueue(@NotNull Request request, @NotNull ResponseHandler<T> handler) {
+        var future = new CompletableFuture<T>();
+        var call = httpClient.newCall(request);
+
+        call.timeout().timeout(callTimeoutMs, TimeUnit.MILLISECONDS);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                future.completeExceptionally(new PlatformApiException("Request to " + request.url() + " failed", e));
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    future.complete(handler.handle(response));
+                } catch (PlatformApiException e) {
+                    future.completeExceptionally(e);
+                } catch (Exception e) {
+                    future.completeExceptionally(new PlatformApiException("Failed to handle response of "
+                            + request.url(), e));
+                }
+            }
+        });
+
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled())
+                call.cancel();
+        });
+
+        return future;
+    }
+
+    /**
+     * Waits for a call to complete, for the blocking variants of the platform methods.
+     *
+     * @param future The future of the call.
+     * @param <T>    The type of the result.
+     * @return The result of the call.
+     * @throws PlatformApiException If the call failed.
+     */
+    private static <T> T join(@NotNull CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PlatformApiException cause)
+                throw cause;
+
+            throw new PlatformApiException("Device call failed", e.getCause());
+        }
+    }
+
+    /**
+     * Converts the response of a call into its result.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+
+        /**
+         * Converts a response into a result.
+         *
+         * @param response The response.
+         * @return The result.
+         * @throws IOException If the response body cannot be read.
+         */
+        T handle(Response response) throws IOException;
+    }
 }
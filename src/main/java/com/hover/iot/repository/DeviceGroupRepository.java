@@ -0,0 +1,10 @@
+package com.hover.iot.repository;
+
+import com.hover.iot.entity.DeviceGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * An interface that provides access to {@link DeviceGroup} data stored in a database.
+ */
+public interface DeviceGroupRepository extends JpaRepository<DeviceGroup, Long> {
+}
@@ -1,8 +1,13 @@
 package com.hover.iot.repository;
 
 import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.DeviceStatus;
 import com.hover.iot.enumeration.DeviceType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -19,6 +24,22 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
      */
     List<Device> findDevicesByRoomName(String room);
 
+    /**
+     * Finds devices by the id of their room.
+     *
+     * @param roomId The id of the room to search for.
+     * @return A list of devices.
+     */
+    List<Device> findDevicesByRoomId(Long roomId);
+
+    /**
+     * Finds devices by the id of their group.
+     *
+     * @param groupId The id of the group to search for.
+     * @return A list of devices.
+     */
+    List<Device> findDevicesByGroupId(Long groupId);
+
 
     /**
      * Finds devices by type.
@@ -27,5 +48,24 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
      * @return A list of devices.
      */
     List<Device> findDevicesByType(DeviceType type);
-}
 
+    /**
+     * Finds all devices, with their attributes fetched in the same query.
+     *
+     * @return A list of devices.
+     */
+    @Query("select distinct d from Device d left join fetch d.attributes")
+    List<Device> findAllWithAttributes();
+
+    /**
+     * Updates the status of a device, without loading or overwriting the rest of the device.
+     *
+     * @param id     The id of the device.
+     * @param status The status to set.
+     * @return The number of updated devices.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Device d set d.status = :status where d.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") DeviceStatus status);
+}
@@ -3,9 +3,18 @@ package com.hover.iot.repository;
 import com.hover.iot.entity.Rule;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 /**
  * An interface that provides access to {@link Rule} data stored in a database.
  */
 public interface RuleRepository extends JpaRepository<Rule, Long> {
-}
 
+    /**
+     * Finds all enabled rules. The triggers and actions of the found rules, and their parameters, are each loaded by
+     * one additional query, so the number of queries does not grow with the number of rules.
+     *
+     * @return A list of enabled rules.
+     */
+    List<Rule> findAllByEnabledTrue();
+}
@@ -0,0 +1,31 @@
+package com.hover.iot.service;
+
+import com.hover.iot.dto.GroupCommandResultDTO;
+import com.hover.iot.exception.EntityNotFoundException;
+import com.hover.iot.request.DeviceAttributeRequest;
+
+/**
+ * A service interface that defines the methods for sending commands to several devices at once.
+ */
+public interface IDeviceCommandService {
+
+    /**
+     * Sets attributes of every device in a room, concurrently.
+     *
+     * @param roomId  The id of the room.
+     * @param request The request containing the attribute information to set.
+     * @return The aggregated results of the devices.
+     * @throws EntityNotFoundException If the room does not exist.
+     */
+    GroupCommandResultDTO setRoomAttributes(Long roomId, DeviceAttributeRequest request);
+
+    /**
+     * Sets attributes of every device in a device group, concurrently.
+     *
+     * @param groupId The id of the device group.
+     * @param request The request containing the attribute information to set.
+     * @return The aggregated results of the devices.
+     * @throws EntityNotFoundException If the device group does not exist.
+     */
+    GroupCommandResultDTO setGroupAttributes(Long groupId, DeviceAttributeRequest request);
+}
@@ -3,6 +3,7 @@ package com.hover.iot.service;
 import com.hover.iot.dto.DeviceDTO;
 import com.hover.iot.enumeration.DeviceType;
 import com.hover.iot.exception.EntityNotFoundException;
+import com.hover.iot.exception.PlatformApiException;
 import com.hover.iot.request.AddDeviceRequest;
 import com.hover.iot.request.DeviceAttributeRequest;
 import com.hover.iot.request.UpdateDeviceRequest;
@@ -73,11 +74,12 @@ public interface IDeviceService {
     boolean delete(Long id);
 
     /**
-     * Sets an attribute of a device.
+     * Sets attributes of a device.
      *
      * @param id      The ID of the device.
      * @param request The request containing the attribute information to set.
      * @throws EntityNotFoundException If the device does not exist.
+     * @throws PlatformApiException    If the device's platform fails to set the attributes.
      */
     void setAttribute(Long id, DeviceAttributeRequest request);
 }
@@ -0,0 +1,284 @@
+package com.hover.iot.service.implementation;
+
+import com.hover.iot.dto.DeviceCommandResultDTO;
+import com.hover.iot.dto.GroupCommandResultDTO;
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.entity.DeviceGroup;
+import com.hover.iot.entity.Room;
+import com.hover.iot.event.AttributeEvent;
+import com.hover.iot.exception.EntityNotFoundException;
+import com.hover.iot.platform.ConcurrencyLimiter;
+import com.hover.iot.platform.IPlatformHandler;
+import com.hover.iot.repository.DeviceGroupRepository;
+import com.hover.iot.repository.DeviceRepository;
+import com.hover.iot.repository.RoomRepository;
+import com.hover.iot.request.DeviceAttributeRequest;
+import com.hover.iot.service.IDeviceCommandService;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A service class that fans commands out to the devices of a room or group. Implements the
+ * {@link IDeviceCommandService} interface.
+ * <p>
+ * The commands of all devices are sent concurrently through the asynchronous platform API, so that a command to a room
+ * takes roughly one device round trip rather than one per device. The number of commands in flight per platform is
+ * bounded, and commands beyond the bound are queued rather than blocking a thread.
+ * <p>
+ * No transaction is held while waiting for the devices: they are loaded in a short transaction before the commands are
+ * sent, and the accepted attributes are saved on freshly loaded devices in another one once all of them responded.
+ */
+@Service
+public class DeviceCommandService implements IDeviceCommandService {
+
+    /**
+     * The logger for DeviceCommandService.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DeviceCommandService.class);
+
+    /**
+     * The application event publisher.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The repository that is used for device data storage and retrieval.
+     */
+    private final DeviceRepository deviceRepository;
+
+    /**
+     * The repository that is used to check that rooms exist.
+     */
+    private final RoomRepository roomRepository;
+
+    /**
+     * The repository that is used to check that device groups exist.
+     */
+    private final DeviceGroupRepository deviceGroupRepository;
+
+    /**
+     * A map that stores platform names as keys and corresponding PlatformApi instances as values.
+     */
+    private final Map<String, IPlatformHandler> platformApiMap;
+
+    /**
+     * A map that stores platform names as keys and the limiters of their concurrent commands as values.
+     */
+    private final Map<String, ConcurrencyLimiter> limiterMap;
+
+    /**
+     * The transactions devices are loaded and the results of commands are saved in.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * Initializes a new instance of {@link DeviceCommandService} class.
+     *
+     * @param eventPublisher            The event publisher.
+     * @param deviceRepository          The repository that is used for device data storage and retrieval.
+     * @param roomRepository            The repository that is used to check that rooms exist.
+     * @param deviceGroupRepository     The repository that is used to check that device groups exist.
+     * @param transactionOperations     The transactions devices are loaded and the results of commands are saved in.
+     * @param platformApiList           The list of platform apis.
+     * @param maxConcurrencyPerPlatform The maximum number of commands in flight per platform.
+     */
+    public DeviceCommandService(ApplicationEventPublisher eventPublisher, DeviceRepository deviceRepository,
+                                RoomRepository roomRepository, DeviceGroupRepository deviceGroupRepository,
+                                TransactionOperations transactionOperations,
+                                @NotNull List<IPlatformHandler> platformApiList,
+                                @Value("${device.command.max.concurrency.per.platform:32}")
+                                int maxConcurrencyPerPlatform) {
+        this.eventPublisher = eventPublisher;
+        this.deviceRepository = deviceRepository;
+        this.roomRepository = roomRepository;
+        this.deviceGroupRepository = deviceGroupRepository;
+        this.transactionOperations = transactionOperations;
+        this.platformApiMap = platformApiList.stream()
+                .collect(Collectors.toMap(IPlatformHandler::getName, Function.identity()));
+        this.limiterMap = platformApiList.stream()
+                .collect(Collectors.toMap(IPlatformHandler::getName,
+                        platform -> new ConcurrencyLimiter(maxConcurrencyPerPlatform)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GroupCommandResultDTO setRoomAttributes(Long roomId, @NotNull DeviceAttributeRequest request) {
+        return fanOut(() -> {
+            if (!roomRepository.existsById(roomId))
+                throw new EntityNotFoundException(Room.class.getSimpleName(), roomId);
+
+            return deviceRepository.findDevicesByRoomId(roomId);
+        }, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GroupCommandResultDTO setGroupAttributes(Long groupId, @NotNull DeviceAttributeRequest request) {
+        return fanOut(() -> {
+            if (!deviceGroupRepository.existsById(groupId))
+                throw new EntityNotFoundException(DeviceGroup.class.getSimpleName(), groupId);
+
+            return deviceRepository.findDevicesByGroupId(groupId);
+        }, request);
+    }
+
+    /**
+     * Sends the requested attributes to every device concurrently and waits for all of them to respond. The attributes
+     * of the devices that accepted the command are then saved, and an attribute event is published for each of them.
+     *
+     * @param loader  The loader of the devices to send the command to, called in a transaction. It throws an
+     *                {@link EntityNotFoundException} if the room or group does not exist.
+     * @param request The request containing the attribute information to set.
+     * @return The aggregated results of the devices.
+     */
+    private @NotNull GroupCommandResultDTO fanOut(@NotNull Supplier<List<Device>> loader,
+                                                  @NotNull DeviceAttributeRequest request) {
+        var startedAt = System.nanoTime();
+        List<Command> commands = transactionOperations.execute(transaction -> {
+            var devices = loader.get();
+            var _commands = new ArrayList<Command>(devices.size());
+
+            for (var device : devices) {
+                _commands.add(new Command(device, DeviceService.diff(device, request.attributes())));
+            }
+
+            return _commands;
+        });
+
+        if (commands == null)
+            commands = List.of();
+
+        var futures = new ArrayList<CompletableFuture<DeviceCommandResultDTO>>(commands.size());
+
+        for (var command : commands) {
+            futures.add(send(command.device(), command.changes()));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        var results = new ArrayList<DeviceCommandResultDTO>(commands.size());
+        var written = new LinkedHashMap<Long, List<Attribute>>();
+
+        for (int i = 0; i < commands.size(); i++) {
+            var result = futures.get(i).join();
+            var command = commands.get(i);
+
+            results.add(result);
+
+            if (result.succeeded() && !command.changes().isEmpty())
+                written.put(command.device().getId(), command.changes());
+        }
+
+        if (!written.isEmpty())
+            save(written);
+
+        var succeeded = (int) results.stream().filter(DeviceCommandResultDTO::succeeded).count();
+        var elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        logger.debug("Sent command to {} devices in {} ms, {} failed", commands.size(), elapsedMs,
+                commands.size() - succeeded);
+
+        return new GroupCommandResultDTO(commands.size(), succeeded, commands.size() - succeeded, elapsedMs, results);
+    }
+
+    /**
+     * Saves the attributes written to devices on freshly loaded devices, so that concurrent changes of the devices'
+     * other attributes and status are not overwritten, and publishes an attribute event for each changed attribute.
+     *
+     * @param written The written attributes by device id.
+     */
+    private void save(@NotNull Map<Long, List<Attribute>> written) {
+        transactionOperations.executeWithoutResult(transaction -> {
+            var updated = new ArrayList<Device>();
+            var events = new ArrayList<AttributeEvent>();
+
+            for (var device : deviceRepository.findAllById(written.keySet())) {
+                var changed = DeviceService.apply(device, written.get(device.getId()));
+
+                if (changed.isEmpty())
+                    continue;
+
+                updated.add(device);
+
+                for (var attribute : changed) {
+                    events.add(new AttributeEvent(this, device, attribute));
+                }
+            }
+
+            deviceRepository.saveAll(updated);
+            events.forEach(eventPublisher::publishEvent);
+        });
+    }
+
+    /**
+     * Sends the changed attributes to a device through its platform's limiter.
+     *
+     * @param device  The device.
+     * @param changes The requested attributes whose value changes.
+     * @return A future that completes with the result of the device, and never completes exceptionally.
+     */
+    private @NotNull CompletableFuture<DeviceCommandResultDTO> send(@NotNull Device device,
+                                                                    @NotNull List<Attribute> changes) {
+        if (changes.isEmpty())
+            return CompletableFuture.completedFuture(new DeviceCommandResultDTO(device.getId(), device.getName(),
+                    true, 0, 0, null));
+
+        var platformApi = platformApiMap.get(device.getPlatform());
+
+        if (platformApi == null)
+            return CompletableFuture.completedFuture(new DeviceCommandResultDTO(device.getId(), device.getName(),
+                    false, 0, 0, "Unknown platform " + device.getPlatform()));
+
+        var sentAt = new long[1];
+
+        return limiterMap.get(device.getPlatform())
+                .submit(() -> {
+                    sentAt[0] = System.nanoTime();
+                    return platformApi.writeAttributesAsync(device, changes);
+                })
+                .handle((result, e) -> {
+                    var latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt[0]);
+
+                    if (e == null)
+                        return new DeviceCommandResultDTO(device.getId(), device.getName(), true, changes.size(),
+                                latencyMs, null);
+
+                    var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+                    logger.warn("Failed to send command to device -> {}", device.getId(), cause);
+
+                    return new DeviceCommandResultDTO(device.getId(), device.getName(), false, 0, latencyMs,
+                            cause.getMessage());
+                });
+    }
+
+    /**
+     * A command to send to a device.
+     *
+     * @param device  The device, detached with its attributes loaded.
+     * @param changes The requested attributes whose value changes.
+     */
+    private record Command(Device device, List<Attribute> changes) {
+    }
+}
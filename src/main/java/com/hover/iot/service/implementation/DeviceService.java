@@ -1,14 +1,20 @@
 package com.hover.iot.service.implementation;
 
 import com.hover.iot.dto.DeviceDTO;
+import com.hover.iot.engine.dispatch.PartitionedExecutor;
+import com.hover.iot.engine.model.CausalityChain;
+import com.hover.iot.entity.Attribute;
 import com.hover.iot.entity.Device;
 import com.hover.iot.entity.Room;
 import com.hover.iot.entity.Vault;
 import com.hover.iot.enumeration.ChangeType;
 import com.hover.iot.enumeration.DeviceStatus;
 import com.hover.iot.enumeration.DeviceType;
+import com.hover.iot.event.AttributeActionEvent;
+import com.hover.iot.event.AttributeEvent;
 import com.hover.iot.event.EntityChangeEvent;
 import com.hover.iot.exception.EntityNotFoundException;
+import com.hover.iot.exception.PlatformApiException;
 import com.hover.iot.mapper.DeviceDTOMapper;
 import com.hover.iot.model.Credentials;
 import com.hover.iot.platform.IPlatformHandler;
@@ -24,13 +30,18 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -75,19 +86,32 @@ public class DeviceService implements IDeviceService {
      */
     private final Map<String, IPlatformHandler> platformApiMap;
 
+    /**
+     * The transactions devices are loaded and the results of writes are saved in.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * The executor the attribute writes of rule actions are handed off to, partitioned by device.
+     */
+    private final PartitionedExecutor deviceWriteExecutor;
+
     /**
      * Initializes a new instance of {@link DeviceService} class.
      *
-     * @param eventPublisher   The event publisher.
-     * @param deviceRepository The repository that is used for device data storage and retrieval..
-     * @param roomService      The service that is used to handle room management..
-     * @param deviceDTOMapper  The DTO mapper for devices.
-     * @param vaultService     The service that is used to handle db secret data.
-     * @param platformApiList  The list of platform apis.
+     * @param eventPublisher        The event publisher.
+     * @param deviceRepository      The repository that is used for device data storage and retrieval..
+     * @param roomService           The service that is used to handle room management..
+     * @param deviceDTOMapper       The DTO mapper for devices.
+     * @param vaultService          The service that is used to handle db secret data.
+     * @param platformApiList       The list of platform apis.
+     * @param transactionOperations The transactions devices are loaded and the results of writes are saved in.
+     * @param deviceWriteExecutor   The executor the attribute writes of rule actions are handed off to.
      */
     public DeviceService(ApplicationEventPublisher eventPublisher, DeviceRepository deviceRepository,
                          IRoomService roomService, DeviceDTOMapper deviceDTOMapper, VaultService vaultService,
-                         @NotNull List<IPlatformHandler> platformApiList) {
+                         @NotNull List<IPlatformHandler> platformApiList,
+                         TransactionOperations transactionOperations, PartitionedExecutor deviceWriteExecutor) {
         this.eventPublisher = eventPublisher;
         this.deviceRepository = deviceRepository;
         this.roomService = roomService;
@@ -95,6 +119,8 @@ public class DeviceService implements IDeviceService {
         this.vaultService = vaultService;
         this.platformApiMap = platformApiList.stream()
                 .collect(Collectors.toMap(IPlatformHandler::getName, Function.identity()));
+        this.transactionOperations = transactionOperations;
+        this.deviceWriteExecutor = deviceWriteExecutor;
     }
 
     /**
@@ -251,27 +277,219 @@ public class DeviceService implements IDeviceService {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The requested attributes are diffed against the current ones by name, and every attribute whose value changes is
+     * written to the device in a single platform request. Once the device has accepted the write, the attributes are
+     * saved on a freshly loaded device and an attribute event is published for each of them. No transaction is held
+     * while waiting for the device, so that slow devices do not hold database connections.
      */
     @Override
     public void setAttribute(Long id, @NotNull DeviceAttributeRequest request) {
-        var device = deviceRepository.findById(id).orElseThrow(() ->
-                new EntityNotFoundException(Device.class.getSimpleName(), id));
+        var changes = new ArrayList<Attribute>();
+        var device = transactionOperations.execute(transaction -> {
+            var current = deviceRepository.findById(id).orElseThrow(() ->
+                    new EntityNotFoundException(Device.class.getSimpleName(), id));
+
+            changes.addAll(diff(current, request.attributes()));
+            return current;
+        });
+
+        if (device == null || changes.isEmpty())
+            return;
+
+        IPlatformHandler platformApi = platformApiMap.get(device.getPlatform());
+
+        if (platformApi == null)
+            throw new PlatformApiException("Device " + id + " has unknown platform " + device.getPlatform());
+
+        try {
+            platformApi.writeAttributesAsync(device, changes).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PlatformApiException cause)
+                throw cause;
+
+            throw new PlatformApiException("Failed to write attributes of device " + id, e.getCause());
+        }
+
+        transactionOperations.executeWithoutResult(transaction -> {
+            var current = deviceRepository.findById(id).orElseThrow(() ->
+                    new EntityNotFoundException(Device.class.getSimpleName(), id));
+            var changed = apply(current, changes);
+
+            if (changed.isEmpty())
+                return;
+
+            deviceRepository.save(current);
+
+            for (var attribute : changed) {
+                eventPublisher.publishEvent(new AttributeEvent(this, current, attribute));
+            }
+        });
+    }
+
+    /**
+     * Diffs requested attribute values against the current attributes of a device by name. Requested attributes the
+     * device does not have are logged and skipped.
+     *
+     * @param device    The device.
+     * @param requested The requested attributes.
+     * @return The requested attributes whose value differs from the current one.
+     */
+    static @NotNull List<Attribute> diff(@NotNull Device device, @NotNull List<Attribute> requested) {
+        var current = index(device);
+        var changes = new ArrayList<Attribute>();
+
+        for (var _requested : requested) {
+            var attribute = current.get(_requested.getName());
+
+            if (attribute == null) {
+                logger.warn("Ignoring write of unknown attribute -> {} of device -> {}", _requested.getName(),
+                        device.getId());
+                continue;
+            }
+
+            if (!Objects.equals(attribute.getValue(), _requested.getValue()))
+                changes.add(_requested);
+        }
+
+        return changes;
+    }
+
+    /**
+     * Applies written attribute values to the attributes of a device by name. Written attributes the device does not
+     * have, or whose value the device already has, such as when the change was polled first, are skipped.
+     *
+     * @param device  The device, freshly loaded in the transaction that saves it.
+     * @param written The written attributes.
+     * @return The attributes of the device whose value was changed.
+     */
+    static @NotNull List<Attribute> apply(@NotNull Device device, @NotNull List<Attribute> written) {
+        var current = index(device);
+        var changed = new ArrayList<Attribute>();
+
+        for (var _written : written) {
+            var attribute = current.get(_written.getName());
+
+            if (attribute == null || Objects.equals(attribute.getValue(), _written.getValue()))
+                continue;
+
+            attribute.setValue(_written.getValue());
+            changed.add(attribute);
+        }
+
+        return changed;
+    }
+
+    /**
+     * Indexes the attributes of a device by name.
+     *
+     * @param device The device.
+     * @return The attributes of the device by name.
+     */
+    private static @NotNull Map<String, Attribute> index(@NotNull Device device) {
+        var attributes = new HashMap<String, Attribute>();
+
+        for (var attribute : device.getAttributes()) {
+            attributes.put(attribute.getName(), attribute);
+        }
+
+        return attributes;
+    }
+
+    /**
+     * Event listener for handling the attribute writes of rule actions. The attribute is written to the device through
+     * its platform, and an attribute event carrying the causality chain of the action is published, so that the rules
+     * triggered by the write know which rules caused it. Writes that do not change the attribute's value are skipped,
+     * so that rules setting a device to the state it is already in do not cascade.
+     * <p>
+     * The event is published on a rule evaluation lane or action worker, so the write is handed off to the lane of the
+     * device on the device write executor, keeping the database and the device off the publishing thread, and the
+     * writes to a device in order. If the lane's queue is full, the write is dropped. The write is sent asynchronously,
+     * so the lane is released as soon as the command is enqueued. Once the device has accepted the write, the attribute
+     * is saved and its event published in a new transaction, on a freshly loaded device, so that concurrent changes of
+     * the device's other attributes and status are not overwritten.
+     *
+     * @param event The attribute action event.
+     */
+    @EventListener
+    public void onAttributeActionEvent(@NotNull AttributeActionEvent event) {
+        deviceWriteExecutor.execute(event.getDevice(), () -> writeActionAttribute(event));
+    }
+
+    /**
+     * Writes the attribute of a rule action to its device, unless the device already has the value. Runs on the lane
+     * of the device.
+     *
+     * @param event The attribute action event.
+     */
+    private void writeActionAttribute(@NotNull AttributeActionEvent event) {
+        var requested = event.getAttribute();
+        var device = transactionOperations.execute(transaction -> {
+            var current = deviceRepository.findById(event.getDevice()).orElse(null);
+
+            if (current == null) {
+                logger.warn("Dropping attribute write to unknown device -> {}", event.getDevice());
+                return null;
+            }
+
+            for (var attribute : current.getAttributes()) {
+                if (Objects.equals(attribute.getName(), requested.getName()))
+                    return Objects.equals(attribute.getValue(), requested.getValue()) ? null : current;
+            }
+
+            logger.warn("Dropping write of unknown attribute -> {} of device -> {}", requested.getName(),
+                    current.getId());
+            return null;
+        });
+
+        if (device == null)
+            return;
 
-        var attributes = device.getAttributes();
-
-        for (var attribute : attributes) {
-            for (var _attribute : request.attributes()) {
-                if (Objects.equals(attribute.getName(), _attribute.getName())) {
-                    if (!Objects.equals(attribute.getValue(), _attribute.getValue())) {
-                        IPlatformHandler platformApi = platformApiMap.get(device.getPlatform());
-                        try {
-                            platformApi.writeAttribute(device, attribute);
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                }
+        IPlatformHandler platformApi = platformApiMap.get(device.getPlatform());
+
+        if (platformApi == null) {
+            logger.warn("Dropping attribute write to device -> {} of unknown platform -> {}", device.getId(),
+                    device.getPlatform());
+            return;
+        }
+
+        platformApi.writeAttributeAsync(device, requested).whenComplete((result, e) -> {
+            if (e != null) {
+                logger.error("Failed to write attribute -> {} of device -> {}", requested.getName(), device.getId(),
+                        e);
+                return;
             }
+
+            saveWrittenAttribute(device.getId(), requested, event.getCausalityChain());
+        });
+    }
+
+    /**
+     * Saves an attribute written through a platform and publishes its attribute event, unless the saved value already
+     * is the written one, such as when the change was polled first.
+     *
+     * @param deviceId       The id of the device.
+     * @param written        The written attribute.
+     * @param causalityChain The chain of rules whose actions caused the write.
+     */
+    private void saveWrittenAttribute(Long deviceId, @NotNull Attribute written, CausalityChain causalityChain) {
+        try {
+            transactionOperations.executeWithoutResult(transaction -> {
+                var device = deviceRepository.findById(deviceId).orElse(null);
+
+                if (device == null)
+                    return;
+
+                var changed = apply(device, List.of(written));
+
+                if (changed.isEmpty())
+                    return;
+
+                deviceRepository.save(device);
+                eventPublisher.publishEvent(new AttributeEvent(this, device, changed.get(0), causalityChain));
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to save written attribute -> {} of device -> {}", written.getName(), deviceId, e);
         }
     }
 
@@ -300,4 +518,3 @@ public class DeviceService implements IDeviceService {
         eventPublisher.publishEvent(new EntityChangeEvent(this, device, changeType));
     }
 }
-
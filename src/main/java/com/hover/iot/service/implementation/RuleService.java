@@ -1,20 +1,23 @@
 package com.hover.iot.service.implementation;
 
 import com.hover.iot.engine.IRuleEngine;
+import com.hover.iot.engine.dispatch.UpdateBatcher;
 import com.hover.iot.entity.Rule;
 import com.hover.iot.event.AttributeEvent;
+import com.hover.iot.exception.RuleCompilationException;
 import com.hover.iot.exception.RuleNotFoundException;
 import com.hover.iot.repository.RuleRepository;
 import com.hover.iot.service.IDeviceService;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A service class that handles operations related to rule management.
@@ -36,16 +39,22 @@ public class RuleService {
      */
     private final RuleRepository ruleRepository;
 
+    /**
+     * The batcher that collects device updates into batches evaluated against the rules.
+     */
+    private final UpdateBatcher updateBatcher;
+
     /**
      * Constructs a new RuleService with the specified RuleEngine and RuleRepository.
      *
      * @param IRuleEngine    The RuleEngine used for rule evaluation
-     * @param deviceService  The service used to get devices.
      * @param ruleRepository The RuleRepository used for rule persistence
+     * @param updateBatcher  The batcher that collects device updates into batches evaluated against the rules.
      */
-    public RuleService(IRuleEngine IRuleEngine, RuleRepository ruleRepository) {
+    public RuleService(IRuleEngine IRuleEngine, RuleRepository ruleRepository, UpdateBatcher updateBatcher) {
         this.IRuleEngine = IRuleEngine;
         this.ruleRepository = ruleRepository;
+        this.updateBatcher = updateBatcher;
     }
 
     /**
@@ -53,6 +62,7 @@ public class RuleService {
      *
      * @param rule the rule to create
      * @return the created rule
+     * @throws RuleCompilationException if the rule is malformed
      */
     @Transactional
     public Rule create(Rule rule) {
@@ -63,9 +73,12 @@ public class RuleService {
         try {
             savedRule = ruleRepository.save(rule);
 
-            synchronized(IRuleEngine) {
-                IRuleEngine.registerRule(rule);
-            }
+            if (savedRule.isEnabled())
+                IRuleEngine.registerRule(savedRule);
+        }
+        catch (RuleCompilationException e) {
+            LOGGER.error("Rejected malformed rule -> {}, {}", rule, e.getMessage());
+            throw e;
         }
         catch (Exception e) {
             LOGGER.error("An error occurred while creating rule -> {}, {}", rule, e);
@@ -101,12 +114,15 @@ public class RuleService {
     }
 
     /**
-     * Updates a rule with the specified ID.
+     * Updates a rule with the specified ID and applies the update to the running rule engine. The new version replaces
+     * the registered one in a single step, or unregisters it if the rule was disabled. A malformed update is rejected
+     * before the engine is touched, and the transaction is rolled back, so the registered version keeps running.
      *
      * @param newRule the new rule data
      * @param id      the ID of the rule to update
      * @return the updated rule
-     * @throws RuleNotFoundException if the rule with the specified ID does not exist
+     * @throws RuleNotFoundException    if the rule with the specified ID does not exist
+     * @throws RuleCompilationException if the updated rule is malformed
      */
     @Transactional
     public Rule update(Rule newRule, Long id) {
@@ -115,11 +131,27 @@ public class RuleService {
         Rule rule = ruleRepository.findById(id)
                 .map(_rule -> {
                     _rule.setName(newRule.getName());
+                    _rule.setDescription(newRule.getDescription());
                     _rule.setActions(newRule.getActions());
                     _rule.setTriggers(newRule.getTriggers());
+                    _rule.setConditionOperator(newRule.getConditionOperator());
+                    _rule.setDebounceMs(newRule.getDebounceMs());
+                    _rule.setDebounceEdge(newRule.getDebounceEdge());
+                    _rule.setEnabled(newRule.isEnabled());
                     return ruleRepository.save(_rule);
                 }).orElseThrow(() -> new RuleNotFoundException(id));
 
+        try {
+            if (rule.isEnabled())
+                IRuleEngine.registerRule(rule);
+            else
+                IRuleEngine.unregisterRule(rule);
+        }
+        catch (RuleCompilationException e) {
+            LOGGER.error("Rejected malformed update of rule -> {}, {}", rule, e.getMessage());
+            throw e;
+        }
+
         LOGGER.info("Rule successfully updated -> {}", rule);
 
         return rule;
@@ -143,17 +175,41 @@ public class RuleService {
     }
 
     /**
-     * Event listener for handling entity change events.
+     * Loads all enabled rules from the database and registers them in the rule engine in one bulk update when the
+     * application starts.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadRules() {
+        LOGGER.info("Loading rules");
+
+        var start = System.nanoTime();
+        var rules = ruleRepository.findAllByEnabledTrue();
+        var fetched = System.nanoTime();
+        var registered = IRuleEngine.registerRules(rules);
+        var end = System.nanoTime();
+
+        LOGGER.info("Loaded {} of {} rules in {} ms (fetch {} ms, register {} ms)", registered, rules.size(),
+                TimeUnit.NANOSECONDS.toMillis(end - start), TimeUnit.NANOSECONDS.toMillis(fetched - start),
+                TimeUnit.NANOSECONDS.toMillis(end - fetched));
+    }
+
+    /**
+     * Event listener for handling entity change events. The event is buffered on the lane of its device and evaluated
+     * with the other updates of a short batching window, so the events of a device are evaluated in order and repeated
+     * updates of an attribute within the window collapse to the latest one. If the lane's buffer is full, the event is
+     * dropped. The causality chain of the event is passed to the engine, so that cascades of rules triggering each other
+     * are bounded.
      *
      * @param event The entity change event.
      */
-    @Async
     @EventListener
     public void onChangeEvent(@NotNull AttributeEvent event) {
-        LOGGER.debug("Attribute event received for -> {} with -> {}", event.getDevice().getId(), event.getAttribute());
+        var device = event.getDevice();
+        var attribute = event.getAttribute();
 
-        IRuleEngine.evaluatePossibleTrigger(event.getDevice());
+        LOGGER.debug("Attribute event received for -> {} with -> {}", device.getId(), attribute);
 
-        LOGGER.debug("Attribute change event processed");
+        updateBatcher.submit(device, attribute != null ? attribute.getName() : null, event.getCausalityChain());
     }
 }
@@ -0,0 +1,81 @@
+package com.hover.iot.util;
+
+import com.hover.iot.enumeration.SolarEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A utility class to compute the times of sunrise and sunset at a location offline, using the sunrise equation. The
+ * times are accurate to within a minute or two away from the polar circles, which is plenty for home automation.
+ */
+public final class SolarCalculator {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private SolarCalculator() {
+    }
+
+    /**
+     * The Julian date of the J2000 epoch, 2000-01-01 12:00 TT.
+     */
+    private static final double J2000 = 2451545.0;
+
+    /**
+     * The Julian date of the Unix epoch, 1970-01-01 00:00 UTC.
+     */
+    private static final double UNIX_EPOCH_JULIAN_DATE = 2440587.5;
+
+    /**
+     * The number of milliseconds in a day.
+     */
+    private static final double DAY_MS = 86_400_000d;
+
+    /**
+     * The obliquity of the ecliptic, in degrees.
+     */
+    private static final double OBLIQUITY = 23.4397;
+
+    /**
+     * The altitude of the centre of the sun at sunrise and sunset, in degrees, accounting for atmospheric refraction
+     * and the radius of the sun's disc.
+     */
+    private static final double HORIZON_ALTITUDE = -0.833;
+
+    /**
+     * Computes the time of a solar event at a location on a date.
+     *
+     * @param event     The solar event.
+     * @param date      The date, taken as the solar day around noon at the location.
+     * @param latitude  The latitude of the location in degrees, positive north of the equator.
+     * @param longitude The longitude of the location in degrees, positive east of Greenwich.
+     * @return The time of the event, or null if the sun does not rise or set at the location on the date.
+     */
+    public static Instant compute(@NotNull SolarEvent event, @NotNull LocalDate date, double latitude,
+                                  double longitude) {
+        // The number of days since J2000 of the mean solar noon at the location.
+        var day = date.toEpochDay() + UNIX_EPOCH_JULIAN_DATE + 0.5 - J2000 - longitude / 360;
+
+        var meanAnomaly = Math.toRadians((357.5291 + 0.98560028 * day) % 360);
+        var center = 1.9148 * Math.sin(meanAnomaly) + 0.0200 * Math.sin(2 * meanAnomaly)
+                + 0.0003 * Math.sin(3 * meanAnomaly);
+        var eclipticLongitude = Math.toRadians((Math.toDegrees(meanAnomaly) + center + 180 + 102.9372) % 360);
+        var transit = J2000 + day + 0.0053 * Math.sin(meanAnomaly) - 0.0069 * Math.sin(2 * eclipticLongitude);
+
+        var declination = Math.asin(Math.sin(eclipticLongitude) * Math.sin(Math.toRadians(OBLIQUITY)));
+        var phi = Math.toRadians(latitude);
+        var cosHourAngle = (Math.sin(Math.toRadians(HORIZON_ALTITUDE)) - Math.sin(phi) * Math.sin(declination))
+                / (Math.cos(phi) * Math.cos(declination));
+
+        // The sun stays below the horizon all day (polar night) or above it all day (midnight sun).
+        if (cosHourAngle > 1 || cosHourAngle < -1)
+            return null;
+
+        var hourAngle = Math.toDegrees(Math.acos(cosHourAngle)) / 360;
+        var julianDate = event == SolarEvent.SUNRISE ? transit - hourAngle : transit + hourAngle;
+
+        return Instant.ofEpochMilli(Math.round((julianDate - UNIX_EPOCH_JULIAN_DATE) * DAY_MS));
+    }
+}
@@ -0,0 +1,2 @@
+ALTER TABLE TBL_RULE
+    ADD COLUMN enabled BOOLEAN NOT NULL DEFAULT TRUE;
@@ -0,0 +1,2 @@
+ALTER TABLE TBL_RULE
+    ADD COLUMN condition_operator TEXT NOT NULL DEFAULT 'OR';
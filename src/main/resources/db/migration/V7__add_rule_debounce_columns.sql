@@ -0,0 +1,3 @@
+ALTER TABLE TBL_RULE
+    ADD COLUMN debounce_ms BIGINT,
+    ADD COLUMN debounce_edge TEXT NOT NULL DEFAULT 'LEADING';
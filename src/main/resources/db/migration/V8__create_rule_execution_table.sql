@@ -0,0 +1,17 @@
+CREATE TABLE TBL_RULE_EXECUTION
+(
+    id                BIGSERIAL PRIMARY KEY,
+    rule_id           BIGINT    NOT NULL,
+    rule_name         TEXT,
+    device_id         BIGINT,
+    causality_chain   TEXT      NOT NULL,
+    executed_at       TIMESTAMP NOT NULL,
+    outcome           TEXT      NOT NULL,
+    actions           INT       NOT NULL,
+    coalesced_actions INT       NOT NULL,
+    failed_actions    INT       NOT NULL,
+    error             TEXT,
+    latency_us        BIGINT    NOT NULL
+);
+
+CREATE INDEX RULE_EXECUTION_RULE_ID_IDX ON TBL_RULE_EXECUTION (rule_id, executed_at);
@@ -0,0 +1,3 @@
+ALTER TABLE TBL_RULE_EXECUTION
+    ADD COLUMN trigger_index INT,
+    ADD COLUMN trigger_type TEXT;
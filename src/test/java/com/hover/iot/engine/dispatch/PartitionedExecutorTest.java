@@ -0,0 +1,134 @@
+package com.hover.iot.engine.dispatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedExecutorTest {
+
+    private PartitionedExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void testExecute_preservesOrderPerKey() throws Exception {
+        // Given
+        executor = new PartitionedExecutor("test", 4, 100_000);
+        executor.start();
+
+        var keys = 50;
+        var tasksPerKey = 1000;
+        var done = new CountDownLatch(keys * tasksPerKey);
+        Map<Long, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        // When
+        var submitters = new ArrayList<Thread>();
+
+        for (int s = 0; s < 2; s++) {
+            var offset = s;
+            var submitter = new Thread(() -> {
+                for (int i = 0; i < tasksPerKey; i++) {
+                    for (long key = offset; key < keys; key += 2) {
+                        var sequence = i;
+                        var _key = key;
+                        executor.execute(key, () -> {
+                            seen.computeIfAbsent(_key, ignored -> new ArrayList<>()).add(sequence);
+                            done.countDown();
+                        });
+                    }
+                }
+            });
+            submitters.add(submitter);
+            submitter.start();
+        }
+
+        for (var submitter : submitters) {
+            submitter.join();
+        }
+
+        // Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        for (var sequences : seen.values()) {
+            assertEquals(tasksPerKey, sequences.size());
+
+            for (int i = 0; i < tasksPerKey; i++) {
+                assertEquals(i, sequences.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testExecute_dropsWhenLaneIsFull() throws Exception {
+        // Given
+        executor = new PartitionedExecutor("test", 1, 2);
+        executor.start();
+
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        executor.execute(1L, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        var first = executor.execute(1L, () -> { });
+        var second = executor.execute(2L, () -> { });
+        var third = executor.execute(3L, () -> { });
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(1, executor.getDroppedCount());
+
+        release.countDown();
+    }
+
+    @Test
+    void testLane_spreadsSequentialKeys() {
+        // Given
+        executor = new PartitionedExecutor("test", 8, 1);
+        var counts = new int[8];
+
+        // When
+        for (long key = 1; key <= 8000; key++) {
+            counts[executor.lane(key)]++;
+        }
+
+        // Then
+        for (var count : counts) {
+            assertTrue(count > 800 && count < 1200, "unbalanced lane with " + count + " keys");
+        }
+    }
+
+    @Test
+    void testExecute_rejectsAfterClose() {
+        // Given
+        executor = new PartitionedExecutor("test", 2, 10);
+        executor.start();
+
+        // When
+        executor.close();
+
+        // Then
+        assertFalse(executor.execute(1L, () -> { }));
+    }
+}
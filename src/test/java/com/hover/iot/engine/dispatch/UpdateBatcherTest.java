@@ -0,0 +1,133 @@
+package com.hover.iot.engine.dispatch;
+
+import com.hover.iot.engine.IRuleEngine;
+import com.hover.iot.engine.model.CausalityChain;
+import com.hover.iot.engine.model.DeviceUpdate;
+import com.hover.iot.entity.Device;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UpdateBatcherTest {
+
+    private final LinkedBlockingQueue<List<DeviceUpdate>> batches = new LinkedBlockingQueue<>();
+
+    private IRuleEngine ruleEngine;
+
+    private PartitionedExecutor executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ruleEngine = mock(IRuleEngine.class);
+        doAnswer(invocation -> batches.add(new ArrayList<>((List<DeviceUpdate>) invocation.getArgument(0))))
+                .when(ruleEngine).evaluatePossibleTriggers(any());
+        executor = new PartitionedExecutor("test", 1, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void testSubmit_collapsesRepeatedUpdatesToLatest() throws Exception {
+        // Given
+        var batcher = new UpdateBatcher(executor, ruleEngine, 0, 1000, 1000);
+        Map<Long, Device> latest = new HashMap<>();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            for (long id = 1; id <= 10; id++) {
+                for (var attribute : new String[]{"power", "brightness"}) {
+                    var device = DeviceTestUtils.createTestDevice(id);
+                    latest.put(id, device);
+                    assertTrue(batcher.submit(device, attribute, CausalityChain.ROOT));
+                }
+            }
+        }
+
+        executor.start();
+
+        // Then
+        var batch = batches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch);
+        assertEquals(10, batch.size());
+        assertEquals(180, batcher.getCollapsedCount());
+
+        for (var update : batch) {
+            assertSame(latest.get(update.device().getId()), update.device());
+        }
+
+        assertNull(batches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testSubmit_fullBatchFlushesBeforeWindow() throws Exception {
+        // Given
+        var batcher = new UpdateBatcher(executor, ruleEngine, 60_000, 5, 10);
+        executor.start();
+
+        // When
+        for (long id = 1; id <= 5; id++) {
+            batcher.submit(DeviceTestUtils.createTestDevice(id), "power", CausalityChain.ROOT);
+        }
+
+        // Then
+        var batch = batches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch);
+        assertEquals(5, batch.size());
+    }
+
+    @Test
+    void testSubmit_keepsUpdatesOfDifferentCausalityChains() throws Exception {
+        // Given
+        var batcher = new UpdateBatcher(executor, ruleEngine, 0, 10, 10);
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        // When
+        batcher.submit(device, "power", CausalityChain.ROOT);
+        batcher.submit(device, "power", CausalityChain.ROOT.then(7L));
+        batcher.submit(device, "power", CausalityChain.ROOT.then(7L));
+        executor.start();
+
+        // Then
+        var batch = batches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch);
+        assertEquals(2, batch.size());
+        assertEquals(CausalityChain.ROOT, batch.get(0).causalityChain());
+        assertEquals(CausalityChain.ROOT.then(7L), batch.get(1).causalityChain());
+    }
+
+    @Test
+    void testSubmit_dropsWhenBufferIsFull() {
+        // Given
+        var batcher = new UpdateBatcher(executor, ruleEngine, 0, 2, 2);
+
+        // When
+        var first = batcher.submit(DeviceTestUtils.createTestDevice(1L), "power", CausalityChain.ROOT);
+        var second = batcher.submit(DeviceTestUtils.createTestDevice(2L), "power", CausalityChain.ROOT);
+        var third = batcher.submit(DeviceTestUtils.createTestDevice(3L), "power", CausalityChain.ROOT);
+        var collapsed = batcher.submit(DeviceTestUtils.createTestDevice(2L), "power", CausalityChain.ROOT);
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertTrue(collapsed);
+        assertEquals(1, batcher.getDroppedCount());
+        verify(ruleEngine, never()).evaluatePossibleTriggers(any());
+    }
+}
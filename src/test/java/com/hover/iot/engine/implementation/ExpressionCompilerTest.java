@@ -0,0 +1,84 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionCompilerTest {
+
+    private final Device device = createDevice();
+
+    @Test
+    void testCompile_comparesAttributes() {
+        // When and Then
+        assertTrue(ExpressionCompiler.compile("temperature > 24").test(device));
+        assertTrue(ExpressionCompiler.compile("temperature >= 25.5").test(device));
+        assertFalse(ExpressionCompiler.compile("temperature < 25.5").test(device));
+        assertTrue(ExpressionCompiler.compile("24 < temperature").test(device));
+        assertTrue(ExpressionCompiler.compile("humidity != temperature").test(device));
+    }
+
+    @Test
+    void testCompile_appliesPrecedence() {
+        // When and Then
+        assertTrue(ExpressionCompiler.compile("temperature - 2 * 3 < 20").test(device));
+        assertFalse(ExpressionCompiler.compile("(temperature - 2) * 3 < 20").test(device));
+        assertTrue(ExpressionCompiler.compile("humidity % 7 == 4 && -humidity < 0").test(device));
+        assertTrue(ExpressionCompiler.compile("humidity > 90 || temperature > 20 && !occupied == false").test(device));
+        assertFalse(ExpressionCompiler.compile("(humidity > 90 || temperature > 20) && !occupied").test(device));
+    }
+
+    @Test
+    void testCompile_readsBooleanAndStringAttributes() {
+        // When and Then
+        assertTrue(ExpressionCompiler.compile("occupied").test(device));
+        assertTrue(ExpressionCompiler.compile("occupied == true").test(device));
+        assertTrue(ExpressionCompiler.compile("mode == \"eco\"").test(device));
+        assertTrue(ExpressionCompiler.compile("mode != 'comfort'").test(device));
+    }
+
+    @Test
+    void testCompile_missingAttributeNeverMatches() {
+        // When and Then
+        assertFalse(ExpressionCompiler.compile("pressure > 0").test(device));
+        assertFalse(ExpressionCompiler.compile("pressure <= 0").test(device));
+        assertFalse(ExpressionCompiler.compile("pressure").test(device));
+        assertFalse(ExpressionCompiler.compile("mode > 1").test(device));
+    }
+
+    @Test
+    void testCompile_foldsConstants() {
+        // When and Then
+        assertTrue(ExpressionCompiler.compile("1 + 2 * 3 == 7").test(null));
+        assertFalse(ExpressionCompiler.compile("true && 2 < 1").test(null));
+    }
+
+    @Test
+    void testCompile_malformedExpression() {
+        // When and Then
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("temperature >"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("(temperature > 1"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("temperature > 1 )"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("mode < \"eco\""));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("mode == \"eco"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("1.2.3 > 1"));
+    }
+
+    private static Device createDevice() {
+        var device = new Device();
+
+        device.setId(1L);
+        device.setAttributes(List.of(
+                new Attribute("temperature", 25.5f, AttributeType.FLOAT),
+                new Attribute("humidity", 60, AttributeType.INTEGER),
+                new Attribute("occupied", true, AttributeType.BOOLEAN),
+                new Attribute("mode", "eco", AttributeType.STRING)));
+
+        return device;
+    }
+}
@@ -0,0 +1,319 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.engine.model.AttributeAggregateTrigger;
+import com.hover.iot.engine.model.AttributeThresholdTrigger;
+import com.hover.iot.engine.model.AttributeWriteAction;
+import com.hover.iot.engine.model.CalendarTrigger;
+import com.hover.iot.engine.model.ExpressionTrigger;
+import com.hover.iot.engine.model.SolarTrigger;
+import com.hover.iot.engine.model.TimeOfDayTrigger;
+import com.hover.iot.entity.RuleAction;
+import com.hover.iot.enumeration.ActionType;
+import com.hover.iot.enumeration.AggregateFunction;
+import com.hover.iot.enumeration.ConditionOperator;
+import com.hover.iot.enumeration.DebounceEdge;
+import com.hover.iot.enumeration.SolarEvent;
+import com.hover.iot.enumeration.ThresholdDirection;
+import com.hover.iot.enumeration.TriggerType;
+import com.hover.iot.exception.RuleCompilationException;
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hover.iot.constants.RuleParameterConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleCompilerTest {
+
+    private final RuleCompiler ruleCompiler = new RuleCompiler();
+
+    @Test
+    void testCompile_convertsParameters() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 26));
+        var rule = RuleTestUtils.createTestRule(1L, trigger);
+
+        var action = new RuleAction();
+        action.setType(ActionType.ATTRIBUTE);
+        action.setParameters(new HashMap<>(Map.of(RULE_PARAMETER_ENTITY_ID_KEY, 3,
+                RULE_PARAMETER_ATTRIBUTES_KEY, "{\"name\":\"state\",\"value\":true,\"type\":\"BOOLEAN\"}")));
+        rule.setActions(List.of(action));
+
+        // When
+        var compiled = ruleCompiler.compile(rule);
+
+        // Then
+        var compiledTrigger = (AttributeThresholdTrigger) compiled.getTriggers().get(0);
+        assertEquals(7L, compiledTrigger.getDeviceId());
+        assertEquals(26.0, compiledTrigger.getThreshold());
+
+        var compiledAction = (AttributeWriteAction) compiled.getActions().get(0);
+        assertEquals(3L, compiledAction.deviceId());
+        assertEquals("state", compiledAction.attribute().getName());
+        assertEquals(true, compiledAction.attribute().getValue());
+    }
+
+    @Test
+    void testCompile_parsesThresholdOptions() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 26, RULE_PARAMETER_THRESHOLD_DIRECTION_KEY, "rising",
+                RULE_PARAMETER_THRESHOLD_HYSTERESIS_KEY, 0.5, RULE_PARAMETER_COOLDOWN_KEY, "5m"));
+
+        // When
+        var compiled = ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger));
+
+        // Then
+        var compiledTrigger = (AttributeThresholdTrigger) compiled.getTriggers().get(0);
+        assertEquals(ThresholdDirection.RISING, compiledTrigger.getDirection());
+        assertEquals(0.5, compiledTrigger.getHysteresis());
+        assertEquals(300_000L, compiledTrigger.getCooldownMs());
+    }
+
+    @Test
+    void testCompile_invalidThresholdDirection() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 26, RULE_PARAMETER_THRESHOLD_DIRECTION_KEY, "sideways"));
+
+        // When and Then
+        assertThrows(RuleCompilationException.class,
+                () -> ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger)));
+    }
+
+    @Test
+    void testCompile_parsesAggregateTrigger() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_AGGREGATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_AGGREGATE_KEY, "average", RULE_PARAMETER_WINDOW_KEY, "10m",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 26));
+
+        // When
+        var compiled = ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger));
+
+        // Then
+        var compiledTrigger = (AttributeAggregateTrigger) compiled.getTriggers().get(0);
+        assertEquals(7L, compiledTrigger.getDeviceId());
+        assertEquals(AggregateFunction.AVERAGE, compiledTrigger.getFunction());
+    }
+
+    @Test
+    void testCompile_sharesAggregateWindows() {
+        // Given
+        var average = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_AGGREGATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_AGGREGATE_KEY, "average", RULE_PARAMETER_WINDOW_KEY, "10m",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 26));
+        var max = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_AGGREGATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_AGGREGATE_KEY, "max", RULE_PARAMETER_WINDOW_KEY, "10m",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 30));
+        var longer = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_AGGREGATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_AGGREGATE_KEY, "average", RULE_PARAMETER_WINDOW_KEY, "60m",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 26));
+
+        // When
+        var first = (AttributeAggregateTrigger) ruleCompiler.compile(RuleTestUtils.createTestRule(1L, average))
+                .getTriggers().get(0);
+        var second = (AttributeAggregateTrigger) ruleCompiler.compile(RuleTestUtils.createTestRule(2L, max))
+                .getTriggers().get(0);
+        var third = (AttributeAggregateTrigger) ruleCompiler.compile(RuleTestUtils.createTestRule(3L, longer))
+                .getTriggers().get(0);
+
+        // Then
+        assertSame(first.getWindow(), second.getWindow());
+        assertNotSame(first.getWindow(), third.getWindow());
+    }
+
+    @Test
+    void testCompile_aggregateTriggerMissingWindow() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_AGGREGATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_AGGREGATE_KEY, "max", RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 26));
+
+        // When and Then
+        assertThrows(RuleCompilationException.class,
+                () -> ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger)));
+    }
+
+    @Test
+    void testCompile_negationRequiresAndOperator() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_STATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_ATTRIBUTE_KEY, "locked",
+                RULE_PARAMETER_VALUE_KEY, true, RULE_PARAMETER_NEGATE_KEY, "true"));
+        var rule = RuleTestUtils.createTestRule(1L, trigger);
+
+        // When and Then
+        assertThrows(RuleCompilationException.class, () -> ruleCompiler.compile(rule));
+
+        rule.setConditionOperator(ConditionOperator.AND);
+        assertNotNull(ruleCompiler.compile(rule).getConditionState());
+    }
+
+    @Test
+    void testCompile_parsesTimeOfDay() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.TIME_OF_DAY,
+                Map.of(RULE_PARAMETER_TIME_OF_DAY_KEY, "07:30"));
+
+        // When
+        var compiled = ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger));
+
+        // Then
+        assertEquals(LocalTime.of(7, 30), ((TimeOfDayTrigger) compiled.getTriggers().get(0)).time());
+    }
+
+    @Test
+    void testCompile_parsesSolarTrigger() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.SOLAR, Map.of(
+                RULE_PARAMETER_SOLAR_EVENT_KEY, "sunset", RULE_PARAMETER_OFFSET_KEY, "-15m"));
+
+        // When
+        var compiled = new RuleCompiler(52.37, 4.9).compile(RuleTestUtils.createTestRule(1L, trigger));
+
+        // Then
+        var solarTrigger = (SolarTrigger) compiled.getTriggers().get(0);
+        assertEquals(SolarEvent.SUNSET, solarTrigger.event());
+        assertEquals(52.37, solarTrigger.latitude());
+        assertEquals(4.9, solarTrigger.longitude());
+        assertEquals(-15 * 60_000L, solarTrigger.offsetMs());
+    }
+
+    @Test
+    void testCompile_solarTriggerRequiresLocation() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.SOLAR,
+                Map.of(RULE_PARAMETER_SOLAR_EVENT_KEY, "SUNRISE", RULE_PARAMETER_LATITUDE_KEY, 52.37));
+
+        // When and Then
+        assertThrows(RuleCompilationException.class,
+                () -> ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger)));
+    }
+
+    @Test
+    void testCompile_parsesCalendarTrigger() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.CALENDAR, Map.of(
+                RULE_PARAMETER_CRON_KEY, "0 30 7 * * MON-FRI",
+                RULE_PARAMETER_EXCEPT_DATES_KEY, List.of("2026-12-25", "2026-12-26")));
+
+        // When
+        var compiled = ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger));
+
+        // Then
+        var calendarTrigger = (CalendarTrigger) compiled.getTriggers().get(0);
+        assertEquals("0 30 7 * * MON-FRI", calendarTrigger.expression().toString());
+        assertEquals(2, calendarTrigger.exceptDates().size());
+        assertTrue(calendarTrigger.exceptDates().contains(LocalDate.of(2026, 12, 25)));
+    }
+
+    @Test
+    void testCompile_calendarThatNeverFires() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.CALENDAR,
+                Map.of(RULE_PARAMETER_CRON_KEY, "0 0 0 30 2 *"));
+
+        // When and Then
+        assertThrows(RuleCompilationException.class,
+                () -> ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger)));
+    }
+
+    @Test
+    void testCompile_parsesExpressionTrigger() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.EXPRESSION, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_EXPRESSION_KEY, "temperature > 24 && humidity >= 60"));
+
+        // When
+        var compiled = ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger));
+
+        // Then
+        var expressionTrigger = (ExpressionTrigger) compiled.getTriggers().get(0);
+        assertEquals(7L, expressionTrigger.getDeviceId());
+        assertEquals("temperature > 24 && humidity >= 60", expressionTrigger.getExpression());
+    }
+
+    @Test
+    void testCompile_malformedExpression() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.EXPRESSION, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 7, RULE_PARAMETER_EXPRESSION_KEY, "temperature > "));
+
+        // When and Then
+        assertThrows(RuleCompilationException.class,
+                () -> ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger)));
+    }
+
+    @Test
+    void testCompile_missingParameter() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD,
+                Map.of(RULE_PARAMETER_ENTITY_ID_KEY, 7L));
+
+        // When and Then
+        assertThrows(RuleCompilationException.class,
+                () -> ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger)));
+    }
+
+    @Test
+    void testCompile_invalidTimeOfDay() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.TIME_OF_DAY,
+                Map.of(RULE_PARAMETER_TIME_OF_DAY_KEY, "half past seven"));
+
+        // When and Then
+        assertThrows(RuleCompilationException.class,
+                () -> ruleCompiler.compile(RuleTestUtils.createTestRule(1L, trigger)));
+    }
+
+    @Test
+    void testCompile_missingId() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        rule.setId(null);
+
+        // When and Then
+        assertThrows(RuleCompilationException.class, () -> ruleCompiler.compile(rule));
+    }
+
+    @Test
+    void testCompile_negativeDebounceWindow() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        rule.setDebounceMs(-1L);
+
+        // When and Then
+        assertThrows(RuleCompilationException.class, () -> ruleCompiler.compile(rule));
+    }
+
+    @Test
+    void testCompile_debounceDefaultsToLeadingEdge() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        rule.setDebounceMs(500L);
+        rule.setDebounceEdge(null);
+
+        // When
+        var compiled = ruleCompiler.compile(rule);
+
+        // Then
+        assertEquals(500L, compiled.getDebouncer().getWindowMs());
+        assertEquals(DebounceEdge.LEADING, compiled.getDebouncer().getEdge());
+        assertNull(ruleCompiler.compile(RuleTestUtils.createTestRule(2L,
+                RuleTestUtils.createTestAttributeChangeTrigger(1L))).getDebouncer());
+    }
+}
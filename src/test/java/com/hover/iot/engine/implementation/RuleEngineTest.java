@@ -0,0 +1,991 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.engine.IRuleFiringListener;
+import com.hover.iot.engine.metrics.RuleEngineMetrics;
+import com.hover.iot.engine.model.AttributeAggregateTrigger;
+import com.hover.iot.engine.model.CausalityChain;
+import com.hover.iot.engine.model.DeviceUpdate;
+import com.hover.iot.engine.model.RuleExecution;
+import com.hover.iot.engine.model.RuleFiring;
+import com.hover.iot.engine.scheduler.TriggerScheduler;
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.entity.Rule;
+import com.hover.iot.entity.RuleTrigger;
+import com.hover.iot.enumeration.AggregateFunction;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.enumeration.ConditionOperator;
+import com.hover.iot.enumeration.DebounceEdge;
+import com.hover.iot.enumeration.ExecutionOutcome;
+import com.hover.iot.enumeration.TriggerType;
+import com.hover.iot.event.AttributeActionEvent;
+import com.hover.iot.event.NotifyActionEvent;
+import com.hover.iot.exception.RuleCompilationException;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import com.hover.iot.test.utils.MutableClock;
+import com.hover.iot.test.utils.RuleTestUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.hover.iot.constants.RuleParameterConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RuleEngineTest {
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private MutableClock clock;
+
+    private TriggerScheduler triggerScheduler;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RuleEngineMetrics metrics;
+
+    private RuleEngine ruleEngine;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        clock = new MutableClock(Instant.parse("2026-01-01T08:00:00Z"), ZoneOffset.UTC);
+        triggerScheduler = new TriggerScheduler(clock, Runnable::run);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new RuleEngineMetrics(meterRegistry, true);
+        ruleEngine = new RuleEngine(eventPublisher, new RuleCompiler(), triggerScheduler,
+                new CascadeGuard(8, 600, clock), new ActionCoalescer(0, clock), metrics);
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_onlyMatchingRulesFire() {
+        // Given
+        for (long id = 1; id <= 100; id++) {
+            ruleEngine.registerRule(RuleTestUtils.createTestRule(id,
+                    RuleTestUtils.createTestAttributeChangeTrigger(id)));
+        }
+
+        // When
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(42L));
+
+        // Then
+        var captor = ArgumentCaptor.forClass(NotifyActionEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(42L, captor.getValue().getNotificationId());
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_integerEntityId() {
+        // Given
+        var trigger = RuleTestUtils.createTestAttributeChangeTrigger(1L);
+        trigger.getParameters().put("P_ENTITY_ID", 1);
+
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, trigger));
+
+        // When
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testUnregisterRule_removesIndexEntries() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        ruleEngine.registerRule(rule);
+
+        // When
+        ruleEngine.unregisterRule(RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testRegisterRule_replacesRuleWithSameId() {
+        // Given
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+
+        // When
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(2L)));
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(2L));
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_attributeThreshold() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 1L, RULE_PARAMETER_ATTRIBUTE_KEY, "brightness",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 50.0));
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, trigger));
+
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        // When
+        device.setAttributes(List.of(new Attribute("brightness", 10, AttributeType.INTEGER)));
+        ruleEngine.evaluatePossibleTrigger(device);
+        device.setAttributes(List.of(new Attribute("brightness", 51, AttributeType.INTEGER)));
+        ruleEngine.evaluatePossibleTrigger(device);
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_attributeAggregate() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_AGGREGATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 1L, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_AGGREGATE_KEY, "AVERAGE", RULE_PARAMETER_WINDOW_KEY, "10m",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 26.0, RULE_PARAMETER_THRESHOLD_DIRECTION_KEY, "RISING",
+                RULE_PARAMETER_THRESHOLD_HYSTERESIS_KEY, 1.0));
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, trigger));
+
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        // When
+        for (var temperature : List.of(24, 25, 30, 24, 31, 32, 33)) {
+            device.setAttributes(List.of(new Attribute("temperature", temperature, AttributeType.INTEGER)));
+            ruleEngine.evaluatePossibleTrigger(device);
+            clock.advance(Duration.ofMinutes(1));
+        }
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_attributeHeldForDuration() {
+        // Given
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, createTestHeldTrigger(1L, "5m")));
+
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        // When
+        setDoorOpen(device, true);
+        clock.advance(Duration.ofMinutes(4));
+        triggerScheduler.advance();
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+
+        clock.advance(Duration.ofMinutes(1));
+        triggerScheduler.advance();
+        setDoorOpen(device, true);
+        clock.advance(Duration.ofMinutes(10));
+        triggerScheduler.advance();
+
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+        assertEquals(0, triggerScheduler.size());
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_attributeHeldFlipsBack() {
+        // Given
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, createTestHeldTrigger(1L, "5m")));
+
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        // When
+        setDoorOpen(device, true);
+        clock.advance(Duration.ofMinutes(3));
+        setDoorOpen(device, false);
+
+        // Then
+        assertEquals(0, triggerScheduler.size());
+
+        clock.advance(Duration.ofMinutes(1));
+        setDoorOpen(device, true);
+        clock.advance(Duration.ofMinutes(3));
+        triggerScheduler.advance();
+
+        verify(eventPublisher, never()).publishEvent(any());
+
+        clock.advance(Duration.ofMinutes(2));
+        triggerScheduler.advance();
+
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_manyArmedHeldTriggers() {
+        // Given
+        var count = 10_000L;
+
+        for (long id = 1; id <= count; id++) {
+            ruleEngine.registerRule(RuleTestUtils.createTestRule(id, createTestHeldTrigger(id, "30m")));
+        }
+
+        // When
+        for (long id = 1; id <= count; id++) {
+            setDoorOpen(DeviceTestUtils.createTestDevice(id), true);
+            clock.advance(Duration.ofMillis(100));
+        }
+
+        assertEquals(count, triggerScheduler.size());
+
+        clock.advance(Duration.ofMinutes(30));
+        triggerScheduler.advance();
+
+        // Then
+        verify(eventPublisher, times((int) count)).publishEvent(any(NotifyActionEvent.class));
+        assertEquals(0, triggerScheduler.size());
+    }
+
+    @Test
+    void testUnregisterRule_cancelsHeldTimer() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, createTestHeldTrigger(1L, "5m"));
+        ruleEngine.registerRule(rule);
+        setDoorOpen(DeviceTestUtils.createTestDevice(1L), true);
+
+        // When
+        ruleEngine.unregisterRule(rule);
+        clock.advance(Duration.ofMinutes(10));
+        triggerScheduler.advance();
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(0, triggerScheduler.size());
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_allConditionsAcrossDevices() {
+        // Given
+        var motion = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_STATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 1L, RULE_PARAMETER_ATTRIBUTE_KEY, "motion", RULE_PARAMETER_VALUE_KEY, true));
+        var night = RuleTestUtils.createTestTrigger(TriggerType.TIME_WINDOW, Map.of(
+                RULE_PARAMETER_TIME_FROM_KEY, "22:00", RULE_PARAMETER_TIME_TO_KEY, "06:00"));
+        var locked = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_STATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 2L, RULE_PARAMETER_ATTRIBUTE_KEY, "locked", RULE_PARAMETER_VALUE_KEY, true));
+
+        var rule = RuleTestUtils.createTestRule(1L, motion);
+        rule.setTriggers(List.of(motion, night, locked));
+        rule.setConditionOperator(ConditionOperator.AND);
+        ruleEngine.registerRule(rule);
+
+        var hallway = DeviceTestUtils.createTestDevice(1L);
+        var door = DeviceTestUtils.createTestDevice(2L);
+
+        // When
+        setAttribute(door, "locked", true);
+        setAttribute(hallway, "motion", true);
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+
+        clock.advance(Duration.ofHours(14));
+        triggerScheduler.advance();
+
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+
+        setAttribute(hallway, "motion", true);
+        setAttribute(door, "locked", true);
+
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+
+        setAttribute(hallway, "motion", false);
+        setAttribute(hallway, "motion", true);
+
+        verify(eventPublisher, times(2)).publishEvent(any(NotifyActionEvent.class));
+
+        setAttribute(door, "locked", false);
+        setAttribute(hallway, "motion", false);
+        setAttribute(hallway, "motion", true);
+
+        verify(eventPublisher, times(2)).publishEvent(any(NotifyActionEvent.class));
+
+        clock.advance(Duration.ofHours(8));
+        triggerScheduler.advance();
+        setAttribute(door, "locked", true);
+
+        verify(eventPublisher, times(2)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_negatedCondition() {
+        // Given
+        var change = RuleTestUtils.createTestAttributeChangeTrigger(1L);
+        var locked = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_STATE, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 2L, RULE_PARAMETER_ATTRIBUTE_KEY, "locked", RULE_PARAMETER_VALUE_KEY, true,
+                RULE_PARAMETER_NEGATE_KEY, true));
+
+        var rule = RuleTestUtils.createTestRule(1L, change);
+        rule.setTriggers(List.of(change, locked));
+        rule.setConditionOperator(ConditionOperator.AND);
+        ruleEngine.registerRule(rule);
+
+        var device = DeviceTestUtils.createTestDevice(1L);
+        var door = DeviceTestUtils.createTestDevice(2L);
+
+        // When
+        setAttribute(door, "locked", true);
+        ruleEngine.evaluatePossibleTrigger(device);
+        setAttribute(door, "locked", false);
+        ruleEngine.evaluatePossibleTrigger(device);
+        ruleEngine.evaluatePossibleTrigger(device);
+
+        // Then
+        verify(eventPublisher, times(2)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_anyTriggerFiresOncePerUpdate() {
+        // Given
+        var change = RuleTestUtils.createTestAttributeChangeTrigger(1L);
+        var secondChange = RuleTestUtils.createTestAttributeChangeTrigger(1L);
+
+        var rule = RuleTestUtils.createTestRule(1L, change);
+        rule.setTriggers(List.of(change, secondChange));
+        ruleEngine.registerRule(rule);
+
+        // When
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testRegisterRule_malformedRule() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD,
+                Map.of(RULE_PARAMETER_ENTITY_ID_KEY, 1L));
+
+        // When and Then
+        assertThrows(RuleCompilationException.class,
+                () -> ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, trigger)));
+
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testRegisterRules_registersAllRules() {
+        // Given
+        var rules = new ArrayList<Rule>();
+
+        for (long id = 1; id <= 1000; id++) {
+            rules.add(RuleTestUtils.createTestRule(id, RuleTestUtils.createTestAttributeChangeTrigger(id % 10)));
+        }
+
+        // When
+        var registered = ruleEngine.registerRules(rules);
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(3L));
+
+        // Then
+        assertEquals(1000, registered);
+        verify(eventPublisher, times(100)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testRegisterRules_skipsMalformedRules() {
+        // Given
+        var malformed = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD,
+                Map.of(RULE_PARAMETER_ENTITY_ID_KEY, 1L));
+        var rules = List.of(
+                RuleTestUtils.createTestRule(1L, malformed),
+                RuleTestUtils.createTestRule(2L, RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+
+        // When
+        var registered = ruleEngine.registerRules(rules);
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+
+        // Then
+        assertEquals(1, registered);
+        var captor = ArgumentCaptor.forClass(NotifyActionEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(2L, captor.getValue().getNotificationId());
+    }
+
+    @Test
+    void testRegisterRules_replacesRegisteredRules() {
+        // Given
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+
+        // When
+        ruleEngine.registerRules(List.of(
+                RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(2L))));
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(2L));
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testRegisterRule_notBlockedBySlowAction() throws Exception {
+        // Given
+        var actionStarted = new CountDownLatch(1);
+        var releaseAction = new CountDownLatch(1);
+        var blockingEngine = new RuleEngine(event -> {
+            actionStarted.countDown();
+            try {
+                releaseAction.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, new RuleCompiler(), triggerScheduler, new CascadeGuard(8, 600, clock),
+                new ActionCoalescer(0, clock), metrics);
+
+        blockingEngine.registerRule(RuleTestUtils.createTestRule(1L,
+                RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+
+        var evaluation = CompletableFuture.runAsync(() ->
+                blockingEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L)));
+        assertTrue(actionStarted.await(5, TimeUnit.SECONDS));
+
+        // When
+        var registration = CompletableFuture.runAsync(() -> blockingEngine.registerRule(
+                RuleTestUtils.createTestRule(2L, RuleTestUtils.createTestAttributeChangeTrigger(2L))));
+
+        // Then
+        assertDoesNotThrow(() -> registration.get(5, TimeUnit.SECONDS));
+
+        releaseAction.countDown();
+        evaluation.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testRegisterRule_timeOfDayRecursDaily() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.TIME_OF_DAY,
+                Map.of(RULE_PARAMETER_TIME_OF_DAY_KEY, "07:00"));
+
+        // When
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, trigger));
+
+        clock.advance(Duration.ofHours(12));
+        triggerScheduler.advance();
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+
+        for (int day = 1; day <= 3; day++) {
+            clock.advance(Duration.ofDays(1));
+            triggerScheduler.advance();
+
+            verify(eventPublisher, times(day)).publishEvent(any(NotifyActionEvent.class));
+        }
+
+        assertEquals(1, triggerScheduler.size());
+    }
+
+    @Test
+    void testRegisterRule_calendarSkipsExceptDates() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.CALENDAR, Map.of(
+                RULE_PARAMETER_CRON_KEY, "0 0 7 * * MON-FRI", RULE_PARAMETER_EXCEPT_DATES_KEY, "2026-01-02"));
+
+        // When
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, trigger));
+
+        for (int day = 1; day <= 5; day++) {
+            clock.advance(Duration.ofDays(1));
+            triggerScheduler.advance();
+        }
+
+        // Then
+        verify(eventPublisher, times(2)).publishEvent(any(NotifyActionEvent.class));
+        assertEquals(1, triggerScheduler.size());
+    }
+
+    @Test
+    void testRegisterRule_solarTriggerFiresAtOffsetFromSunrise() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.SOLAR, Map.of(
+                RULE_PARAMETER_SOLAR_EVENT_KEY, "SUNRISE", RULE_PARAMETER_OFFSET_KEY, "-30m",
+                RULE_PARAMETER_LATITUDE_KEY, 51.5074, RULE_PARAMETER_LONGITUDE_KEY, -0.1278));
+
+        // When
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, trigger));
+
+        clock.advance(Duration.ofHours(1));
+        triggerScheduler.advance();
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+
+        clock.advance(Duration.ofHours(23));
+        triggerScheduler.advance();
+
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testUnregisterRule_cancelsSchedule() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.TIME_OF_DAY,
+                Map.of(RULE_PARAMETER_TIME_OF_DAY_KEY, "09:00"));
+        var rule = RuleTestUtils.createTestRule(1L, trigger);
+        ruleEngine.registerRule(rule);
+
+        // When
+        ruleEngine.unregisterRule(rule);
+        clock.advance(Duration.ofDays(2));
+        triggerScheduler.advance();
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(0, triggerScheduler.size());
+    }
+
+    private RuleTrigger createTestHeldTrigger(Long deviceId, String duration) {
+        return RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_HELD, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, deviceId, RULE_PARAMETER_ATTRIBUTE_KEY, "open",
+                RULE_PARAMETER_VALUE_KEY, true, RULE_PARAMETER_DURATION_KEY, duration));
+    }
+
+    private void setDoorOpen(Device device, boolean open) {
+        setAttribute(device, "open", open);
+    }
+
+    private void setAttribute(Device device, String name, boolean value) {
+        device.setAttributes(List.of(new Attribute(name, value, AttributeType.BOOLEAN)));
+        ruleEngine.evaluatePossibleTrigger(device);
+    }
+
+    @Test
+    void testEvaluatePossibleTriggers_evaluatesBatchInOnePass() {
+        // Given
+        for (long id = 1; id <= 3; id++) {
+            ruleEngine.registerRule(RuleTestUtils.createTestRule(id, RuleTestUtils.createTestAttributeChangeTrigger(id)));
+        }
+
+        // When
+        ruleEngine.evaluatePossibleTriggers(List.of(
+                new DeviceUpdate(DeviceTestUtils.createTestDevice(1L), null, CausalityChain.ROOT),
+                new DeviceUpdate(DeviceTestUtils.createTestDevice(3L), null, CausalityChain.ROOT),
+                new DeviceUpdate(DeviceTestUtils.createTestDevice(2L), null, CausalityChain.ROOT.then(2L))));
+
+        // Then
+        var captor = ArgumentCaptor.forClass(NotifyActionEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertEquals(List.of(1L, 3L), captor.getAllValues().stream().map(NotifyActionEvent::getNotificationId).toList());
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_ruleLoopStopsAtFirstRepeat() {
+        // Given
+        var published = new ArrayList<ApplicationEvent>();
+        var cascadingEngine = createCascadingEngine(published, new CascadeGuard(8, 600, clock));
+
+        cascadingEngine.registerRule(createTestWriteRule(1L, 1L, 2L));
+        cascadingEngine.registerRule(createTestWriteRule(2L, 2L, 1L));
+
+        // When
+        cascadingEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+
+        // Then
+        assertEquals(2, published.size());
+        assertEquals(2L, ((AttributeActionEvent) published.get(0)).getDevice());
+        assertEquals(1L, ((AttributeActionEvent) published.get(1)).getDevice());
+        assertEquals(2, ((AttributeActionEvent) published.get(1)).getCausalityChain().getDepth());
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_cascadeStopsAtMaximumDepth() {
+        // Given
+        var published = new ArrayList<ApplicationEvent>();
+        var cascadingEngine = createCascadingEngine(published, new CascadeGuard(5, 600, clock));
+
+        for (long id = 1; id <= 20; id++) {
+            cascadingEngine.registerRule(createTestWriteRule(id, id, id + 1));
+        }
+
+        // When
+        cascadingEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+
+        // Then
+        assertEquals(5, published.size());
+        assertEquals(6L, ((AttributeActionEvent) published.get(4)).getDevice());
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_ruleInCausalityChainDoesNotFire() {
+        // Given
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+
+        // When
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L), CausalityChain.ROOT.then(1L));
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_firingRateLimited() {
+        // Given
+        var limitedEngine = new RuleEngine(eventPublisher, new RuleCompiler(), triggerScheduler,
+                new CascadeGuard(8, 10, clock), new ActionCoalescer(0, clock), metrics);
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        limitedEngine.registerRule(RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limitedEngine.evaluatePossibleTrigger(device);
+        }
+
+        clock.advance(Duration.ofSeconds(30));
+
+        for (int i = 0; i < 20; i++) {
+            limitedEngine.evaluatePossibleTrigger(device);
+        }
+
+        // Then
+        verify(eventPublisher, times(15)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_leadingDebounceExecutesFirstFiring() {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+        ruleEngine.registerRule(createTestDebouncedRule(DebounceEdge.LEADING));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            ruleEngine.evaluatePossibleTrigger(device);
+        }
+
+        clock.advance(Duration.ofSeconds(1));
+        triggerScheduler.advance();
+        ruleEngine.evaluatePossibleTrigger(device);
+
+        // Then
+        verify(eventPublisher, times(2)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_trailingDebounceExecutesOncePerWindow() {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+        ruleEngine.registerRule(createTestDebouncedRule(DebounceEdge.TRAILING));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            ruleEngine.evaluatePossibleTrigger(device);
+        }
+
+        verify(eventPublisher, never()).publishEvent(any());
+
+        clock.advance(Duration.ofSeconds(1));
+        triggerScheduler.advance();
+        clock.advance(Duration.ofSeconds(1));
+        triggerScheduler.advance();
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_debounceOnBothEdges() {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+        ruleEngine.registerRule(createTestDebouncedRule(DebounceEdge.BOTH));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            ruleEngine.evaluatePossibleTrigger(device);
+        }
+
+        verify(eventPublisher, times(1)).publishEvent(any(NotifyActionEvent.class));
+
+        clock.advance(Duration.ofSeconds(1));
+        triggerScheduler.advance();
+
+        // Then
+        verify(eventPublisher, times(2)).publishEvent(any(NotifyActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_identicalCommandsCoalesced() {
+        // Given
+        var coalescingEngine = new RuleEngine(eventPublisher, new RuleCompiler(), triggerScheduler,
+                new CascadeGuard(8, 600, clock), new ActionCoalescer(250, clock), metrics);
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        coalescingEngine.registerRule(createTestWriteRule(1L, 1L, 5L));
+        coalescingEngine.registerRule(createTestWriteRule(2L, 1L, 5L));
+
+        // When
+        coalescingEngine.evaluatePossibleTrigger(device);
+        coalescingEngine.evaluatePossibleTrigger(device);
+        clock.advance(Duration.ofMillis(300));
+        coalescingEngine.evaluatePossibleTrigger(device);
+
+        // Then
+        verify(eventPublisher, times(2)).publishEvent(any(AttributeActionEvent.class));
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_recordsRuleMetrics() {
+        // Given
+        ruleEngine.registerRule(RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+        doThrow(new IllegalStateException("Failed")).when(eventPublisher).publishEvent(any(NotifyActionEvent.class));
+
+        // When
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(2L));
+
+        // Then
+        assertEquals(2, meterRegistry.get("rule.evaluation").tag("rule", "1").functionTimer().count());
+        assertEquals(2, meterRegistry.get("rule.firings").tag("rule", "1").functionCounter().count());
+        assertEquals(2, meterRegistry.get("rule.action.failures").tag("rule", "1").functionCounter().count());
+        assertEquals(2, meterRegistry.get("rule.engine.firings").functionCounter().count());
+        assertEquals(2, meterRegistry.get("rule.engine.action.failures").tag("type", "NOTIFICATION").counter().count());
+        assertEquals(3, meterRegistry.get("rule.engine.evaluation").timer().count());
+    }
+
+    @Test
+    void testEvaluatePossibleTrigger_notifiesExecutionOutcome() {
+        // Given
+        var executions = new ArrayList<RuleExecution>();
+        ruleEngine.addFiringListener(new IRuleFiringListener() {
+            @Override
+            public void onRuleFired(@NotNull RuleFiring firing) {
+            }
+
+            @Override
+            public void onRuleExecuted(@NotNull RuleExecution execution) {
+                executions.add(execution);
+            }
+        });
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(2L));
+        rule.setTriggers(List.of(RuleTestUtils.createTestAttributeChangeTrigger(2L),
+                RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+        ruleEngine.registerRule(rule);
+        doNothing().doThrow(new IllegalStateException("Failed"))
+                .when(eventPublisher).publishEvent(any(NotifyActionEvent.class));
+
+        // When
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+        ruleEngine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+
+        // Then
+        assertEquals(2, executions.size());
+        assertEquals(1L, executions.get(0).deviceId());
+        assertEquals(1, executions.get(0).trigger());
+        assertEquals(TriggerType.ATTRIBUTE_CHANGE, executions.get(0).triggerType());
+        assertEquals(ExecutionOutcome.SUCCEEDED, executions.get(0).getOutcome());
+        assertEquals(ExecutionOutcome.FAILED, executions.get(1).getOutcome());
+        assertEquals("Failed", executions.get(1).error());
+    }
+
+    @Test
+    void testRegisterRule_replacedVersionDoesNotFireFromEarlierSnapshot() {
+        // Given
+        var engine = new RuleEngine[1];
+        var updated = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(3L));
+        var published = new ArrayList<Long>();
+
+        engine[0] = new RuleEngine(event -> {
+            var notification = (NotifyActionEvent) event;
+            published.add(notification.getNotificationId());
+
+            if (notification.getNotificationId() == 2L)
+                engine[0].registerRule(updated);
+        }, new RuleCompiler(), triggerScheduler, new CascadeGuard(8, 600, clock), new ActionCoalescer(0, clock),
+                metrics);
+        engine[0].registerRule(RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(2L)));
+        engine[0].registerRule(RuleTestUtils.createTestRule(2L, RuleTestUtils.createTestAttributeChangeTrigger(1L)));
+
+        // When
+        engine[0].evaluatePossibleTriggers(List.of(
+                new DeviceUpdate(DeviceTestUtils.createTestDevice(1L), null, CausalityChain.ROOT),
+                new DeviceUpdate(DeviceTestUtils.createTestDevice(2L), null, CausalityChain.ROOT)));
+        engine[0].evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(3L));
+
+        // Then
+        assertEquals(List.of(2L, 1L), published);
+    }
+
+    @Test
+    void testRegisterRule_oldAndNewVersionsNeverBothFireWhileReplaced() throws InterruptedException {
+        // Given
+        var published = new ArrayList<Long>();
+        var engine = new RuleEngine(event -> published.add(((NotifyActionEvent) event).getNotificationId()),
+                new RuleCompiler(), triggerScheduler, new CascadeGuard(8, 0, clock), new ActionCoalescer(0, clock),
+                metrics);
+        engine.registerRule(createTwoDeviceRule(1L));
+
+        var done = new CountDownLatch(1);
+        var evaluator = new Thread(() -> {
+            while (done.getCount() > 0) {
+                engine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(1L));
+                engine.evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(2L));
+            }
+        });
+        evaluator.start();
+
+        // When
+        for (long version = 2; version <= 2_000; version++) {
+            engine.registerRule(createTwoDeviceRule(version));
+        }
+        done.countDown();
+        evaluator.join(10_000);
+
+        // Then
+        for (int i = 1; i < published.size(); i++) {
+            assertTrue(published.get(i - 1) <= published.get(i),
+                    "Version " + published.get(i) + " fired after version " + published.get(i - 1));
+        }
+    }
+
+    @Test
+    void testEvaluatePossibleTriggers_addsEachAttributeUpdateToSharedWindowOnce() {
+        // Given
+        var ruleCompiler = new RuleCompiler();
+        var engine = new RuleEngine(eventPublisher, ruleCompiler, triggerScheduler, new CascadeGuard(8, 600, clock),
+                new ActionCoalescer(0, clock), metrics);
+        engine.registerRule(createTestAggregateRule(1L));
+        var window = ((AttributeAggregateTrigger) ruleCompiler.compile(createTestAggregateRule(1L)).getTriggers()
+                .get(0)).getWindow();
+
+        // When
+        engine.evaluatePossibleTriggers(List.of(
+                new DeviceUpdate(createTestClimateDevice(20), "temperature", CausalityChain.ROOT),
+                new DeviceUpdate(createTestClimateDevice(20), "temperature", CausalityChain.ROOT.then(5L))));
+        engine.registerRule(createTestAggregateRule(2L));
+        engine.evaluatePossibleTrigger(createTestClimateDevice(50), "humidity", CausalityChain.ROOT);
+        engine.evaluatePossibleTrigger(createTestClimateDevice(50), "temperature", CausalityChain.ROOT);
+
+        // Then
+        assertEquals(30.0, window.aggregate(AggregateFunction.AVERAGE, clock.millis()));
+    }
+
+    @Test
+    void testUnregisterRule_removesRuleMetrics() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        ruleEngine.registerRule(rule);
+
+        // When
+        ruleEngine.unregisterRule(rule);
+
+        // Then
+        assertNull(meterRegistry.find("rule.firings").tag("rule", "1").functionCounter());
+        assertNull(meterRegistry.find("rule.evaluation").tag("rule", "1").functionTimer());
+    }
+
+    /**
+     * Creates a rule engine whose attribute write actions immediately update the written device, as the device service
+     * does, so that rules can trigger each other.
+     *
+     * @param published    The list the published events are recorded in.
+     * @param cascadeGuard The guard that bounds the cascades.
+     * @return The created rule engine.
+     */
+    private RuleEngine createCascadingEngine(List<ApplicationEvent> published, CascadeGuard cascadeGuard) {
+        var engine = new RuleEngine[1];
+
+        engine[0] = new RuleEngine(event -> {
+            published.add((ApplicationEvent) event);
+
+            if (event instanceof AttributeActionEvent actionEvent)
+                engine[0].evaluatePossibleTrigger(DeviceTestUtils.createTestDevice(actionEvent.getDevice()),
+                        actionEvent.getCausalityChain());
+        }, new RuleCompiler(), triggerScheduler, cascadeGuard, new ActionCoalescer(0, clock), metrics);
+
+        return engine[0];
+    }
+
+    /**
+     * Creates a rule that writes an attribute of a device whenever another device changes.
+     *
+     * @param id       The id of the rule.
+     * @param deviceId The id of the device that triggers the rule.
+     * @param targetId The id of the device the rule writes.
+     * @return The created rule.
+     */
+    private static Rule createTestWriteRule(Long id, Long deviceId, Long targetId) {
+        var rule = RuleTestUtils.createTestRule(id, RuleTestUtils.createTestAttributeChangeTrigger(deviceId));
+
+        rule.setActions(List.of(RuleTestUtils.createTestAttributeWriteAction(targetId,
+                new Attribute("power", true, AttributeType.BOOLEAN))));
+
+        return rule;
+    }
+
+    /**
+     * Creates a rule debounced with a one second window that fires whenever device 1 changes.
+     *
+     * @param edge The edges of the window on which the rule executes.
+     * @return The created rule.
+     */
+    private static Rule createTestDebouncedRule(DebounceEdge edge) {
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+
+        rule.setDebounceMs(1000L);
+        rule.setDebounceEdge(edge);
+
+        return rule;
+    }
+
+    /**
+     * Creates a version of rule 1 that triggers on updates of devices 1 and 2 and notifies the version, so that the
+     * version that fired can be told apart.
+     *
+     * @param version The version of the rule.
+     * @return The rule.
+     */
+    private static Rule createTwoDeviceRule(long version) {
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+
+        rule.setTriggers(List.of(RuleTestUtils.createTestAttributeChangeTrigger(1L),
+                RuleTestUtils.createTestAttributeChangeTrigger(2L)));
+        rule.setActions(List.of(RuleTestUtils.createTestNotificationAction(version, "Version " + version)));
+
+        return rule;
+    }
+
+    /**
+     * Creates a rule that fires when the average temperature of device 1 over 10 minutes rises above 40.
+     *
+     * @param id The id of the rule.
+     * @return The created rule.
+     */
+    private static Rule createTestAggregateRule(Long id) {
+        return RuleTestUtils.createTestRule(id, RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_AGGREGATE,
+                Map.of(RULE_PARAMETER_ENTITY_ID_KEY, 1L, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                        RULE_PARAMETER_AGGREGATE_KEY, "average", RULE_PARAMETER_WINDOW_KEY, "10m",
+                        RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 40)));
+    }
+
+    /**
+     * Creates device 1 reporting a temperature and a humidity.
+     *
+     * @param temperature The reported temperature.
+     * @return The created device.
+     */
+    private static Device createTestClimateDevice(int temperature) {
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        device.setAttributes(List.of(new Attribute("temperature", temperature, AttributeType.INTEGER),
+                new Attribute("humidity", 45, AttributeType.INTEGER)));
+
+        return device;
+    }
+}
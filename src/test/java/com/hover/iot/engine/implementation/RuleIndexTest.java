@@ -0,0 +1,58 @@
+package com.hover.iot.engine.implementation;
+
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleIndexTest {
+
+    private final RuleCompiler ruleCompiler = new RuleCompiler();
+
+    private final RuleIndex ruleIndex = new RuleIndex();
+
+    @Test
+    void testPut_replacesOnlyTheChangedDevicesEntries() {
+        // Given
+        var first = ruleCompiler.compile(RuleTestUtils.createTestRule(1L,
+                RuleTestUtils.createTestAttributeChangeTrigger(10L)));
+        var second = ruleCompiler.compile(RuleTestUtils.createTestRule(2L,
+                RuleTestUtils.createTestAttributeChangeTrigger(20L)));
+        ruleIndex.putAll(List.of(first, second));
+        var untouched = ruleIndex.getEntries(20L);
+
+        // When
+        var replacement = ruleCompiler.compile(RuleTestUtils.createTestRule(1L,
+                RuleTestUtils.createTestAttributeChangeTrigger(30L)));
+        ruleIndex.put(replacement);
+
+        // Then
+        assertEquals(0, ruleIndex.getEntries(10L).length);
+        assertSame(replacement, ruleIndex.getEntries(30L)[0].rule());
+        assertSame(untouched, ruleIndex.getEntries(20L));
+        assertSame(replacement, ruleIndex.getRule(1L));
+        assertEquals(2, ruleIndex.size());
+    }
+
+    @Test
+    void testRemove_leavesEntriesAlreadyReadIntact() {
+        // Given
+        var first = ruleCompiler.compile(RuleTestUtils.createTestRule(1L,
+                RuleTestUtils.createTestAttributeChangeTrigger(10L)));
+        var second = ruleCompiler.compile(RuleTestUtils.createTestRule(2L,
+                RuleTestUtils.createTestAttributeChangeTrigger(10L)));
+        ruleIndex.putAll(List.of(first, second));
+        var read = ruleIndex.getEntries(10L);
+
+        // When
+        ruleIndex.remove(1L);
+
+        // Then
+        assertEquals(2, read.length);
+        assertEquals(1, ruleIndex.getEntries(10L).length);
+        assertSame(second, ruleIndex.getEntries(10L)[0].rule());
+        assertNull(ruleIndex.getRule(1L));
+    }
+}
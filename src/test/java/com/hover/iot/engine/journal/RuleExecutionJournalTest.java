@@ -0,0 +1,114 @@
+package com.hover.iot.engine.journal;
+
+import com.hover.iot.engine.model.CausalityChain;
+import com.hover.iot.engine.model.RuleExecution;
+import com.hover.iot.enumeration.TriggerType;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RuleExecutionJournalTest {
+
+    @Test
+    void testClose_writesQueuedExecutionsInBatches() {
+        // Given
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        List<Integer> batches = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            batches.add(((Collection<?>) invocation.getArgument(1)).size());
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        var journal = new RuleExecutionJournal(jdbcTemplate, 10, 4);
+
+        // When
+        for (long id = 1; id <= 10; id++) {
+            journal.onRuleExecuted(createTestExecution(id));
+        }
+
+        journal.close();
+
+        // Then
+        assertEquals(List.of(4, 4, 2), batches);
+        assertEquals(10, journal.getWrittenCount());
+        assertEquals(0, journal.getPendingCount());
+    }
+
+    @Test
+    void testOnRuleExecuted_dropsWhenQueueIsFull() {
+        // Given
+        var journal = new RuleExecutionJournal(mock(JdbcTemplate.class), 2, 1);
+
+        // When
+        for (long id = 1; id <= 5; id++) {
+            journal.onRuleExecuted(createTestExecution(id));
+        }
+
+        // Then
+        assertEquals(2, journal.getPendingCount());
+        assertEquals(3, journal.getDroppedCount());
+    }
+
+    @Test
+    void testStart_writesExecutionsOffTheCallingThread() throws Exception {
+        // Given
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        var threads = new ArrayList<String>();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        var journal = new RuleExecutionJournal(jdbcTemplate, 10, 10);
+        journal.start();
+
+        // When
+        journal.onRuleExecuted(createTestExecution(1L));
+
+        // Then
+        verify(jdbcTemplate, timeout(5000)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        journal.close();
+        assertEquals(List.of("rule-execution-journal"), threads);
+    }
+
+    @Test
+    void testClose_dropsBatchThatFailsToWrite() {
+        // Given
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("Database is down"));
+        var journal = new RuleExecutionJournal(jdbcTemplate, 10, 10);
+        journal.onRuleExecuted(createTestExecution(1L));
+
+        // When
+        journal.close();
+
+        // Then
+        assertEquals(0, journal.getWrittenCount());
+        assertEquals(1, journal.getDroppedCount());
+    }
+
+    /**
+     * Creates a test execution of a rule.
+     *
+     * @param ruleId The id of the rule.
+     * @return The created test execution.
+     */
+    private static RuleExecution createTestExecution(Long ruleId) {
+        return new RuleExecution(ruleId, "Rule " + ruleId, 1L, CausalityChain.ROOT, 0, TriggerType.ATTRIBUTE_CHANGE,
+                Instant.EPOCH, 1, 0, 0, null, 1000);
+    }
+}
@@ -0,0 +1,110 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.enumeration.ThresholdDirection;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttributeThresholdTriggerTest {
+
+    private final Device device = DeviceTestUtils.createTestDevice(1L);
+
+    @Test
+    void testTest_noisySamplesFireOncePerCrossing() {
+        // Given
+        var trigger = new AttributeThresholdTrigger(1L, "temperature", 25.0, ThresholdDirection.RISING, 1.0, 0);
+
+        // When
+        var fired = countFirings(trigger, 20, 25.1, 24.8, 25.3, 24.5, 25.0, 23.9, 25.2);
+
+        // Then
+        assertEquals(2, fired);
+    }
+
+    @Test
+    void testTest_fallingDirection() {
+        // Given
+        var trigger = new AttributeThresholdTrigger(1L, "temperature", 18.0, ThresholdDirection.FALLING, 0.5, 0);
+
+        // When
+        var fired = countFirings(trigger, 20, 17.9, 30, 18.0, 18.4, 17.0);
+
+        // Then
+        assertEquals(2, fired);
+    }
+
+    @Test
+    void testTest_bothDirections() {
+        // Given
+        var trigger = new AttributeThresholdTrigger(1L, "temperature", 25.0, ThresholdDirection.BOTH, 2.0, 0);
+
+        // When
+        var fired = countFirings(trigger, 20, 25.5, 26, 25.5, 24.5, 24);
+
+        // Then
+        assertEquals(2, fired);
+    }
+
+    @Test
+    void testTest_firstSampleDoesNotFire() {
+        // Given
+        var trigger = new AttributeThresholdTrigger(1L, "temperature", 25.0, ThresholdDirection.RISING, 0, 0);
+
+        // When
+        var fired = countFirings(trigger, 30);
+
+        // Then
+        assertEquals(0, fired);
+    }
+
+    @Test
+    void testTest_cooldownSuppressesCrossings() {
+        // Given
+        var trigger = new AttributeThresholdTrigger(1L, "temperature", 25.0, ThresholdDirection.RISING, 0, 1000);
+
+        // When and Then
+        assertFalse(test(trigger, 20, 0));
+        assertTrue(test(trigger, 26, 100));
+        assertFalse(test(trigger, 20, 200));
+        assertFalse(test(trigger, 26, 300));
+        assertFalse(test(trigger, 20, 1200));
+        assertTrue(test(trigger, 26, 1300));
+    }
+
+    @Test
+    void testTest_ignoresNonNumericValues() {
+        // Given
+        var trigger = new AttributeThresholdTrigger(1L, "temperature", 25.0, ThresholdDirection.RISING, 0, 0);
+        test(trigger, 20, 0);
+
+        // When
+        device.setAttributes(List.of(new Attribute("temperature", "hot", AttributeType.STRING)));
+
+        // Then
+        assertFalse(trigger.test(device, 0));
+        assertTrue(test(trigger, 30, 0));
+    }
+
+    private int countFirings(AttributeThresholdTrigger trigger, double @NotNull ... values) {
+        var fired = 0;
+
+        for (var value : values) {
+            if (test(trigger, value, 0))
+                fired++;
+        }
+
+        return fired;
+    }
+
+    private boolean test(@NotNull AttributeThresholdTrigger trigger, double value, long now) {
+        device.setAttributes(List.of(new Attribute("temperature", (float) value, AttributeType.FLOAT)));
+        return trigger.test(device, now);
+    }
+}
@@ -0,0 +1,106 @@
+package com.hover.iot.engine.model;
+
+import com.hover.iot.enumeration.AggregateFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowTest {
+
+    @Test
+    void testAggregate_averageEvictsExpiredSamples() {
+        // Given
+        var window = new SlidingWindow(10_000, 16);
+
+        // When
+        window.add(0, 10);
+        window.add(5_000, 20);
+        window.add(12_000, 30);
+
+        // Then
+        assertEquals(25.0, window.aggregate(AggregateFunction.AVERAGE, 12_000));
+        assertEquals(30.0, window.aggregate(AggregateFunction.AVERAGE, 15_700));
+        assertTrue(Double.isNaN(window.aggregate(AggregateFunction.AVERAGE, 30_000)));
+    }
+
+    @Test
+    void testAggregate_rateOfChangePerMinute() {
+        // Given
+        var window = new SlidingWindow(600_000, 16);
+
+        // When
+        window.add(0, 100);
+
+        // Then
+        assertTrue(Double.isNaN(window.aggregate(AggregateFunction.RATE, 0)));
+
+        window.add(30_000, 110);
+        window.add(120_000, 160);
+
+        assertEquals(30.0, window.aggregate(AggregateFunction.RATE, 120_000));
+    }
+
+    @Test
+    void testAdd_keepsEverySampleOfTheWindow() {
+        // Given
+        var window = new SlidingWindow(100_000, 10);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            window.add(i, i);
+        }
+
+        // Then
+        assertEquals(0.0, window.aggregate(AggregateFunction.MIN, 99_999));
+        assertEquals(99_999.0, window.aggregate(AggregateFunction.MAX, 99_999));
+        assertEquals(49_999.5, window.aggregate(AggregateFunction.AVERAGE, 99_999));
+    }
+
+    @Test
+    void testAdd_keepsRepeatedSamples() {
+        // Given
+        var window = new SlidingWindow(10_000, 10);
+
+        // When
+        window.add(1_000, 10);
+        window.add(1_000, 10);
+        window.add(2_000, 20);
+
+        // Then
+        assertEquals(40.0 / 3, window.aggregate(AggregateFunction.AVERAGE, 2_000));
+    }
+
+    @Test
+    void testAggregate_matchesBruteForce() {
+        // Given
+        var random = new Random(42);
+        var window = new SlidingWindow(5_000, 10);
+        var samples = new ArrayDeque<double[]>();
+        var time = 0L;
+
+        for (int i = 0; i < 10_000; i++) {
+            // When
+            time += 1 + random.nextInt(500);
+            var value = random.nextInt(100) - 50.0;
+
+            window.add(time, value);
+            samples.addLast(new double[]{time, value});
+
+            // A bucket of 500 ms leaves the window once its end falls before the start of the window.
+            while (Math.floorDiv((long) samples.peekFirst()[0], 500) < Math.floorDiv(time - 5_000, 500))
+                samples.removeFirst();
+
+            // Then
+            var min = samples.stream().mapToDouble(sample -> sample[1]).min().orElseThrow();
+            var max = samples.stream().mapToDouble(sample -> sample[1]).max().orElseThrow();
+            var average = samples.stream().mapToDouble(sample -> sample[1]).average().orElseThrow();
+
+            assertEquals(min, window.aggregate(AggregateFunction.MIN, time));
+            assertEquals(max, window.aggregate(AggregateFunction.MAX, time));
+            assertEquals(average, window.aggregate(AggregateFunction.AVERAGE, time), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.hover.iot.engine.scheduler;
+
+import com.hover.iot.test.utils.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TriggerSchedulerTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private MutableClock clock;
+
+    private TriggerScheduler triggerScheduler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START, ZoneOffset.UTC);
+        triggerScheduler = new TriggerScheduler(clock, Runnable::run);
+    }
+
+    @Test
+    void testAdvance_runsExpiredTasksInOrder() {
+        // Given
+        var fired = new ArrayList<Integer>();
+
+        triggerScheduler.schedule(START.plusSeconds(30), () -> fired.add(2));
+        triggerScheduler.schedule(START.plusSeconds(5), () -> fired.add(1));
+        triggerScheduler.schedule(START.plus(Duration.ofDays(3)), () -> fired.add(3));
+
+        // When
+        clock.advance(Duration.ofMinutes(1));
+        triggerScheduler.advance();
+
+        // Then
+        assertEquals(List.of(1, 2), fired);
+        assertEquals(1, triggerScheduler.size());
+
+        clock.advance(Duration.ofDays(3));
+        triggerScheduler.advance();
+
+        assertEquals(List.of(1, 2, 3), fired);
+        assertEquals(0, triggerScheduler.size());
+    }
+
+    @Test
+    void testAdvance_doesNotRunTasksEarly() {
+        // Given
+        var fired = new AtomicInteger();
+        var instant = START.plus(Duration.ofHours(20));
+
+        triggerScheduler.schedule(instant, fired::incrementAndGet);
+
+        // When
+        clock.setInstant(instant.minusMillis(TriggerScheduler.DEFAULT_TICK_MS));
+        triggerScheduler.advance();
+
+        // Then
+        assertEquals(0, fired.get());
+
+        clock.setInstant(instant);
+        triggerScheduler.advance();
+
+        assertEquals(1, fired.get());
+    }
+
+    @Test
+    void testSchedule_pastInstantRunsImmediately() {
+        // Given
+        var fired = new AtomicInteger();
+
+        // When
+        triggerScheduler.schedule(START.minusSeconds(10), fired::incrementAndGet);
+
+        // Then
+        assertEquals(1, fired.get());
+    }
+
+    @Test
+    void testCancel_preventsTask() {
+        // Given
+        var fired = new AtomicInteger();
+        var timeout = triggerScheduler.schedule(START.plusSeconds(10), fired::incrementAndGet);
+
+        // When
+        assertTrue(timeout.cancel());
+        clock.advance(Duration.ofMinutes(1));
+        triggerScheduler.advance();
+
+        // Then
+        assertEquals(0, fired.get());
+        assertFalse(timeout.cancel());
+        assertEquals(0, triggerScheduler.size());
+    }
+
+    @Test
+    void testAdvance_manyDailyTimers() {
+        // Given
+        var fired = new AtomicInteger();
+        var count = 50_000;
+
+        for (int i = 0; i < count; i++) {
+            triggerScheduler.schedule(START.plusSeconds(i % 86_400), fired::incrementAndGet);
+        }
+
+        // When
+        clock.advance(Duration.ofDays(1));
+        triggerScheduler.advance();
+
+        // Then
+        assertEquals(count, fired.get());
+        assertEquals(0, triggerScheduler.size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.hover.iot.engine.simulation;
+
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.enumeration.TriggerType;
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static com.hover.iot.constants.RuleParameterConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleSimulatorTest {
+
+    @Test
+    void testRun_reportsThresholdCrossings() throws Exception {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.ATTRIBUTE_THRESHOLD, Map.of(
+                RULE_PARAMETER_ENTITY_ID_KEY, 1L, RULE_PARAMETER_ATTRIBUTE_KEY, "temperature",
+                RULE_PARAMETER_ATTRIBUTE_THRESHOLD_KEY, 25.0, RULE_PARAMETER_THRESHOLD_DIRECTION_KEY, "RISING"));
+        var simulator = new RuleSimulator(List.of(RuleTestUtils.createTestRule(1L, trigger)), ZoneOffset.UTC);
+        var changes = RecordedChangeReader.readAll(new StringReader("""
+                # timestamp,device,attribute,type,value
+                2026-01-01T08:00:00Z,1,temperature,FLOAT,21.0
+                2026-01-01T09:00:00Z,1,temperature,FLOAT,26.0
+                2026-01-01T10:00:00Z,1,temperature,FLOAT,27.0
+                2026-01-01T11:00:00Z,1,temperature,FLOAT,20.0
+                2026-01-01T12:00:00Z,1,temperature,FLOAT,25.5
+                """));
+
+        // When
+        var result = simulator.run(changes);
+
+        // Then
+        assertEquals(5, result.changesReplayed());
+        assertEquals(1, result.rulesRegistered());
+        assertEquals(List.of(Instant.parse("2026-01-01T09:00:00Z"), Instant.parse("2026-01-01T12:00:00Z")),
+                result.firings().stream().map(firing -> firing.firedAt()).toList());
+        assertEquals(Map.of(1L, 2L), result.getFiringCounts());
+    }
+
+    @Test
+    void testRun_firesScheduledTriggersAtSimulatedTime() {
+        // Given
+        var trigger = RuleTestUtils.createTestTrigger(TriggerType.TIME_OF_DAY,
+                Map.of(RULE_PARAMETER_TIME_OF_DAY_KEY, "07:00"));
+        var simulator = new RuleSimulator(List.of(RuleTestUtils.createTestRule(1L, trigger)), ZoneOffset.UTC);
+
+        // When
+        var result = simulator.run(List.of(
+                new RecordedChange(Instant.parse("2026-01-01T06:00:00Z"), 1L, "power", AttributeType.BOOLEAN, true),
+                new RecordedChange(Instant.parse("2026-01-02T09:00:00Z"), 1L, "power", AttributeType.BOOLEAN, false)));
+
+        // Then
+        assertEquals(2, result.firings().size());
+
+        for (var firing : result.firings()) {
+            var scheduled = firing.firedAt().atZone(ZoneOffset.UTC).toLocalDate().atTime(7, 0)
+                    .toInstant(ZoneOffset.UTC);
+            assertTrue(Duration.between(firing.firedAt(), scheduled).abs().toMillis() <= 100);
+        }
+    }
+
+    @Test
+    void testRun_cascadesAttributeWrites() {
+        // Given
+        var writer = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        writer.setActions(List.of(RuleTestUtils.createTestAttributeWriteAction(2L,
+                new Attribute("power", true, AttributeType.BOOLEAN))));
+        var follower = RuleTestUtils.createTestRule(2L, RuleTestUtils.createTestAttributeChangeTrigger(2L));
+        var simulator = new RuleSimulator(List.of(writer, follower), ZoneOffset.UTC);
+
+        // When
+        var result = simulator.run(List.of(
+                new RecordedChange(Instant.parse("2026-01-01T06:00:00Z"), 1L, "motion", AttributeType.BOOLEAN, true)));
+
+        // Then
+        assertEquals(2, result.firings().size());
+        assertEquals(2L, result.firings().get(1).ruleId());
+        assertEquals(1, result.firings().get(1).causalityChain().getDepth());
+        assertEquals(2, result.actionsPerformed());
+    }
+
+    @Test
+    void testReadAll_rejectsMalformedLine() {
+        // Given
+        var csv = "2026-01-01T08:00:00Z,1,temperature,FLOAT,21.0\n2026-01-01T09:00:00Z,1,temperature,FLOAT\n";
+
+        // When
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> RecordedChangeReader.readAll(new StringReader(csv)));
+
+        // Then
+        assertTrue(exception.getMessage().startsWith("Line 2"));
+    }
+
+    @Test
+    void testReadAll_keepsCommasInStringValues() throws Exception {
+        // When
+        var changes = RecordedChangeReader.readAll(new StringReader(
+                "2026-01-01T08:00:00Z,3,status,STRING,idle, door open\n"));
+
+        // Then
+        assertEquals(1, changes.size());
+        assertEquals("idle, door open", changes.get(0).value());
+        assertEquals(3L, changes.get(0).deviceId());
+    }
+}
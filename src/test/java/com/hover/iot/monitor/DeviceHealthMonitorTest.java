@@ -0,0 +1,175 @@
+package com.hover.iot.monitor;
+
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.DeviceStatus;
+import com.hover.iot.event.EntityChangeEvent;
+import com.hover.iot.platform.IPlatformHandler;
+import com.hover.iot.repository.DeviceRepository;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import com.hover.iot.test.utils.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DeviceHealthMonitorTest {
+
+    private static final long MIN_INTERVAL_MS = 1_000;
+
+    private static final long MAX_INTERVAL_MS = 8_000;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T08:00:00Z"), ZoneOffset.UTC);
+
+    private final AtomicBoolean reachable = new AtomicBoolean(true);
+
+    private DeviceRepository deviceRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private IPlatformHandler platform;
+
+    private Device device;
+
+    private DeviceHealthMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        device = DeviceTestUtils.createTestDevice(1L);
+        deviceRepository = mock(DeviceRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        platform = mock(IPlatformHandler.class);
+        when(platform.getName()).thenReturn("Hover");
+        when(platform.isDeviceReachableAsync(any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(reachable.get()));
+        when(deviceRepository.findAllWithAttributes()).thenReturn(List.of(device));
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+
+        monitor = new DeviceHealthMonitor(deviceRepository, eventPublisher, TransactionOperations.withoutTransaction(),
+                List.of(platform), clock, MIN_INTERVAL_MS, MAX_INTERVAL_MS, 0, 2, 16, 100, 60_000);
+    }
+
+    @Test
+    void testTick_backsOffStableDevice() {
+        // Given
+        monitor.tick();
+        assertEquals(1, monitor.getDeviceCount());
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            advanceAndTick(monitor.getIntervalMs(1L));
+        }
+
+        // Then
+        assertEquals(MAX_INTERVAL_MS, monitor.getIntervalMs(1L));
+        verify(platform, times(6)).isDeviceReachableAsync(device);
+        verify(deviceRepository, never()).updateStatus(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testTick_marksDeviceOfflineAfterConsecutiveFailures() {
+        // Given
+        monitor.tick();
+        advanceAndTick(MIN_INTERVAL_MS);
+        advanceAndTick(2 * MIN_INTERVAL_MS);
+        reachable.set(false);
+
+        // When
+        advanceAndTick(4 * MIN_INTERVAL_MS);
+
+        // Then
+        assertEquals(MIN_INTERVAL_MS, monitor.getIntervalMs(1L));
+        verify(deviceRepository, never()).updateStatus(any(), any());
+
+        // When
+        advanceAndTick(MIN_INTERVAL_MS);
+        advanceAndTick(MIN_INTERVAL_MS);
+
+        // Then
+        verify(deviceRepository, times(1)).updateStatus(1L, DeviceStatus.OFFLINE);
+        verify(eventPublisher, times(1)).publishEvent(any(EntityChangeEvent.class));
+    }
+
+    @Test
+    void testTick_backsOffDeviceThatStaysUnreachable() {
+        // Given
+        reachable.set(false);
+        monitor.tick();
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            advanceAndTick(monitor.getIntervalMs(1L));
+        }
+
+        // Then
+        assertEquals(MAX_INTERVAL_MS, monitor.getIntervalMs(1L));
+        verify(platform, times(6)).isDeviceReachableAsync(device);
+        verify(deviceRepository, times(1)).updateStatus(1L, DeviceStatus.OFFLINE);
+        verify(eventPublisher, times(1)).publishEvent(any(EntityChangeEvent.class));
+    }
+
+    @Test
+    void testTick_marksDeviceOnlineWhenItRecovers() {
+        // Given
+        device.setStatus(DeviceStatus.OFFLINE);
+        monitor.tick();
+
+        // When
+        advanceAndTick(MIN_INTERVAL_MS);
+
+        // Then
+        verify(deviceRepository).updateStatus(1L, DeviceStatus.ONLINE);
+        verify(eventPublisher).publishEvent(any(EntityChangeEvent.class));
+        assertEquals(MIN_INTERVAL_MS, monitor.getIntervalMs(1L));
+    }
+
+    @Test
+    void testTick_probesDevicesConcurrently() {
+        // Given
+        var devices = new ArrayList<Device>();
+
+        for (long id = 1; id <= 50; id++) {
+            devices.add(DeviceTestUtils.createTestDevice(id));
+        }
+
+        var probes = new ArrayList<CompletableFuture<Boolean>>();
+        when(deviceRepository.findAllWithAttributes()).thenReturn(devices);
+        when(platform.isDeviceReachableAsync(any())).thenAnswer(invocation -> {
+            var probe = new CompletableFuture<Boolean>();
+            probes.add(probe);
+            return probe;
+        });
+        monitor.tick();
+
+        // When
+        advanceAndTick(MIN_INTERVAL_MS);
+        advanceAndTick(MIN_INTERVAL_MS);
+
+        // Then
+        assertEquals(16, probes.size());
+
+        // When
+        List.copyOf(probes).forEach(probe -> probe.complete(true));
+
+        // Then
+        assertEquals(32, probes.size());
+    }
+
+    private void advanceAndTick(long ms) {
+        clock.advance(Duration.ofMillis(ms));
+        monitor.tick();
+    }
+}
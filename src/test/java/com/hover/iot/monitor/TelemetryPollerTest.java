@@ -0,0 +1,172 @@
+package com.hover.iot.monitor;
+
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.enumeration.DeviceStatus;
+import com.hover.iot.enumeration.DeviceType;
+import com.hover.iot.event.AttributeEvent;
+import com.hover.iot.platform.IPlatformHandler;
+import com.hover.iot.repository.DeviceRepository;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import com.hover.iot.test.utils.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class TelemetryPollerTest {
+
+    private static final long DEFAULT_INTERVAL_MS = 10_000;
+
+    private static final long SENSOR_INTERVAL_MS = 1_000;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T08:00:00Z"), ZoneOffset.UTC);
+
+    private final AtomicReference<Object> polledValue = new AtomicReference<>(false);
+
+    private DeviceRepository deviceRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private IPlatformHandler platform;
+
+    private Device light;
+
+    private TelemetryPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        light = createDevice(1L, DeviceType.LIGHT);
+        deviceRepository = mock(DeviceRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        platform = mock(IPlatformHandler.class);
+        when(platform.getName()).thenReturn("Hover");
+        when(platform.readAttributeAsync(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(
+                new Attribute("state", polledValue.get(), AttributeType.BOOLEAN)));
+        when(deviceRepository.findAllWithAttributes()).thenReturn(List.of(light));
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(light));
+
+        poller = new TelemetryPoller(deviceRepository, eventPublisher, TransactionOperations.withoutTransaction(),
+                List.of(platform), clock, DEFAULT_INTERVAL_MS, Map.of(DeviceType.SENSOR, SENSOR_INTERVAL_MS), 0, 16,
+                100, 600_000);
+    }
+
+    @Test
+    void testTick_publishesOnlyChanges() {
+        // Given
+        poller.tick();
+
+        // When
+        advanceAndTick(DEFAULT_INTERVAL_MS);
+        advanceAndTick(DEFAULT_INTERVAL_MS);
+
+        // Then
+        assertEquals(2, poller.getPollCount());
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(deviceRepository, never()).save(any());
+
+        // When
+        polledValue.set(true);
+        advanceAndTick(DEFAULT_INTERVAL_MS);
+        advanceAndTick(DEFAULT_INTERVAL_MS);
+        advanceAndTick(DEFAULT_INTERVAL_MS);
+
+        // Then
+        assertEquals(5, poller.getPollCount());
+        assertEquals(1, poller.getChangeCount());
+        assertEquals(Boolean.TRUE, light.getAttributes().get(0).getValue());
+        verify(deviceRepository, times(1)).save(light);
+        verify(eventPublisher, times(1)).publishEvent(any(AttributeEvent.class));
+    }
+
+    @Test
+    void testTick_skipsChangeAlreadySaved() {
+        // Given
+        poller.tick();
+        advanceAndTick(DEFAULT_INTERVAL_MS);
+        light.getAttributes().get(0).setValue(true);
+        polledValue.set(true);
+
+        // When
+        advanceAndTick(DEFAULT_INTERVAL_MS);
+
+        // Then
+        assertEquals(0, poller.getChangeCount());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testTick_pollsByDeviceType() {
+        // Given
+        var sensor = createDevice(2L, DeviceType.SENSOR);
+        var polled = new ArrayList<Long>();
+        when(deviceRepository.findAllWithAttributes()).thenReturn(List.of(light, sensor));
+        when(platform.readAttributeAsync(any())).thenAnswer(invocation -> {
+            polled.add(((Device) invocation.getArgument(0)).getId());
+            return CompletableFuture.completedFuture(new Attribute("state", false, AttributeType.BOOLEAN));
+        });
+        poller.tick();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            advanceAndTick(SENSOR_INTERVAL_MS);
+        }
+
+        // Then
+        var lightPolls = polled.stream().filter(id -> id == 1L).count();
+        var sensorPolls = polled.stream().filter(id -> id == 2L).count();
+        assertTrue(lightPolls >= 1 && lightPolls <= 2, "light polled " + lightPolls + " times");
+        assertTrue(sensorPolls >= 19, "sensor polled " + sensorPolls + " times");
+    }
+
+    @Test
+    void testTick_skipsOfflineDevices() {
+        // Given
+        light.setStatus(DeviceStatus.OFFLINE);
+        poller.tick();
+
+        // When
+        advanceAndTick(DEFAULT_INTERVAL_MS);
+
+        // Then
+        assertEquals(1, poller.getDeviceCount());
+        verify(platform, never()).readAttributeAsync(any());
+    }
+
+    @Test
+    void testParseTypeIntervals() {
+        // When and Then
+        assertEquals(Map.of(DeviceType.SENSOR, 5000L, DeviceType.LIGHT, 30000L),
+                TelemetryPoller.parseTypeIntervals("SENSOR=5000, LIGHT=30000"));
+        assertTrue(TelemetryPoller.parseTypeIntervals("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> TelemetryPoller.parseTypeIntervals("SENSOR"));
+        assertThrows(IllegalArgumentException.class, () -> TelemetryPoller.parseTypeIntervals("ROBOT=5"));
+    }
+
+    private void advanceAndTick(long ms) {
+        clock.advance(Duration.ofMillis(ms));
+        poller.tick();
+    }
+
+    private static Device createDevice(Long id, DeviceType type) {
+        var device = DeviceTestUtils.createTestDevice(id);
+        device.setType(type);
+        device.setAttributes(List.of(new Attribute("state", false, AttributeType.BOOLEAN)));
+        return device;
+    }
+}
@@ -0,0 +1,89 @@
+package com.hover.iot.platform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimiterTest {
+
+    @Test
+    void testSubmit_queuesCallsBeyondLimit() {
+        // Given
+        var limiter = new ConcurrencyLimiter(2);
+        var calls = new ArrayList<CompletableFuture<Integer>>();
+
+        // When
+        var results = new ArrayList<CompletableFuture<Integer>>();
+
+        for (int i = 0; i < 5; i++) {
+            results.add(limiter.submit(() -> {
+                var call = new CompletableFuture<Integer>();
+                calls.add(call);
+                return call;
+            }));
+        }
+
+        // Then
+        assertEquals(2, calls.size());
+        assertEquals(2, limiter.getActiveCount());
+        assertEquals(3, limiter.getWaitingCount());
+
+        calls.get(0).complete(0);
+        assertEquals(3, calls.size());
+        assertEquals(0, results.get(0).join());
+
+        calls.get(1).completeExceptionally(new IllegalStateException());
+        calls.get(2).complete(2);
+        assertEquals(5, calls.size());
+        assertTrue(results.get(1).isCompletedExceptionally());
+
+        calls.get(3).complete(3);
+        calls.get(4).complete(4);
+        assertEquals(0, limiter.getActiveCount());
+        assertEquals(0, limiter.getWaitingCount());
+        assertEquals(4, results.get(4).join());
+    }
+
+    @Test
+    void testSubmit_callThatThrowsReleasesSlot() {
+        // Given
+        var limiter = new ConcurrencyLimiter(1);
+
+        // When
+        var result = limiter.<Integer>submit(() -> {
+            throw new IllegalStateException();
+        });
+
+        // Then
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, limiter.getActiveCount());
+        assertEquals(1, limiter.submit(() -> CompletableFuture.completedFuture(1)).join());
+    }
+
+    @Test
+    void testSubmit_drainsSynchronousCallsWithoutRecursing() {
+        // Given
+        var limiter = new ConcurrencyLimiter(1);
+        var first = new CompletableFuture<Integer>();
+        limiter.submit(() -> first);
+
+        var results = new ArrayList<CompletableFuture<Integer>>();
+
+        for (int i = 0; i < 10_000; i++) {
+            var value = i;
+            results.add(limiter.submit(() -> CompletableFuture.completedFuture(value)));
+        }
+
+        // When
+        first.complete(-1);
+
+        // Then
+        assertTrue(results.stream().allMatch(CompletableFuture::isDone));
+        assertEquals(9_999, results.get(9_999).join());
+        assertEquals(0, limiter.getActiveCount());
+        assertEquals(0, limiter.getWaitingCount());
+    }
+}
@@ -0,0 +1,203 @@
+package com.hover.iot.platform.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.exception.PlatformApiException;
+import com.hover.iot.mapper.AttributeDTOMapper;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoverHandlerTest {
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    private final AtomicReference<String> received = new AtomicReference<>();
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+
+    private volatile long delayMs;
+
+    private OkHttpClient httpClient;
+
+    private HoverHandler hoverHandler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            received.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+
+        // Devices are addressed by host on port 80, so redirect every call to the test server.
+        var port = server.getAddress().getPort();
+        httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                        .url(chain.request().url().newBuilder().host("127.0.0.1").port(port).build())
+                        .build()))
+                .eventListener(new EventListener() {
+                    @Override
+                    public void canceled(@NotNull Call call) {
+                        cancelled.countDown();
+                    }
+                })
+                .build();
+
+        hoverHandler = new HoverHandler(httpClient, new ObjectMapper(), new AttributeDTOMapper(), 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testWriteAttributeAsync_completesWhenAccepted() throws Exception {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        // When
+        hoverHandler.writeAttributeAsync(device, new Attribute("state", true, AttributeType.BOOLEAN))
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(received.get().contains("\"state\""));
+    }
+
+    @Test
+    void testWriteAttributeAsync_failsWhenRejected() {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+        status.set(500);
+
+        // When
+        var future = hoverHandler.writeAttributeAsync(device, new Attribute("state", true, AttributeType.BOOLEAN));
+
+        // Then
+        var e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PlatformApiException.class, e.getCause());
+        assertThrows(PlatformApiException.class,
+                () -> hoverHandler.writeAttribute(device, new Attribute("state", true, AttributeType.BOOLEAN)));
+    }
+
+    @Test
+    void testWriteAttributeAsync_timesOut() {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+        delayMs = 5_000;
+
+        // When
+        var future = hoverHandler.writeAttributeAsync(device, new Attribute("state", true, AttributeType.BOOLEAN));
+
+        // Then
+        var e = assertThrows(ExecutionException.class, () -> future.get(4, TimeUnit.SECONDS));
+        assertInstanceOf(PlatformApiException.class, e.getCause());
+    }
+
+    @Test
+    void testWriteAttributeAsync_doesNotBlockCaller() throws Exception {
+        // Given
+        var devices = DeviceTestUtils.createTestDeviceList();
+        delayMs = 200;
+
+        // When
+        var futures = devices.stream()
+                .map(device -> hoverHandler.writeAttributeAsync(device,
+                        new Attribute("state", true, AttributeType.BOOLEAN)))
+                .toArray(CompletableFuture[]::new);
+
+        // Then
+        assertFalse(futures[0].isDone());
+        CompletableFuture.allOf(futures).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testWriteAttributesAsync_sendsSingleRequest() throws Exception {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+        var requests = new AtomicInteger();
+        server.createContext("/light", exchange -> {
+            requests.incrementAndGet();
+            received.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+
+        // When
+        hoverHandler.writeAttributesAsync(device, List.of(
+                new Attribute("state", true, AttributeType.BOOLEAN),
+                new Attribute("brightness", 80, AttributeType.INTEGER),
+                new Attribute("color", "#ffaa00", AttributeType.STRING))).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, requests.get());
+        assertTrue(received.get().startsWith("["));
+        assertTrue(received.get().contains("\"brightness\""));
+        assertTrue(received.get().contains("\"#ffaa00\""));
+    }
+
+    @Test
+    void testIsDeviceReachableAsync() throws Exception {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+
+        // When and Then
+        assertTrue(hoverHandler.isDeviceReachableAsync(device).get(5, TimeUnit.SECONDS));
+
+        status.set(503);
+        assertFalse(hoverHandler.isDeviceReachableAsync(device).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testIsDeviceReachableAsync_cancelCancelsCall() throws Exception {
+        // Given
+        var device = DeviceTestUtils.createTestDevice(1L);
+        var handler = new HoverHandler(httpClient, new ObjectMapper(), new AttributeDTOMapper(), 30_000);
+        delayMs = 30_000;
+
+        // When
+        handler.isDeviceReachableAsync(device).cancel(true);
+
+        // Then
+        assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,201 @@
+package com.hover.iot.service.implementation;
+
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.event.AttributeEvent;
+import com.hover.iot.exception.EntityNotFoundException;
+import com.hover.iot.exception.PlatformApiException;
+import com.hover.iot.platform.IPlatformHandler;
+import com.hover.iot.repository.DeviceGroupRepository;
+import com.hover.iot.repository.DeviceRepository;
+import com.hover.iot.repository.RoomRepository;
+import com.hover.iot.request.DeviceAttributeRequest;
+import com.hover.iot.test.utils.DeviceTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DeviceCommandServiceTest {
+
+    private static final long ROUND_TRIP_MS = 100;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private ScheduledExecutorService network;
+
+    private DeviceRepository deviceRepository;
+
+    private RoomRepository roomRepository;
+
+    private DeviceGroupRepository deviceGroupRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        network = Executors.newSingleThreadScheduledExecutor();
+        deviceRepository = mock(DeviceRepository.class);
+        roomRepository = mock(RoomRepository.class);
+        deviceGroupRepository = mock(DeviceGroupRepository.class);
+        when(roomRepository.existsById(1L)).thenReturn(true);
+        when(deviceGroupRepository.existsById(1L)).thenReturn(true);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        network.shutdownNow();
+    }
+
+    @Test
+    void testSetRoomAttributes_sendsConcurrently() {
+        // Given
+        var devices = createDevices(40);
+        var service = createService(64);
+        when(deviceRepository.findDevicesByRoomId(1L)).thenReturn(devices);
+        reloads(devices);
+
+        // When
+        var result = service.setRoomAttributes(1L, createRequest());
+
+        // Then
+        assertEquals(40, result.deviceCount());
+        assertEquals(40, result.succeededCount());
+        assertTrue(result.elapsedMs() < 20 * ROUND_TRIP_MS, "took " + result.elapsedMs() + " ms");
+        assertTrue(result.devices().stream().allMatch(device -> device.latencyMs() >= ROUND_TRIP_MS - 10));
+        assertTrue(devices.stream().allMatch(device -> Boolean.TRUE.equals(device.getAttributes().get(0).getValue())));
+        verify(deviceRepository).saveAll(devices);
+        verify(eventPublisher, times(40)).publishEvent(any(AttributeEvent.class));
+    }
+
+    @Test
+    void testSetGroupAttributes_boundsConcurrencyPerPlatform() {
+        // Given
+        var devices = createDevices(12);
+        var service = createService(4);
+        when(deviceRepository.findDevicesByGroupId(1L)).thenReturn(devices);
+        reloads(devices);
+
+        // When
+        var result = service.setGroupAttributes(1L, createRequest());
+
+        // Then
+        assertEquals(12, result.succeededCount());
+        assertEquals(4, maxInFlight.get());
+    }
+
+    @Test
+    void testSetRoomAttributes_aggregatesFailures() {
+        // Given
+        var devices = createDevices(3);
+        devices.get(1).setHost("unreachable");
+        devices.get(2).setAttributes(List.of(new Attribute("state", true, AttributeType.BOOLEAN)));
+        var service = createService(8);
+        when(deviceRepository.findDevicesByRoomId(1L)).thenReturn(devices);
+        reloads(devices);
+
+        // When
+        var result = service.setRoomAttributes(1L, createRequest());
+
+        // Then
+        assertEquals(2, result.succeededCount());
+        assertEquals(1, result.failedCount());
+        assertFalse(result.devices().get(1).succeeded());
+        assertNotNull(result.devices().get(1).error());
+        assertEquals(Boolean.FALSE, devices.get(1).getAttributes().get(0).getValue());
+        assertEquals(0, result.devices().get(2).attributesWritten());
+        verify(deviceRepository).saveAll(List.of(devices.get(0)));
+        verify(eventPublisher, times(1)).publishEvent(any(AttributeEvent.class));
+    }
+
+    @Test
+    void testSetRoomAttributes_unknownRoomThrows() {
+        // Given
+        var service = createService(8);
+
+        // When and Then
+        assertThrows(EntityNotFoundException.class, () -> service.setRoomAttributes(2L, createRequest()));
+
+        verify(deviceRepository, never()).findDevicesByRoomId(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testSetGroupAttributes_unknownGroupThrows() {
+        // Given
+        var service = createService(8);
+
+        // When and Then
+        assertThrows(EntityNotFoundException.class, () -> service.setGroupAttributes(2L, createRequest()));
+
+        verify(deviceRepository, never()).findDevicesByGroupId(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private DeviceCommandService createService(int maxConcurrency) {
+        IPlatformHandler platform = mock(IPlatformHandler.class);
+        when(platform.getName()).thenReturn("Hover");
+        when(platform.writeAttributesAsync(any(), any())).thenAnswer(invocation -> {
+            Device device = invocation.getArgument(0);
+            var future = new CompletableFuture<Void>();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            network.schedule(() -> {
+                inFlight.decrementAndGet();
+
+                if ("unreachable".equals(device.getHost()))
+                    future.completeExceptionally(new PlatformApiException("Device " + device.getId() + " timed out"));
+                else
+                    future.complete(null);
+            }, ROUND_TRIP_MS, TimeUnit.MILLISECONDS);
+
+            return future;
+        });
+
+        return new DeviceCommandService(eventPublisher, deviceRepository, roomRepository, deviceGroupRepository,
+                TransactionOperations.withoutTransaction(), List.of(platform), maxConcurrency);
+    }
+
+    private void reloads(List<Device> devices) {
+        when(deviceRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            var reloaded = new HashSet<Long>();
+            ids.forEach(reloaded::add);
+            return devices.stream().filter(device -> reloaded.contains(device.getId())).toList();
+        });
+    }
+
+    private static List<Device> createDevices(int count) {
+        var devices = new ArrayList<Device>();
+
+        for (long id = 1; id <= count; id++) {
+            var device = DeviceTestUtils.createTestDevice(id);
+            device.setAttributes(List.of(new Attribute("state", false, AttributeType.BOOLEAN)));
+            devices.add(device);
+        }
+
+        return devices;
+    }
+
+    private static DeviceAttributeRequest createRequest() {
+        return new DeviceAttributeRequest(List.of(new Attribute("state", true, AttributeType.BOOLEAN)));
+    }
+}
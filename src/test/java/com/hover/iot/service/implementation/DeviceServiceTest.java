@@ -2,50 +2,64 @@ package com.hover.iot.service.implementation;
 
 import com.hover.iot.dto.DeviceDTO;
 import com.hover.iot.dto.RoomDTO;
+import com.hover.iot.engine.dispatch.PartitionedExecutor;
+import com.hover.iot.entity.Attribute;
 import com.hover.iot.entity.Device;
+import com.hover.iot.enumeration.AttributeType;
+import com.hover.iot.event.AttributeActionEvent;
+import com.hover.iot.event.AttributeEvent;
 import com.hover.iot.event.EntityChangeEvent;
 import com.hover.iot.exception.EntityNotFoundException;
+import com.hover.iot.exception.PlatformApiException;
 import com.hover.iot.mapper.DeviceDTOMapper;
 import com.hover.iot.platform.IPlatformHandler;
 import com.hover.iot.repository.DeviceRepository;
+import com.hover.iot.request.DeviceAttributeRequest;
 import com.hover.iot.test.utils.DeviceTestUtils;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.MockitoJUnitRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-@RunWith(MockitoJUnitRunner.class)
 public class DeviceServiceTest {
 
-    @Mock
     private DeviceRepository deviceRepository;
 
-    @Mock
     private ApplicationEventPublisher eventPublisher;
 
-    @Mock
     private DeviceDTOMapper deviceDTOMapper;
 
-    @Mock
     private VaultService vaultService;
 
-    @InjectMocks
-    private DeviceService deviceService;
-
-    @Mock
     private RoomService roomService;
 
-    @Mock
-    private List<IPlatformHandler> platformApiList = new ArrayList<>();
+    private IPlatformHandler platformApi;
+
+    private PartitionedExecutor deviceWriteExecutor;
+
+    private DeviceService deviceService;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository = mock(DeviceRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        deviceDTOMapper = mock(DeviceDTOMapper.class);
+        vaultService = mock(VaultService.class);
+        roomService = mock(RoomService.class);
+        platformApi = mock(IPlatformHandler.class);
+        when(platformApi.getName()).thenReturn("Hover");
+        deviceWriteExecutor = mock(PartitionedExecutor.class);
+        deviceService = new DeviceService(eventPublisher, deviceRepository, roomService, deviceDTOMapper,
+                vaultService, List.of(platformApi), TransactionOperations.withoutTransaction(), deviceWriteExecutor);
+    }
 
     @Test
     public void testAdd_ValidRequest() {
@@ -206,4 +220,115 @@ public class DeviceServiceTest {
         // Then
         verify(deviceRepository, times(1)).findById(deviceId);
     }
+
+    @Test
+    void testSetAttribute_writesOnlyChangedAttributesInOneCall() {
+        // Given
+        var device = createTestLampDevice();
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(platformApi.writeAttributesAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        deviceService.setAttribute(1L, createTestLampRequest());
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Attribute>> captor = ArgumentCaptor.forClass(List.class);
+        verify(platformApi, times(1)).writeAttributesAsync(eq(device), captor.capture());
+        assertEquals(List.of("state", "color"), captor.getValue().stream().map(Attribute::getName).toList());
+    }
+
+    @Test
+    void testSetAttribute_sendsRequestedValues() {
+        // Given
+        var device = createTestLampDevice();
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(platformApi.writeAttributesAsync(any(), any())).thenAnswer(invocation -> {
+            // The stored attributes must still hold their old values while the device is written.
+            assertEquals(false, device.getAttributes().get(0).getValue());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // When
+        deviceService.setAttribute(1L, createTestLampRequest());
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Attribute>> captor = ArgumentCaptor.forClass(List.class);
+        verify(platformApi).writeAttributesAsync(eq(device), captor.capture());
+        assertEquals(List.of(true, "#000000"), captor.getValue().stream().map(Attribute::getValue).toList());
+    }
+
+    @Test
+    void testSetAttribute_platformFailureSavesNothing() {
+        // Given
+        var device = createTestLampDevice();
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(platformApi.writeAttributesAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new PlatformApiException("Device 1 timed out")));
+
+        // When and Then
+        assertThrows(PlatformApiException.class, () -> deviceService.setAttribute(1L, createTestLampRequest()));
+
+        assertEquals(false, device.getAttributes().get(0).getValue());
+        verify(deviceRepository, never()).save(any(Device.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testSetAttribute_publishesEventPerChangedAttribute() {
+        // Given
+        var device = createTestLampDevice();
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(platformApi.writeAttributesAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        deviceService.setAttribute(1L, createTestLampRequest());
+
+        // Then
+        var captor = ArgumentCaptor.forClass(AttributeEvent.class);
+        verify(deviceRepository, times(1)).save(device);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertEquals(List.of("state", "color"),
+                captor.getAllValues().stream().map(event -> event.getAttribute().getName()).toList());
+        assertEquals(List.of(true, 50, "#000000"),
+                device.getAttributes().stream().map(Attribute::getValue).toList());
+    }
+
+    @Test
+    void testOnAttributeActionEvent_writesOffPublishingThread() {
+        // Given
+        var device = createTestLampDevice();
+        var requested = new Attribute("state", true, AttributeType.BOOLEAN);
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(platformApi.writeAttributeAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        deviceService.onAttributeActionEvent(new AttributeActionEvent(this, 1L, requested));
+
+        // Then
+        var captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(deviceWriteExecutor).execute(eq(1L), captor.capture());
+        verifyNoInteractions(deviceRepository);
+        verify(platformApi, never()).writeAttributeAsync(any(), any());
+
+        captor.getValue().run();
+        verify(platformApi).writeAttributeAsync(device, requested);
+        verify(deviceRepository).save(device);
+        verify(eventPublisher).publishEvent(any(AttributeEvent.class));
+    }
+
+    private static Device createTestLampDevice() {
+        var device = DeviceTestUtils.createTestDevice(1L);
+        device.setAttributes(List.of(new Attribute("state", false, AttributeType.BOOLEAN),
+                new Attribute("brightness", 50, AttributeType.INTEGER),
+                new Attribute("color", "#ffffff", AttributeType.STRING)));
+        return device;
+    }
+
+    private static DeviceAttributeRequest createTestLampRequest() {
+        return new DeviceAttributeRequest(List.of(new Attribute("state", true, AttributeType.BOOLEAN),
+                new Attribute("brightness", 50, AttributeType.INTEGER),
+                new Attribute("color", "#000000", AttributeType.STRING)));
+    }
 }
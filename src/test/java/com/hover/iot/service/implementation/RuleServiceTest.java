@@ -0,0 +1,96 @@
+package com.hover.iot.service.implementation;
+
+import com.hover.iot.engine.IRuleEngine;
+import com.hover.iot.engine.dispatch.UpdateBatcher;
+import com.hover.iot.entity.Rule;
+import com.hover.iot.exception.RuleCompilationException;
+import com.hover.iot.exception.RuleNotFoundException;
+import com.hover.iot.repository.RuleRepository;
+import com.hover.iot.test.utils.RuleTestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RuleServiceTest {
+
+    private IRuleEngine ruleEngine;
+
+    private RuleRepository ruleRepository;
+
+    private RuleService ruleService;
+
+    @BeforeEach
+    void setUp() {
+        ruleEngine = mock(IRuleEngine.class);
+        ruleRepository = mock(RuleRepository.class);
+        ruleService = new RuleService(ruleEngine, ruleRepository, mock(UpdateBatcher.class));
+        when(ruleRepository.save(any(Rule.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testUpdate_registersNewVersion() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        var newRule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(2L));
+        newRule.setDebounceMs(500L);
+
+        // Mock
+        when(ruleRepository.findById(1L)).thenReturn(Optional.of(rule));
+
+        // When
+        var updated = ruleService.update(newRule, 1L);
+
+        // Then
+        assertSame(rule, updated);
+        assertEquals(newRule.getTriggers(), updated.getTriggers());
+        assertEquals(500L, updated.getDebounceMs());
+        verify(ruleEngine, times(1)).registerRule(rule);
+        verify(ruleEngine, never()).unregisterRule(any());
+    }
+
+    @Test
+    void testUpdate_disabledRuleIsUnregistered() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        var newRule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+        newRule.setEnabled(false);
+
+        // Mock
+        when(ruleRepository.findById(1L)).thenReturn(Optional.of(rule));
+
+        // When
+        ruleService.update(newRule, 1L);
+
+        // Then
+        verify(ruleEngine, times(1)).unregisterRule(rule);
+        verify(ruleEngine, never()).registerRule(any());
+    }
+
+    @Test
+    void testUpdate_malformedRuleIsRejected() {
+        // Given
+        var rule = RuleTestUtils.createTestRule(1L, RuleTestUtils.createTestAttributeChangeTrigger(1L));
+
+        // Mock
+        when(ruleRepository.findById(1L)).thenReturn(Optional.of(rule));
+        doThrow(new RuleCompilationException(1L, "Malformed")).when(ruleEngine).registerRule(rule);
+
+        // When and Then
+        assertThrows(RuleCompilationException.class, () -> ruleService.update(rule, 1L));
+    }
+
+    @Test
+    void testUpdate_nonExistingRule() {
+        // Mock
+        when(ruleRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When and Then
+        assertThrows(RuleNotFoundException.class, () -> ruleService.update(new Rule(), 1L));
+        verifyNoInteractions(ruleEngine);
+    }
+}
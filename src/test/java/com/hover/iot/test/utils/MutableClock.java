@@ -0,0 +1,68 @@
+package com.hover.iot.test.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A clock for tests whose current instant is moved explicitly.
+ */
+public class MutableClock extends Clock {
+
+    /**
+     * The current instant of the clock.
+     */
+    private volatile Instant instant;
+
+    /**
+     * The time zone of the clock.
+     */
+    private final ZoneId zone;
+
+    /**
+     * Initializes a new instance of {@link MutableClock} class.
+     *
+     * @param instant The initial instant of the clock.
+     * @param zone    The time zone of the clock.
+     */
+    public MutableClock(Instant instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration The duration to move the clock by.
+     */
+    public void advance(@NotNull Duration duration) {
+        instant = instant.plus(duration);
+    }
+
+    /**
+     * Sets the current instant of the clock.
+     *
+     * @param instant The instant to set.
+     */
+    public void setInstant(Instant instant) {
+        this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new MutableClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
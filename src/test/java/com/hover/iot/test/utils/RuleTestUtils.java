@@ -0,0 +1,103 @@
+package com.hover.iot.test.utils;
+
+import com.hover.iot.entity.Attribute;
+import com.hover.iot.entity.Rule;
+import com.hover.iot.entity.RuleAction;
+import com.hover.iot.entity.RuleTrigger;
+import com.hover.iot.enumeration.ActionType;
+import com.hover.iot.enumeration.TriggerType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hover.iot.constants.RuleParameterConstants.*;
+
+/**
+ * A utility class for creating test objects related to rules.
+ */
+public class RuleTestUtils {
+
+    /**
+     * Creates a test rule with a single trigger and a single notification action.
+     *
+     * @param id      The id of the rule.
+     * @param trigger The trigger of the rule.
+     * @return The created test rule.
+     */
+    public static @NotNull Rule createTestRule(Long id, RuleTrigger trigger) {
+        var rule = new Rule();
+
+        rule.setId(id);
+        rule.setName("Rule " + id);
+        rule.setEnabled(true);
+        rule.setTriggers(List.of(trigger));
+        rule.setActions(List.of(createTestNotificationAction(id, "Rule " + id + " fired")));
+
+        return rule;
+    }
+
+    /**
+     * Creates a test attribute change trigger.
+     *
+     * @param deviceId The id of the device the trigger references.
+     * @return The created test trigger.
+     */
+    public static @NotNull RuleTrigger createTestAttributeChangeTrigger(Long deviceId) {
+        return createTestTrigger(TriggerType.ATTRIBUTE_CHANGE, Map.of(RULE_PARAMETER_ENTITY_ID_KEY, deviceId));
+    }
+
+    /**
+     * Creates a test trigger.
+     *
+     * @param type       The type of the trigger.
+     * @param parameters The parameters of the trigger.
+     * @return The created test trigger.
+     */
+    public static @NotNull RuleTrigger createTestTrigger(TriggerType type, Map<String, Object> parameters) {
+        var trigger = new RuleTrigger();
+
+        trigger.setName(type.name());
+        trigger.setType(type);
+        trigger.setParameters(new HashMap<>(parameters));
+
+        return trigger;
+    }
+
+    /**
+     * Creates a test notification action.
+     *
+     * @param id      The id of the notification.
+     * @param message The notification message.
+     * @return The created test action.
+     */
+    public static @NotNull RuleAction createTestNotificationAction(Long id, String message) {
+        var action = new RuleAction();
+
+        action.setName("Notify " + id);
+        action.setType(ActionType.NOTIFICATION);
+        action.setParameters(new HashMap<>(Map.of(RULE_PARAMETER_ENTITY_ID_KEY, id,
+                RULE_PARAMETER_NOTIFICATION_MESSAGE_KEY, message)));
+
+        return action;
+    }
+
+    /**
+     * Creates a test attribute write action.
+     *
+     * @param deviceId  The id of the device to write the attribute of.
+     * @param attribute The attribute to write.
+     * @return The created test action.
+     */
+    public static @NotNull RuleAction createTestAttributeWriteAction(Long deviceId, Attribute attribute) {
+        var action = new RuleAction();
+
+        action.setName("Write " + deviceId);
+        action.setType(ActionType.ATTRIBUTE);
+        action.setParameters(new HashMap<>(Map.of(RULE_PARAMETER_ENTITY_ID_KEY, deviceId,
+                RULE_PARAMETER_ATTRIBUTES_KEY, attribute)));
+
+        return action;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hover.iot.util;
+
+import com.hover.iot.enumeration.SolarEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolarCalculatorTest {
+
+    @Test
+    void testCompute_londonMidsummer() {
+        // Given
+        var date = LocalDate.of(2026, 6, 21);
+
+        // When
+        var sunrise = SolarCalculator.compute(SolarEvent.SUNRISE, date, 51.5074, -0.1278);
+        var sunset = SolarCalculator.compute(SolarEvent.SUNSET, date, 51.5074, -0.1278);
+
+        // Then
+        assertWithinMinutes(Instant.parse("2026-06-21T03:43:00Z"), sunrise, 2);
+        assertWithinMinutes(Instant.parse("2026-06-21T20:21:00Z"), sunset, 2);
+    }
+
+    @Test
+    void testCompute_sunriseOnPreviousUtcDate() {
+        // Given
+        var date = LocalDate.of(2026, 3, 20);
+
+        // When
+        var sunrise = SolarCalculator.compute(SolarEvent.SUNRISE, date, -33.8688, 151.2093);
+
+        // Then
+        assertWithinMinutes(Instant.parse("2026-03-19T19:58:00Z"), sunrise, 2);
+    }
+
+    @Test
+    void testCompute_midnightSun() {
+        // Given
+        var date = LocalDate.of(2026, 6, 21);
+
+        // When
+        var sunset = SolarCalculator.compute(SolarEvent.SUNSET, date, 69.6492, 18.9553);
+
+        // Then
+        assertNull(sunset);
+    }
+
+    private static void assertWithinMinutes(Instant expected, Instant actual, long minutes) {
+        assertNotNull(actual);
+        assertTrue(Duration.between(expected, actual).abs().toMinutes() < minutes,
+                "expected " + expected + " but was " + actual);
+    }
+}